@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.benchmarks;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.Dependency;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.lmco.efoss.sbom.combiner.utils.BomMerger;
+import com.lmco.efoss.sbom.combiner.utils.SBomCombiner;
+
+/**
+ * (U) JMH benchmarks for combining Software Bill of Materials (SBom). The whole combine, the
+ * reading of a single SBom, and the component and dependency merge phases are measured on their
+ * own, over synthetic SBoms written by the SyntheticBomGenerator.
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CombinerBenchmark
+{
+	@Param({ "1000", "10000" })
+	private int componentCount;
+	
+	@Param({ "0.5" })
+	private double overlapRatio;
+	
+	@Param({ "4" })
+	private int fanOut;
+	
+	@Param({ "4" })
+	private int inputs;
+	
+	@Param({ "json", "xml" })
+	private String format;
+	
+	private File directory;
+	private List<String> fileNames;
+	private List<Bom> boms;
+	
+	/**
+	 * (U) This method writes out the synthetic SBoms, and reads them in for the merge benchmarks.
+	 * 
+	 * @throws Exception in the event the SBoms can not be written or read.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() throws Exception
+	{
+		directory = Files.createTempDirectory("sbom-benchmark").toFile();
+		SyntheticBomGenerator generator = new SyntheticBomGenerator(componentCount,
+				overlapRatio, fanOut);
+		fileNames = generator.writeFiles(directory, inputs, "xml".equals(format));
+		
+		boms = new ArrayList<>(inputs);
+		for (String fileName : fileNames)
+			boms.add(SBomCombiner.getBomFile(fileName));
+	}
+	
+	/**
+	 * (U) This method deletes the synthetic SBoms.
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown()
+	{
+		for (String fileName : fileNames)
+			new File(fileName).delete();
+		directory.delete();
+	}
+	
+	/**
+	 * (U) Benchmark of the whole combine, reading and merging every SBom.
+	 * 
+	 * @return Bom the combined SBom.
+	 * @throws Exception in the event the combine fails.
+	 */
+	@Benchmark
+	public Bom combineSBomsFromStrings() throws Exception
+	{
+		return SBomCombiner.combineSBomsFromStrings(fileNames);
+	}
+	
+	/**
+	 * (U) Benchmark of reading a single SBom.
+	 * 
+	 * @return Bom the SBom read in.
+	 * @throws Exception in the event the SBom can not be read.
+	 */
+	@Benchmark
+	public Bom getBomFile() throws Exception
+	{
+		return SBomCombiner.getBomFile(fileNames.get(0));
+	}
+	
+	/**
+	 * (U) Benchmark of merging the components of SBoms that have already been read in.
+	 * 
+	 * @return BomMerger holding the merged components.
+	 */
+	@Benchmark
+	public BomMerger mergeComponents()
+	{
+		BomMerger merger = new BomMerger();
+		for (Bom bom : boms)
+		{
+			for (Component component : bom.getComponents())
+				merger.component(component);
+		}
+		return merger;
+	}
+	
+	/**
+	 * (U) Benchmark of merging the dependencies of SBoms that have already been read in.
+	 * 
+	 * @return BomMerger holding the merged dependencies.
+	 */
+	@Benchmark
+	public BomMerger mergeDependencies()
+	{
+		BomMerger merger = new BomMerger();
+		for (Bom bom : boms)
+		{
+			for (Dependency dependency : bom.getDependencies())
+				merger.dependency(dependency);
+		}
+		return merger;
+	}
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.benchmarks;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.cyclonedx.model.Bom;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.lmco.efoss.sbom.combiner.utils.SBomCombiner;
+import com.lmco.efoss.sbom.combiner.utils.SBomCombinerOptions;
+
+/**
+ * (U) JMH benchmark of the heap held by a combined Software Bill of Materials (SBom), with and
+ * without interning. Each invocation combines the synthetic SBoms, then measures the heap in use
+ * (after a full garbage collection) while the combined SBom is still held, reported as the
+ * retainedBytes counter next to the time taken.
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = { "-Xms2g", "-Xmx2g" })
+public class InterningBenchmark
+{
+	@Param({ "20000" })
+	private int componentCount;
+	
+	@Param({ "0.5" })
+	private double overlapRatio;
+	
+	@Param({ "4" })
+	private int fanOut;
+	
+	@Param({ "8" })
+	private int inputs;
+	
+	@Param({ "true", "false" })
+	private boolean interning;
+	
+	private File directory;
+	private List<String> fileNames;
+	
+	/**
+	 * (U) This class holds the heap retained by the last combine.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class HeapCounter
+	{
+		public long retainedBytes;
+	}
+	
+	/**
+	 * (U) This method writes out the synthetic SBoms.
+	 * 
+	 * @throws Exception in the event the SBoms can not be written.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() throws Exception
+	{
+		directory = Files.createTempDirectory("sbom-benchmark").toFile();
+		fileNames = new SyntheticBomGenerator(componentCount, overlapRatio, fanOut).writeFiles(
+				directory, inputs, false);
+	}
+	
+	/**
+	 * (U) This method deletes the synthetic SBoms.
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown()
+	{
+		for (String fileName : fileNames)
+			new File(fileName).delete();
+		directory.delete();
+	}
+	
+	/**
+	 * (U) This method returns the heap in use, after a full garbage collection.
+	 * 
+	 * @return long the bytes of heap in use.
+	 */
+	private static long usedHeap()
+	{
+		MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+		for (int i = 0; i < 3; i++)
+			memory.gc();
+		return memory.getHeapMemoryUsage().getUsed();
+	}
+	
+	/**
+	 * (U) Benchmark of the combine, recording the heap held by the combined SBom.
+	 * 
+	 * @param counter HeapCounter to record the retained heap in.
+	 * @return Bom the combined SBom.
+	 * @throws Exception in the event the combine fails.
+	 */
+	@Benchmark
+	public Bom combineRetained(HeapCounter counter) throws Exception
+	{
+		SBomCombinerOptions options = new SBomCombinerOptions();
+		options.setInterning(interning);
+		
+		long before = usedHeap();
+		Bom combinedBom = SBomCombiner.combineSBomsFromStrings(fileNames, options);
+		counter.retainedBytes = usedHeap() - before;
+		return combinedBom;
+	}
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.cyclonedx.BomGeneratorFactory;
+import org.cyclonedx.CycloneDxSchema;
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.parsers.JsonParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.lmco.efoss.sbom.combiner.io.BomSnapshot;
+import com.lmco.efoss.sbom.combiner.utils.BomMerger;
+
+/**
+ * (U) JMH benchmark of reloading a combined Software Bill of Materials (SBom), from JSon and from
+ * a BomSnapshot.
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = { "-Xms2g", "-Xmx2g" })
+public class SnapshotBenchmark
+{
+	@Param({ "20000" })
+	private int componentCount;
+	
+	@Param({ "0.5" })
+	private double overlapRatio;
+	
+	@Param({ "4" })
+	private int fanOut;
+	
+	@Param({ "8" })
+	private int inputs;
+	
+	private byte[] json;
+	private byte[] snapshot;
+	
+	/**
+	 * (U) This method combines the synthetic SBoms, and writes the combined SBom out as JSon and
+	 * as a snapshot.
+	 * 
+	 * @throws Exception in the event the SBoms can not be combined or written.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() throws Exception
+	{
+		SyntheticBomGenerator generator = new SyntheticBomGenerator(componentCount, overlapRatio,
+				fanOut);
+		BomMerger merger = new BomMerger();
+		for (int i = 0; i < inputs; i++)
+			merger.merge(generator.generate(i));
+		Bom combinedBom = merger.toBom();
+		
+		json = BomGeneratorFactory.createJson(CycloneDxSchema.Version.VERSION_13, combinedBom)
+				.toJsonString().getBytes(StandardCharsets.UTF_8);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		BomSnapshot.write(combinedBom, out);
+		snapshot = out.toByteArray();
+	}
+	
+	/**
+	 * (U) Benchmark of parsing the combined SBom from JSon.
+	 * 
+	 * @return Bom read in.
+	 * @throws Exception in the event the SBom can not be parsed.
+	 */
+	@Benchmark
+	public Bom readJson() throws Exception
+	{
+		return new JsonParser().parse(json);
+	}
+	
+	/**
+	 * (U) Benchmark of reading the combined SBom from a snapshot.
+	 * 
+	 * @return Bom read in.
+	 * @throws Exception in the event the snapshot can not be read.
+	 */
+	@Benchmark
+	public Bom readSnapshot() throws Exception
+	{
+		return BomSnapshot.read(new ByteArrayInputStream(snapshot));
+	}
+}
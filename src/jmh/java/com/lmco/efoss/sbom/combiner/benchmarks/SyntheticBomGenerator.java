@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.cyclonedx.BomGeneratorFactory;
+import org.cyclonedx.CycloneDxSchema;
+import org.cyclonedx.exception.GeneratorException;
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.Dependency;
+import org.cyclonedx.model.ExternalReference;
+import org.cyclonedx.model.Hash;
+import org.cyclonedx.model.License;
+import org.cyclonedx.model.LicenseChoice;
+import org.cyclonedx.model.Metadata;
+import org.cyclonedx.model.Tool;
+
+/**
+ * (U) This class is used to generate synthetic CycloneDx Software Bill of Materials (SBom), in
+ * JSon or XML, for the benchmarks. Each SBom has the same number of components, a share of which
+ * (the overlap ratio) are the same in every SBom, with the rest unique to that SBom. Every
+ * component depends on the next components in its SBom (the fan out), wrapping around at the end.
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ */
+public class SyntheticBomGenerator
+{
+	private static final CycloneDxSchema.Version SCHEMA_VERSION = CycloneDxSchema.Version.VERSION_13;
+	
+	private final int componentCount;
+	private final double overlapRatio;
+	private final int fanOut;
+	
+	/**
+	 * (U) Constructs a new SyntheticBomGenerator.
+	 * 
+	 * @param componentCount int the number of components in each SBom.
+	 * @param overlapRatio   double the share (0 to 1) of the components that are in every SBom.
+	 * @param fanOut         int the number of components each component depends on.
+	 */
+	public SyntheticBomGenerator(int componentCount, double overlapRatio, int fanOut)
+	{
+		if (componentCount < 1)
+			throw new IllegalArgumentException("Component count must be at least 1, not " +
+					componentCount + ".");
+		if ((overlapRatio < 0) || (overlapRatio > 1))
+			throw new IllegalArgumentException("Overlap ratio must be between 0 and 1, not " +
+					overlapRatio + ".");
+		if ((fanOut < 0) || (fanOut >= componentCount))
+			throw new IllegalArgumentException("Fan out must be between 0 and " +
+					(componentCount - 1) + ", not " + fanOut + ".");
+		this.componentCount = componentCount;
+		this.overlapRatio = overlapRatio;
+		this.fanOut = fanOut;
+	}
+	
+	/**
+	 * (U) This method generates one of the SBoms.
+	 * 
+	 * @param input int the number of the SBom (0 based), used to name its unique components.
+	 * @return Bom generated.
+	 */
+	public Bom generate(int input)
+	{
+		int shared = (int) Math.round(componentCount * overlapRatio);
+		
+		List<Component> components = new ArrayList<>(componentCount);
+		for (int i = 0; i < componentCount; i++)
+		{
+			if (i < shared)
+				components.add(createComponent("com.example.shared", "shared-" + i));
+			else
+				components.add(createComponent("com.example.input" + input, "unique-" + i));
+		}
+		
+		List<Dependency> dependencies = new ArrayList<>(componentCount);
+		for (int i = 0; i < componentCount; i++)
+		{
+			Dependency dependency = new Dependency(components.get(i).getBomRef());
+			for (int j = 1; j <= fanOut; j++)
+				dependency.addDependency(new Dependency(components.get((i + j) % componentCount)
+						.getBomRef()));
+			dependencies.add(dependency);
+		}
+		
+		Tool tool = new Tool();
+		tool.setVendor("Lockheed Martin");
+		tool.setName("SyntheticBomGenerator");
+		tool.setVersion("1.0." + input);
+		
+		Metadata metadata = new Metadata();
+		metadata.addTool(tool);
+		metadata.setComponent(createComponent("com.example.app", "app-" + input));
+		
+		Bom bom = new Bom();
+		bom.setMetadata(metadata);
+		bom.setComponents(components);
+		bom.setDependencies(dependencies);
+		return bom;
+	}
+	
+	/**
+	 * (U) This method creates a library component.
+	 * 
+	 * @param group String value of the component's group.
+	 * @param name  String value of the component's name.
+	 * @return Component created.
+	 */
+	private static Component createComponent(String group, String name)
+	{
+		String version = "1.0.0";
+		String purl = "pkg:maven/" + group + "/" + name + "@" + version + "?type=jar";
+		
+		Component component = new Component();
+		component.setType(Component.Type.LIBRARY);
+		component.setGroup(group);
+		component.setName(name);
+		component.setVersion(version);
+		component.setDescription("Synthetic component " + name + " for benchmarking.");
+		component.setPurl(purl);
+		component.setBomRef(purl);
+		component.setPublisher("Example " + group);
+		
+		// The values that repeat across components, as they do in real SBoms.
+		License license = new License();
+		license.setId((name.hashCode() % 2 == 0) ? "Apache-2.0" : "MIT");
+		LicenseChoice licenseChoice = new LicenseChoice();
+		licenseChoice.addLicense(license);
+		component.setLicenseChoice(licenseChoice);
+		
+		List<Hash> hashes = new ArrayList<>();
+		hashes.add(new Hash("SHA-1", sha1Hex(purl)));
+		component.setHashes(hashes);
+		
+		ExternalReference website = new ExternalReference();
+		website.setType(ExternalReference.Type.WEBSITE);
+		website.setUrl("https://www.example.com/" + group.replace('.', '/'));
+		component.addExternalReference(website);
+		return component;
+	}
+	
+	/**
+	 * (U) This method creates a (repeatable) SHA-1 digest of a value, to stand in for the hash of
+	 * a component.
+	 * 
+	 * @param value String value to digest.
+	 * @return String the hex digest.
+	 */
+	private static String sha1Hex(String value)
+	{
+		try
+		{
+			byte[] digest = MessageDigest.getInstance("SHA-1").digest(value.getBytes(
+					StandardCharsets.UTF_8));
+			StringBuilder hex = new StringBuilder();
+			for (byte b : digest)
+				hex.append(String.format("%02x", b));
+			return hex.toString();
+		}
+		catch (NoSuchAlgorithmException e)
+		{
+			throw new IllegalStateException("SHA-1 is not available!", e);
+		}
+	}
+	
+	/**
+	 * (U) This method generates the SBoms and writes them out to files.
+	 * 
+	 * @param directory File of the directory to write the SBoms to.
+	 * @param inputs    int the number of SBoms to generate.
+	 * @param xml       boolean true to write XML SBoms, false to write JSon SBoms.
+	 * @return List of the file names of the SBoms written.
+	 * @throws IOException in the event an SBom can not be written.
+	 */
+	public List<String> writeFiles(File directory, int inputs, boolean xml) throws IOException
+	{
+		List<String> fileNames = new ArrayList<>(inputs);
+		for (int i = 0; i < inputs; i++)
+		{
+			Bom bom = generate(i);
+			String contents;
+			try
+			{
+				contents = (xml) ? BomGeneratorFactory.createXml(SCHEMA_VERSION, bom)
+						.toXmlString() : BomGeneratorFactory.createJson(SCHEMA_VERSION, bom)
+								.toJsonString();
+			}
+			catch (GeneratorException e)
+			{
+				throw new IOException("Unable to generate synthetic SBom (" + i + ")!", e);
+			}
+			File file = new File(directory, "synthetic-" + i + ((xml) ? ".xml" : ".json"));
+			Files.write(file.toPath(), contents.getBytes(StandardCharsets.UTF_8));
+			fileNames.add(file.getPath());
+		}
+		return fileNames;
+	}
+}
@@ -0,0 +1,344 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.cache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.log4j.Logger;
+import org.cyclonedx.model.Bom;
+
+import com.lmco.efoss.sbom.combiner.exceptions.SBomCombinerException;
+import com.lmco.efoss.sbom.combiner.utils.SBomCombiner;
+import com.lmco.efoss.sbom.commons.utils.SBomCommonsException;
+
+/**
+ * (U) This class is a bounded cache of Software Bill of Materials (SBom) files that have already
+ * been read into Bom objects. An entry is keyed by the file's path, and is only used if the file
+ * still has the same size and last modified time (and, if asked for, the same SHA-256 digest) as
+ * when it was read. The least recently used entries are evicted once there are more than the
+ * maximum number of entries, or the files cached add up to more than the maximum number of bytes.
+ * 
+ * <p>
+ * The Boms in the cache are shared by every combine that uses it, so they (and the components of
+ * a combined SBom built from them) must be treated as read only. Combines using a cache do not
+ * intern (see SBomCombinerOptions.setInterning), as that canonicalizes the components in place.
+ * </p>
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ */
+public class BomFileCache
+{
+	private static final Logger logger = Logger.getLogger(BomFileCache.class.getName());
+	
+	private static final String DIGEST_ALGORITHM = "SHA-256";
+	private static final int BUFFER_SIZE = 64 * 1024;
+	
+	private final int maxEntries;
+	private final long maxBytes;
+	private final boolean verifyDigest;
+	
+	private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private long bytes = 0;
+	
+	private long hitCount = 0;
+	private long missCount = 0;
+	private long evictionCount = 0;
+	private long invalidationCount = 0;
+	
+	/**
+	 * (U) This class is a single entry in the cache.
+	 */
+	private static class Entry
+	{
+		private final long size;
+		private final long lastModified;
+		private final byte[] digest;
+		private final Bom bom;
+		
+		/**
+		 * (U) Constructor.
+		 * 
+		 * @param size         long size, in bytes, of the file when it was read.
+		 * @param lastModified long last modified time, in milliseconds, of the file when it was
+		 *                     read.
+		 * @param digest       byte array of the file's digest, null if not verifying digests.
+		 * @param bom          Bom read from the file.
+		 */
+		private Entry(long size, long lastModified, byte[] digest, Bom bom)
+		{
+			this.size = size;
+			this.lastModified = lastModified;
+			this.digest = digest;
+			this.bom = bom;
+		}
+	}
+	
+	/**
+	 * (U) Constructs a new BomFileCache, that checks files by size and last modified time.
+	 * 
+	 * @param maxEntries int the most files to cache.
+	 * @param maxBytes   long the most bytes (of file sizes) to cache.
+	 */
+	public BomFileCache(int maxEntries, long maxBytes)
+	{
+		this(maxEntries, maxBytes, false);
+	}
+	
+	/**
+	 * (U) Constructs a new BomFileCache.
+	 * 
+	 * @param maxEntries   int the most files to cache.
+	 * @param maxBytes     long the most bytes (of file sizes) to cache.
+	 * @param verifyDigest boolean true to also check the SHA-256 digest of the file before using
+	 *                     a cached entry (this reads the file, but does not parse it).
+	 */
+	public BomFileCache(int maxEntries, long maxBytes, boolean verifyDigest)
+	{
+		if (maxEntries < 1)
+			throw new IllegalArgumentException("Max entries must be at least 1, not " +
+					maxEntries + ".");
+		if (maxBytes < 1)
+			throw new IllegalArgumentException("Max bytes must be at least 1, not " + maxBytes +
+					".");
+		this.maxEntries = maxEntries;
+		this.maxBytes = maxBytes;
+		this.verifyDigest = verifyDigest;
+	}
+	
+	/**
+	 * (U) This method is used to get the Bom for a Software Bill of Materials (SBom) file, from
+	 * the cache if we have a current copy of it, otherwise by reading it in (and caching it).
+	 * 
+	 * @param fileName String value of the file name to read in.
+	 * @return Bom CycloneDx Bom object the file has been read into.
+	 * @throws SBomCombinerException in the event the file can not be read into a Bom object.
+	 * @throws SBomCommonsException  in the event we fail to create an SBom from the file's data.
+	 */
+	public Bom getBomFile(String fileName) throws SBomCombinerException, SBomCommonsException
+	{
+		if ((fileName == null) || (fileName.trim().length() == 0))
+			return SBomCombiner.getBomFile(fileName);
+		
+		Path path = Paths.get(fileName).toAbsolutePath().normalize();
+		String key = path.toString();
+		BasicFileAttributes attributes;
+		byte[] digest = null;
+		try
+		{
+			attributes = Files.readAttributes(path, BasicFileAttributes.class);
+			if (verifyDigest)
+				digest = digest(path);
+		}
+		catch (IOException e)
+		{
+			// Let the combiner report the problem with the file.
+			invalidate(key);
+			return SBomCombiner.getBomFile(fileName);
+		}
+		long size = attributes.size();
+		long lastModified = attributes.lastModifiedTime().toMillis();
+		
+		synchronized (this)
+		{
+			Entry entry = entries.get(key);
+			if (entry != null)
+			{
+				if ((entry.size == size) && (entry.lastModified == lastModified) &&
+						(Arrays.equals(entry.digest, digest)))
+				{
+					hitCount++;
+					return entry.bom;
+				}
+				if (logger.isDebugEnabled())
+					logger.debug("Cached SBom (" + key + ") is out of date.");
+				remove(key);
+				invalidationCount++;
+			}
+			missCount++;
+		}
+		
+		// The attributes were read before the file, so if it changes while we read it the entry
+		// will be out of date (and re-read) next time.
+		Bom bom = SBomCombiner.getBomFile(fileName);
+		if (bom != null)
+			put(key, new Entry(size, lastModified, digest, bom));
+		return bom;
+	}
+	
+	/**
+	 * (U) This method is used to remove a file from the cache.
+	 * 
+	 * @param fileName String value of the file name to remove.
+	 */
+	public void invalidate(String fileName)
+	{
+		String key = Paths.get(fileName).toAbsolutePath().normalize().toString();
+		synchronized (this)
+		{
+			if (remove(key) != null)
+				invalidationCount++;
+		}
+	}
+	
+	/**
+	 * (U) This method is used to remove every file from the cache.
+	 */
+	public synchronized void clear()
+	{
+		entries.clear();
+		bytes = 0;
+	}
+	
+	/**
+	 * (U) This method adds an entry to the cache, evicting the least recently used entries if it
+	 * is now too big.
+	 * 
+	 * @param key   String value of the file's path.
+	 * @param entry Entry to add.
+	 */
+	private synchronized void put(String key, Entry entry)
+	{
+		remove(key);
+		if (entry.size > maxBytes)
+			return;
+		
+		entries.put(key, entry);
+		bytes += entry.size;
+		
+		Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+		while (((entries.size() > maxEntries) || (bytes > maxBytes)) && (iterator.hasNext()))
+		{
+			Map.Entry<String, Entry> eldest = iterator.next();
+			iterator.remove();
+			bytes -= eldest.getValue().size;
+			evictionCount++;
+			if (logger.isDebugEnabled())
+				logger.debug("Evicted SBom (" + eldest.getKey() + ") from the cache.");
+		}
+	}
+	
+	/**
+	 * (U) This method removes an entry from the cache.
+	 * 
+	 * @param key String value of the file's path.
+	 * @return Entry removed, or null if there was not one.
+	 */
+	private Entry remove(String key)
+	{
+		Entry entry = entries.remove(key);
+		if (entry != null)
+			bytes -= entry.size;
+		return entry;
+	}
+	
+	/**
+	 * (U) This method calculates the SHA-256 digest of a file.
+	 * 
+	 * @param path Path of the file.
+	 * @return byte array of the digest.
+	 * @throws IOException in the event the file can not be read.
+	 */
+	private static byte[] digest(Path path) throws IOException
+	{
+		try
+		{
+			MessageDigest messageDigest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+			try (InputStream in = new DigestInputStream(Files.newInputStream(path),
+					messageDigest))
+			{
+				byte[] buffer = new byte[BUFFER_SIZE];
+				while (in.read(buffer) != -1)
+				{
+					// Just reading it through the digest.
+				}
+			}
+			return messageDigest.digest();
+		}
+		catch (NoSuchAlgorithmException e)
+		{
+			throw new IOException("Unable to create a " + DIGEST_ALGORITHM + " digest!", e);
+		}
+	}
+	
+	/**
+	 * (U) This method returns the number of files in the cache.
+	 * 
+	 * @return int the number of files cached.
+	 */
+	public synchronized int size()
+	{
+		return entries.size();
+	}
+	
+	/**
+	 * (U) This method returns the total size, in bytes, of the files in the cache.
+	 * 
+	 * @return long the number of bytes cached.
+	 */
+	public synchronized long getBytes()
+	{
+		return bytes;
+	}
+	
+	/**
+	 * (U) This method returns the number of times a current copy of a file was found in the
+	 * cache.
+	 * 
+	 * @return long the number of hits.
+	 */
+	public synchronized long getHitCount()
+	{
+		return hitCount;
+	}
+	
+	/**
+	 * (U) This method returns the number of times a file had to be read in.
+	 * 
+	 * @return long the number of misses.
+	 */
+	public synchronized long getMissCount()
+	{
+		return missCount;
+	}
+	
+	/**
+	 * (U) This method returns the number of entries removed to keep the cache under its limits.
+	 * 
+	 * @return long the number of evictions.
+	 */
+	public synchronized long getEvictionCount()
+	{
+		return evictionCount;
+	}
+	
+	/**
+	 * (U) This method returns the number of entries removed because the file changed (or was
+	 * invalidated).
+	 * 
+	 * @return long the number of invalidations.
+	 */
+	public synchronized long getInvalidationCount()
+	{
+		return invalidationCount;
+	}
+}
@@ -0,0 +1,502 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.log4j.Logger;
+import org.cyclonedx.model.Bom;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.core.io.Resource;
+
+import com.lmco.efoss.sbom.combiner.io.BomSnapshot;
+
+/**
+ * (U) This class is a cache of combined Software Bill of Materials (SBom). A combine is keyed by
+ * a SHA-256 digest of the contents of its inputs, in order, so the same inputs (no matter where
+ * they came from) give the same key, and the same inputs in a different order do not. The
+ * combined SBoms are held as BomSnapshots, so every hit returns a new copy of the combined Bom,
+ * equal to the one cached, that the caller is free to change.
+ * 
+ * <p>
+ * The in memory copies are evicted, least recently used first, once they add up to more than the
+ * maximum number of bytes. If a directory is given, every combined SBom is also written to it (as
+ * &lt;key&gt;.snap) and read back from it when it is no longer in memory. The directory is not
+ * bounded, and may be shared by more than one process.
+ * </p>
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ */
+public class CombineResultCache
+{
+	private static final Logger logger = Logger.getLogger(CombineResultCache.class.getName());
+	
+	private static final String DIGEST_ALGORITHM = "SHA-256";
+	private static final String FILE_EXTENSION = ".snap";
+	private static final int BUFFER_SIZE = 64 * 1024;
+	
+	// Changing how a combine is done (or stored) must change this, so old entries are not used.
+	private static final String KEY_VERSION = "3";
+	
+	private final long maxBytes;
+	private final Path directory;
+	
+	private final LinkedHashMap<String, byte[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private long bytes = 0;
+	
+	private long hitCount = 0;
+	private long diskHitCount = 0;
+	private long missCount = 0;
+	private long evictionCount = 0;
+	
+	/**
+	 * (U) Constructs a new, memory only, CombineResultCache.
+	 * 
+	 * @param maxBytes long the most bytes (of combined SBom snapshots) to hold in memory.
+	 */
+	public CombineResultCache(long maxBytes)
+	{
+		this.maxBytes = checkMaxBytes(maxBytes);
+		this.directory = null;
+	}
+	
+	/**
+	 * (U) Constructs a new CombineResultCache.
+	 * 
+	 * @param maxBytes  long the most bytes (of combined SBom snapshots) to hold in memory.
+	 * @param directory Path of the directory to also store the combined SBoms in, null for memory
+	 *                  only.
+	 * @throws IOException in the event the directory can not be created.
+	 */
+	public CombineResultCache(long maxBytes, Path directory) throws IOException
+	{
+		this.maxBytes = checkMaxBytes(maxBytes);
+		this.directory = directory;
+		if (directory != null)
+			Files.createDirectories(directory);
+	}
+	
+	/**
+	 * (U) This method checks the maximum number of bytes passed to a constructor.
+	 * 
+	 * @param maxBytes long the most bytes to hold in memory.
+	 * @return long the most bytes to hold in memory.
+	 */
+	private static long checkMaxBytes(long maxBytes)
+	{
+		if (maxBytes < 0)
+			throw new IllegalArgumentException("Max bytes can not be negative (" + maxBytes +
+					").");
+		return maxBytes;
+	}
+	
+	/**
+	 * (U) This method calculates the key for a combine, from the contents of its inputs. Every
+	 * input is read here, and again by the combine, so only file names and Resources that can be
+	 * opened more than once (Resource.isOpen() is false) are keyed. A combine with any other input
+	 * (an InputStreamResource, or a multipart upload, say) has no key, and is not cached.
+	 * 
+	 * @param files   List of objects (String file names or InputStreamSources) being combined.
+	 * @param variant String value that identifies any options that change the combined SBom, null
+	 *                if there are none.
+	 * @return String the key for the combine, or null if one of the inputs can only be read once,
+	 *         or could not be read (in which case the combine should not be cached).
+	 */
+	public String computeKey(List<?> files, String variant)
+	{
+		for (Object file : files)
+		{
+			if (!isReopenable(file))
+			{
+				if (logger.isDebugEnabled())
+					logger.debug("Combine has an input that can only be read once (" + file +
+							"), it will not be cached.");
+				return null;
+			}
+		}
+		
+		try
+		{
+			MessageDigest digest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+			MessageDigest inputDigest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+			byte[] buffer = new byte[BUFFER_SIZE];
+			
+			digest.update((KEY_VERSION + ":" + variant + ":" + files.size())
+					.getBytes(StandardCharsets.UTF_8));
+			for (Object file : files)
+			{
+				InputStream in = openInput(file);
+				if (in == null)
+				{
+					digest.update((byte) 0);
+					continue;
+				}
+				
+				// Digest each input on its own, so where one input stops and the next starts is
+				// part of the key.
+				try
+				{
+					int read;
+					while ((read = in.read(buffer)) != -1)
+						inputDigest.update(buffer, 0, read);
+				}
+				finally
+				{
+					in.close();
+				}
+				digest.update((byte) 1);
+				digest.update(inputDigest.digest());
+			}
+			return toHex(digest.digest());
+		}
+		catch (IOException | NoSuchAlgorithmException e)
+		{
+			if (logger.isDebugEnabled())
+				logger.debug("Unable to compute the key for a combine, it will not be cached.",
+						e);
+			return null;
+		}
+	}
+	
+	/**
+	 * (U) This method checks if one of the inputs to a combine can be read for its key, and then
+	 * read again by the combine.
+	 * 
+	 * @param file Object (String file name or InputStreamSource) to check.
+	 * @return boolean true if the input can be opened more than once, false if it can not.
+	 */
+	private static boolean isReopenable(Object file)
+	{
+		if (file instanceof Resource)
+			return (!((Resource) file).isOpen());
+		return (!(file instanceof InputStreamSource));
+	}
+	
+	/**
+	 * (U) This method opens one of the inputs to a combine.
+	 * 
+	 * @param file Object (String file name or InputStreamSource) to open.
+	 * @return InputStream to read the input, or null if there is nothing to read.
+	 * @throws IOException in the event the input can not be opened.
+	 */
+	private static InputStream openInput(Object file) throws IOException
+	{
+		if (file instanceof String)
+		{
+			String fileName = (String) file;
+			if (fileName.trim().length() == 0)
+				return null;
+			return Files.newInputStream(new File(fileName).toPath());
+		}
+		else if (file instanceof InputStreamSource)
+		{
+			return ((InputStreamSource) file).getInputStream();
+		}
+		return null;
+	}
+	
+	/**
+	 * (U) This method returns a copy of the combined SBom for a key, if we have it.
+	 * 
+	 * @param key String value of the key for the combine.
+	 * @return Bom a new copy of the combined SBom, or null if we do not have it.
+	 */
+	public Bom get(String key)
+	{
+		if (key == null)
+			return null;
+		
+		byte[] snapshot;
+		synchronized (this)
+		{
+			snapshot = entries.get(key);
+			if (snapshot != null)
+				hitCount++;
+		}
+		
+		if ((snapshot == null) && (directory != null))
+		{
+			snapshot = readFromDisk(key);
+			if (snapshot != null)
+			{
+				synchronized (this)
+				{
+					diskHitCount++;
+				}
+				putInMemory(key, snapshot);
+			}
+		}
+		
+		if (snapshot == null)
+		{
+			synchronized (this)
+			{
+				missCount++;
+			}
+			return null;
+		}
+		
+		try
+		{
+			return readBom(snapshot);
+		}
+		catch (IOException e)
+		{
+			logger.warn("Unable to read cached combine (" + key + "), discarding it.", e);
+			invalidate(key);
+			return null;
+		}
+	}
+	
+	/**
+	 * (U) This method reads a combined SBom back in from its snapshot.
+	 * 
+	 * @param snapshot byte array of the combined SBom's snapshot.
+	 * @return Bom read in.
+	 * @throws IOException in the event the snapshot can not be read.
+	 */
+	private static Bom readBom(byte[] snapshot) throws IOException
+	{
+		return BomSnapshot.read(new ByteArrayInputStream(snapshot));
+	}
+	
+	/**
+	 * (U) This method is used to cache a combined SBom. A copy is taken, so the caller is free to
+	 * change the Bom afterwards.
+	 * 
+	 * @param key String value of the key for the combine.
+	 * @param bom Bom the combined SBom.
+	 */
+	public void put(String key, Bom bom)
+	{
+		if (key == null)
+			return;
+		
+		byte[] snapshot;
+		try
+		{
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			BomSnapshot.write(bom, out);
+			snapshot = out.toByteArray();
+		}
+		catch (IOException e)
+		{
+			logger.warn("Unable to cache combine (" + key + ").", e);
+			return;
+		}
+		putInMemory(key, snapshot);
+		if (directory != null)
+			writeToDisk(key, snapshot);
+	}
+	
+	/**
+	 * (U) This method is used to remove a combine from the cache (memory and disk).
+	 * 
+	 * @param key String value of the key for the combine.
+	 */
+	public void invalidate(String key)
+	{
+		synchronized (this)
+		{
+			byte[] snapshot = entries.remove(key);
+			if (snapshot != null)
+				bytes -= snapshot.length;
+		}
+		if (directory != null)
+		{
+			try
+			{
+				Files.deleteIfExists(directory.resolve(key + FILE_EXTENSION));
+			}
+			catch (IOException e)
+			{
+				logger.warn("Unable to delete cached combine (" + key + ").", e);
+			}
+		}
+	}
+	
+	/**
+	 * (U) This method adds a combined SBom to the memory cache, evicting the least recently used
+	 * entries if it is now too big.
+	 * 
+	 * @param key      String value of the key for the combine.
+	 * @param snapshot byte array of the combined SBom's snapshot.
+	 */
+	private synchronized void putInMemory(String key, byte[] snapshot)
+	{
+		byte[] old = entries.remove(key);
+		if (old != null)
+			bytes -= old.length;
+		if (snapshot.length > maxBytes)
+			return;
+		
+		entries.put(key, snapshot);
+		bytes += snapshot.length;
+		
+		Iterator<Map.Entry<String, byte[]>> iterator = entries.entrySet().iterator();
+		while ((bytes > maxBytes) && (iterator.hasNext()))
+		{
+			Map.Entry<String, byte[]> eldest = iterator.next();
+			iterator.remove();
+			bytes -= eldest.getValue().length;
+			evictionCount++;
+		}
+	}
+	
+	/**
+	 * (U) This method reads a combined SBom from the cache directory.
+	 * 
+	 * @param key String value of the key for the combine.
+	 * @return byte array of the combined SBom's snapshot, or null if it is not there.
+	 */
+	private byte[] readFromDisk(String key)
+	{
+		Path file = directory.resolve(key + FILE_EXTENSION);
+		try
+		{
+			if (Files.isRegularFile(file))
+				return Files.readAllBytes(file);
+		}
+		catch (IOException e)
+		{
+			logger.warn("Unable to read cached combine (" + file + ").", e);
+		}
+		return null;
+	}
+	
+	/**
+	 * (U) This method writes a combined SBom to the cache directory. It is written to a temporary
+	 * file first, and then moved into place, so a reader never sees part of a file.
+	 * 
+	 * @param key      String value of the key for the combine.
+	 * @param snapshot byte array of the combined SBom's snapshot.
+	 */
+	private void writeToDisk(String key, byte[] snapshot)
+	{
+		Path file = directory.resolve(key + FILE_EXTENSION);
+		Path temp = null;
+		try
+		{
+			temp = Files.createTempFile(directory, key, ".tmp");
+			Files.write(temp, snapshot);
+			Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (IOException e)
+		{
+			logger.warn("Unable to write cached combine (" + file + ").", e);
+			if (temp != null)
+			{
+				try
+				{
+					Files.deleteIfExists(temp);
+				}
+				catch (IOException ioe)
+				{
+					// Nothing more we can do.
+				}
+			}
+		}
+	}
+	
+	/**
+	 * (U) This method converts a digest into a (lower case) hex String.
+	 * 
+	 * @param digest byte array to convert.
+	 * @return String hex value of the digest.
+	 */
+	private static String toHex(byte[] digest)
+	{
+		StringBuilder sb = new StringBuilder(digest.length * 2);
+		for (byte b : digest)
+		{
+			sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+			sb.append(Character.forDigit(b & 0xF, 16));
+		}
+		return sb.toString();
+	}
+	
+	/**
+	 * (U) This method returns the number of combined SBoms held in memory.
+	 * 
+	 * @return int the number of combined SBoms in memory.
+	 */
+	public synchronized int size()
+	{
+		return entries.size();
+	}
+	
+	/**
+	 * (U) This method returns the number of bytes of combined SBoms held in memory.
+	 * 
+	 * @return long the number of bytes in memory.
+	 */
+	public synchronized long getBytes()
+	{
+		return bytes;
+	}
+	
+	/**
+	 * (U) This method returns the number of combines found in memory.
+	 * 
+	 * @return long the number of memory hits.
+	 */
+	public synchronized long getHitCount()
+	{
+		return hitCount;
+	}
+	
+	/**
+	 * (U) This method returns the number of combines found in the cache directory (but not in
+	 * memory).
+	 * 
+	 * @return long the number of disk hits.
+	 */
+	public synchronized long getDiskHitCount()
+	{
+		return diskHitCount;
+	}
+	
+	/**
+	 * (U) This method returns the number of combines not found in the cache.
+	 * 
+	 * @return long the number of misses.
+	 */
+	public synchronized long getMissCount()
+	{
+		return missCount;
+	}
+	
+	/**
+	 * (U) This method returns the number of combined SBoms removed from memory to keep it under
+	 * its limit.
+	 * 
+	 * @return long the number of evictions.
+	 */
+	public synchronized long getEvictionCount()
+	{
+		return evictionCount;
+	}
+}
@@ -0,0 +1,381 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.io;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * (U) This class is used to read the Software Bill of Materials (SBom) packed into an archive
+ * (zip, jar, war, ear, tar, tar.gz, or tgz). The archive is read once, front to back, and each
+ * entry that is an SBom is handed over as a stream straight off the decompressing stream, so
+ * nothing is extracted to disk. Entries are handed over in the order they are stored in the
+ * archive.
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ */
+public class BomArchive
+{
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final int BLOCK_SIZE = 512;
+	
+	/**
+	 * (U) This interface is handed each SBom found in an archive.
+	 */
+	public interface EntryHandler
+	{
+		/**
+		 * (U) This method is handed an SBom found in an archive.
+		 * 
+		 * @param name String value of the entry's name in the archive.
+		 * @param in   InputStream of the entry, only good until this method returns. Closing it
+		 *             does not close the archive.
+		 * @throws IOException in the event the entry can not be read.
+		 */
+		void entry(String name, InputStream in) throws IOException;
+	}
+	
+	/**
+	 * (U) Private Constructor as this class should not be instantiated.
+	 */
+	private BomArchive()
+	{}
+	
+	/**
+	 * (U) This method reads the SBoms out of an archive.
+	 * 
+	 * @param archive   Path of the archive to read.
+	 * @param discovery BomDiscovery deciding which entries are SBoms.
+	 * @param handler   EntryHandler to hand the SBoms to.
+	 * @throws IOException in the event the archive can not be read.
+	 */
+	public static void read(Path archive, BomDiscovery discovery, EntryHandler handler)
+			throws IOException
+	{
+		String name = archive.getFileName().toString().toLowerCase();
+		try (InputStream in = new BufferedInputStream(Files.newInputStream(archive),
+				BUFFER_SIZE))
+		{
+			if ((name.endsWith(".tar.gz")) || (name.endsWith(".tgz")))
+				readTar(new GZIPInputStream(in, BUFFER_SIZE), discovery, handler);
+			else if (name.endsWith(".tar"))
+				readTar(in, discovery, handler);
+			else
+				readZip(new ZipInputStream(in), discovery, handler);
+		}
+	}
+	
+	/**
+	 * (U) This method reads the SBoms out of a zip (or jar, war, or ear) archive.
+	 * 
+	 * @param zip       ZipInputStream of the archive.
+	 * @param discovery BomDiscovery deciding which entries are SBoms.
+	 * @param handler   EntryHandler to hand the SBoms to.
+	 * @throws IOException in the event the archive can not be read.
+	 */
+	private static void readZip(ZipInputStream zip, BomDiscovery discovery, EntryHandler handler)
+			throws IOException
+	{
+		ZipEntry entry;
+		while ((entry = zip.getNextEntry()) != null)
+		{
+			if ((!entry.isDirectory()) && (discovery.isBom(entry.getName())))
+				handler.entry(entry.getName(), new EntryInputStream(zip, Long.MAX_VALUE));
+			zip.closeEntry();
+		}
+	}
+	
+	/**
+	 * (U) This method reads the SBoms out of a tar archive. Plain (ustar) names, and the long
+	 * names written by GNU tar and pax, are understood. Anything but a regular file (and the
+	 * headers naming it) is skipped.
+	 * 
+	 * @param tar       InputStream of the (uncompressed) archive.
+	 * @param discovery BomDiscovery deciding which entries are SBoms.
+	 * @param handler   EntryHandler to hand the SBoms to.
+	 * @throws IOException in the event the archive can not be read.
+	 */
+	private static void readTar(InputStream tar, BomDiscovery discovery, EntryHandler handler)
+			throws IOException
+	{
+		byte[] header = new byte[BLOCK_SIZE];
+		String longName = null;
+		while (readBlock(tar, header))
+		{
+			long size = parseOctal(header, 124, 12);
+			char type = (char) header[156];
+			EntryInputStream entry = new EntryInputStream(tar, size);
+			
+			if ((type == 'L') || (type == 'x'))
+			{
+				String data = new String(readAll(entry, size), StandardCharsets.UTF_8);
+				longName = (type == 'L') ? trimNul(data) : paxPath(data, longName);
+			}
+			else if ((type != 'g') && (type != 'K'))
+			{
+				String name = (longName != null) ? longName : ustarName(header);
+				longName = null;
+				if (((type == '0') || (type == 0)) && (discovery.isBom(name)))
+					handler.entry(name, entry);
+			}
+			skipFully(tar, entry.remaining + padding(size));
+		}
+	}
+	
+	/**
+	 * (U) This method reads a tar header block.
+	 * 
+	 * @param tar    InputStream of the archive.
+	 * @param header byte array to read the block into.
+	 * @return boolean true if a header was read, false at the end of the archive.
+	 * @throws IOException in the event the block can not be read.
+	 */
+	private static boolean readBlock(InputStream tar, byte[] header) throws IOException
+	{
+		int read = 0;
+		while (read < header.length)
+		{
+			int count = tar.read(header, read, header.length - read);
+			if (count < 0)
+			{
+				if (read == 0)
+					return false;
+				throw new EOFException("Tar archive ends part way through a header!");
+			}
+			read += count;
+		}
+		
+		// The archive ends with (at least) one block of zeros.
+		for (byte b : header)
+		{
+			if (b != 0)
+				return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * (U) This method gets the name of a tar entry from its (ustar) header.
+	 * 
+	 * @param header byte array of the header.
+	 * @return String value of the entry's name.
+	 */
+	private static String ustarName(byte[] header)
+	{
+		String name = trimNul(new String(header, 0, 100, StandardCharsets.UTF_8));
+		if (new String(header, 257, 5, StandardCharsets.US_ASCII).equals("ustar"))
+		{
+			String prefix = trimNul(new String(header, 345, 155, StandardCharsets.UTF_8));
+			if (!prefix.isEmpty())
+				name = prefix + "/" + name;
+		}
+		return name;
+	}
+	
+	/**
+	 * (U) This method gets the path out of a pax extended header.
+	 * 
+	 * @param data     String value of the extended header's records ("length key=value\n").
+	 * @param previous String value of the name to keep if the header has no path.
+	 * @return String value of the path.
+	 */
+	private static String paxPath(String data, String previous)
+	{
+		for (String record : data.split("\n"))
+		{
+			int space = record.indexOf(' ');
+			if ((space > 0) && (record.startsWith("path=", space + 1)))
+				return record.substring(space + 6);
+		}
+		return previous;
+	}
+	
+	/**
+	 * (U) This method parses an octal field of a tar header. Sizes too big for the field are
+	 * written, by GNU tar, as base-256 with the top bit of the first byte set.
+	 * 
+	 * @param header byte array of the header.
+	 * @param offset int offset of the field.
+	 * @param length int length of the field.
+	 * @return long value of the field.
+	 */
+	private static long parseOctal(byte[] header, int offset, int length)
+	{
+		long value = 0;
+		if ((header[offset] & 0x80) != 0)
+		{
+			value = header[offset] & 0x7f;
+			for (int i = offset + 1; i < offset + length; i++)
+				value = (value << 8) | (header[i] & 0xff);
+			return value;
+		}
+		
+		for (int i = offset; i < offset + length; i++)
+		{
+			byte b = header[i];
+			if ((b >= '0') && (b <= '7'))
+				value = (value << 3) + (b - '0');
+			else if ((b == 0) || ((b == ' ') && (value > 0)))
+				break;
+		}
+		return value;
+	}
+	
+	/**
+	 * (U) This method returns the padding after an entry's data, up to the next block.
+	 * 
+	 * @param size long size of the entry's data.
+	 * @return long number of bytes of padding.
+	 */
+	private static long padding(long size)
+	{
+		long partial = size % BLOCK_SIZE;
+		return (partial == 0) ? 0 : BLOCK_SIZE - partial;
+	}
+	
+	/**
+	 * (U) This method cuts a string off at its first NUL.
+	 * 
+	 * @param value String value to trim.
+	 * @return String value up to its first NUL.
+	 */
+	private static String trimNul(String value)
+	{
+		int nul = value.indexOf('\0');
+		return (nul >= 0) ? value.substring(0, nul) : value;
+	}
+	
+	/**
+	 * (U) This method reads all of an entry's (small) data.
+	 * 
+	 * @param in   InputStream of the entry.
+	 * @param size long size of the entry's data.
+	 * @return byte array of the data.
+	 * @throws IOException in the event the data can not be read.
+	 */
+	private static byte[] readAll(InputStream in, long size) throws IOException
+	{
+		if (size > Integer.MAX_VALUE)
+			throw new IOException("Tar header of " + size + " bytes is too big!");
+		byte[] data = new byte[(int) size];
+		int read = 0;
+		while (read < data.length)
+		{
+			int count = in.read(data, read, data.length - read);
+			if (count < 0)
+				throw new EOFException("Tar archive ends part way through an entry!");
+			read += count;
+		}
+		return data;
+	}
+	
+	/**
+	 * (U) This method skips over bytes of the archive.
+	 * 
+	 * @param in    InputStream of the archive.
+	 * @param count long number of bytes to skip.
+	 * @throws IOException in the event they can not be skipped.
+	 */
+	private static void skipFully(InputStream in, long count) throws IOException
+	{
+		long left = count;
+		while (left > 0)
+		{
+			long skipped = in.skip(left);
+			if (skipped <= 0)
+			{
+				if (in.read() < 0)
+					throw new EOFException("Tar archive ends part way through an entry!");
+				skipped = 1;
+			}
+			left -= skipped;
+		}
+	}
+	
+	/**
+	 * (U) This class is the stream of a single entry of an archive. It reads no further than the
+	 * entry, and closing it does not close the archive.
+	 */
+	private static class EntryInputStream extends FilterInputStream
+	{
+		private long remaining;
+		
+		/**
+		 * (U) Constructor.
+		 * 
+		 * @param in   InputStream of the archive, positioned at the start of the entry.
+		 * @param size long size of the entry.
+		 */
+		private EntryInputStream(InputStream in, long size)
+		{
+			super(in);
+			this.remaining = size;
+		}
+		
+		@Override
+		public int read() throws IOException
+		{
+			if (remaining <= 0)
+				return -1;
+			int b = in.read();
+			if (b >= 0)
+				remaining--;
+			return b;
+		}
+		
+		@Override
+		public int read(byte[] buffer, int offset, int length) throws IOException
+		{
+			if (remaining <= 0)
+				return -1;
+			int count = in.read(buffer, offset, (int) Math.min(length, remaining));
+			if (count > 0)
+				remaining -= count;
+			return count;
+		}
+		
+		@Override
+		public long skip(long count) throws IOException
+		{
+			long skipped = in.skip(Math.min(count, remaining));
+			if (skipped > 0)
+				remaining -= skipped;
+			return skipped;
+		}
+		
+		@Override
+		public int available() throws IOException
+		{
+			return (int) Math.min(in.available(), remaining);
+		}
+		
+		@Override
+		public boolean markSupported()
+		{
+			return false;
+		}
+		
+		@Override
+		public void close()
+		{
+			// The archive is closed by whoever opened it.
+		}
+	}
+}
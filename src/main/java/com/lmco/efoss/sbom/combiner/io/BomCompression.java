@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.io;
+
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * (U) This enum is the compression of a Software Bill of Materials (SBom), detected from its magic
+ * bytes, so a compressed SBom can be read (and a combined SBom written) straight through the
+ * (de)compressor, without going through a temporary file.
+ * 
+ * <p>
+ * Zstandard needs zstd-jni (com.github.luben:zstd-jni), an optional dependency, on the classpath.
+ * </p>
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ */
+public enum BomCompression
+{
+	NONE,
+	GZIP,
+	ZSTD;
+	
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final String ZSTD_MISSING = "Zstandard SBoms need zstd-jni " +
+			"(com.github.luben:zstd-jni) on the classpath!";
+	
+	// The gzip magic (1F 8B), and the Zstandard frame magic (FD2FB528, little endian).
+	private static final int[] GZIP_MAGIC = { 0x1f, 0x8b };
+	private static final int[] ZSTD_MAGIC = { 0x28, 0xb5, 0x2f, 0xfd };
+	
+	/**
+	 * (U) This method detects the compression of the SBom in the stream passed in, without using
+	 * up any of the stream.
+	 * 
+	 * @param in InputStream (that supports mark) to look at.
+	 * @return BomCompression of the SBom, NONE if it is not compressed.
+	 * @throws IOException in the event we fail to read the stream.
+	 */
+	public static BomCompression detect(InputStream in) throws IOException
+	{
+		byte[] magic = new byte[ZSTD_MAGIC.length];
+		int read = 0;
+		in.mark(magic.length);
+		try
+		{
+			int count;
+			while ((read < magic.length) && ((count = in.read(magic, read, magic.length -
+					read)) > 0))
+				read += count;
+		}
+		finally
+		{
+			in.reset();
+		}
+		
+		if (startsWith(magic, read, ZSTD_MAGIC))
+			return ZSTD;
+		else if (startsWith(magic, read, GZIP_MAGIC))
+			return GZIP;
+		return NONE;
+	}
+	
+	/**
+	 * (U) This method checks if the bytes read start with a magic number.
+	 * 
+	 * @param bytes byte array read.
+	 * @param read  int the number of bytes read.
+	 * @param magic int array of the magic number.
+	 * @return boolean true if they start with the magic number.
+	 */
+	private static boolean startsWith(byte[] bytes, int read, int[] magic)
+	{
+		if (read < magic.length)
+			return false;
+		for (int i = 0; i < magic.length; i++)
+		{
+			if ((bytes[i] & 0xff) != magic[i])
+				return false;
+		}
+		return true;
+	}
+	
+	/**
+	 * (U) This method detects the compression of the SBom in the stream passed in, and returns the
+	 * stream to read the (uncompressed) SBom from.
+	 * 
+	 * @param in InputStream (that supports mark) to read.
+	 * @return InputStream, that supports mark, to read the SBom from: the stream passed in if it
+	 *         is not compressed. Closing a decompressing stream frees the decompressor, but does
+	 *         not close the stream passed in.
+	 * @throws IOException in the event we fail to read the stream.
+	 */
+	public static InputStream decompress(InputStream in) throws IOException
+	{
+		BomCompression compression = detect(in);
+		if (compression == NONE)
+			return in;
+		return new BufferedInputStream(compression.decompressor(in), BUFFER_SIZE);
+	}
+	
+	/**
+	 * (U) This method creates the stream that decompresses an SBom.
+	 * 
+	 * @param in InputStream of the compressed SBom.
+	 * @return InputStream of the uncompressed SBom.
+	 * @throws IOException in the event the decompressor can not be created.
+	 */
+	private InputStream decompressor(InputStream in) throws IOException
+	{
+		InputStream shielded = new FilterInputStream(in)
+		{
+			@Override
+			public void close()
+			{
+				// The stream is closed by whoever opened it.
+			}
+		};
+		if (this == GZIP)
+			return new GZIPInputStream(shielded, BUFFER_SIZE);
+		
+		try
+		{
+			return ZstdStreams.decompress(shielded);
+		}
+		catch (LinkageError e)
+		{
+			// zstd-jni (or its native library) is missing.
+			throw new IOException(ZSTD_MISSING, e);
+		}
+	}
+	
+	/**
+	 * (U) This method returns the stream to write an SBom, compressed, to the stream passed in.
+	 * 
+	 * @param out OutputStream to write the compressed SBom to.
+	 * @return OutputStream to write the SBom to: the stream passed in if there is no compression.
+	 *         Closing a compressing stream finishes the compression, but does not close the stream
+	 *         passed in.
+	 * @throws IOException in the event the compressor can not be created.
+	 */
+	public OutputStream compress(OutputStream out) throws IOException
+	{
+		if (this == NONE)
+			return out;
+		
+		OutputStream shielded = new FilterOutputStream(out)
+		{
+			@Override
+			public void write(byte[] buffer, int offset, int length) throws IOException
+			{
+				out.write(buffer, offset, length);
+			}
+			
+			@Override
+			public void close() throws IOException
+			{
+				// The stream is closed by whoever opened it.
+				out.flush();
+			}
+		};
+		if (this == GZIP)
+			return new GZIPOutputStream(shielded, BUFFER_SIZE);
+		
+		try
+		{
+			return ZstdStreams.compress(shielded);
+		}
+		catch (LinkageError e)
+		{
+			// zstd-jni (or its native library) is missing.
+			throw new IOException(ZSTD_MISSING, e);
+		}
+	}
+}
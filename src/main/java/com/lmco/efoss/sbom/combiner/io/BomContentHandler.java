@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.io;
+
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.Dependency;
+import org.cyclonedx.model.Metadata;
+
+/**
+ * (U) This interface is used to receive the parts of a Software Bill of Materials (SBom) that the
+ * combiner cares about, one at a time, as they are read in.
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ */
+public interface BomContentHandler
+{
+	/**
+	 * (U) This method is called with the metadata of the SBom.
+	 * 
+	 * @param metadata Metadata read in.
+	 */
+	void metadata(Metadata metadata);
+	
+	/**
+	 * (U) This method is called with each (top level) component of the SBom.
+	 * 
+	 * @param component Component read in.
+	 */
+	void component(Component component);
+	
+	/**
+	 * (U) This method is called with each dependency of the SBom.
+	 * 
+	 * @param dependency Dependency read in.
+	 */
+	void dependency(Dependency dependency);
+}
@@ -0,0 +1,312 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.io;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * (U) This class is used to find the Software Bill of Materials (SBom) under a set of directory
+ * trees, and in the archives (zip, jar, war, ear, tar, tar.gz, and tgz) found there. The trees
+ * are walked in parallel, each directory listed as its own fork-join task.
+ * 
+ * <p>
+ * An SBom is a file (or archive entry) whose path, relative to the root it was found under (or the
+ * root of its archive), matches one of the include globs. By default those are bom.json and
+ * bom.xml, at any depth. Symbolic links to directories are not followed. A root that is a file
+ * was asked for by name, so it is always taken (and searched, if it is an archive), whatever the
+ * include globs.
+ * </p>
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ */
+public class BomDiscovery
+{
+	private static final List<String> DEFAULT_INCLUDES = Collections.singletonList(
+			"{**/,}bom.{json,xml}");
+	private static final PathMatcher archiveMatcher = FileSystems.getDefault().getPathMatcher(
+			"glob:*.{zip,jar,war,ear,tar,tar.gz,tgz}");
+	
+	private List<PathMatcher> includes;
+	private List<String> includeGlobs;
+	private boolean searchArchives = true;
+	private int parallelism = Runtime.getRuntime().availableProcessors();
+	
+	/**
+	 * (U) This class is the task that searches a single directory, forking a task for each of its
+	 * sub-directories.
+	 */
+	private class SearchTask extends RecursiveTask<List<Path>>
+	{
+		private static final long serialVersionUID = 1L;
+		
+		private final transient Path root;
+		private final transient Path directory;
+		
+		/**
+		 * (U) Constructor.
+		 * 
+		 * @param root      Path of the root the directory was found under.
+		 * @param directory Path of the directory to search.
+		 */
+		private SearchTask(Path root, Path directory)
+		{
+			this.root = root;
+			this.directory = directory;
+		}
+		
+		@Override
+		protected List<Path> compute()
+		{
+			List<Path> found = new ArrayList<>();
+			List<SearchTask> subTasks = new ArrayList<>();
+			try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory))
+			{
+				for (Path entry : entries)
+				{
+					if (Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS))
+					{
+						SearchTask subTask = new SearchTask(root, entry);
+						subTask.fork();
+						subTasks.add(subTask);
+					}
+					else if (isWanted(root.relativize(entry)))
+						found.add(entry);
+				}
+			}
+			catch (IOException e)
+			{
+				throw new UncheckedIOException(e);
+			}
+			
+			for (SearchTask subTask : subTasks)
+				found.addAll(subTask.join());
+			return found;
+		}
+	}
+	
+	/**
+	 * (U) Constructs a new BomDiscovery that finds the bom.json and bom.xml files, and archives.
+	 */
+	public BomDiscovery()
+	{
+		setIncludes(DEFAULT_INCLUDES);
+	}
+	
+	/**
+	 * (U) This method returns the globs a file (or archive entry) has to match to be an SBom.
+	 * 
+	 * @return List of Strings that are the include globs.
+	 */
+	public List<String> getIncludes()
+	{
+		return includeGlobs;
+	}
+	
+	/**
+	 * (U) This method sets the globs a file (or archive entry) has to match to be an SBom. They
+	 * are matched against its path relative to the root it was found under (or the root of its
+	 * archive), using the syntax of FileSystem.getPathMatcher, so "**&#47;" only matches below
+	 * the root.
+	 * 
+	 * @param includes List of Strings that are the include globs.
+	 */
+	public void setIncludes(List<String> includes)
+	{
+		if ((includes == null) || (includes.isEmpty()))
+			throw new IllegalArgumentException("At least one include glob is needed.");
+		
+		List<PathMatcher> matchers = new ArrayList<>(includes.size());
+		for (String include : includes)
+			matchers.add(FileSystems.getDefault().getPathMatcher("glob:" + include));
+		this.includes = matchers;
+		this.includeGlobs = Collections.unmodifiableList(new ArrayList<>(includes));
+	}
+	
+	/**
+	 * (U) This method is used to see if archives are searched for SBoms.
+	 * 
+	 * @return boolean true if archives are searched.
+	 */
+	public boolean isSearchArchives()
+	{
+		return searchArchives;
+	}
+	
+	/**
+	 * (U) This method sets whether archives are searched for SBoms. Defaults to true.
+	 * 
+	 * @param searchArchives boolean true to search archives.
+	 */
+	public void setSearchArchives(boolean searchArchives)
+	{
+		this.searchArchives = searchArchives;
+	}
+	
+	/**
+	 * (U) This method returns the number of directories searched at the same time.
+	 * 
+	 * @return int the parallelism.
+	 */
+	public int getParallelism()
+	{
+		return parallelism;
+	}
+	
+	/**
+	 * (U) This method sets the number of directories searched at the same time. Defaults to the
+	 * number of processors.
+	 * 
+	 * @param parallelism int the parallelism, must be at least 1.
+	 */
+	public void setParallelism(int parallelism)
+	{
+		if (parallelism < 1)
+			throw new IllegalArgumentException("Parallelism must be at least 1, not " +
+					parallelism + ".");
+		this.parallelism = parallelism;
+	}
+	
+	/**
+	 * (U) This method is used to see if a file is an archive we search.
+	 * 
+	 * @param path Path of the file.
+	 * @return boolean true if it is an archive, and archives are searched.
+	 */
+	public boolean isArchive(Path path)
+	{
+		Path fileName = path.getFileName();
+		return ((searchArchives) && (fileName != null) && (archiveMatcher.matches(Paths.get(
+				fileName.toString().toLowerCase()))));
+	}
+	
+	/**
+	 * (U) This method is used to see if an archive entry is an SBom.
+	 * 
+	 * @param entryName String value of the entry's name in the archive.
+	 * @return boolean true if it matches one of the include globs.
+	 */
+	public boolean isBom(String entryName)
+	{
+		String name = entryName;
+		while ((name.startsWith("./")) || (name.startsWith("/")))
+			name = name.substring(name.indexOf('/') + 1);
+		return ((name.length() > 0) && (!name.endsWith("/")) && (matches(Paths.get(name))));
+	}
+	
+	/**
+	 * (U) This method is used to see if a file is an SBom, or an archive to search.
+	 * 
+	 * @param relativePath Path of the file relative to the root it was found under.
+	 * @return boolean true if it is wanted.
+	 */
+	private boolean isWanted(Path relativePath)
+	{
+		return ((matches(relativePath)) || (isArchive(relativePath)));
+	}
+	
+	/**
+	 * (U) This method is used to see if a path matches one of the include globs.
+	 * 
+	 * @param relativePath Path relative to the root it was found under.
+	 * @return boolean true if it matches.
+	 */
+	private boolean matches(Path relativePath)
+	{
+		for (PathMatcher include : includes)
+		{
+			if (include.matches(relativePath))
+				return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * (U) This method finds the SBoms, and archives, under the roots passed in. A root that is a
+	 * file is always taken, as it was asked for by name, whether or not it matches the include
+	 * globs.
+	 * 
+	 * @param roots Paths of the directories (or files) to search.
+	 * @return List of the Paths found, sorted, so the same tree always gives the same order.
+	 * @throws IOException in the event a directory can not be searched.
+	 */
+	public List<Path> discover(List<Path> roots) throws IOException
+	{
+		List<Path> found = new ArrayList<>();
+		List<Path> directories = new ArrayList<>();
+		for (Path root : roots)
+		{
+			if (Files.isDirectory(root))
+				directories.add(root);
+			else if (!Files.exists(root))
+				throw new IOException("Path(" + root + ") does NOT exist!");
+			else
+				found.add(root);
+		}
+		
+		if (!directories.isEmpty())
+		{
+			ForkJoinPool pool = new ForkJoinPool(parallelism);
+			try
+			{
+				for (Path directory : directories)
+					found.addAll(pool.submit(new SearchTask(directory, directory)).get());
+			}
+			catch (ExecutionException e)
+			{
+				Throwable cause = e.getCause();
+				while ((cause != null) && (!(cause instanceof UncheckedIOException)))
+					cause = cause.getCause();
+				if (cause != null)
+					throw ((UncheckedIOException) cause).getCause();
+				throw new IOException("Unable to search for SBoms!", e.getCause());
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+				throw new IOException("Interrupted while searching for SBoms!", e);
+			}
+			finally
+			{
+				pool.shutdownNow();
+			}
+		}
+		
+		Collections.sort(found);
+		return found;
+	}
+	
+	/**
+	 * (U) This method finds the SBoms, and archives, under the roots passed in.
+	 * 
+	 * @param roots Paths of the directories (or files) to search.
+	 * @return List of the Paths found, sorted, so the same tree always gives the same order.
+	 * @throws IOException in the event a directory can not be searched.
+	 */
+	public List<Path> discover(Path... roots) throws IOException
+	{
+		return discover(Arrays.asList(roots));
+	}
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.cyclonedx.exception.ParseException;
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.parsers.JsonParser;
+import org.cyclonedx.parsers.Parser;
+import org.cyclonedx.parsers.XmlParser;
+
+/**
+ * (U) This enum is the format of a CycloneDx Software Bill of Materials (SBom), detected from its
+ * first (non white space) character, so the right parser can be picked without parsing, or
+ * buffering, the SBom first.
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ */
+public enum BomFormat
+{
+	JSON,
+	XML;
+	
+	// The most bytes looked at (of Byte Order Mark and leading white space) to find the format.
+	private static final int PEEK_LIMIT = 8 * 1024;
+	
+	// The CycloneDx namespace of an XML SBom, which ends in its spec version.
+	private static final Pattern XML_NAMESPACE = Pattern.compile("xmlns(?::[\\w.-]+)?\\s*=\\s*" +
+			"[\"']http://cyclonedx\\.org/schema/bom/(\\d+(?:\\.\\d+)*)[\"']");
+	
+	/**
+	 * (U) This method creates a new CycloneDx parser for the format.
+	 * 
+	 * @return Parser for the format.
+	 */
+	public Parser createParser()
+	{
+		return (this == JSON) ? new JsonParser() : new XmlParser();
+	}
+	
+	/**
+	 * (U) This method parses an SBom, in this format, from a stream. The XML parser only sets the
+	 * spec version (from the CycloneDx namespace) when it is given the whole SBom, which it then
+	 * parses twice, so the namespace is looked for in the first few bytes instead, and the stream
+	 * parsed once. Only if it is not there is the whole SBom read in and handed to the parser.
+	 * 
+	 * @param in InputStream (that supports mark) to read the SBom from.
+	 * @return Bom parsed.
+	 * @throws IOException    in the event we fail to read the stream.
+	 * @throws ParseException in the event the SBom can not be parsed.
+	 */
+	public Bom parse(InputStream in) throws IOException, ParseException
+	{
+		if (this == JSON)
+			return new JsonParser().parse(in);
+		
+		XmlParser parser = new XmlParser();
+		String specVersion = peekSpecVersion(in);
+		if (specVersion == null)
+			return parser.parse(readAll(in));
+		
+		Bom bom = parser.parse(in);
+		ModelMapper.setSpecVersion(bom, specVersion);
+		return bom;
+	}
+	
+	/**
+	 * (U) This method looks for the spec version, in the CycloneDx namespace, in the first few
+	 * bytes of an XML SBom, without using up any of the stream.
+	 * 
+	 * @param in InputStream (that supports mark) to look at.
+	 * @return String value of the spec version, or null if it is not in the first few bytes.
+	 * @throws IOException in the event we fail to read the stream.
+	 */
+	private static String peekSpecVersion(InputStream in) throws IOException
+	{
+		byte[] peek = new byte[PEEK_LIMIT];
+		int count = 0;
+		in.mark(PEEK_LIMIT);
+		try
+		{
+			int read;
+			while ((count < peek.length) && ((read = in.read(peek, count, peek.length -
+					count)) != -1))
+				count += read;
+		}
+		finally
+		{
+			in.reset();
+		}
+		
+		// A UTF-16 Byte Order Mark starts with 0xFE or 0xFF, which UTF-8 never does.
+		Charset charset = ((count > 0) && (((peek[0] & 0xFF) == 0xFE) || ((peek[0] &
+				0xFF) == 0xFF))) ? StandardCharsets.UTF_16 : StandardCharsets.UTF_8;
+		Matcher matcher = XML_NAMESPACE.matcher(new String(peek, 0, count, charset));
+		return (matcher.find()) ? matcher.group(1) : null;
+	}
+	
+	/**
+	 * (U) This method reads the rest of a stream in.
+	 * 
+	 * @param in InputStream to read.
+	 * @return byte array holding the rest of the stream.
+	 * @throws IOException in the event we fail to read the stream.
+	 */
+	private static byte[] readAll(InputStream in) throws IOException
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[PEEK_LIMIT];
+		int read;
+		while ((read = in.read(buffer)) != -1)
+			out.write(buffer, 0, read);
+		return out.toByteArray();
+	}
+	
+	/**
+	 * (U) This method detects the format of the SBom in the stream passed in, without using up
+	 * any of the stream. A UTF-8 or UTF-16 Byte Order Mark, and leading white space, are skipped.
+	 * 
+	 * @param in InputStream (that supports mark) to look at.
+	 * @return BomFormat of the SBom, or null if it does not look like JSon or XML.
+	 * @throws IOException in the event we fail to read the stream.
+	 */
+	public static BomFormat detect(InputStream in) throws IOException
+	{
+		int first;
+		in.mark(PEEK_LIMIT);
+		try
+		{
+			first = firstCharacter(in);
+		}
+		finally
+		{
+			in.reset();
+		}
+		
+		if (first == '{')
+			return JSON;
+		else if (first == '<')
+			return XML;
+		return null;
+	}
+	
+	/**
+	 * (U) This method reads the first character, that is not white space, from the stream.
+	 * 
+	 * @param in InputStream to read.
+	 * @return int the first character, or -1 if there is not one (within the peek limit).
+	 * @throws IOException in the event we fail to read the stream.
+	 */
+	private static int firstCharacter(InputStream in) throws IOException
+	{
+		int read = in.read();
+		int count = 1;
+		
+		// UTF-16 (big or little endian), two bytes per character.
+		if ((read == 0xFE) || (read == 0xFF))
+		{
+			boolean bigEndian = (read == 0xFE);
+			if (in.read() != ((bigEndian) ? 0xFF : 0xFE))
+				return -1;
+			count++;
+			
+			int character;
+			do
+			{
+				int first = in.read();
+				int second = in.read();
+				count += 2;
+				if ((first == -1) || (second == -1))
+					return -1;
+				character = (bigEndian) ? ((first << 8) | second) : ((second << 8) | first);
+			}
+			while ((Character.isWhitespace(character)) && (count < PEEK_LIMIT - 1));
+			return character;
+		}
+		
+		// UTF-8 Byte Order Mark.
+		if (read == 0xEF)
+		{
+			in.read();
+			in.read();
+			read = in.read();
+			count += 3;
+		}
+		while ((read != -1) && (Character.isWhitespace(read)) && (count < PEEK_LIMIT))
+		{
+			read = in.read();
+			count++;
+		}
+		return read;
+	}
+}
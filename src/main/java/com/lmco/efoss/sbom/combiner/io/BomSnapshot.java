@@ -0,0 +1,863 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.io;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.Dependency;
+import org.cyclonedx.model.ExternalReference;
+import org.cyclonedx.model.Hash;
+import org.cyclonedx.model.License;
+import org.cyclonedx.model.LicenseChoice;
+import org.cyclonedx.model.Metadata;
+import org.cyclonedx.model.Property;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * (U) This class writes, and reads back, a Software Bill of Materials (SBom) as a compact binary
+ * snapshot, which loads much faster than parsing the JSon or XML. Every string is written once, in
+ * a string table, and referred to by its position in it. The components are written as a table
+ * of rows, each holding only the fields it has, and the dependencies refer to the component rows
+ * (by position) instead of repeating the refs.
+ * 
+ * <p>
+ * The metadata, and the parts of a component the combiner rarely sees (supplier, swid, pedigree,
+ * evidence, sub-components, extensions, and licenses with text), are written as JSon. The Bom's
+ * spec version, serial number, version, metadata, components, and dependencies are kept; anything
+ * else at the top level of the Bom (services, external references, compositions, and properties,
+ * none of which a combined SBom has) is not.
+ * </p>
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ */
+public class BomSnapshot
+{
+	private static final byte[] MAGIC = "SBOMSNAP".getBytes(StandardCharsets.US_ASCII);
+	private static final int FORMAT_VERSION = 2;
+	private static final int BUFFER_SIZE = 64 * 1024;
+	
+	// The fields a component row has, as bits of its first value.
+	private static final int TYPE = 1;
+	private static final int BOM_REF = 1 << 1;
+	private static final int MIME_TYPE = 1 << 2;
+	private static final int AUTHOR = 1 << 3;
+	private static final int PUBLISHER = 1 << 4;
+	private static final int GROUP = 1 << 5;
+	private static final int NAME = 1 << 6;
+	private static final int VERSION = 1 << 7;
+	private static final int DESCRIPTION = 1 << 8;
+	private static final int SCOPE = 1 << 9;
+	private static final int HASHES = 1 << 10;
+	private static final int LICENSES = 1 << 11;
+	private static final int EXPRESSION = 1 << 12;
+	private static final int COPYRIGHT = 1 << 13;
+	private static final int CPE = 1 << 14;
+	private static final int PURL = 1 << 15;
+	private static final int MODIFIED = 1 << 16;
+	private static final int EXTERNAL_REFERENCES = 1 << 17;
+	private static final int PROPERTIES = 1 << 18;
+	private static final int REST = 1 << 19;
+	private static final int LICENSE_CHOICE = 1 << 20;
+	
+	private static final ObjectMapper mapper = ModelMapper.get();
+	
+	/**
+	 * (U) Private Constructor as this class should not be instantiated.
+	 */
+	private BomSnapshot()
+	{}
+	
+	/**
+	 * (U) This method is used to see if the stream holds a snapshot, without using up any of the
+	 * stream.
+	 * 
+	 * @param in InputStream (that supports mark) to look at.
+	 * @return boolean true if the stream starts with a snapshot's header.
+	 * @throws IOException in the event we fail to read the stream.
+	 */
+	public static boolean isSnapshot(InputStream in) throws IOException
+	{
+		byte[] header = new byte[MAGIC.length];
+		int read = 0;
+		in.mark(MAGIC.length);
+		try
+		{
+			int count;
+			while ((read < header.length) && ((count = in.read(header, read, header.length -
+					read)) > 0))
+				read += count;
+		}
+		finally
+		{
+			in.reset();
+		}
+		return ((read == header.length) && (Arrays.equals(header, MAGIC)));
+	}
+	
+	/**
+	 * (U) This method writes an SBom as a snapshot. The stream is not closed.
+	 * 
+	 * @param bom Bom to write.
+	 * @param out OutputStream to write to.
+	 * @throws IOException in the event the snapshot can not be written.
+	 */
+	public static void write(Bom bom, OutputStream out) throws IOException
+	{
+		// The rows are encoded first, as the string table (written ahead of them) is built up
+		// while they are.
+		Encoder body = new Encoder();
+		Map<String, Integer> strings = new HashMap<>();
+		List<String> table = new ArrayList<>();
+		
+		List<Component> components = (bom.getComponents() != null) ? bom.getComponents()
+				: new ArrayList<>();
+		Map<String, Integer> rows = new HashMap<>();
+		body.writeVarint((bom.getComponents() != null) ? components.size() + 1 : 0);
+		for (int row = 0; row < components.size(); row++)
+		{
+			Component component = components.get(row);
+			writeComponent(body, component, strings, table);
+			if (component.getBomRef() != null)
+				rows.putIfAbsent(component.getBomRef(), row);
+		}
+		
+		List<Dependency> dependencies = bom.getDependencies();
+		body.writeVarint((dependencies != null) ? dependencies.size() + 1 : 0);
+		if (dependencies != null)
+		{
+			for (Dependency dependency : dependencies)
+			{
+				writeRef(body, dependency.getRef(), rows, strings, table);
+				List<Dependency> innerDeps = dependency.getDependencies();
+				body.writeVarint((innerDeps != null) ? innerDeps.size() + 1 : 0);
+				if (innerDeps != null)
+				{
+					for (Dependency innerDep : innerDeps)
+						writeRef(body, innerDep.getRef(), rows, strings, table);
+				}
+			}
+		}
+		
+		Encoder header = new Encoder();
+		header.write(MAGIC, 0, MAGIC.length);
+		header.writeVarint(FORMAT_VERSION);
+		writeBytes(header, (bom.getSpecVersion() != null) ? bom.getSpecVersion().getBytes(
+				StandardCharsets.UTF_8) : null);
+		header.writeVarint(bom.getVersion());
+		writeBytes(header, (bom.getSerialNumber() != null) ? bom.getSerialNumber().getBytes(
+				StandardCharsets.UTF_8) : null);
+		writeBytes(header, (bom.getMetadata() != null) ? mapper.writeValueAsBytes(bom
+				.getMetadata()) : null);
+		header.writeVarint(table.size());
+		for (String value : table)
+			writeBytes(header, value.getBytes(StandardCharsets.UTF_8));
+		
+		header.writeTo(out);
+		body.writeTo(out);
+		out.flush();
+	}
+	
+	/**
+	 * (U) This method writes a component's row.
+	 * 
+	 * @param out       Encoder to write to.
+	 * @param component Component to write.
+	 * @param strings   Map of the strings already in the table, to their position.
+	 * @param table     List of the strings in the table.
+	 * @throws IOException in the event the component can not be written.
+	 */
+	// The deprecated cpe is still written, so a snapshot round trips losslessly.
+	@SuppressWarnings("deprecation")
+	private static void writeComponent(Encoder out, Component component,
+			Map<String, Integer> strings, List<String> table) throws IOException
+	{
+		LicenseChoice licenseChoice = component.getLicenseChoice();
+		boolean licensesInRow = (licenseChoice == null) || (canWrite(licenseChoice
+				.getLicenses()));
+		boolean propertiesInRow = canWriteProperties(component.getProperties());
+		Component rest = rest(component, licensesInRow, propertiesInRow);
+		
+		int fields = 0;
+		fields |= (component.getType() != null) ? TYPE : 0;
+		fields |= (component.getBomRef() != null) ? BOM_REF : 0;
+		fields |= (component.getMimeType() != null) ? MIME_TYPE : 0;
+		fields |= (component.getAuthor() != null) ? AUTHOR : 0;
+		fields |= (component.getPublisher() != null) ? PUBLISHER : 0;
+		fields |= (component.getGroup() != null) ? GROUP : 0;
+		fields |= (component.getName() != null) ? NAME : 0;
+		fields |= (component.getVersion() != null) ? VERSION : 0;
+		fields |= (component.getDescription() != null) ? DESCRIPTION : 0;
+		fields |= (component.getScope() != null) ? SCOPE : 0;
+		fields |= (component.getHashes() != null) ? HASHES : 0;
+		if ((licenseChoice != null) && (licensesInRow))
+		{
+			fields |= LICENSE_CHOICE;
+			fields |= (licenseChoice.getLicenses() != null) ? LICENSES : 0;
+			fields |= (licenseChoice.getExpression() != null) ? EXPRESSION : 0;
+		}
+		fields |= (component.getCopyright() != null) ? COPYRIGHT : 0;
+		fields |= (component.getCpe() != null) ? CPE : 0;
+		fields |= (component.getPurl() != null) ? PURL : 0;
+		fields |= (component.getModified() != null) ? MODIFIED : 0;
+		fields |= (component.getExternalReferences() != null) ? EXTERNAL_REFERENCES : 0;
+		fields |= ((component.getProperties() != null) && (propertiesInRow)) ? PROPERTIES : 0;
+		fields |= (rest != null) ? REST : 0;
+		out.writeVarint(fields);
+		
+		if (component.getType() != null)
+			writeString(out, component.getType().name(), strings, table);
+		writeString(out, component.getBomRef(), strings, table);
+		writeString(out, component.getMimeType(), strings, table);
+		writeString(out, component.getAuthor(), strings, table);
+		writeString(out, component.getPublisher(), strings, table);
+		writeString(out, component.getGroup(), strings, table);
+		writeString(out, component.getName(), strings, table);
+		writeString(out, component.getVersion(), strings, table);
+		writeString(out, component.getDescription(), strings, table);
+		if (component.getScope() != null)
+			writeString(out, component.getScope().name(), strings, table);
+		writeHashes(out, component.getHashes(), strings, table);
+		if ((fields & LICENSES) != 0)
+		{
+			out.writeVarint(licenseChoice.getLicenses().size());
+			for (License license : licenseChoice.getLicenses())
+			{
+				writeNullableString(out, license.getId(), strings, table);
+				writeNullableString(out, license.getName(), strings, table);
+				writeNullableString(out, license.getUrl(), strings, table);
+			}
+		}
+		if ((fields & EXPRESSION) != 0)
+			writeString(out, licenseChoice.getExpression(), strings, table);
+		writeString(out, component.getCopyright(), strings, table);
+		writeString(out, component.getCpe(), strings, table);
+		writeString(out, component.getPurl(), strings, table);
+		if (component.getModified() != null)
+			out.writeVarint((component.getModified()) ? 1 : 0);
+		if (component.getExternalReferences() != null)
+		{
+			out.writeVarint(component.getExternalReferences().size());
+			for (ExternalReference ref : component.getExternalReferences())
+			{
+				writeNullableString(out, (ref.getType() != null) ? ref.getType().name() : null,
+						strings, table);
+				writeNullableString(out, ref.getUrl(), strings, table);
+				writeNullableString(out, ref.getComment(), strings, table);
+				out.writeVarint((ref.getHashes() != null) ? 1 : 0);
+				writeHashes(out, ref.getHashes(), strings, table);
+			}
+		}
+		if ((fields & PROPERTIES) != 0)
+		{
+			out.writeVarint(component.getProperties().size());
+			for (Property property : component.getProperties())
+			{
+				writeNullableString(out, property.getName(), strings, table);
+				writeNullableString(out, property.getValue(), strings, table);
+			}
+		}
+		if (rest != null)
+			writeBytes(out, mapper.writeValueAsBytes(rest));
+	}
+	
+	/**
+	 * (U) This method is used to see if the licenses can be written in a component's row (they
+	 * have no text or extensions).
+	 * 
+	 * @param licenses List of Licenses to check, may be null.
+	 * @return boolean true if they can be written in the row.
+	 */
+	private static boolean canWrite(List<License> licenses)
+	{
+		if (licenses != null)
+		{
+			for (License license : licenses)
+			{
+				if ((license == null) || (license.getAttachmentText() != null) || (license
+						.getExtensions() != null) || (license.getExtensibleTypes() != null))
+					return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * (U) This method is used to see if the properties can be written in a component's row (they
+	 * have no extensions).
+	 * 
+	 * @param properties List of Properties to check, may be null.
+	 * @return boolean true if they can be written in the row.
+	 */
+	private static boolean canWriteProperties(List<Property> properties)
+	{
+		if (properties != null)
+		{
+			for (Property property : properties)
+			{
+				if ((property == null) || (property.getExtensions() != null) || (property
+						.getExtensibleTypes() != null))
+					return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * (U) This method builds a component holding only the parts of the component passed in that
+	 * are not written in its row.
+	 * 
+	 * @param component       Component to get the rest of.
+	 * @param licensesInRow   boolean true if the licenses are written in the row.
+	 * @param propertiesInRow boolean true if the properties are written in the row.
+	 * @return Component holding the rest of the component, null if there is nothing else.
+	 */
+	private static Component rest(Component component, boolean licensesInRow,
+			boolean propertiesInRow)
+	{
+		if ((component.getSupplier() == null) && (component.getSwid() == null) && (component
+				.getPedigree() == null) && (component.getComponents() == null) && (component
+						.getEvidence() == null) && (component.getExtensions() == null) &&
+				(component.getExtensibleTypes() == null) && (licensesInRow) && (propertiesInRow))
+			return null;
+		
+		Component rest = new Component();
+		rest.setSupplier(component.getSupplier());
+		rest.setSwid(component.getSwid());
+		rest.setPedigree(component.getPedigree());
+		rest.setComponents(component.getComponents());
+		rest.setEvidence(component.getEvidence());
+		rest.setExtensions(component.getExtensions());
+		rest.setExtensibleTypes(component.getExtensibleTypes());
+		if (!licensesInRow)
+			rest.setLicenseChoice(component.getLicenseChoice());
+		if (!propertiesInRow)
+			rest.setProperties(component.getProperties());
+		return rest;
+	}
+	
+	/**
+	 * (U) This method writes a list of hashes (if there is one).
+	 * 
+	 * @param out     Encoder to write to.
+	 * @param hashes  List of Hashes to write, nothing is written if null.
+	 * @param strings Map of the strings already in the table, to their position.
+	 * @param table   List of the strings in the table.
+	 */
+	private static void writeHashes(Encoder out, List<Hash> hashes, Map<String, Integer> strings,
+			List<String> table)
+	{
+		if (hashes == null)
+			return;
+		out.writeVarint(hashes.size());
+		for (Hash hash : hashes)
+		{
+			writeNullableString(out, hash.getAlgorithm(), strings, table);
+			writeNullableString(out, hash.getValue(), strings, table);
+		}
+	}
+	
+	/**
+	 * (U) This method writes a dependency's ref, as the component row that has it if there is
+	 * one, otherwise as a string.
+	 * 
+	 * @param out     Encoder to write to.
+	 * @param ref     String value of the ref.
+	 * @param rows    Map of the components' refs to their rows.
+	 * @param strings Map of the strings already in the table, to their position.
+	 * @param table   List of the strings in the table.
+	 */
+	private static void writeRef(Encoder out, String ref, Map<String, Integer> rows,
+			Map<String, Integer> strings, List<String> table)
+	{
+		Integer row = (ref != null) ? rows.get(ref) : null;
+		if (row != null)
+		{
+			out.writeVarint(row + 1);
+		}
+		else
+		{
+			out.writeVarint(0);
+			writeNullableString(out, ref, strings, table);
+		}
+	}
+	
+	/**
+	 * (U) This method writes a string's position in the table (adding it if need be). Nothing is
+	 * written if it is null, as the row says which fields it has.
+	 * 
+	 * @param out     Encoder to write to.
+	 * @param value   String to write.
+	 * @param strings Map of the strings already in the table, to their position.
+	 * @param table   List of the strings in the table.
+	 */
+	private static void writeString(Encoder out, String value, Map<String, Integer> strings,
+			List<String> table)
+	{
+		if (value != null)
+			out.writeVarint(stringIndex(value, strings, table));
+	}
+	
+	/**
+	 * (U) This method writes a string's position in the table (adding it if need be) plus 1, or 0
+	 * if it is null.
+	 * 
+	 * @param out     Encoder to write to.
+	 * @param value   String to write, may be null.
+	 * @param strings Map of the strings already in the table, to their position.
+	 * @param table   List of the strings in the table.
+	 */
+	private static void writeNullableString(Encoder out, String value,
+			Map<String, Integer> strings, List<String> table)
+	{
+		out.writeVarint((value != null) ? stringIndex(value, strings, table) + 1 : 0);
+	}
+	
+	/**
+	 * (U) This method returns the position of a string in the table, adding it if need be.
+	 * 
+	 * @param value   String to find.
+	 * @param strings Map of the strings already in the table, to their position.
+	 * @param table   List of the strings in the table.
+	 * @return int the position of the string.
+	 */
+	private static int stringIndex(String value, Map<String, Integer> strings,
+			List<String> table)
+	{
+		Integer index = strings.get(value);
+		if (index == null)
+		{
+			index = table.size();
+			strings.put(value, index);
+			table.add(value);
+		}
+		return index;
+	}
+	
+	/**
+	 * (U) This method writes an array of bytes, as its length plus 1 (0 if null) then the bytes.
+	 * 
+	 * @param out   Encoder to write to.
+	 * @param bytes byte array to write, may be null.
+	 */
+	private static void writeBytes(Encoder out, byte[] bytes)
+	{
+		if (bytes == null)
+		{
+			out.writeVarint(0);
+		}
+		else
+		{
+			out.writeVarint(bytes.length + 1L);
+			out.write(bytes, 0, bytes.length);
+		}
+	}
+	
+	/**
+	 * (U) This method reads a snapshot back into an SBom. The stream is not closed.
+	 * 
+	 * @param in InputStream to read from.
+	 * @return Bom read in.
+	 * @throws IOException in the event the snapshot can not be read.
+	 */
+	public static Bom read(InputStream in) throws IOException
+	{
+		Decoder decoder = new Decoder(in);
+		byte[] magic = decoder.readBytes(MAGIC.length);
+		if (!Arrays.equals(magic, MAGIC))
+			throw new IOException("Input is not an SBom snapshot!");
+		int version = decoder.readInt();
+		if (version != FORMAT_VERSION)
+			throw new IOException("Unsupported SBom snapshot version(" + version + ").");
+		
+		Bom bom = new Bom();
+		byte[] specVersion = readBytes(decoder);
+		if (specVersion != null)
+			ModelMapper.setSpecVersion(bom, new String(specVersion, StandardCharsets.UTF_8));
+		bom.setVersion(decoder.readInt());
+		byte[] serialNumber = readBytes(decoder);
+		if (serialNumber != null)
+			bom.setSerialNumber(new String(serialNumber, StandardCharsets.UTF_8));
+		byte[] metadata = readBytes(decoder);
+		if (metadata != null)
+			bom.setMetadata(mapper.readValue(metadata, Metadata.class));
+		
+		String[] table = new String[decoder.readInt()];
+		for (int i = 0; i < table.length; i++)
+			table[i] = new String(decoder.readBytes(decoder.readInt() - 1),
+					StandardCharsets.UTF_8);
+		
+		int componentCount = decoder.readInt();
+		List<Component> components = new ArrayList<>(Math.max(componentCount - 1, 0));
+		for (int i = 0; i < componentCount - 1; i++)
+			components.add(readComponent(decoder, table));
+		if (componentCount > 0)
+			bom.setComponents(components);
+		
+		int dependencyCount = decoder.readInt();
+		if (dependencyCount > 0)
+		{
+			List<Dependency> dependencies = new ArrayList<>(dependencyCount - 1);
+			for (int i = 0; i < dependencyCount - 1; i++)
+			{
+				Dependency dependency = new Dependency(readRef(decoder, components, table));
+				int innerCount = decoder.readInt();
+				if (innerCount > 0)
+				{
+					List<Dependency> innerDeps = new ArrayList<>(innerCount - 1);
+					for (int j = 0; j < innerCount - 1; j++)
+						innerDeps.add(new Dependency(readRef(decoder, components, table)));
+					dependency.setDependencies(innerDeps);
+				}
+				dependencies.add(dependency);
+			}
+			bom.setDependencies(dependencies);
+		}
+		return bom;
+	}
+	
+	/**
+	 * (U) This method reads a component's row.
+	 * 
+	 * @param in    Decoder to read from.
+	 * @param table array of the strings in the table.
+	 * @return Component read in.
+	 * @throws IOException in the event the component can not be read.
+	 */
+	// The deprecated cpe is still read, so a snapshot round trips losslessly.
+	@SuppressWarnings("deprecation")
+	private static Component readComponent(Decoder in, String[] table) throws IOException
+	{
+		int fields = in.readInt();
+		Component component = new Component();
+		if ((fields & TYPE) != 0)
+			component.setType(Component.Type.valueOf(table[in.readInt()]));
+		if ((fields & BOM_REF) != 0)
+			component.setBomRef(table[in.readInt()]);
+		if ((fields & MIME_TYPE) != 0)
+			component.setMimeType(table[in.readInt()]);
+		if ((fields & AUTHOR) != 0)
+			component.setAuthor(table[in.readInt()]);
+		if ((fields & PUBLISHER) != 0)
+			component.setPublisher(table[in.readInt()]);
+		if ((fields & GROUP) != 0)
+			component.setGroup(table[in.readInt()]);
+		if ((fields & NAME) != 0)
+			component.setName(table[in.readInt()]);
+		if ((fields & VERSION) != 0)
+			component.setVersion(table[in.readInt()]);
+		if ((fields & DESCRIPTION) != 0)
+			component.setDescription(table[in.readInt()]);
+		if ((fields & SCOPE) != 0)
+			component.setScope(Component.Scope.valueOf(table[in.readInt()]));
+		if ((fields & HASHES) != 0)
+			component.setHashes(readHashes(in, table));
+		if ((fields & LICENSE_CHOICE) != 0)
+		{
+			LicenseChoice licenseChoice = new LicenseChoice();
+			if ((fields & LICENSES) != 0)
+			{
+				int count = in.readInt();
+				List<License> licenses = new ArrayList<>(count);
+				for (int i = 0; i < count; i++)
+				{
+					License license = new License();
+					license.setId(readNullableString(in, table));
+					license.setName(readNullableString(in, table));
+					license.setUrl(readNullableString(in, table));
+					licenses.add(license);
+				}
+				licenseChoice.setLicenses(licenses);
+			}
+			if ((fields & EXPRESSION) != 0)
+				licenseChoice.setExpression(table[in.readInt()]);
+			component.setLicenseChoice(licenseChoice);
+		}
+		if ((fields & COPYRIGHT) != 0)
+			component.setCopyright(table[in.readInt()]);
+		if ((fields & CPE) != 0)
+			component.setCpe(table[in.readInt()]);
+		if ((fields & PURL) != 0)
+			component.setPurl(table[in.readInt()]);
+		if ((fields & MODIFIED) != 0)
+			component.setModified(in.readInt() != 0);
+		if ((fields & EXTERNAL_REFERENCES) != 0)
+		{
+			int count = in.readInt();
+			List<ExternalReference> refs = new ArrayList<>(count);
+			for (int i = 0; i < count; i++)
+			{
+				ExternalReference ref = new ExternalReference();
+				String type = readNullableString(in, table);
+				if (type != null)
+					ref.setType(ExternalReference.Type.valueOf(type));
+				ref.setUrl(readNullableString(in, table));
+				ref.setComment(readNullableString(in, table));
+				if (in.readInt() != 0)
+					ref.setHashes(readHashes(in, table));
+				refs.add(ref);
+			}
+			component.setExternalReferences(refs);
+		}
+		if ((fields & PROPERTIES) != 0)
+		{
+			int count = in.readInt();
+			List<Property> properties = new ArrayList<>(count);
+			for (int i = 0; i < count; i++)
+			{
+				Property property = new Property();
+				property.setName(readNullableString(in, table));
+				property.setValue(readNullableString(in, table));
+				properties.add(property);
+			}
+			component.setProperties(properties);
+		}
+		if ((fields & REST) != 0)
+			addRest(component, mapper.readValue(readBytes(in), Component.class));
+		return component;
+	}
+	
+	/**
+	 * (U) This method adds the parts of a component that were not written in its row back into
+	 * it.
+	 * 
+	 * @param component Component to add to.
+	 * @param rest      Component holding the rest of the component.
+	 */
+	private static void addRest(Component component, Component rest)
+	{
+		component.setSupplier(rest.getSupplier());
+		component.setSwid(rest.getSwid());
+		component.setPedigree(rest.getPedigree());
+		component.setComponents(rest.getComponents());
+		component.setEvidence(rest.getEvidence());
+		component.setExtensions(rest.getExtensions());
+		component.setExtensibleTypes(rest.getExtensibleTypes());
+		if (rest.getLicenseChoice() != null)
+			component.setLicenseChoice(rest.getLicenseChoice());
+		if (rest.getProperties() != null)
+			component.setProperties(rest.getProperties());
+	}
+	
+	/**
+	 * (U) This method reads a list of hashes.
+	 * 
+	 * @param in    Decoder to read from.
+	 * @param table array of the strings in the table.
+	 * @return List of Hashes read in.
+	 * @throws IOException in the event the hashes can not be read.
+	 */
+	private static List<Hash> readHashes(Decoder in, String[] table) throws IOException
+	{
+		int count = in.readInt();
+		List<Hash> hashes = new ArrayList<>(count);
+		for (int i = 0; i < count; i++)
+			hashes.add(new Hash(readNullableString(in, table), readNullableString(in, table)));
+		return hashes;
+	}
+	
+	/**
+	 * (U) This method reads a dependency's ref, from the component row that has it or the string
+	 * table.
+	 * 
+	 * @param in         Decoder to read from.
+	 * @param components List of the components read in.
+	 * @param table      array of the strings in the table.
+	 * @return String value of the ref.
+	 * @throws IOException in the event the ref can not be read.
+	 */
+	private static String readRef(Decoder in, List<Component> components, String[] table)
+			throws IOException
+	{
+		int row = in.readInt();
+		if (row > 0)
+			return components.get(row - 1).getBomRef();
+		return readNullableString(in, table);
+	}
+	
+	/**
+	 * (U) This method reads a string written by writeNullableString.
+	 * 
+	 * @param in    Decoder to read from.
+	 * @param table array of the strings in the table.
+	 * @return String read, may be null.
+	 * @throws IOException in the event the string can not be read.
+	 */
+	private static String readNullableString(Decoder in, String[] table) throws IOException
+	{
+		int index = in.readInt();
+		return (index > 0) ? table[index - 1] : null;
+	}
+	
+	/**
+	 * (U) This method reads an array of bytes written by writeBytes.
+	 * 
+	 * @param in Decoder to read from.
+	 * @return byte array read, may be null.
+	 * @throws IOException in the event the bytes can not be read.
+	 */
+	private static byte[] readBytes(Decoder in) throws IOException
+	{
+		int length = in.readInt();
+		return (length > 0) ? in.readBytes(length - 1) : null;
+	}
+	
+	/**
+	 * (U) This class is a growable buffer that values are encoded into.
+	 */
+	private static class Encoder
+	{
+		private byte[] buffer = new byte[BUFFER_SIZE];
+		private int size = 0;
+		
+		/**
+		 * (U) This method writes a non negative value, 7 bits at a time (a varint).
+		 * 
+		 * @param value long value to write.
+		 */
+		private void writeVarint(long value)
+		{
+			ensure(10);
+			while ((value & ~0x7FL) != 0)
+			{
+				buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+				value >>>= 7;
+			}
+			buffer[size++] = (byte) value;
+		}
+		
+		/**
+		 * (U) This method writes bytes.
+		 * 
+		 * @param bytes  byte array to write from.
+		 * @param offset int position of the first byte to write.
+		 * @param length int number of bytes to write.
+		 */
+		private void write(byte[] bytes, int offset, int length)
+		{
+			ensure(length);
+			System.arraycopy(bytes, offset, buffer, size, length);
+			size += length;
+		}
+		
+		/**
+		 * (U) This method makes sure there is room for more bytes.
+		 * 
+		 * @param more int number of bytes needed.
+		 */
+		private void ensure(int more)
+		{
+			if (size + more > buffer.length)
+				buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + more));
+		}
+		
+		/**
+		 * (U) This method writes what has been encoded to a stream.
+		 * 
+		 * @param out OutputStream to write to.
+		 * @throws IOException in the event the stream can not be written.
+		 */
+		private void writeTo(OutputStream out) throws IOException
+		{
+			out.write(buffer, 0, size);
+		}
+	}
+	
+	/**
+	 * (U) This class decodes values from a stream, through its own (unsynchronized) buffer.
+	 */
+	private static class Decoder
+	{
+		private final InputStream in;
+		private final byte[] buffer = new byte[BUFFER_SIZE];
+		private int position = 0;
+		private int limit = 0;
+		
+		/**
+		 * (U) Constructor.
+		 * 
+		 * @param in InputStream to read from.
+		 */
+		private Decoder(InputStream in)
+		{
+			this.in = in;
+		}
+		
+		/**
+		 * (U) This method reads a varint that fits in an int.
+		 * 
+		 * @return int value read.
+		 * @throws IOException in the event the value can not be read.
+		 */
+		private int readInt() throws IOException
+		{
+			int value = 0;
+			for (int shift = 0; shift < 35; shift += 7)
+			{
+				if (position == limit)
+					fill();
+				byte b = buffer[position++];
+				value |= (b & 0x7F) << shift;
+				if (b >= 0)
+					return value;
+			}
+			throw new IOException("SBom snapshot has an invalid value!");
+		}
+		
+		/**
+		 * (U) This method reads bytes.
+		 * 
+		 * @param length int number of bytes to read.
+		 * @return byte array read.
+		 * @throws IOException in the event the bytes can not be read.
+		 */
+		private byte[] readBytes(int length) throws IOException
+		{
+			byte[] bytes = new byte[length];
+			int read = 0;
+			while (read < length)
+			{
+				if (position == limit)
+					fill();
+				int count = Math.min(length - read, limit - position);
+				System.arraycopy(buffer, position, bytes, read, count);
+				position += count;
+				read += count;
+			}
+			return bytes;
+		}
+		
+		/**
+		 * (U) This method refills the buffer.
+		 * 
+		 * @throws IOException in the event the stream can not be read, or has ended.
+		 */
+		private void fill() throws IOException
+		{
+			int count = in.read(buffer, 0, buffer.length);
+			if (count <= 0)
+				throw new EOFException("SBom snapshot ended early!");
+			position = 0;
+			limit = count;
+		}
+	}
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.io;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * (U) This class is an InputStream that counts the bytes read through it.
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ */
+public class CountingInputStream extends FilterInputStream
+{
+	private long count = 0;
+	private long markCount = 0;
+	
+	/**
+	 * (U) Constructor.
+	 * 
+	 * @param in InputStream to count the bytes read from.
+	 */
+	public CountingInputStream(InputStream in)
+	{
+		super(in);
+	}
+	
+	/**
+	 * (U) This method returns the number of bytes read so far.
+	 * 
+	 * @return long the number of bytes read.
+	 */
+	public long getCount()
+	{
+		return count;
+	}
+	
+	@Override
+	public int read() throws IOException
+	{
+		int read = super.read();
+		if (read != -1)
+			count++;
+		return read;
+	}
+	
+	@Override
+	public int read(byte[] buffer, int offset, int length) throws IOException
+	{
+		int read = super.read(buffer, offset, length);
+		if (read > 0)
+			count += read;
+		return read;
+	}
+	
+	@Override
+	public long skip(long n) throws IOException
+	{
+		long skipped = super.skip(n);
+		count += skipped;
+		return skipped;
+	}
+	
+	@Override
+	public synchronized void mark(int readLimit)
+	{
+		super.mark(readLimit);
+		markCount = count;
+	}
+	
+	@Override
+	public synchronized void reset() throws IOException
+	{
+		super.reset();
+		count = markCount;
+	}
+}
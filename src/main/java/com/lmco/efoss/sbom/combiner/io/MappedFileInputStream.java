@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * (U) This class is an InputStream that reads a file through memory mapped windows of it, so the
+ * file's bytes go straight from the page cache to whoever is reading the stream, without being
+ * copied through the buffers of a FileInputStream. Files too small to be worth mapping are read
+ * into a single heap buffer instead. Mark and reset are supported, to any position in the file.
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ */
+public class MappedFileInputStream extends InputStream
+{
+	// Files smaller than this are read, not mapped, as mapping has a fixed cost of its own.
+	private static final long MAP_THRESHOLD = 1024 * 1024;
+	
+	// Mapped a window at a time, so files bigger than 2GB can be read, and a large file does not
+	// hold its whole size of address space until the mapping is collected.
+	private static final long WINDOW_SIZE = 64 * 1024 * 1024;
+	
+	private final FileChannel channel;
+	private final long size;
+	private final long windowSize;
+	
+	private ByteBuffer window;
+	private long windowStart = 0;
+	private long markPosition = 0;
+	
+	/**
+	 * (U) Constructor.
+	 * 
+	 * @param channel      FileChannel of the file to read.
+	 * @param size         long size of the file, in bytes.
+	 * @param mapThreshold long size, in bytes, below which the file is read instead of mapped.
+	 * @param windowSize   long the most bytes to map at a time.
+	 * @throws IOException in the event the file can not be read.
+	 */
+	private MappedFileInputStream(FileChannel channel, long size, long mapThreshold,
+			long windowSize) throws IOException
+	{
+		this.channel = channel;
+		this.size = size;
+		this.windowSize = windowSize;
+		if (size < mapThreshold)
+		{
+			window = ByteBuffer.allocate((int) size);
+			while ((window.hasRemaining()) && (channel.read(window) != -1))
+			{
+				// Just filling the buffer.
+			}
+			window.flip();
+		}
+		else
+		{
+			window = map(0);
+		}
+	}
+	
+	/**
+	 * (U) This method opens a file to be read.
+	 * 
+	 * @param path Path of the file to read.
+	 * @return MappedFileInputStream to read the file with.
+	 * @throws IOException in the event the file can not be opened (for example, it does not exist
+	 *                     or we do not have permission to read it).
+	 */
+	public static MappedFileInputStream open(Path path) throws IOException
+	{
+		return open(path, MAP_THRESHOLD, WINDOW_SIZE);
+	}
+	
+	/**
+	 * (U) This method opens a file to be read, with the sizes passed in.
+	 * 
+	 * @param path         Path of the file to read.
+	 * @param mapThreshold long size, in bytes, below which the file is read instead of mapped.
+	 * @param windowSize   long the most bytes to map at a time.
+	 * @return MappedFileInputStream to read the file with.
+	 * @throws IOException in the event the file can not be opened.
+	 */
+	static MappedFileInputStream open(Path path, long mapThreshold, long windowSize)
+			throws IOException
+	{
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+		try
+		{
+			return new MappedFileInputStream(channel, channel.size(), mapThreshold, windowSize);
+		}
+		catch (IOException | RuntimeException e)
+		{
+			channel.close();
+			throw e;
+		}
+	}
+	
+	/**
+	 * (U) This method maps the window of the file starting at the position passed in.
+	 * 
+	 * @param start long position, in the file, of the start of the window.
+	 * @return ByteBuffer of the window.
+	 * @throws IOException in the event the file can not be mapped.
+	 */
+	private ByteBuffer map(long start) throws IOException
+	{
+		windowStart = start;
+		return channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(windowSize,
+				size - start));
+	}
+	
+	/**
+	 * (U) This method makes sure there is something left to read in the current window, moving on
+	 * to the next window if need be.
+	 * 
+	 * @return boolean true if there is something left to read, false at the end of the file.
+	 * @throws IOException in the event the file can not be mapped.
+	 */
+	private boolean ensureRemaining() throws IOException
+	{
+		if (window.hasRemaining())
+			return true;
+		long next = windowStart + window.limit();
+		if (next >= size)
+			return false;
+		window = map(next);
+		return window.hasRemaining();
+	}
+	
+	/**
+	 * (U) This method returns the position, in the file, of the next byte to read.
+	 * 
+	 * @return long the position in the file.
+	 */
+	private long position()
+	{
+		return windowStart + window.position();
+	}
+	
+	@Override
+	public int read() throws IOException
+	{
+		if (!ensureRemaining())
+			return -1;
+		return window.get() & 0xFF;
+	}
+	
+	@Override
+	public int read(byte[] buffer, int offset, int length) throws IOException
+	{
+		if (length == 0)
+			return 0;
+		if (!ensureRemaining())
+			return -1;
+		int read = Math.min(length, window.remaining());
+		window.get(buffer, offset, read);
+		return read;
+	}
+	
+	@Override
+	public long skip(long count) throws IOException
+	{
+		if (count <= 0)
+			return 0;
+		long skipped = Math.min(count, size - position());
+		seek(position() + skipped);
+		return skipped;
+	}
+	
+	@Override
+	public int available()
+	{
+		return (int) Math.min(Integer.MAX_VALUE, size - position());
+	}
+	
+	@Override
+	public boolean markSupported()
+	{
+		return true;
+	}
+	
+	@Override
+	public synchronized void mark(int readLimit)
+	{
+		markPosition = position();
+	}
+	
+	@Override
+	public synchronized void reset() throws IOException
+	{
+		seek(markPosition);
+	}
+	
+	/**
+	 * (U) This method moves to a position in the file, mapping a new window if the position is
+	 * outside of the current one.
+	 * 
+	 * @param position long position, in the file, to move to.
+	 * @throws IOException in the event the file can not be mapped.
+	 */
+	private void seek(long position) throws IOException
+	{
+		if ((position >= windowStart) && (position <= windowStart + window.limit()))
+			window.position((int) (position - windowStart));
+		else
+			window = map(position);
+	}
+	
+	@Override
+	public void close() throws IOException
+	{
+		channel.close();
+	}
+}
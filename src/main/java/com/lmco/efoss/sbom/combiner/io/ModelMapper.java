@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.io;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.util.LicenseChoiceSerializer;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+/**
+ * (U) This class holds the mapper used to write pieces of a Software Bill of Materials (SBom),
+ * such as components and tools, as JSon that the default mapper (the one the CycloneDx parser
+ * uses) reads back exactly as they were. The CycloneDx generator's mapper trims strings, so it
+ * can not be used for this.
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ */
+public final class ModelMapper
+{
+	private static final ObjectMapper mapper = createMapper();
+	
+	/**
+	 * (U) Private Constructor as this class should not be instantiated.
+	 */
+	private ModelMapper()
+	{}
+	
+	/**
+	 * (U) This method returns the mapper, which is thread safe once created.
+	 * 
+	 * @return ObjectMapper to write (and read) the pieces of an SBom with.
+	 */
+	public static ObjectMapper get()
+	{
+		return mapper;
+	}
+	
+	/**
+	 * (U) This method sets the spec version of a Bom. Bom has no setter for it, so it is set the
+	 * way the JSon parser sets it.
+	 * 
+	 * @param bom         Bom to set the spec version of.
+	 * @param specVersion String value of the spec version (1.2 for example).
+	 * @throws IOException in the event the spec version can not be set.
+	 */
+	public static void setSpecVersion(Bom bom, String specVersion) throws IOException
+	{
+		mapper.readerForUpdating(bom).readValue(mapper.writeValueAsBytes(Collections
+				.singletonMap("specVersion", specVersion)));
+	}
+	
+	/**
+	 * (U) This method creates the mapper.
+	 * 
+	 * @return ObjectMapper created.
+	 */
+	private static ObjectMapper createMapper()
+	{
+		ObjectMapper objectMapper = new ObjectMapper();
+		objectMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+		SimpleModule module = new SimpleModule();
+		module.addSerializer(new LicenseChoiceSerializer());
+		objectMapper.registerModule(module);
+		return objectMapper;
+	}
+}
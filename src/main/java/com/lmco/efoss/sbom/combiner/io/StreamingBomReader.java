@@ -0,0 +1,329 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.io;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.Dependency;
+import org.cyclonedx.model.Metadata;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+
+/**
+ * (U) This class is used to read a CycloneDx Software Bill of Materials (SBom), JSon or XML, a
+ * piece at a time. Instead of building the whole Bom, the metadata, each component, and each
+ * dependency are handed to a BomContentHandler as soon as they are read, so only one component is
+ * held at a time. Everything else in the SBom is skipped.
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ */
+public class StreamingBomReader
+{
+	private static final String METADATA = "metadata";
+	private static final String COMPONENTS = "components";
+	private static final String COMPONENT = "component";
+	private static final String DEPENDENCIES = "dependencies";
+	private static final String DEPENDENCY = "dependency";
+	private static final String REF = "ref";
+	private static final String DEPENDS_ON = "dependsOn";
+	
+	// The same (default) mappers the CycloneDx parsers use.
+	private static final ObjectMapper jsonMapper = new ObjectMapper();
+	private static final XmlMapper xmlMapper = new XmlMapper();
+	private static final XMLInputFactory xmlInputFactory = xmlMapper.getFactory()
+			.getXMLInputFactory();
+	
+	/**
+	 * (U) Private Constructor as this class should not be instantiated.
+	 */
+	private StreamingBomReader()
+	{}
+	
+	/**
+	 * (U) This method is used to read an SBom, JSon or XML, from the stream passed in. A gzip or
+	 * Zstandard compressed SBom is read through the decompressor. The stream is not closed.
+	 * 
+	 * @param in      InputStream to read the SBom from.
+	 * @param handler BomContentHandler to hand the pieces of the SBom to.
+	 * @throws IOException in the event the SBom can not be read.
+	 */
+	public static void read(InputStream in, BomContentHandler handler) throws IOException
+	{
+		InputStream buffered = (in.markSupported()) ? in : new BufferedInputStream(in);
+		InputStream bomIn = BomCompression.decompress(buffered);
+		try
+		{
+			if (BomSnapshot.isSnapshot(bomIn))
+			{
+				readSnapshot(bomIn, handler);
+				return;
+			}
+			
+			BomFormat format = BomFormat.detect(bomIn);
+			if (format == BomFormat.JSON)
+				readJson(bomIn, handler);
+			else if (format == BomFormat.XML)
+				readXml(bomIn, handler);
+			else
+				throw new IOException("Input is not a JSon, XML, or snapshot SBom!");
+		}
+		finally
+		{
+			// Frees the decompressor, if there is one (the stream passed in is left open).
+			if (bomIn != buffered)
+				bomIn.close();
+		}
+	}
+	
+	/**
+	 * (U) This method reads a snapshot, written by BomSnapshot. A snapshot is read in whole (it is
+	 * compact, and quick to read), then handed over a piece at a time.
+	 * 
+	 * @param in      InputStream to read the snapshot from.
+	 * @param handler BomContentHandler to hand the pieces of the SBom to.
+	 * @throws IOException in the event the snapshot can not be read.
+	 */
+	private static void readSnapshot(InputStream in, BomContentHandler handler) throws IOException
+	{
+		Bom bom = BomSnapshot.read(in);
+		if (bom.getMetadata() != null)
+			handler.metadata(bom.getMetadata());
+		if (bom.getComponents() != null)
+		{
+			for (Component component : bom.getComponents())
+				handler.component(component);
+		}
+		if (bom.getDependencies() != null)
+		{
+			for (Dependency dependency : bom.getDependencies())
+				handler.dependency(dependency);
+		}
+	}
+	
+	/**
+	 * (U) This method reads a JSon SBom.
+	 * 
+	 * @param in      InputStream to read the SBom from.
+	 * @param handler BomContentHandler to hand the pieces of the SBom to.
+	 * @throws IOException in the event the SBom can not be read.
+	 */
+	private static void readJson(InputStream in, BomContentHandler handler) throws IOException
+	{
+		try (JsonParser parser = jsonMapper.getFactory().createParser(in))
+		{
+			parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+			if (parser.nextToken() != JsonToken.START_OBJECT)
+				throw new IOException("JSon SBom does not start with an object!");
+			
+			while (parser.nextToken() == JsonToken.FIELD_NAME)
+			{
+				String field = parser.getCurrentName();
+				JsonToken token = parser.nextToken();
+				
+				if ((METADATA.equals(field)) && (token == JsonToken.START_OBJECT))
+				{
+					handler.metadata(jsonMapper.readValue(parser, Metadata.class));
+				}
+				else if ((COMPONENTS.equals(field)) && (token == JsonToken.START_ARRAY))
+				{
+					while (parser.nextToken() == JsonToken.START_OBJECT)
+						handler.component(jsonMapper.readValue(parser, Component.class));
+				}
+				else if ((DEPENDENCIES.equals(field)) && (token == JsonToken.START_ARRAY))
+				{
+					while (parser.nextToken() == JsonToken.START_OBJECT)
+						handler.dependency(readJsonDependency(parser));
+				}
+				else
+				{
+					parser.skipChildren();
+				}
+			}
+		}
+	}
+	
+	/**
+	 * (U) This method reads a single dependency ({"ref": "", "dependsOn": []}) of a JSon SBom.
+	 * 
+	 * @param parser JsonParser positioned at the start of the dependency.
+	 * @return Dependency read in.
+	 * @throws IOException in the event the dependency can not be read.
+	 */
+	private static Dependency readJsonDependency(JsonParser parser) throws IOException
+	{
+		String ref = null;
+		List<Dependency> dependsOn = null;
+		while (parser.nextToken() == JsonToken.FIELD_NAME)
+		{
+			String field = parser.getCurrentName();
+			JsonToken token = parser.nextToken();
+			
+			if (REF.equals(field))
+			{
+				ref = parser.getValueAsString();
+			}
+			else if ((DEPENDS_ON.equals(field)) && (token == JsonToken.START_ARRAY))
+			{
+				dependsOn = new ArrayList<>();
+				while (parser.nextToken() != JsonToken.END_ARRAY)
+					dependsOn.add(new Dependency(parser.getValueAsString()));
+			}
+			else
+			{
+				parser.skipChildren();
+			}
+		}
+		
+		Dependency dependency = new Dependency(ref);
+		dependency.setDependencies(dependsOn);
+		return dependency;
+	}
+	
+	/**
+	 * (U) This method reads an XML SBom.
+	 * 
+	 * @param in      InputStream to read the SBom from.
+	 * @param handler BomContentHandler to hand the pieces of the SBom to.
+	 * @throws IOException in the event the SBom can not be read.
+	 */
+	private static void readXml(InputStream in, BomContentHandler handler) throws IOException
+	{
+		XMLStreamReader reader = null;
+		try
+		{
+			reader = xmlInputFactory.createXMLStreamReader(in);
+			reader.nextTag();
+			
+			// Walk the children of the root (bom) element.
+			while (reader.nextTag() == XMLStreamConstants.START_ELEMENT)
+			{
+				String name = reader.getLocalName();
+				if (METADATA.equals(name))
+				{
+					handler.metadata(xmlMapper.readValue(reader, Metadata.class));
+				}
+				else if (COMPONENTS.equals(name))
+				{
+					while (reader.nextTag() == XMLStreamConstants.START_ELEMENT)
+					{
+						if (COMPONENT.equals(reader.getLocalName()))
+							handler.component(xmlMapper.readValue(reader, Component.class));
+						else
+							skipElement(reader);
+					}
+				}
+				else if (DEPENDENCIES.equals(name))
+				{
+					while (reader.nextTag() == XMLStreamConstants.START_ELEMENT)
+					{
+						if (DEPENDENCY.equals(reader.getLocalName()))
+							handler.dependency(readXmlDependency(reader));
+						else
+							skipElement(reader);
+					}
+				}
+				else
+				{
+					skipElement(reader);
+				}
+			}
+		}
+		catch (XMLStreamException e)
+		{
+			throw new IOException("Failed to read XML SBom!", e);
+		}
+		finally
+		{
+			closeQuietly(reader);
+		}
+	}
+	
+	/**
+	 * (U) This method reads a single dependency (&lt;dependency ref=""&gt;&lt;dependency
+	 * ref=""/&gt;&lt;/dependency&gt;) of an XML SBom.
+	 * 
+	 * @param reader XMLStreamReader positioned at the start of the dependency.
+	 * @return Dependency read in.
+	 * @throws XMLStreamException in the event the dependency can not be read.
+	 */
+	private static Dependency readXmlDependency(XMLStreamReader reader)
+			throws XMLStreamException
+	{
+		Dependency dependency = new Dependency(reader.getAttributeValue(null, REF));
+		List<Dependency> dependsOn = null;
+		while (reader.nextTag() == XMLStreamConstants.START_ELEMENT)
+		{
+			if (DEPENDENCY.equals(reader.getLocalName()))
+			{
+				if (dependsOn == null)
+					dependsOn = new ArrayList<>();
+				dependsOn.add(new Dependency(reader.getAttributeValue(null, REF)));
+			}
+			skipElement(reader);
+		}
+		dependency.setDependencies(dependsOn);
+		return dependency;
+	}
+	
+	/**
+	 * (U) This method skips the element the reader is at (including all its children), leaving
+	 * the reader at the element's end tag.
+	 * 
+	 * @param reader XMLStreamReader positioned at the start of the element to skip.
+	 * @throws XMLStreamException in the event the element can not be read.
+	 */
+	private static void skipElement(XMLStreamReader reader) throws XMLStreamException
+	{
+		int depth = 1;
+		while (depth > 0)
+		{
+			int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT)
+				depth++;
+			else if (event == XMLStreamConstants.END_ELEMENT)
+				depth--;
+		}
+	}
+	
+	/**
+	 * (U) This method closes the XMLStreamReader, ignoring any errors.
+	 * 
+	 * @param reader XMLStreamReader to close, may be null.
+	 */
+	private static void closeQuietly(XMLStreamReader reader)
+	{
+		if (reader != null)
+		{
+			try
+			{
+				reader.close();
+			}
+			catch (XMLStreamException e)
+			{
+				// Nothing more we can do.
+			}
+		}
+	}
+}
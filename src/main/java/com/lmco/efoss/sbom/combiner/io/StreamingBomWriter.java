@@ -0,0 +1,413 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+import javax.xml.namespace.QName;
+
+import org.cyclonedx.CycloneDxSchema;
+import org.cyclonedx.generators.json.BomJsonGenerator13;
+import org.cyclonedx.generators.xml.BomXmlGenerator13;
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.Dependency;
+import org.cyclonedx.model.Metadata;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.DefaultIndenter;
+import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.xml.ser.ToXmlGenerator;
+import com.fasterxml.jackson.dataformat.xml.util.DefaultXmlPrettyPrinter;
+
+/**
+ * (U) This class writes a CycloneDx (1.3) Software Bill of Materials (SBom), JSon or XML, to a
+ * stream a piece at a time, as it is handed the pieces (as a BomContentHandler). Each piece is
+ * written, with the CycloneDx generator's own mapper, as soon as it is handed over, so neither the
+ * whole SBom nor its text is ever held in memory, and the output starts going out straight away.
+ * 
+ * <p>
+ * The pieces must be handed over in the order they are written: the metadata (if any), then the
+ * components, then the dependencies. The writer must be closed to finish the SBom; closing it
+ * flushes, but does not close, the stream.
+ * </p>
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ */
+public class StreamingBomWriter implements BomContentHandler, Closeable
+{
+	private static final String BOM_FORMAT = "CycloneDX";
+	private static final CycloneDxSchema.Version SCHEMA_VERSION = CycloneDxSchema.Version
+			.VERSION_13;
+	private static final String XML_NAMESPACE = "http://cyclonedx.org/schema/bom/1.3";
+	
+	// Flushing after every piece would push each one down the stream on its own.
+	private static final ObjectWriter jsonWriter = new BomJsonGenerator13(new Bom()).getMapper()
+			.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+	private static final ObjectWriter xmlWriter = new BomXmlGenerator13(new Bom()).getMapper()
+			.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+	
+	// Where the writer is in the SBom.
+	private static final int NOT_STARTED = 0;
+	private static final int HEADER = 1;
+	private static final int COMPONENTS = 2;
+	private static final int DEPENDENCIES = 3;
+	private static final int CLOSED = 4;
+	
+	private final BomFormat format;
+	private final JsonGenerator generator;
+	private final String serialNumber;
+	private final int version;
+	
+	private int state = NOT_STARTED;
+	private long componentsWritten = 0;
+	private long dependenciesWritten = 0;
+	private long toolsWritten = 0;
+	
+	/**
+	 * (U) Constructor, for an SBom with no serial number and version 1.
+	 * 
+	 * @param out    OutputStream to write the SBom to.
+	 * @param format BomFormat to write the SBom as.
+	 * @throws IOException in the event the writer can not be created.
+	 */
+	public StreamingBomWriter(OutputStream out, BomFormat format) throws IOException
+	{
+		this(out, format, null, 1);
+	}
+	
+	/**
+	 * (U) Constructor.
+	 * 
+	 * @param out          OutputStream to write the SBom to.
+	 * @param format       BomFormat to write the SBom as.
+	 * @param serialNumber String value of the serial number of the SBom, may be null.
+	 * @param version      int version of the SBom.
+	 * @throws IOException in the event the writer can not be created.
+	 */
+	public StreamingBomWriter(OutputStream out, BomFormat format, String serialNumber,
+			int version) throws IOException
+	{
+		this.format = format;
+		this.serialNumber = serialNumber;
+		this.version = version;
+		if (format == BomFormat.XML)
+		{
+			out.write(("<?xml version=\"1.0\" encoding=\"UTF-8\"?>" + System.lineSeparator())
+					.getBytes("UTF-8"));
+			generator = xmlWriter.getFactory().createGenerator(out);
+			generator.setPrettyPrinter(new DefaultXmlPrettyPrinter());
+		}
+		else
+		{
+			generator = jsonWriter.getFactory().createGenerator(out);
+			DefaultPrettyPrinter prettyPrinter = new DefaultPrettyPrinter();
+			prettyPrinter.indentArraysWith(DefaultIndenter.SYSTEM_LINEFEED_INSTANCE);
+			generator.setPrettyPrinter(prettyPrinter);
+		}
+		generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+	}
+	
+	/**
+	 * (U) This method writes a whole SBom to a stream. The stream is not closed.
+	 * 
+	 * @param bom    Bom to write.
+	 * @param format BomFormat to write the SBom as.
+	 * @param out    OutputStream to write the SBom to.
+	 * @throws IOException in the event the SBom can not be written.
+	 */
+	public static void write(Bom bom, BomFormat format, OutputStream out) throws IOException
+	{
+		try (StreamingBomWriter writer = new StreamingBomWriter(out, format, bom
+				.getSerialNumber(), bom.getVersion()))
+		{
+			if (bom.getMetadata() != null)
+				writer.metadata(bom.getMetadata());
+			if (bom.getComponents() != null)
+			{
+				for (Component component : bom.getComponents())
+					writer.component(component);
+			}
+			if (bom.getDependencies() != null)
+			{
+				for (Dependency dependency : bom.getDependencies())
+					writer.dependency(dependency);
+			}
+		}
+		catch (UncheckedIOException e)
+		{
+			throw e.getCause();
+		}
+	}
+	
+	/**
+	 * (U) This method writes the start of the SBom (with the metadata passed in).
+	 * 
+	 * @param metadata Metadata to write.
+	 * @throws UncheckedIOException in the event the metadata can not be written.
+	 */
+	@Override
+	public void metadata(Metadata metadata)
+	{
+		if (state != NOT_STARTED)
+			throw new IllegalStateException("The metadata must be written first!");
+		try
+		{
+			writeHeader();
+			generator.writeFieldName("metadata");
+			writer().writeValue(generator, metadata);
+			if (metadata.getTools() != null)
+				toolsWritten += metadata.getTools().size();
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	/**
+	 * (U) This method writes a component of the SBom.
+	 * 
+	 * @param component Component to write.
+	 * @throws UncheckedIOException in the event the component can not be written.
+	 */
+	@Override
+	public void component(Component component)
+	{
+		try
+		{
+			if (state < COMPONENTS)
+			{
+				moveTo(COMPONENTS);
+				generator.writeFieldName("components");
+				if (format == BomFormat.XML)
+					generator.writeStartObject();
+				else
+					generator.writeStartArray();
+			}
+			else if (state > COMPONENTS)
+			{
+				throw new IllegalStateException("Components must be written before the " +
+						"dependencies!");
+			}
+			
+			if (format == BomFormat.XML)
+				generator.writeFieldName("component");
+			writer().writeValue(generator, component);
+			componentsWritten++;
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	/**
+	 * (U) This method writes a dependency of the SBom, with the refs of its inner dependencies, as
+	 * the CycloneDx dependency serializer does.
+	 * 
+	 * @param dependency Dependency to write.
+	 * @throws UncheckedIOException in the event the dependency can not be written.
+	 */
+	@Override
+	public void dependency(Dependency dependency)
+	{
+		try
+		{
+			if (state < DEPENDENCIES)
+			{
+				moveTo(DEPENDENCIES);
+				generator.writeFieldName("dependencies");
+				if (format == BomFormat.XML)
+					generator.writeStartObject();
+				else
+					generator.writeStartArray();
+			}
+			
+			if (format == BomFormat.XML)
+				writeXmlDependency(dependency);
+			else
+				writeJsonDependency(dependency);
+			dependenciesWritten++;
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	/**
+	 * (U) This method writes a dependency as JSon, with the refs of its inner dependencies.
+	 * 
+	 * @param dependency Dependency to write.
+	 * @throws IOException in the event the dependency can not be written.
+	 */
+	private void writeJsonDependency(Dependency dependency) throws IOException
+	{
+		generator.writeStartObject();
+		generator.writeStringField("ref", dependency.getRef());
+		generator.writeArrayFieldStart("dependsOn");
+		List<Dependency> innerDeps = dependency.getDependencies();
+		if (innerDeps != null)
+		{
+			for (Dependency innerDep : innerDeps)
+				generator.writeString(innerDep.getRef());
+		}
+		generator.writeEndArray();
+		generator.writeEndObject();
+	}
+	
+	/**
+	 * (U) This method writes a dependency as XML, with its inner dependencies.
+	 * 
+	 * @param dependency Dependency to write.
+	 * @throws IOException in the event the dependency can not be written.
+	 */
+	private void writeXmlDependency(Dependency dependency) throws IOException
+	{
+		ToXmlGenerator xmlGenerator = (ToXmlGenerator) generator;
+		xmlGenerator.writeFieldName("dependency");
+		xmlGenerator.writeStartObject();
+		xmlGenerator.setNextIsAttribute(true);
+		xmlGenerator.writeStringField("ref", dependency.getRef());
+		xmlGenerator.setNextIsAttribute(false);
+		List<Dependency> innerDeps = dependency.getDependencies();
+		if (innerDeps != null)
+		{
+			for (Dependency innerDep : innerDeps)
+				writeXmlDependency(innerDep);
+		}
+		xmlGenerator.writeEndObject();
+	}
+	
+	/**
+	 * (U) This method finishes the SBom, and flushes the stream.
+	 * 
+	 * @throws IOException in the event the SBom can not be finished.
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		if (state == CLOSED)
+			return;
+		moveTo(CLOSED);
+		generator.close();
+	}
+	
+	/**
+	 * (U) This method moves the writer on to the next part of the SBom, writing the start of the
+	 * SBom, or the end of the part it was in, as need be.
+	 * 
+	 * @param next int the part of the SBom to move on to.
+	 * @throws IOException in the event the SBom can not be written.
+	 */
+	private void moveTo(int next) throws IOException
+	{
+		if (state == NOT_STARTED)
+			writeHeader();
+		else if ((state == COMPONENTS) || (state == DEPENDENCIES))
+			closePart();
+		
+		if (next == CLOSED)
+			generator.writeEndObject();
+		state = next;
+	}
+	
+	/**
+	 * (U) This method writes the end of the components, or dependencies.
+	 * 
+	 * @throws IOException in the event the SBom can not be written.
+	 */
+	private void closePart() throws IOException
+	{
+		if (format == BomFormat.XML)
+			generator.writeEndObject();
+		else
+			generator.writeEndArray();
+	}
+	
+	/**
+	 * (U) This method writes the start of the SBom, up to the metadata.
+	 * 
+	 * @throws IOException in the event the SBom can not be written.
+	 */
+	private void writeHeader() throws IOException
+	{
+		if (format == BomFormat.XML)
+		{
+			ToXmlGenerator xmlGenerator = (ToXmlGenerator) generator;
+			xmlGenerator.setNextName(new QName("bom"));
+			xmlGenerator.writeStartObject();
+			xmlGenerator.setNextIsAttribute(true);
+			if (serialNumber != null)
+				xmlGenerator.writeStringField("serialNumber", serialNumber);
+			xmlGenerator.writeNumberField("version", version);
+			xmlGenerator.writeStringField("xmlns", XML_NAMESPACE);
+			xmlGenerator.setNextIsAttribute(false);
+		}
+		else
+		{
+			generator.writeStartObject();
+			generator.writeStringField("bomFormat", BOM_FORMAT);
+			generator.writeStringField("specVersion", SCHEMA_VERSION.getVersionString());
+			if (serialNumber != null)
+				generator.writeStringField("serialNumber", serialNumber);
+			generator.writeNumberField("version", version);
+		}
+		state = HEADER;
+	}
+	
+	/**
+	 * (U) This method returns the writer for the pieces of the SBom in the format.
+	 * 
+	 * @return ObjectWriter for the format.
+	 */
+	private ObjectWriter writer()
+	{
+		return (format == BomFormat.XML) ? xmlWriter : jsonWriter;
+	}
+	
+	/**
+	 * (U) This method returns the number of components written.
+	 * 
+	 * @return long the number of components written.
+	 */
+	public long getComponentsWritten()
+	{
+		return componentsWritten;
+	}
+	
+	/**
+	 * (U) This method returns the number of dependencies written.
+	 * 
+	 * @return long the number of dependencies written.
+	 */
+	public long getDependenciesWritten()
+	{
+		return dependenciesWritten;
+	}
+	
+	/**
+	 * (U) This method returns the number of tools written in the metadata.
+	 * 
+	 * @return long the number of tools written.
+	 */
+	public long getToolsWritten()
+	{
+		return toolsWritten;
+	}
+}
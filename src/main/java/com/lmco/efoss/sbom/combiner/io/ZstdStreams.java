@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+
+/**
+ * (U) This class creates the Zstandard streams. It is the only class that uses zstd-jni (an
+ * optional dependency), so the rest of the combiner loads without it; it is only loaded once a
+ * Zstandard SBom is read or written.
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ */
+class ZstdStreams
+{
+	/**
+	 * (U) Private Constructor as this class should not be instantiated.
+	 */
+	private ZstdStreams()
+	{}
+	
+	/**
+	 * (U) This method creates the stream that decompresses a Zstandard SBom.
+	 * 
+	 * @param in InputStream of the compressed SBom.
+	 * @return InputStream of the uncompressed SBom.
+	 * @throws IOException in the event the stream can not be created.
+	 */
+	static InputStream decompress(InputStream in) throws IOException
+	{
+		return new ZstdInputStream(in);
+	}
+	
+	/**
+	 * (U) This method creates the stream that compresses an SBom with Zstandard.
+	 * 
+	 * @param out OutputStream to write the compressed SBom to.
+	 * @return OutputStream to write the SBom to.
+	 * @throws IOException in the event the stream can not be created.
+	 */
+	static OutputStream compress(OutputStream out) throws IOException
+	{
+		return new ZstdOutputStream(out);
+	}
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.utils;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.ExternalReference;
+import org.cyclonedx.model.Hash;
+import org.cyclonedx.model.License;
+import org.cyclonedx.model.LicenseChoice;
+import org.cyclonedx.model.Property;
+
+/**
+ * (U) This class is used to canonicalize the values that repeat across the components of a
+ * combine (groups, versions, license ids, hash algorithms, references, ...), so the combined SBom
+ * holds a single copy of each instead of one for every SBom it was read from. Licenses without
+ * text are shared as whole objects. An interner is scoped to a single combine, and is dropped
+ * with it, so unlike String.intern() nothing outlives the combine.
+ * 
+ * <p>
+ * An interner is safe to share between the threads of a combine.
+ * </p>
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ */
+public class BomInterner
+{
+	private final ConcurrentHashMap<String, String> strings = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<LicenseKey, License> licenses = new ConcurrentHashMap<>();
+	
+	/**
+	 * (U) This class is the key of a License without text.
+	 */
+	private static final class LicenseKey
+	{
+		private final String id;
+		private final String name;
+		private final String url;
+		
+		/**
+		 * (U) Constructor.
+		 * 
+		 * @param license License to create the key of.
+		 */
+		private LicenseKey(License license)
+		{
+			this.id = license.getId();
+			this.name = license.getName();
+			this.url = license.getUrl();
+		}
+		
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (this == obj)
+				return true;
+			if (!(obj instanceof LicenseKey))
+				return false;
+			LicenseKey other = (LicenseKey) obj;
+			return ((Objects.equals(id, other.id)) && (Objects.equals(name, other.name)) &&
+					(Objects.equals(url, other.url)));
+		}
+		
+		@Override
+		public int hashCode()
+		{
+			return Objects.hash(id, name, url);
+		}
+	}
+	
+	/**
+	 * (U) This method returns the canonical copy of a String.
+	 * 
+	 * @param value String to canonicalize, may be null.
+	 * @return String the canonical copy (equal to the value passed in), null if it was null.
+	 */
+	public String intern(String value)
+	{
+		if (value == null)
+			return null;
+		String canonical = strings.putIfAbsent(value, value);
+		return (canonical != null) ? canonical : value;
+	}
+	
+	/**
+	 * (U) This method returns the number of unique Strings held.
+	 * 
+	 * @return int the number of Strings.
+	 */
+	public int size()
+	{
+		return strings.size();
+	}
+	
+	/**
+	 * (U) This method canonicalizes the repeated values of a component (and its sub components),
+	 * in place.
+	 * 
+	 * @param component Component to canonicalize.
+	 */
+	public void intern(Component component)
+	{
+		component.setGroup(intern(component.getGroup()));
+		component.setName(intern(component.getName()));
+		component.setVersion(intern(component.getVersion()));
+		component.setPublisher(intern(component.getPublisher()));
+		component.setAuthor(intern(component.getAuthor()));
+		// The bom-ref is also every dependency's ref, and is often the purl.
+		component.setBomRef(intern(component.getBomRef()));
+		if (component.getPurl() != null)
+			component.setPurl(intern(component.getPurl()));
+		
+		internLicenses(component.getLicenseChoice());
+		internHashes(component.getHashes());
+		
+		List<ExternalReference> refs = component.getExternalReferences();
+		if (refs != null)
+		{
+			for (ExternalReference ref : refs)
+			{
+				ref.setUrl(intern(ref.getUrl()));
+				ref.setComment(intern(ref.getComment()));
+				internHashes(ref.getHashes());
+			}
+		}
+		
+		List<Property> properties = component.getProperties();
+		if (properties != null)
+		{
+			for (Property property : properties)
+			{
+				property.setName(intern(property.getName()));
+				property.setValue(intern(property.getValue()));
+			}
+		}
+		
+		List<Component> subComponents = component.getComponents();
+		if (subComponents != null)
+		{
+			for (Component subComponent : subComponents)
+				intern(subComponent);
+		}
+	}
+	
+	/**
+	 * (U) This method canonicalizes the licenses of a component, sharing the License objects of
+	 * licenses without text.
+	 * 
+	 * @param licenseChoice LicenseChoice to canonicalize, may be null.
+	 */
+	private void internLicenses(LicenseChoice licenseChoice)
+	{
+		if (licenseChoice == null)
+			return;
+		
+		// Setting the expression clears the licenses, so only set it if there is one.
+		if (licenseChoice.getExpression() != null)
+			licenseChoice.setExpression(intern(licenseChoice.getExpression()));
+		List<License> choices = licenseChoice.getLicenses();
+		if (choices != null)
+		{
+			for (int i = 0; i < choices.size(); i++)
+			{
+				License license = choices.get(i);
+				if (license.getAttachmentText() != null)
+					continue;
+				
+				License canonical = licenses.get(new LicenseKey(license));
+				if (canonical == null)
+				{
+					license.setId(intern(license.getId()));
+					license.setName(intern(license.getName()));
+					license.setUrl(intern(license.getUrl()));
+					canonical = licenses.putIfAbsent(new LicenseKey(license), license);
+					if (canonical == null)
+						canonical = license;
+				}
+				choices.set(i, canonical);
+			}
+		}
+	}
+	
+	/**
+	 * (U) This method canonicalizes the algorithms of a list of hashes, replacing each Hash (they
+	 * can not be changed) with one using the canonical algorithm.
+	 * 
+	 * @param hashes List of Hashes to canonicalize, may be null.
+	 */
+	private void internHashes(List<Hash> hashes)
+	{
+		if (hashes == null)
+			return;
+		
+		for (int i = 0; i < hashes.size(); i++)
+		{
+			Hash hash = hashes.get(i);
+			String algorithm = intern(hash.getAlgorithm());
+			if (algorithm != hash.getAlgorithm())
+				hashes.set(i, new Hash(algorithm, hash.getValue()));
+		}
+	}
+}
@@ -0,0 +1,346 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.utils;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.log4j.Logger;
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.Dependency;
+import org.cyclonedx.model.ExternalReference;
+import org.cyclonedx.model.Metadata;
+
+import com.lmco.efoss.sbom.combiner.io.BomContentHandler;
+
+/**
+ * (U) This class holds the state of a combine. Software Bill of Materials (SBom) are merged into
+ * it one at a time, in order, either as a whole Bom or a piece at a time (as a
+ * BomContentHandler), and the combined SBom can be built from it at any point.
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ */
+public class BomMerger implements BomContentHandler
+{
+	private static final Logger logger = Logger.getLogger(BomMerger.class.getName());
+	
+	private final ComponentIndex components;
+	private final DependencyGraph dependencies;
+	private final BomInterner interner;
+	private final boolean mergeDuplicates;
+	
+	private final List<Component> outerComps = new ArrayList<>();
+	private final ToolIndex toolsUsed = new ToolIndex();
+	
+	private long componentsIn = 0;
+	private long dependenciesIn = 0;
+	private long toolsIn = 0;
+	
+	private CombineCancellation cancellation = null;
+	
+	/**
+	 * (U) Constructs a new, empty, BomMerger.
+	 */
+	public BomMerger()
+	{
+		this(null);
+	}
+	
+	/**
+	 * (U) Constructs a new, empty, BomMerger that canonicalizes the components and dependencies
+	 * it keeps. The components are canonicalized in place, so a merger with an interner must only
+	 * be given components the combine owns, never shared ones (such as those of a BomFileCache).
+	 * 
+	 * @param interner BomInterner to canonicalize with, null to keep them as they are.
+	 */
+	public BomMerger(BomInterner interner)
+	{
+		this(interner, false);
+	}
+	
+	/**
+	 * (U) Constructs a new, empty, BomMerger.
+	 * 
+	 * @param interner        BomInterner to canonicalize with, null to keep them as they are.
+	 * @param mergeDuplicates boolean true to fold the hashes, licenses, external references, and
+	 *                        properties of duplicate components into the one kept, false to drop
+	 *                        the duplicates.
+	 */
+	public BomMerger(BomInterner interner, boolean mergeDuplicates)
+	{
+		this.interner = interner;
+		this.mergeDuplicates = mergeDuplicates;
+		this.components = new ComponentIndex(mergeDuplicates);
+		this.dependencies = new DependencyGraph(interner);
+	}
+	
+	/**
+	 * (U) This method sets the cancellation checked (every so often) while merging, so a
+	 * cancelled combine stops part way through an SBom.
+	 * 
+	 * @param cancellation CombineCancellation to check, null to never stop.
+	 */
+	void setCancellation(CombineCancellation cancellation)
+	{
+		this.cancellation = cancellation;
+	}
+	
+	/**
+	 * (U) Because of a bug in CycloneDx's creation of a JSon SBom, I had to add this code to make
+	 * Sure all External References have a type. Their code throws a Null Pointer.
+	 * 
+	 * @param component Component to check (and fill in if necessary) any External References
+	 *                  without a type set.
+	 */
+	static void checkReferenceTypes(Component component)
+	{
+		List<ExternalReference> refs = component.getExternalReferences();
+		if (refs != null)
+		{
+			for (ExternalReference ref : refs)
+			{
+				if (ref.getType() == null)
+					ref.setType(ExternalReference.Type.OTHER);
+			}
+		}
+	}
+	
+	/**
+	 * (U) This method is used to merge a Software Bill of Materials (SBom) into the combine.
+	 * 
+	 * @param bom Bom to merge in.
+	 */
+	public void merge(Bom bom)
+	{
+		if (bom.getMetadata() != null)
+		{
+			Object event = CombinerEvents.beginToolsMerge();
+			long before = toolsIn;
+			metadata(bom.getMetadata());
+			CombinerEvents.endToolsMerge(event, (int) (toolsIn - before), toolsUsed.size());
+		}
+		
+		// Process Components.
+		List<Component> bomComps = bom.getComponents();
+		if (bomComps != null)
+		{
+			Object event = CombinerEvents.beginComponentMerge();
+			int before = components.size();
+			for (Component bomComp : bomComps)
+				component(bomComp);
+			CombinerEvents.endComponentMerge(event, bomComps.size(), components.size() - before,
+					components.size());
+		}
+		
+		// Process Dependencies.
+		List<Dependency> bomDeps = bom.getDependencies();
+		if (bomDeps != null)
+		{
+			Object event = CombinerEvents.beginDependencyMerge();
+			int before = dependencies.size();
+			for (Dependency bomDep : bomDeps)
+				dependency(bomDep);
+			CombinerEvents.endDependencyMerge(event, bomDeps.size(), dependencies.size() - before,
+					dependencies.size());
+		}
+	}
+	
+	/**
+	 * (U) This method is used to merge everything another merger holds into this one, as if the
+	 * SBoms merged into it had been merged into this one (in the same order) after ours. This is
+	 * associative, so partial combines can be merged together in any grouping, as long as their
+	 * order is kept.
+	 * 
+	 * @param other BomMerger to merge in.
+	 */
+	public void merge(BomMerger other)
+	{
+		if (cancellation != null)
+			cancellation.check();
+		
+		Object event = CombinerEvents.beginMergerMerge();
+		toolsUsed.addAll(other.toolsUsed);
+		outerComps.addAll(other.outerComps);
+		components.addAll(other.components);
+		dependencies.addAll(other.dependencies);
+		CombinerEvents.endMergerMerge(event, other.components.size(), components.size(),
+				other.dependencies.size(), dependencies.size());
+		
+		componentsIn += other.componentsIn;
+		dependenciesIn += other.dependenciesIn;
+		toolsIn += other.toolsIn;
+	}
+	
+	/**
+	 * (U) This method is used to merge the tools, and outer component, of an SBom's metadata into
+	 * the combine.
+	 * 
+	 * @param metadata Metadata to merge in.
+	 */
+	@Override
+	public void metadata(Metadata metadata)
+	{
+		if ((metadata.getTools() != null) && (!metadata.getTools().isEmpty()))
+		{
+			toolsIn += metadata.getTools().size();
+			toolsUsed.addAll(metadata.getTools());
+		}
+		
+		if (metadata.getComponent() != null)
+			outerComps.add(metadata.getComponent());
+	}
+	
+	/**
+	 * (U) This method is used to merge a component into the combine, if we do not already have
+	 * it. If we do, and the merger merges duplicates, its attributes are folded into ours.
+	 * 
+	 * @param component Component to merge in.
+	 */
+	@Override
+	public void component(Component component)
+	{
+		if ((cancellation != null) && (componentsIn % CombineCancellation.CHECK_INTERVAL == 0))
+			cancellation.check();
+		componentsIn++;
+		if ((interner != null) && (!components.contains(component)))
+		{
+			// Canonicalized before it is added, so its key holds the canonical values too.
+			interner.intern(component);
+		}
+		
+		if (components.add(component))
+			checkReferenceTypes(component);
+		else if (logger.isDebugEnabled())
+			logger.debug("We already have component(" + component.getName() + ", " +
+					component.getGroup() + ", " + component.getVersion() + ")");
+	}
+	
+	/**
+	 * (U) This method is used to merge a dependency, and its inner dependencies, into the
+	 * combine.
+	 * 
+	 * @param dependency Dependency to merge in.
+	 */
+	@Override
+	public void dependency(Dependency dependency)
+	{
+		if ((cancellation != null) && (dependenciesIn % CombineCancellation.CHECK_INTERVAL == 0))
+			cancellation.check();
+		dependenciesIn++;
+		if ((!dependencies.add(dependency)) && (logger.isDebugEnabled()))
+			logger.debug("Dependency (" + dependency.getRef() +
+					") found.  Adding inner depenencies.");
+	}
+	
+	/**
+	 * (U) This method is used to build the combined Software Bill of Materials (SBom) from what
+	 * has been merged in so far. The outer (metadata) components are added to the end of the
+	 * components if they are not already there. If duplicates are merged, an outer component that
+	 * is already there has its attributes folded in, like any other duplicate. This does not
+	 * change the state of the merger, so more SBoms can still be merged in afterwards.
+	 * 
+	 * @return Bom the combined Software Bill of Materials.
+	 */
+	public Bom toBom()
+	{
+		Bom combinedSBom = new Bom();
+		
+		List<Component> combinedComps;
+		
+		// Add in outer Components if they are not already there.
+		Object event = CombinerEvents.beginOuterComponents();
+		int outerAdded;
+		if (mergeDuplicates)
+		{
+			// Folded into a copy of the index, so the components we hold are not changed.
+			ComponentIndex withOuter = new ComponentIndex(true);
+			withOuter.addAll(components);
+			for (Component bomComp : outerComps)
+			{
+				checkReferenceTypes(bomComp);
+				withOuter.add(bomComp);
+			}
+			combinedComps = withOuter.getComponents();
+			outerAdded = withOuter.size() - components.size();
+		}
+		else
+		{
+			combinedComps = components.getComponents();
+			Set<ComponentKey> outerKeys = new HashSet<>();
+			for (Component bomComp : outerComps)
+			{
+				ComponentKey key = ComponentKey.of(bomComp);
+				if ((components.get(key) == null) && (outerKeys.add(key)))
+				{
+					checkReferenceTypes(bomComp);
+					combinedComps.add(bomComp);
+				}
+				else if (logger.isDebugEnabled())
+					logger.debug("We already have component(" + bomComp.getName() + ", " +
+							bomComp.getGroup() + ", " + bomComp.getVersion() + ")");
+			}
+			outerAdded = outerKeys.size();
+		}
+		CombinerEvents.endOuterComponents(event, outerComps.size(), outerAdded);
+		
+		Metadata combinedSBomMetadata = new Metadata();
+		combinedSBomMetadata.setTools(toolsUsed.getTools());
+		combinedSBom.setMetadata(combinedSBomMetadata);
+		
+		combinedSBom.setComponents(combinedComps);
+		combinedSBom.setDependencies(dependencies.getDependencies());
+		return combinedSBom;
+	}
+	
+	/**
+	 * (U) This method returns the number of components merged in (including duplicates).
+	 * 
+	 * @return long the number of components merged in.
+	 */
+	public long getComponentsIn()
+	{
+		return componentsIn;
+	}
+	
+	/**
+	 * (U) This method returns the number of unique components merged in (not counting the outer
+	 * components).
+	 * 
+	 * @return long the number of unique components.
+	 */
+	public long getUniqueComponents()
+	{
+		return components.size();
+	}
+	
+	/**
+	 * (U) This method returns the number of dependencies merged in (including duplicates).
+	 * 
+	 * @return long the number of dependencies merged in.
+	 */
+	public long getDependenciesIn()
+	{
+		return dependenciesIn;
+	}
+	
+	/**
+	 * (U) This method returns the number of tools merged in (including duplicates).
+	 * 
+	 * @return long the number of tools merged in.
+	 */
+	public long getToolsIn()
+	{
+		return toolsIn;
+	}
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.utils;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * (U) This class is used to stop an asynchronous combine that has been cancelled, or has run past
+ * its deadline. The combine checks it between inputs and every so often inside its merge loops;
+ * once stopped, the next check throws a CancellationException. Stopping it also interrupts the
+ * thread running the combine, so it does not sit waiting on an SBom being read in.
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ */
+class CombineCancellation
+{
+	// How many components (or dependencies) are merged between checks.
+	static final int CHECK_INTERVAL = 256;
+	
+	private final long deadline;
+	private final boolean hasDeadline;
+	
+	private volatile boolean cancelled = false;
+	private volatile boolean timedOut = false;
+	private Thread runner = null;
+	private boolean interrupted = false;
+	
+	/**
+	 * (U) This class holds the (single, daemon) thread deadlines are run out on, created the first
+	 * time one is needed.
+	 */
+	private static class TimerHolder
+	{
+		private static final ScheduledThreadPoolExecutor timer = createTimer();
+		
+		/**
+		 * (U) This method creates the timer.
+		 * 
+		 * @return ScheduledThreadPoolExecutor to run the deadlines on.
+		 */
+		private static ScheduledThreadPoolExecutor createTimer()
+		{
+			ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1,
+					ParallelBomLoader.createThreadFactory("SBomCombiner-timer-"));
+			timer.setRemoveOnCancelPolicy(true);
+			return timer;
+		}
+	}
+	
+	/**
+	 * (U) This method runs an action once a deadline is reached.
+	 * 
+	 * @param action       Runnable to run at the deadline.
+	 * @param timeoutNanos long time, in nanoseconds, from now until the deadline.
+	 * @return ScheduledFuture to cancel the action with, if the deadline is no longer needed.
+	 */
+	static ScheduledFuture<?> schedule(Runnable action, long timeoutNanos)
+	{
+		return TimerHolder.timer.schedule(action, timeoutNanos, TimeUnit.NANOSECONDS);
+	}
+	
+	/**
+	 * (U) Constructor.
+	 * 
+	 * @param timeoutNanos long time, in nanoseconds, the combine may run for, 0 or less for no
+	 *                     deadline.
+	 */
+	CombineCancellation(long timeoutNanos)
+	{
+		this.hasDeadline = (timeoutNanos > 0);
+		this.deadline = (hasDeadline) ? System.nanoTime() + timeoutNanos : 0;
+	}
+	
+	/**
+	 * (U) This method checks if the combine should stop.
+	 * 
+	 * @throws CancellationException if the combine has been cancelled or is past its deadline.
+	 */
+	void check()
+	{
+		if ((!cancelled) && (hasDeadline) && (System.nanoTime() - deadline >= 0))
+			timeOut();
+		if (cancelled)
+			throw new CancellationException((timedOut) ? "The combine timed out!"
+					: "The combine was cancelled!");
+	}
+	
+	/**
+	 * (U) This method cancels the combine.
+	 */
+	void cancel()
+	{
+		stop(false);
+	}
+	
+	/**
+	 * (U) This method stops the combine as it is past its deadline.
+	 */
+	void timeOut()
+	{
+		stop(true);
+	}
+	
+	/**
+	 * (U) This method stops the combine, interrupting the thread running it (if it is running).
+	 * 
+	 * @param deadlinePassed boolean true if it is stopped because it is past its deadline.
+	 */
+	private synchronized void stop(boolean deadlinePassed)
+	{
+		if (cancelled)
+			return;
+		timedOut = deadlinePassed;
+		cancelled = true;
+		if (runner != null)
+		{
+			runner.interrupt();
+			interrupted = true;
+		}
+	}
+	
+	/**
+	 * (U) This method is used to see if the combine has been stopped.
+	 * 
+	 * @return boolean true if it has been cancelled or is past its deadline.
+	 */
+	boolean isCancelled()
+	{
+		return cancelled;
+	}
+	
+	/**
+	 * (U) This method is used to see if the combine was stopped as it is past its deadline.
+	 * 
+	 * @return boolean true if it timed out.
+	 */
+	boolean isTimedOut()
+	{
+		return timedOut;
+	}
+	
+	/**
+	 * (U) This method records the thread that has started running the combine.
+	 * 
+	 * @param thread Thread running the combine.
+	 * @return boolean true if the combine should go ahead, false if it was stopped before it
+	 *         started.
+	 */
+	synchronized boolean start(Thread thread)
+	{
+		if (cancelled)
+			return false;
+		runner = thread;
+		return true;
+	}
+	
+	/**
+	 * (U) This method records that the combine has finished running, clearing the interrupt this
+	 * cancellation left on the thread (which may be an executor's, going on to other work). An
+	 * interrupt from anywhere else (such as the executor shutting down) is left alone.
+	 */
+	void finish()
+	{
+		boolean sentInterrupt;
+		synchronized (this)
+		{
+			runner = null;
+			sentInterrupt = interrupted;
+			interrupted = false;
+		}
+		if (sentInterrupt)
+			Thread.interrupted();
+	}
+}
@@ -0,0 +1,456 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.cyclonedx.model.Bom;
+
+import com.lmco.efoss.sbom.combiner.io.StreamingBomWriter;
+
+/**
+ * (U) This class holds the statistics of a combine: how long each Software Bill of Materials
+ * (SBom) took to read in (and how big it was), how many components, dependencies, and tools went
+ * in and came out (and so how many were duplicates), and how long the merging and the whole
+ * combine took. A report is filled in by passing it to the combine in its SBomCombinerOptions;
+ * each combine starts it over, so a report holds the statistics of one combine, and should not be
+ * shared by combines running at the same time (asynchronous ones included, which fill it in as
+ * they run). Without one, none of this is collected.
+ * 
+ * <p>
+ * When streaming, each SBom is merged as it is read, so its read time includes merging it and
+ * the merge time is not counted on its own.
+ * </p>
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ */
+public class CombineReport
+{
+	private final List<InputStats> inputs = new ArrayList<>();
+	
+	private long componentsIn = 0;
+	private long uniqueComponents = 0;
+	private long componentsOut = 0;
+	private long dependenciesIn = 0;
+	private long dependenciesOut = 0;
+	private long toolsIn = 0;
+	private long toolsOut = 0;
+	
+	private long mergeNanos = 0;
+	private long totalNanos = 0;
+	private boolean resultCacheHit = false;
+	
+	/**
+	 * (U) This class holds the statistics of a single SBom read in.
+	 */
+	public static class InputStats
+	{
+		private final int index;
+		private final String name;
+		private final long bytes;
+		private final long readNanos;
+		
+		/**
+		 * (U) Constructor.
+		 * 
+		 * @param index     int position of the SBom in the inputs.
+		 * @param name      String value of the file name (or description) of the SBom.
+		 * @param bytes     long size of the SBom, in bytes, -1 if not known.
+		 * @param readNanos long time, in nanoseconds, taken to read in the SBom.
+		 */
+		InputStats(int index, String name, long bytes, long readNanos)
+		{
+			this.index = index;
+			this.name = name;
+			this.bytes = bytes;
+			this.readNanos = readNanos;
+		}
+		
+		/**
+		 * (U) This method returns the position of the SBom in the inputs.
+		 * 
+		 * @return int position of the SBom.
+		 */
+		public int getIndex()
+		{
+			return index;
+		}
+		
+		/**
+		 * (U) This method returns the file name (or description) of the SBom.
+		 * 
+		 * @return String value of the name of the SBom.
+		 */
+		public String getName()
+		{
+			return name;
+		}
+		
+		/**
+		 * (U) This method returns the size of the SBom.
+		 * 
+		 * @return long size of the SBom, in bytes, -1 if not known.
+		 */
+		public long getBytes()
+		{
+			return bytes;
+		}
+		
+		/**
+		 * (U) This method returns the time taken to read in the SBom.
+		 * 
+		 * @return long time, in nanoseconds, taken to read in the SBom.
+		 */
+		public long getReadNanos()
+		{
+			return readNanos;
+		}
+		
+		@Override
+		public String toString()
+		{
+			return "Input " + index + " (" + name + "): " + bytes + " bytes, read in " +
+					TimeUnit.NANOSECONDS.toMillis(readNanos) + " ms";
+		}
+	}
+	
+	/**
+	 * (U) This method starts the report over, for a new combine.
+	 */
+	synchronized void reset()
+	{
+		inputs.clear();
+		componentsIn = 0;
+		uniqueComponents = 0;
+		componentsOut = 0;
+		dependenciesIn = 0;
+		dependenciesOut = 0;
+		toolsIn = 0;
+		toolsOut = 0;
+		mergeNanos = 0;
+		totalNanos = 0;
+		resultCacheHit = false;
+	}
+	
+	/**
+	 * (U) This method records an SBom that has been read in.
+	 * 
+	 * @param index     int position of the SBom in the inputs.
+	 * @param name      String value of the file name (or description) of the SBom.
+	 * @param bytes     long size of the SBom, in bytes, -1 if not known.
+	 * @param readNanos long time, in nanoseconds, taken to read in the SBom.
+	 */
+	synchronized void addInput(int index, String name, long bytes, long readNanos)
+	{
+		inputs.add(new InputStats(index, name, bytes, readNanos));
+	}
+	
+	/**
+	 * (U) This method adds to the time spent merging.
+	 * 
+	 * @param nanos long time, in nanoseconds, spent merging.
+	 */
+	synchronized void addMergeTime(long nanos)
+	{
+		mergeNanos += nanos;
+	}
+	
+	/**
+	 * (U) This method records what went into the combine, and what came out.
+	 * 
+	 * @param merger       BomMerger holding everything merged in.
+	 * @param combinedSBom Bom the combined SBom built from the merger.
+	 */
+	void recordCounts(BomMerger merger, Bom combinedSBom)
+	{
+		recordCounts(merger.getComponentsIn(), merger.getUniqueComponents(), merger
+				.getDependenciesIn(), merger.getToolsIn(), combinedSBom);
+	}
+	
+	/**
+	 * (U) This method records what went into an external (spilled to disk) combine, and what came
+	 * out.
+	 * 
+	 * @param merger       ExternalMerger holding the counts of everything merged in.
+	 * @param combinedSBom Bom the combined SBom built from the merger.
+	 */
+	void recordCounts(ExternalMerger merger, Bom combinedSBom)
+	{
+		recordCounts(merger.getComponentsIn(), merger.getUniqueComponents(), merger
+				.getDependenciesIn(), merger.getToolsIn(), combinedSBom);
+	}
+	
+	/**
+	 * (U) This method records what went into an external (spilled to disk) combine, and what was
+	 * written out.
+	 * 
+	 * @param merger ExternalMerger holding the counts of everything merged in.
+	 * @param writer StreamingBomWriter the combined SBom was written out with.
+	 */
+	void recordCounts(ExternalMerger merger, StreamingBomWriter writer)
+	{
+		recordCounts(merger.getComponentsIn(), merger.getUniqueComponents(), merger
+				.getDependenciesIn(), merger.getToolsIn(), writer.getComponentsWritten(), writer
+						.getDependenciesWritten(), writer.getToolsWritten());
+	}
+	
+	/**
+	 * (U) This method records what went into a sharded combine, and what came out.
+	 * 
+	 * @param partial      PartialCombine holding every shard.
+	 * @param combinedSBom Bom the combined SBom built from the partial combine.
+	 */
+	void recordCounts(PartialCombine partial, Bom combinedSBom)
+	{
+		recordCounts(partial.getComponentsIn(), partial.getUniqueComponents(), partial
+				.getDependenciesIn(), partial.getToolsIn(), combinedSBom);
+	}
+	
+	/**
+	 * (U) This method records what an incremental combine holds, and what came out of it.
+	 * 
+	 * @param combine      IncrementalCombine holding the SBoms.
+	 * @param combinedSBom Bom the combined SBom built from it.
+	 */
+	void recordCounts(IncrementalCombine combine, Bom combinedSBom)
+	{
+		recordCounts(combine.getComponentsIn(), combine.getUniqueComponents(), combine
+				.getDependenciesIn(), combine.getToolsIn(), combinedSBom);
+	}
+	
+	/**
+	 * (U) This method records the counts of what went into the combine, and what came out.
+	 * 
+	 * @param componentsIn     long the number of components merged in.
+	 * @param uniqueComponents long the number of unique components merged in.
+	 * @param dependenciesIn   long the number of dependencies merged in.
+	 * @param toolsIn          long the number of tools merged in.
+	 * @param combinedSBom     Bom the combined SBom.
+	 */
+	private void recordCounts(long componentsIn, long uniqueComponents, long dependenciesIn,
+			long toolsIn, Bom combinedSBom)
+	{
+		long componentsOut = (combinedSBom.getComponents() != null) ? combinedSBom
+				.getComponents().size() : 0;
+		long dependenciesOut = (combinedSBom.getDependencies() != null) ? combinedSBom
+				.getDependencies().size() : 0;
+		long toolsOut = ((combinedSBom.getMetadata() != null) &&
+				(combinedSBom.getMetadata().getTools() != null)) ? combinedSBom.getMetadata()
+						.getTools().size() : 0;
+		recordCounts(componentsIn, uniqueComponents, dependenciesIn, toolsIn, componentsOut,
+				dependenciesOut, toolsOut);
+	}
+	
+	/**
+	 * (U) This method records the counts of what went into the combine, and what came out.
+	 * 
+	 * @param componentsIn     long the number of components merged in.
+	 * @param uniqueComponents long the number of unique components merged in.
+	 * @param dependenciesIn   long the number of dependencies merged in.
+	 * @param toolsIn          long the number of tools merged in.
+	 * @param componentsOut    long the number of components in the combined SBom.
+	 * @param dependenciesOut  long the number of dependencies in the combined SBom.
+	 * @param toolsOut         long the number of tools in the combined SBom.
+	 */
+	private synchronized void recordCounts(long componentsIn, long uniqueComponents,
+			long dependenciesIn, long toolsIn, long componentsOut, long dependenciesOut,
+			long toolsOut)
+	{
+		this.componentsIn = componentsIn;
+		this.uniqueComponents = uniqueComponents;
+		this.dependenciesIn = dependenciesIn;
+		this.toolsIn = toolsIn;
+		this.componentsOut = componentsOut;
+		this.dependenciesOut = dependenciesOut;
+		this.toolsOut = toolsOut;
+	}
+	
+	/**
+	 * (U) This method records how the combine finished.
+	 * 
+	 * @param nanos          long time, in nanoseconds, the whole combine took.
+	 * @param resultCacheHit boolean true if the combined SBom came from the result cache.
+	 */
+	synchronized void finish(long nanos, boolean resultCacheHit)
+	{
+		this.totalNanos = nanos;
+		this.resultCacheHit = resultCacheHit;
+	}
+	
+	/**
+	 * (U) This method returns the statistics of each SBom read in, in the order of the inputs.
+	 * 
+	 * @return List of InputStats.
+	 */
+	public synchronized List<InputStats> getInputs()
+	{
+		List<InputStats> sorted = new ArrayList<>(inputs);
+		Collections.sort(sorted, Comparator.comparingInt(InputStats::getIndex));
+		return sorted;
+	}
+	
+	/**
+	 * (U) This method returns the total size of the SBoms read in.
+	 * 
+	 * @return long size, in bytes, of the SBoms whose size is known.
+	 */
+	public synchronized long getBytesIn()
+	{
+		long bytes = 0;
+		for (InputStats input : inputs)
+		{
+			if (input.getBytes() > 0)
+				bytes += input.getBytes();
+		}
+		return bytes;
+	}
+	
+	/**
+	 * (U) This method returns the number of components in all the SBoms read in.
+	 * 
+	 * @return long the number of components in.
+	 */
+	public synchronized long getComponentsIn()
+	{
+		return componentsIn;
+	}
+	
+	/**
+	 * (U) This method returns the number of components in the combined SBom (including the outer
+	 * components added to it).
+	 * 
+	 * @return long the number of components out.
+	 */
+	public synchronized long getComponentsOut()
+	{
+		return componentsOut;
+	}
+	
+	/**
+	 * (U) This method returns the number of components that were dropped as we already had them.
+	 * 
+	 * @return long the number of duplicate components.
+	 */
+	public synchronized long getDuplicateComponents()
+	{
+		return componentsIn - uniqueComponents;
+	}
+	
+	/**
+	 * (U) This method returns the number of dependencies in all the SBoms read in.
+	 * 
+	 * @return long the number of dependencies in.
+	 */
+	public synchronized long getDependenciesIn()
+	{
+		return dependenciesIn;
+	}
+	
+	/**
+	 * (U) This method returns the number of dependencies in the combined SBom.
+	 * 
+	 * @return long the number of dependencies out.
+	 */
+	public synchronized long getDependenciesOut()
+	{
+		return dependenciesOut;
+	}
+	
+	/**
+	 * (U) This method returns the number of dependencies that were merged into one we already
+	 * had.
+	 * 
+	 * @return long the number of duplicate dependencies.
+	 */
+	public synchronized long getDuplicateDependencies()
+	{
+		return dependenciesIn - dependenciesOut;
+	}
+	
+	/**
+	 * (U) This method returns the number of tools in the metadata of all the SBoms read in.
+	 * 
+	 * @return long the number of tools in.
+	 */
+	public synchronized long getToolsIn()
+	{
+		return toolsIn;
+	}
+	
+	/**
+	 * (U) This method returns the number of (unique) tools in the combined SBom.
+	 * 
+	 * @return long the number of tools out.
+	 */
+	public synchronized long getToolsOut()
+	{
+		return toolsOut;
+	}
+	
+	/**
+	 * (U) This method returns the time spent merging the SBoms (summed over every thread).
+	 * 
+	 * @return long time, in nanoseconds, spent merging.
+	 */
+	public synchronized long getMergeNanos()
+	{
+		return mergeNanos;
+	}
+	
+	/**
+	 * (U) This method returns the time the whole combine took.
+	 * 
+	 * @return long time, in nanoseconds, the combine took.
+	 */
+	public synchronized long getTotalNanos()
+	{
+		return totalNanos;
+	}
+	
+	/**
+	 * (U) This method is used to see if the combined SBom came from the result cache (in which
+	 * case nothing was read in or merged).
+	 * 
+	 * @return boolean true if the combined SBom came from the result cache.
+	 */
+	public synchronized boolean isResultCacheHit()
+	{
+		return resultCacheHit;
+	}
+	
+	@Override
+	public synchronized String toString()
+	{
+		StringBuilder builder = new StringBuilder();
+		builder.append("Combined ").append(inputs.size()).append(" SBoms (").append(getBytesIn())
+				.append(" bytes) in ").append(TimeUnit.NANOSECONDS.toMillis(totalNanos))
+				.append(" ms");
+		if (resultCacheHit)
+			builder.append(" (from the result cache)");
+		builder.append(", merging took ").append(TimeUnit.NANOSECONDS.toMillis(mergeNanos))
+				.append(" ms.");
+		builder.append("\nComponents: ").append(componentsIn).append(" in, ")
+				.append(componentsOut).append(" out, ").append(getDuplicateComponents())
+				.append(" duplicates.");
+		builder.append("\nDependencies: ").append(dependenciesIn).append(" in, ")
+				.append(dependenciesOut).append(" out, ").append(getDuplicateDependencies())
+				.append(" duplicates.");
+		builder.append("\nTools: ").append(toolsIn).append(" in, ").append(toolsOut)
+				.append(" out.");
+		for (InputStats input : getInputs())
+			builder.append("\n").append(input);
+		return builder.toString();
+	}
+}
@@ -0,0 +1,583 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.utils;
+
+import org.cyclonedx.model.Bom;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * (U) This class records the phases of a combine as JDK Flight Recorder (JFR) events, so a slow
+ * combine can be looked at in a recording without turning on debug logging. An event is only
+ * filled in (its sizes worked out) and committed if it is enabled in a running recording.
+ * 
+ * <p>
+ * JFR is only there on Java 11 (and the later Java 8 updates). The events are handed around as
+ * Objects, so the callers never reference JFR, and without it no event is ever created.
+ * </p>
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ */
+final class CombinerEvents
+{
+	private static final String CATEGORY = "SBom Combiner";
+	private static final String PREFIX = "com.lmco.efoss.sbom.combiner.";
+	
+	private static final boolean available = isAvailable();
+	
+	/**
+	 * (U) This class is the event for reading in a single SBom.
+	 */
+	@Name(PREFIX + "BomParse")
+	@Label("SBom Parse")
+	@Category(CATEGORY)
+	@Description("Reading in (and parsing) a single SBom.")
+	@StackTrace(false)
+	static final class BomParseEvent extends Event
+	{
+		@Label("Source")
+		String source;
+		
+		@Label("Size")
+		@DataAmount
+		long bytes;
+		
+		@Label("Components")
+		int components;
+		
+		@Label("Dependencies")
+		int dependencies;
+	}
+	
+	/**
+	 * (U) This class is the event for streaming a single SBom into a combine.
+	 */
+	@Name(PREFIX + "BomStream")
+	@Label("SBom Stream")
+	@Category(CATEGORY)
+	@Description("Streaming a single SBom into the combine, without reading it into a Bom.")
+	@StackTrace(false)
+	static final class BomStreamEvent extends Event
+	{
+		@Label("Source")
+		String source;
+		
+		@Label("Size")
+		@DataAmount
+		long bytes;
+	}
+	
+	/**
+	 * (U) This class is the event for merging the components of an SBom.
+	 */
+	@Name(PREFIX + "ComponentMerge")
+	@Label("Component Dedup")
+	@Category(CATEGORY)
+	@Description("Merging the components of an SBom, dropping those already in the combine.")
+	@StackTrace(false)
+	static final class ComponentMergeEvent extends Event
+	{
+		@Label("Components In")
+		int componentsIn;
+		
+		@Label("Components Added")
+		int added;
+		
+		@Label("Unique Components")
+		int unique;
+	}
+	
+	/**
+	 * (U) This class is the event for merging the dependencies of an SBom.
+	 */
+	@Name(PREFIX + "DependencyMerge")
+	@Label("Dependency Merge")
+	@Category(CATEGORY)
+	@Description("Merging the dependencies of an SBom into the dependency graph.")
+	@StackTrace(false)
+	static final class DependencyMergeEvent extends Event
+	{
+		@Label("Dependencies In")
+		int dependenciesIn;
+		
+		@Label("Dependencies Added")
+		int added;
+		
+		@Label("Unique Dependencies")
+		int unique;
+	}
+	
+	/**
+	 * (U) This class is the event for merging the tools of an SBom.
+	 */
+	@Name(PREFIX + "ToolsMerge")
+	@Label("Tools Merge")
+	@Category(CATEGORY)
+	@Description("Merging the tools of an SBom's metadata.")
+	@StackTrace(false)
+	static final class ToolsMergeEvent extends Event
+	{
+		@Label("Tools In")
+		int toolsIn;
+		
+		@Label("Unique Tools")
+		int unique;
+	}
+	
+	/**
+	 * (U) This class is the event for adding the outer (metadata) components to the combined SBom.
+	 */
+	@Name(PREFIX + "OuterComponents")
+	@Label("Outer Components")
+	@Category(CATEGORY)
+	@Description("Adding the outer (metadata) components to the combined SBom.")
+	@StackTrace(false)
+	static final class OuterComponentsEvent extends Event
+	{
+		@Label("Outer Components")
+		int outerComponents;
+		
+		@Label("Components Added")
+		int added;
+	}
+	
+	/**
+	 * (U) This class is the event for merging one partial combine (BomMerger) into another.
+	 */
+	@Name(PREFIX + "MergerMerge")
+	@Label("Partial Combine Merge")
+	@Category(CATEGORY)
+	@Description("Merging everything one partial combine holds into another.")
+	@StackTrace(false)
+	static final class MergerMergeEvent extends Event
+	{
+		@Label("Components In")
+		int componentsIn;
+		
+		@Label("Unique Components")
+		int uniqueComponents;
+		
+		@Label("Dependencies In")
+		int dependenciesIn;
+		
+		@Label("Unique Dependencies")
+		int uniqueDependencies;
+	}
+	
+	/**
+	 * (U) This class is the event for writing a run of a combine spilled to disk.
+	 */
+	@Name(PREFIX + "ExternalSpill")
+	@Label("External Spill")
+	@Category(CATEGORY)
+	@Description("Writing the buffered components and dependencies of a combine out as a run.")
+	@StackTrace(false)
+	static final class ExternalSpillEvent extends Event
+	{
+		@Label("Run")
+		int run;
+		
+		@Label("Components")
+		int components;
+		
+		@Label("Dependencies")
+		int dependencies;
+		
+		@Label("Buffered")
+		@DataAmount
+		long bytes;
+	}
+	
+	/**
+	 * (U) This class is the event for merging the runs of a combine spilled to disk.
+	 */
+	@Name(PREFIX + "ExternalRunMerge")
+	@Label("External Run Merge")
+	@Category(CATEGORY)
+	@Description("Merging the runs of a combine spilled to disk, and writing the records out.")
+	@StackTrace(false)
+	static final class ExternalRunMergeEvent extends Event
+	{
+		@Label("Records")
+		String records;
+		
+		@Label("Runs")
+		int runs;
+		
+		@Label("Unique Records")
+		long unique;
+	}
+	
+	/**
+	 * (U) Private Constructor as this class should not be instantiated.
+	 */
+	private CombinerEvents()
+	{}
+	
+	/**
+	 * (U) This method checks if the JVM has JFR.
+	 * 
+	 * @return boolean true if it does.
+	 */
+	private static boolean isAvailable()
+	{
+		try
+		{
+			Class.forName("jdk.jfr.Event", false, CombinerEvents.class.getClassLoader());
+			return true;
+		}
+		catch (ClassNotFoundException | LinkageError e)
+		{
+			return false;
+		}
+	}
+	
+	/**
+	 * (U) This method starts the event for reading in an SBom.
+	 * 
+	 * @return Object the event, null if the JVM does not have JFR.
+	 */
+	static Object beginParse()
+	{
+		if (!available)
+			return null;
+		BomParseEvent event = new BomParseEvent();
+		event.begin();
+		return event;
+	}
+	
+	/**
+	 * (U) This method ends the event for reading in an SBom.
+	 * 
+	 * @param started Object the event beginParse returned.
+	 * @param file    Object (String file name or InputStreamSource) the SBom was read from.
+	 * @param bom     Bom read in, null if it could not be.
+	 */
+	static void endParse(Object started, Object file, Bom bom)
+	{
+		if (started == null)
+			return;
+		BomParseEvent event = (BomParseEvent) started;
+		event.end();
+		if (event.shouldCommit())
+		{
+			event.source = SBomCombiner.describe(file);
+			event.bytes = SBomCombiner.fileSize(file);
+			if (bom != null)
+			{
+				event.components = (bom.getComponents() != null) ? bom.getComponents().size() : 0;
+				event.dependencies = (bom.getDependencies() != null) ?
+						bom.getDependencies().size() : 0;
+			}
+			event.commit();
+		}
+	}
+	
+	/**
+	 * (U) This method starts the event for streaming an SBom.
+	 * 
+	 * @return Object the event, null if the JVM does not have JFR.
+	 */
+	static Object beginStream()
+	{
+		if (!available)
+			return null;
+		BomStreamEvent event = new BomStreamEvent();
+		event.begin();
+		return event;
+	}
+	
+	/**
+	 * (U) This method ends the event for streaming an SBom.
+	 * 
+	 * @param started Object the event beginStream returned.
+	 * @param file    Object (String file name or InputStreamSource) the SBom was streamed from.
+	 */
+	static void endStream(Object started, Object file)
+	{
+		if (started == null)
+			return;
+		BomStreamEvent event = (BomStreamEvent) started;
+		event.end();
+		if (event.shouldCommit())
+		{
+			event.source = SBomCombiner.describe(file);
+			event.bytes = SBomCombiner.fileSize(file);
+			event.commit();
+		}
+	}
+	
+	/**
+	 * (U) This method starts the event for merging the components of an SBom.
+	 * 
+	 * @return Object the event, null if the JVM does not have JFR.
+	 */
+	static Object beginComponentMerge()
+	{
+		if (!available)
+			return null;
+		ComponentMergeEvent event = new ComponentMergeEvent();
+		event.begin();
+		return event;
+	}
+	
+	/**
+	 * (U) This method ends the event for merging the components of an SBom.
+	 * 
+	 * @param started      Object the event beginComponentMerge returned.
+	 * @param componentsIn int the number of components merged in.
+	 * @param added        int the number of them that were not already in the combine.
+	 * @param unique       int the number of unique components in the combine.
+	 */
+	static void endComponentMerge(Object started, int componentsIn, int added, int unique)
+	{
+		if (started == null)
+			return;
+		ComponentMergeEvent event = (ComponentMergeEvent) started;
+		event.end();
+		if (event.shouldCommit())
+		{
+			event.componentsIn = componentsIn;
+			event.added = added;
+			event.unique = unique;
+			event.commit();
+		}
+	}
+	
+	/**
+	 * (U) This method starts the event for merging the dependencies of an SBom.
+	 * 
+	 * @return Object the event, null if the JVM does not have JFR.
+	 */
+	static Object beginDependencyMerge()
+	{
+		if (!available)
+			return null;
+		DependencyMergeEvent event = new DependencyMergeEvent();
+		event.begin();
+		return event;
+	}
+	
+	/**
+	 * (U) This method ends the event for merging the dependencies of an SBom.
+	 * 
+	 * @param started        Object the event beginDependencyMerge returned.
+	 * @param dependenciesIn int the number of dependencies merged in.
+	 * @param added          int the number of them whose ref was not already in the combine.
+	 * @param unique         int the number of unique dependencies in the combine.
+	 */
+	static void endDependencyMerge(Object started, int dependenciesIn, int added, int unique)
+	{
+		if (started == null)
+			return;
+		DependencyMergeEvent event = (DependencyMergeEvent) started;
+		event.end();
+		if (event.shouldCommit())
+		{
+			event.dependenciesIn = dependenciesIn;
+			event.added = added;
+			event.unique = unique;
+			event.commit();
+		}
+	}
+	
+	/**
+	 * (U) This method starts the event for merging the tools of an SBom.
+	 * 
+	 * @return Object the event, null if the JVM does not have JFR.
+	 */
+	static Object beginToolsMerge()
+	{
+		if (!available)
+			return null;
+		ToolsMergeEvent event = new ToolsMergeEvent();
+		event.begin();
+		return event;
+	}
+	
+	/**
+	 * (U) This method ends the event for merging the tools of an SBom.
+	 * 
+	 * @param started Object the event beginToolsMerge returned.
+	 * @param toolsIn int the number of tools merged in.
+	 * @param unique  int the number of unique tools in the combine.
+	 */
+	static void endToolsMerge(Object started, int toolsIn, int unique)
+	{
+		if (started == null)
+			return;
+		ToolsMergeEvent event = (ToolsMergeEvent) started;
+		event.end();
+		if (event.shouldCommit())
+		{
+			event.toolsIn = toolsIn;
+			event.unique = unique;
+			event.commit();
+		}
+	}
+	
+	/**
+	 * (U) This method starts the event for adding the outer components to the combined SBom.
+	 * 
+	 * @return Object the event, null if the JVM does not have JFR.
+	 */
+	static Object beginOuterComponents()
+	{
+		if (!available)
+			return null;
+		OuterComponentsEvent event = new OuterComponentsEvent();
+		event.begin();
+		return event;
+	}
+	
+	/**
+	 * (U) This method ends the event for adding the outer components to the combined SBom.
+	 * 
+	 * @param started         Object the event beginOuterComponents returned.
+	 * @param outerComponents int the number of outer components.
+	 * @param added           int the number of them that were not already components.
+	 */
+	static void endOuterComponents(Object started, int outerComponents, int added)
+	{
+		if (started == null)
+			return;
+		OuterComponentsEvent event = (OuterComponentsEvent) started;
+		event.end();
+		if (event.shouldCommit())
+		{
+			event.outerComponents = outerComponents;
+			event.added = added;
+			event.commit();
+		}
+	}
+	
+	/**
+	 * (U) This method starts the event for merging one partial combine into another.
+	 * 
+	 * @return Object the event, null if the JVM does not have JFR.
+	 */
+	static Object beginMergerMerge()
+	{
+		if (!available)
+			return null;
+		MergerMergeEvent event = new MergerMergeEvent();
+		event.begin();
+		return event;
+	}
+	
+	/**
+	 * (U) This method ends the event for merging one partial combine into another.
+	 * 
+	 * @param started            Object the event beginMergerMerge returned.
+	 * @param componentsIn       int the number of unique components the other combine held.
+	 * @param uniqueComponents   int the number of unique components in the combine.
+	 * @param dependenciesIn     int the number of unique dependencies the other combine held.
+	 * @param uniqueDependencies int the number of unique dependencies in the combine.
+	 */
+	static void endMergerMerge(Object started, int componentsIn, int uniqueComponents,
+			int dependenciesIn, int uniqueDependencies)
+	{
+		if (started == null)
+			return;
+		MergerMergeEvent event = (MergerMergeEvent) started;
+		event.end();
+		if (event.shouldCommit())
+		{
+			event.componentsIn = componentsIn;
+			event.uniqueComponents = uniqueComponents;
+			event.dependenciesIn = dependenciesIn;
+			event.uniqueDependencies = uniqueDependencies;
+			event.commit();
+		}
+	}
+	
+	/**
+	 * (U) This method starts the event for writing a run of a combine spilled to disk.
+	 * 
+	 * @return Object the event, null if the JVM does not have JFR.
+	 */
+	static Object beginSpill()
+	{
+		if (!available)
+			return null;
+		ExternalSpillEvent event = new ExternalSpillEvent();
+		event.begin();
+		return event;
+	}
+	
+	/**
+	 * (U) This method ends the event for writing a run of a combine spilled to disk.
+	 * 
+	 * @param started      Object the event beginSpill returned.
+	 * @param run          int the number of the run (starting at 1).
+	 * @param components   int the number of components in the run.
+	 * @param dependencies int the number of dependencies in the run.
+	 * @param bytes        long the number of bytes that were buffered.
+	 */
+	static void endSpill(Object started, int run, int components, int dependencies, long bytes)
+	{
+		if (started == null)
+			return;
+		ExternalSpillEvent event = (ExternalSpillEvent) started;
+		event.end();
+		if (event.shouldCommit())
+		{
+			event.run = run;
+			event.components = components;
+			event.dependencies = dependencies;
+			event.bytes = bytes;
+			event.commit();
+		}
+	}
+	
+	/**
+	 * (U) This method starts the event for merging the runs of a combine spilled to disk.
+	 * 
+	 * @return Object the event, null if the JVM does not have JFR.
+	 */
+	static Object beginRunMerge()
+	{
+		if (!available)
+			return null;
+		ExternalRunMergeEvent event = new ExternalRunMergeEvent();
+		event.begin();
+		return event;
+	}
+	
+	/**
+	 * (U) This method ends the event for merging the runs of a combine spilled to disk.
+	 * 
+	 * @param started Object the event beginRunMerge returned.
+	 * @param records String value of what was merged ("Components" or "Dependencies").
+	 * @param runs    int the number of runs written.
+	 * @param unique  long the number of unique records merged.
+	 */
+	static void endRunMerge(Object started, String records, int runs, long unique)
+	{
+		if (started == null)
+			return;
+		ExternalRunMergeEvent event = (ExternalRunMergeEvent) started;
+		event.end();
+		if (event.shouldCommit())
+		{
+			event.records = records;
+			event.runs = runs;
+			event.unique = unique;
+			event.commit();
+		}
+	}
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.utils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.cyclonedx.model.Bom;
+import org.springframework.core.io.InputStreamSource;
+
+import com.lmco.efoss.sbom.combiner.exceptions.SBomCombinerException;
+import com.lmco.efoss.sbom.commons.utils.SBomCommonsException;
+
+/**
+ * (U) This class is used to combine Software Bill of Materials (SBom) as they arrive, instead of
+ * all at once. Each SBom added is merged into the combine right away (at a cost based only on the
+ * size of that SBom), and the combined SBom, so far, can be taken at any point. Adding the same
+ * SBoms, in the same order, gives the same combined SBom as SBomCombiner.
+ * 
+ * <p>
+ * A session is safe to use from multiple threads. SBoms added from different threads are merged
+ * in the order the adds complete.
+ * </p>
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ */
+public class CombinerSession
+{
+	private final BomMerger merger;
+	private final SBomCombinerOptions options;
+	
+	private final AtomicInteger inputCount = new AtomicInteger();
+	private int bomCount = 0;
+	
+	/**
+	 * (U) Constructs a new CombinerSession that reads each SBom into a Bom before merging it.
+	 */
+	public CombinerSession()
+	{
+		this(new SBomCombinerOptions());
+	}
+	
+	/**
+	 * (U) Constructs a new CombinerSession using the options passed in. Only the streaming, file
+	 * cache, and report options are used, as SBoms are added one at a time. The report is started
+	 * over, records each SBom as it is added, and records the counts at each snapshot. Note, if a
+	 * streamed SBom fails to read part way through, the pieces read before the failure stay in
+	 * the combine.
+	 * 
+	 * @param options SBomCombinerOptions to use.
+	 */
+	public CombinerSession(SBomCombinerOptions options)
+	{
+		this.options = options;
+		this.merger = options.createMerger();
+		if (options.getReport() != null)
+			options.getReport().reset();
+	}
+	
+	/**
+	 * (U) This method is used to add an SBom to the combine.
+	 * 
+	 * @param bom Bom to add.
+	 */
+	public synchronized void add(Bom bom)
+	{
+		SBomCombiner.mergeBom(merger, bom, options.getReport());
+		bomCount++;
+	}
+	
+	/**
+	 * (U) This method is used to add an SBom, read from an InputStreamSource, to the combine.
+	 * 
+	 * @param source InputStreamSource to read the SBom from.
+	 * @throws SBomCombinerException in the event the SBom can not be read.
+	 */
+	public void add(InputStreamSource source) throws SBomCombinerException
+	{
+		if (options.isStreaming())
+		{
+			synchronized (this)
+			{
+				SBomCombiner.streamBom(source, inputCount.getAndIncrement(), merger,
+						options.getReport());
+				bomCount++;
+			}
+		}
+		else
+		{
+			Bom bom;
+			try
+			{
+				bom = SBomCombiner.loadBom(source, inputCount.getAndIncrement(), options);
+			}
+			catch (SBomCommonsException e)
+			{
+				// Only thrown for files, InputStreamSources fail as SBomCombinerExceptions.
+				throw new SBomCombinerException("Failed to read bom file!", e);
+			}
+			if (bom != null)
+				add(bom);
+		}
+	}
+	
+	/**
+	 * (U) This method is used to add an SBom, read from a file, to the combine.
+	 * 
+	 * @param fileName String value of the file name to read the SBom from.
+	 * @throws SBomCombinerException in the event the file can not be read.
+	 * @throws SBomCommonsException  in the event we fail to create an SBom from the file's data.
+	 */
+	public void add(String fileName) throws SBomCombinerException, SBomCommonsException
+	{
+		if (options.isStreaming())
+		{
+			synchronized (this)
+			{
+				SBomCombiner.streamBom(fileName, inputCount.getAndIncrement(), merger,
+						options.getReport());
+				bomCount++;
+			}
+		}
+		else
+		{
+			Bom bom = SBomCombiner.loadBom(fileName, inputCount.getAndIncrement(), options);
+			if (bom != null)
+				add(bom);
+		}
+	}
+	
+	/**
+	 * (U) This method returns the combined SBom, of all the SBoms added so far. Nothing is re-read
+	 * or re-merged, and SBoms added afterwards do not change the Bom returned.
+	 * 
+	 * @return Bom the combined Software Bill of Materials.
+	 */
+	public synchronized Bom snapshot()
+	{
+		Bom combinedSBom = merger.toBom();
+		if (options.getReport() != null)
+			options.getReport().recordCounts(merger, combinedSBom);
+		return combinedSBom;
+	}
+	
+	/**
+	 * (U) This method returns the number of SBoms added to the session.
+	 * 
+	 * @return int the number of SBoms added.
+	 */
+	public synchronized int getBomCount()
+	{
+		return bomCount;
+	}
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.cyclonedx.model.Component;
+
+/**
+ * (U) This class holds the unique components of a combine, in the order they were first seen.
+ * Look ups are done by ComponentKey (name, group, and version) so adding a component is a hash
+ * look up instead of a scan of every component we already have.
+ * 
+ * <p>
+ * Duplicates are dropped, unless the index merges them, in which case the hashes, licenses,
+ * external references, and properties of each duplicate are folded into the component kept (see
+ * MergedComponent).
+ * </p>
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ */
+public class ComponentIndex
+{
+	private final Map<ComponentKey, Component> components = new LinkedHashMap<>();
+	// Only the components that have had a duplicate, null if duplicates are dropped.
+	private final Map<ComponentKey, MergedComponent> merged;
+	
+	/**
+	 * (U) Constructs a new, empty, ComponentIndex that drops duplicates.
+	 */
+	public ComponentIndex()
+	{
+		this(false);
+	}
+	
+	/**
+	 * (U) Constructs a new, empty, ComponentIndex.
+	 * 
+	 * @param mergeDuplicates boolean true to fold the attributes of duplicates into the component
+	 *                        kept, false to drop them.
+	 */
+	public ComponentIndex(boolean mergeDuplicates)
+	{
+		this.merged = (mergeDuplicates) ? new HashMap<>() : null;
+	}
+	
+	/**
+	 * (U) This method is used to add a component to the index, if we do not already have a
+	 * component with the same name, group, and version. If we do, and the index merges
+	 * duplicates, its attributes are folded into the one we have.
+	 * 
+	 * @param component Component to add.
+	 * @return boolean true if the component was added, false if we already had it.
+	 */
+	public boolean add(Component component)
+	{
+		ComponentKey key = ComponentKey.of(component);
+		Component survivor = components.putIfAbsent(key, component);
+		if (survivor == null)
+			return true;
+		
+		if (merged != null)
+			merged.computeIfAbsent(key, k -> new MergedComponent(survivor)).fold(component);
+		return false;
+	}
+	
+	/**
+	 * (U) This method is used to add every component of another index, that we do not already
+	 * have, after our own (in the order they were first added to the other index). If this index
+	 * merges duplicates, the attributes of those we do have are folded into ours.
+	 * 
+	 * @param other ComponentIndex to add the components of.
+	 */
+	public void addAll(ComponentIndex other)
+	{
+		for (Map.Entry<ComponentKey, Component> entry : other.components.entrySet())
+		{
+			Component survivor = components.putIfAbsent(entry.getKey(), entry.getValue());
+			if (merged == null)
+				continue;
+			
+			MergedComponent otherMerged = (other.merged != null) ? other.merged.get(entry
+					.getKey()) : null;
+			if (survivor != null)
+			{
+				// Everything the other index holds for it came after ours.
+				MergedComponent ours = merged.computeIfAbsent(entry.getKey(),
+						k -> new MergedComponent(survivor));
+				if (otherMerged != null)
+					ours.fold(otherMerged);
+				else
+					ours.fold(entry.getValue());
+			}
+			else if (otherMerged != null)
+			{
+				MergedComponent ours = new MergedComponent(entry.getValue());
+				ours.fold(otherMerged);
+				merged.put(entry.getKey(), ours);
+			}
+		}
+	}
+	
+	/**
+	 * (U) This method is used to see if we already have a component with the same name, group,
+	 * and version as the one passed in.
+	 * 
+	 * @param component Component to look for.
+	 * @return boolean either true we found it. Or false we did not.
+	 */
+	public boolean contains(Component component)
+	{
+		return components.containsKey(ComponentKey.of(component));
+	}
+	
+	/**
+	 * (U) This method returns the component we are holding for the key passed in.
+	 * 
+	 * @param key ComponentKey of the component to get.
+	 * @return Component the component we have, or null if we do not have one.
+	 */
+	public Component get(ComponentKey key)
+	{
+		return components.get(key);
+	}
+	
+	/**
+	 * (U) This method returns the number of unique components in the index.
+	 * 
+	 * @return int the number of unique components.
+	 */
+	public int size()
+	{
+		return components.size();
+	}
+	
+	/**
+	 * (U) This method returns the unique components, in the order they were first added. If the
+	 * index merges duplicates, a component that had attributes folded into it is returned as a
+	 * copy holding them.
+	 * 
+	 * @return List of Components.
+	 */
+	public List<Component> getComponents()
+	{
+		if ((merged == null) || (merged.isEmpty()))
+			return new ArrayList<>(components.values());
+		
+		List<Component> list = new ArrayList<>(components.size());
+		for (Map.Entry<ComponentKey, Component> entry : components.entrySet())
+		{
+			MergedComponent mergedComp = merged.get(entry.getKey());
+			list.add((mergedComp != null) ? mergedComp.toComponent() : entry.getValue());
+		}
+		return list;
+	}
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.utils;
+
+import java.util.Objects;
+
+import org.cyclonedx.model.Component;
+
+/**
+ * (U) This class is the identity of a Component as far as the combiner is concerned. Two
+ * components are the same if they have the same name, group, and version (the same fields the
+ * "ComponentComparator" uses). Unlike the comparator, this key can be used in a hash based
+ * collection.
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ */
+public final class ComponentKey
+{
+	private final String name;
+	private final String group;
+	private final String version;
+	private final int hash;
+	
+	/**
+	 * (U) Constructor.
+	 * 
+	 * @param name    String value of the component's name.
+	 * @param group   String value of the component's group.
+	 * @param version String value of the component's version.
+	 */
+	public ComponentKey(String name, String group, String version)
+	{
+		this.name = name;
+		this.group = group;
+		this.version = version;
+		this.hash = Objects.hash(name, group, version);
+	}
+	
+	/**
+	 * (U) This method is used to create the key for the component passed in.
+	 * 
+	 * @param component Component to get the key for.
+	 * @return ComponentKey the identity of the component.
+	 */
+	public static ComponentKey of(Component component)
+	{
+		return new ComponentKey(component.getName(), component.getGroup(),
+				component.getVersion());
+	}
+	
+	/**
+	 * (U) This method returns the name of the component.
+	 * 
+	 * @return String the component's name.
+	 */
+	public String getName()
+	{
+		return name;
+	}
+	
+	/**
+	 * (U) This method returns the group of the component.
+	 * 
+	 * @return String the component's group.
+	 */
+	public String getGroup()
+	{
+		return group;
+	}
+	
+	/**
+	 * (U) This method returns the version of the component.
+	 * 
+	 * @return String the component's version.
+	 */
+	public String getVersion()
+	{
+		return version;
+	}
+	
+	@Override
+	public boolean equals(Object obj)
+	{
+		if (this == obj)
+			return true;
+		if (!(obj instanceof ComponentKey))
+			return false;
+		
+		ComponentKey other = (ComponentKey) obj;
+		return ((hash == other.hash) && (Objects.equals(name, other.name)) &&
+				(Objects.equals(group, other.group)) && (Objects.equals(version, other.version)));
+	}
+	
+	@Override
+	public int hashCode()
+	{
+		return hash;
+	}
+	
+	@Override
+	public String toString()
+	{
+		return "(" + name + ", " + group + ", " + version + ")";
+	}
+}
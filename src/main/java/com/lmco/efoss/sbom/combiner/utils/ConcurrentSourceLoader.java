@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.utils;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.log4j.Logger;
+import org.cyclonedx.model.Bom;
+
+import com.lmco.efoss.sbom.combiner.exceptions.SBomCombinerException;
+import com.lmco.efoss.sbom.commons.utils.SBomCommonsException;
+
+/**
+ * (U) This class is used to read in a list of Software Bill of Materials (SBom) whose sources
+ * block on I/O (uploads, remote object streams), opening and parsing a bounded number of them at
+ * the same time. Each source is read on a virtual thread when the JVM has them (Java 21 and
+ * later), otherwise on a pool of as many platform threads as sources may be read at once.
+ * 
+ * <p>
+ * At most the concurrency's worth of sources are being read, or held read in, at any one time: a
+ * source is only started once the one that many before it has been merged. The SBoms are merged
+ * one at a time, in the order they were passed in, so the combined SBom is the same as when they
+ * are read in one at a time.
+ * </p>
+ * 
+ * <p>
+ * A source that fails to read in is reported as an exception naming its position and description,
+ * caused by what went wrong, of the same type that would have been thrown had the sources been
+ * read in one at a time (an SBomCommonsException if that is what the source failed with,
+ * otherwise an SBomCombinerException). The first failure (in the order of the inputs) is
+ * thrown, with any other sources already known to have failed added to it as suppressed
+ * exceptions, and the reading of the rest is cancelled.
+ * </p>
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ */
+class ConcurrentSourceLoader
+{
+	private static final Logger logger = Logger.getLogger(ConcurrentSourceLoader.class
+			.getName());
+	
+	private static final Method newVirtualThreadExecutor = findVirtualThreadExecutor();
+	
+	/**
+	 * (U) Private Constructor as this class should not be instantiated.
+	 */
+	private ConcurrentSourceLoader()
+	{}
+	
+	/**
+	 * (U) This method looks up Executors.newVirtualThreadPerTaskExecutor, which is only there on
+	 * Java 21 and later.
+	 * 
+	 * @return Method to create a virtual thread executor with, null if the JVM does not have
+	 *         virtual threads.
+	 */
+	private static Method findVirtualThreadExecutor()
+	{
+		try
+		{
+			return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+		}
+		catch (NoSuchMethodException e)
+		{
+			return null;
+		}
+	}
+	
+	/**
+	 * (U) This method creates the executor to read the sources on.
+	 * 
+	 * @param concurrency int the number of sources read in at once.
+	 * @return ExecutorService using virtual threads if the JVM has them, otherwise a pool of
+	 *         concurrency platform threads.
+	 */
+	private static ExecutorService createExecutor(int concurrency)
+	{
+		if (newVirtualThreadExecutor != null)
+		{
+			try
+			{
+				return (ExecutorService) newVirtualThreadExecutor.invoke(null);
+			}
+			catch (ReflectiveOperationException e)
+			{
+				logger.warn("Unable to create a virtual thread executor, using platform threads.",
+						e);
+			}
+		}
+		return Executors.newFixedThreadPool(concurrency, ParallelBomLoader.createThreadFactory(
+				"SBomCombiner-source-"));
+	}
+	
+	/**
+	 * (U) This method reads in the SBoms, a bounded number at a time, and merges them, in order,
+	 * into the merger.
+	 * 
+	 * @param files   List of objects to get the handle to the actual SBoms to combine.
+	 * @param options SBomCombinerOptions holding the source concurrency (and the report).
+	 * @param merger  BomMerger to merge the SBoms into.
+	 * @throws SBomCombinerException in the event something goes wrong reading in an SBom.
+	 * @throws SBomCommonsException  if we are unable to load an SBom.
+	 */
+	static void load(List<?> files, SBomCombinerOptions options, BomMerger merger)
+			throws SBomCombinerException, SBomCommonsException
+	{
+		int concurrency = options.getSourceConcurrency();
+		ExecutorService executor = createExecutor(concurrency);
+		List<Future<Bom>> futures = new ArrayList<>(files.size());
+		try
+		{
+			for (int i = 0; i < files.size(); i++)
+			{
+				// Keep the window full: start sources until concurrency of them are unmerged.
+				while ((futures.size() < files.size()) && (futures.size() - i < concurrency))
+				{
+					Object file = files.get(futures.size());
+					int index = futures.size();
+					futures.add(executor.submit(() -> SBomCombiner.loadBom(file, index, options)));
+				}
+				
+				Bom bom;
+				try
+				{
+					bom = futures.get(i).get();
+				}
+				catch (ExecutionException e)
+				{
+					Exception failure = failure(files, futures, i, e.getCause());
+					if (failure instanceof SBomCommonsException)
+						throw (SBomCommonsException) failure;
+					throw (SBomCombinerException) failure;
+				}
+				futures.set(i, null);
+				if (bom != null)
+					SBomCombiner.mergeBom(merger, bom, options.getReport());
+			}
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new SBomCombinerException("Interrupted while reading in the SBoms!", e);
+		}
+		finally
+		{
+			for (Future<Bom> future : futures)
+			{
+				if (future != null)
+					future.cancel(true);
+			}
+			executor.shutdownNow();
+		}
+	}
+	
+	/**
+	 * (U) This method builds the exception for a source that failed to read in, adding any later
+	 * sources that have also failed to it.
+	 * 
+	 * @param files   List of objects to get the handle to the actual SBoms to combine.
+	 * @param futures List of the Futures reading in the SBoms.
+	 * @param index   int position of the source that failed.
+	 * @param cause   Throwable that the source failed with.
+	 * @return Exception naming the source that failed (see attribute).
+	 */
+	private static Exception failure(List<?> files, List<Future<Bom>> futures, int index,
+			Throwable cause)
+	{
+		Exception failure = attribute(files, index, cause);
+		for (int i = index + 1; i < futures.size(); i++)
+		{
+			Future<Bom> future = futures.get(i);
+			if ((future.isDone()) && (!future.isCancelled()))
+			{
+				try
+				{
+					future.get();
+				}
+				catch (ExecutionException e)
+				{
+					failure.addSuppressed(attribute(files, i, e.getCause()));
+				}
+				catch (InterruptedException e)
+				{
+					Thread.currentThread().interrupt();
+					break;
+				}
+			}
+		}
+		return failure;
+	}
+	
+	/**
+	 * (U) This method builds the exception for a single source that failed to read in, of the
+	 * same type as the one it failed with (if that is one the combine methods throw).
+	 * 
+	 * @param files List of objects to get the handle to the actual SBoms to combine.
+	 * @param index int position of the source that failed.
+	 * @param cause Throwable that the source failed with.
+	 * @return Exception naming the source that failed, an SBomCommonsException if that is what it
+	 *         failed with, otherwise an SBomCombinerException.
+	 */
+	private static Exception attribute(List<?> files, int index, Throwable cause)
+	{
+		String error = "Failed to read bom file! Input " + index + " (" + SBomCombiner.describe(
+				files.get(index)) + ").";
+		logger.error(error, cause);
+		if (cause instanceof SBomCommonsException)
+			return new SBomCommonsException(error, cause);
+		return new SBomCombinerException(error, cause);
+	}
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.utils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.cyclonedx.model.Dependency;
+
+/**
+ * (U) This class is used to merge the dependencies of multiple Software Bill of Materials (SBom).
+ * Each dependency is keyed by its ref, and holds the set of refs it depends on. Both the
+ * dependencies and their inner dependencies are kept in the order they were first seen, and an
+ * inner dependency is only ever added once.
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ */
+public class DependencyGraph
+{
+	private final Map<String, Set<String>> graph = new LinkedHashMap<>();
+	private final BomInterner interner;
+	
+	/**
+	 * (U) Constructs a new, empty, DependencyGraph.
+	 */
+	public DependencyGraph()
+	{
+		this(null);
+	}
+	
+	/**
+	 * (U) Constructs a new, empty, DependencyGraph that canonicalizes the refs added to it.
+	 * 
+	 * @param interner BomInterner to canonicalize the refs with, null to keep them as they are.
+	 */
+	public DependencyGraph(BomInterner interner)
+	{
+		this.interner = interner;
+	}
+	
+	/**
+	 * (U) This method is used to merge a dependency (and its inner dependencies) into the graph.
+	 * 
+	 * @param dependency Dependency to merge in.
+	 * @return boolean true if this is a new dependency, false if we already had it (in which case
+	 *         only its inner dependencies were added).
+	 */
+	public boolean add(Dependency dependency)
+	{
+		Set<String> dependsOn = graph.get(dependency.getRef());
+		boolean added = false;
+		if (dependsOn == null)
+		{
+			added = true;
+			dependsOn = new LinkedHashSet<>();
+			graph.put(intern(dependency.getRef()), dependsOn);
+		}
+		
+		List<Dependency> innerDeps = dependency.getDependencies();
+		if (innerDeps != null)
+		{
+			for (Dependency innerDep : innerDeps)
+			{
+				// Only keep (and canonicalize) the refs we do not already have.
+				if (!dependsOn.contains(innerDep.getRef()))
+					dependsOn.add(intern(innerDep.getRef()));
+			}
+		}
+		return added;
+	}
+	
+	/**
+	 * (U) This method is used to merge another graph into this one, as if each of its
+	 * dependencies had been added (in order) after ours.
+	 * 
+	 * @param other DependencyGraph to merge in.
+	 */
+	public void addAll(DependencyGraph other)
+	{
+		for (Map.Entry<String, Set<String>> entry : other.graph.entrySet())
+		{
+			Set<String> dependsOn = graph.get(entry.getKey());
+			if (dependsOn == null)
+			{
+				dependsOn = new LinkedHashSet<>();
+				graph.put(entry.getKey(), dependsOn);
+			}
+			dependsOn.addAll(entry.getValue());
+		}
+	}
+	
+	/**
+	 * (U) This method canonicalizes a ref, if we have an interner.
+	 * 
+	 * @param ref String value of the ref.
+	 * @return String the canonical ref.
+	 */
+	private String intern(String ref)
+	{
+		return (interner != null) ? interner.intern(ref) : ref;
+	}
+	
+	/**
+	 * (U) This method returns the number of (unique) dependencies in the graph.
+	 * 
+	 * @return int the number of dependencies.
+	 */
+	public int size()
+	{
+		return graph.size();
+	}
+	
+	/**
+	 * (U) This method converts the graph back into the List of Dependencies the Bom uses.
+	 * 
+	 * @return List of Dependencies in the order they were first seen.
+	 */
+	public List<Dependency> getDependencies()
+	{
+		List<Dependency> dependencies = new ArrayList<>(graph.size());
+		for (Map.Entry<String, Set<String>> entry : graph.entrySet())
+			dependencies.add(toDependency(entry.getKey(), entry.getValue()));
+		return dependencies;
+	}
+	
+	/**
+	 * (U) This method creates the CycloneDx Dependency for a node in the graph.
+	 * 
+	 * @param ref       String value of the dependency's ref.
+	 * @param dependsOn Set of refs the dependency depends on.
+	 * @return Dependency created.
+	 */
+	static Dependency toDependency(String ref, Set<String> dependsOn)
+	{
+		Dependency dependency = new Dependency(ref);
+		if (!dependsOn.isEmpty())
+		{
+			List<Dependency> innerDeps = new ArrayList<>(dependsOn.size());
+			for (String innerRef : dependsOn)
+				innerDeps.add(new Dependency(innerRef));
+			dependency.setDependencies(innerDeps);
+		}
+		return dependency;
+	}
+}
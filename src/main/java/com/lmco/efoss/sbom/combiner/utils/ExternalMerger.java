@@ -0,0 +1,708 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.utils;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.log4j.Logger;
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.Dependency;
+import org.cyclonedx.model.Metadata;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lmco.efoss.sbom.combiner.io.BomContentHandler;
+import com.lmco.efoss.sbom.combiner.io.ModelMapper;
+
+/**
+ * (U) This class holds the state of a combine that is too big to hold in memory. Like the
+ * BomMerger, Software Bill of Materials (SBom) are merged into it one at a time, in order, a piece
+ * at a time. Instead of keeping every unique component and dependency, it buffers them up to a
+ * memory budget, then writes them out, sorted by key and without duplicates, as a run to a
+ * temporary file. When done, the runs are merged (a k-way merge) to drop the duplicates across
+ * runs, then sorted (again on disk) back into the order they were first seen in, so the combined
+ * SBom is the same as the BomMerger's.
+ * 
+ * <p>
+ * Only the tools and outer (metadata) components, of which there are few, are always held in
+ * memory. The combined SBom can be written a piece at a time (see write), or built into a Bom,
+ * which of course holds all of it.
+ * </p>
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ */
+public class ExternalMerger implements BomContentHandler, Closeable
+{
+	private static final Logger logger = Logger.getLogger(ExternalMerger.class.getName());
+	
+	// A rough guess at what an object and its references take up, on top of its contents.
+	private static final int RECORD_OVERHEAD = 64;
+	
+	private static final ObjectMapper mapper = ModelMapper.get();
+	
+	private final long memoryBudget;
+	private final BomInterner interner;
+	
+	private final ExternalSorter<ComponentRecord> componentRuns;
+	private final ExternalSorter<DependencyRecord> dependencyRuns;
+	private final ExternalSorter<ComponentRecord> componentOrder;
+	private final ExternalSorter<DependencyRecord> dependencyOrder;
+	
+	private final Map<ComponentKey, ComponentRecord> components = new HashMap<>();
+	private final Map<String, DependencyRecord> dependencies = new HashMap<>();
+	private long bufferedBytes = 0;
+	
+	private final List<Component> outerComps = new ArrayList<>();
+	private final ToolIndex toolsUsed = new ToolIndex();
+	
+	private long componentSeq = 0;
+	private long dependencySeq = 0;
+	private boolean written = false;
+	
+	private long componentsIn = 0;
+	private long uniqueComponents = 0;
+	private long dependenciesIn = 0;
+	private long toolsIn = 0;
+	private int spillCount = 0;
+	
+	private CombineCancellation cancellation = null;
+	
+	/**
+	 * (U) This class is a component, as written to a run.
+	 */
+	private static class ComponentRecord
+	{
+		private final ComponentKey key;
+		private final long seq;
+		private final byte[] json;
+		
+		/**
+		 * (U) Constructor.
+		 * 
+		 * @param key  ComponentKey of the component.
+		 * @param seq  long position the component was first seen at.
+		 * @param json byte array of the component as JSon.
+		 */
+		private ComponentRecord(ComponentKey key, long seq, byte[] json)
+		{
+			this.key = key;
+			this.seq = seq;
+			this.json = json;
+		}
+	}
+	
+	/**
+	 * (U) This class is a dependency, with every inner dependency seen for it, as written to a
+	 * run.
+	 */
+	private static class DependencyRecord
+	{
+		private final String ref;
+		private final long seq;
+		private final Set<String> dependsOn;
+		
+		/**
+		 * (U) Constructor.
+		 * 
+		 * @param ref       String value of the dependency's ref.
+		 * @param seq       long position the dependency was first seen at.
+		 * @param dependsOn Set of the refs it depends on, in the order they were first seen.
+		 */
+		private DependencyRecord(String ref, long seq, Set<String> dependsOn)
+		{
+			this.ref = ref;
+			this.seq = seq;
+			this.dependsOn = dependsOn;
+		}
+	}
+	
+	/**
+	 * (U) Constructs a new, empty, ExternalMerger.
+	 * 
+	 * @param memoryBudget  long the most bytes of components and dependencies to buffer before
+	 *                      writing them out.
+	 * @param tempDirectory Path of the directory to write the runs in, null for the default
+	 *                      temporary directory.
+	 * @param interner      BomInterner to canonicalize the combined SBom's components with, null
+	 *                      to keep them as they are read back.
+	 */
+	public ExternalMerger(long memoryBudget, Path tempDirectory, BomInterner interner)
+	{
+		if (memoryBudget < 1)
+			throw new IllegalArgumentException("Memory budget must be at least 1, not " +
+					memoryBudget + ".");
+		this.memoryBudget = memoryBudget;
+		this.interner = interner;
+		
+		Comparator<String> nullsFirst = Comparator.nullsFirst(Comparator.naturalOrder());
+		Comparator<ComponentRecord> byKey = Comparator.comparing(
+				(ComponentRecord record) -> record.key.getName(), nullsFirst)
+				.thenComparing(record -> record.key.getGroup(), nullsFirst)
+				.thenComparing(record -> record.key.getVersion(), nullsFirst);
+		Comparator<DependencyRecord> byRef = Comparator.comparing(record -> record.ref,
+				nullsFirst);
+		ExternalSorter.Codec<ComponentRecord> componentCodec = new ComponentCodec();
+		ExternalSorter.Codec<DependencyRecord> dependencyCodec = new DependencyCodec();
+		
+		// The older record (first seen) is kept, or has the newer inner dependencies added to it.
+		componentRuns = new ExternalSorter<>(tempDirectory, "sbom-components-", componentCodec,
+				byKey, (older, newer) -> older);
+		dependencyRuns = new ExternalSorter<>(tempDirectory, "sbom-dependencies-",
+				dependencyCodec, byRef, (older, newer) ->
+				{
+					older.dependsOn.addAll(newer.dependsOn);
+					return older;
+				});
+		componentOrder = new ExternalSorter<>(tempDirectory, "sbom-components-", componentCodec,
+				Comparator.comparingLong(record -> record.seq), null);
+		dependencyOrder = new ExternalSorter<>(tempDirectory, "sbom-dependencies-",
+				dependencyCodec, Comparator.comparingLong(record -> record.seq), null);
+	}
+	
+	/**
+	 * (U) This method sets the cancellation checked (every so often) while merging, and while
+	 * merging the runs back together, so a cancelled combine stops part way through.
+	 * 
+	 * @param cancellation CombineCancellation to check, null to never stop.
+	 */
+	void setCancellation(CombineCancellation cancellation)
+	{
+		this.cancellation = cancellation;
+		componentRuns.setCancellation(cancellation);
+		dependencyRuns.setCancellation(cancellation);
+		componentOrder.setCancellation(cancellation);
+		dependencyOrder.setCancellation(cancellation);
+	}
+	
+	/**
+	 * (U) This method is used to merge a Software Bill of Materials (SBom) into the combine.
+	 * 
+	 * @param bom Bom to merge in.
+	 * @throws UncheckedIOException in the event the buffer can not be written out.
+	 */
+	public void merge(Bom bom)
+	{
+		if (bom.getMetadata() != null)
+			metadata(bom.getMetadata());
+		if (bom.getComponents() != null)
+		{
+			for (Component component : bom.getComponents())
+				component(component);
+		}
+		if (bom.getDependencies() != null)
+		{
+			for (Dependency dependency : bom.getDependencies())
+				dependency(dependency);
+		}
+	}
+	
+	/**
+	 * (U) This method is used to merge the tools, and outer component, of an SBom's metadata into
+	 * the combine.
+	 * 
+	 * @param metadata Metadata to merge in.
+	 */
+	@Override
+	public void metadata(Metadata metadata)
+	{
+		checkNotWritten();
+		if ((metadata.getTools() != null) && (!metadata.getTools().isEmpty()))
+		{
+			toolsIn += metadata.getTools().size();
+			toolsUsed.addAll(metadata.getTools());
+		}
+		
+		if (metadata.getComponent() != null)
+			outerComps.add(metadata.getComponent());
+	}
+	
+	/**
+	 * (U) This method is used to merge a component into the combine, unless it is already
+	 * buffered (duplicates already written out are dropped when the runs are merged).
+	 * 
+	 * @param component Component to merge in.
+	 * @throws UncheckedIOException in the event the buffer can not be written out.
+	 */
+	@Override
+	public void component(Component component)
+	{
+		checkNotWritten();
+		if ((cancellation != null) && (componentsIn % CombineCancellation.CHECK_INTERVAL == 0))
+			cancellation.check();
+		componentsIn++;
+		ComponentKey key = ComponentKey.of(component);
+		if (components.containsKey(key))
+			return;
+		
+		BomMerger.checkReferenceTypes(component);
+		byte[] json;
+		try
+		{
+			json = mapper.writeValueAsBytes(component);
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException("Unable to write component(" + component.getName() +
+					", " + component.getGroup() + ", " + component.getVersion() + ")!", e);
+		}
+		components.put(key, new ComponentRecord(key, componentSeq++, json));
+		bufferedBytes += json.length + sizeOf(key.getName()) + sizeOf(key.getGroup()) + sizeOf(
+				key.getVersion()) + RECORD_OVERHEAD;
+		spillIfOverBudget();
+	}
+	
+	/**
+	 * (U) This method is used to merge a dependency, and its inner dependencies, into the
+	 * combine.
+	 * 
+	 * @param dependency Dependency to merge in.
+	 * @throws UncheckedIOException in the event the buffer can not be written out.
+	 */
+	@Override
+	public void dependency(Dependency dependency)
+	{
+		checkNotWritten();
+		if ((cancellation != null) && (dependenciesIn % CombineCancellation.CHECK_INTERVAL == 0))
+			cancellation.check();
+		dependenciesIn++;
+		DependencyRecord record = dependencies.get(dependency.getRef());
+		if (record == null)
+		{
+			record = new DependencyRecord(dependency.getRef(), dependencySeq++,
+					new LinkedHashSet<>());
+			dependencies.put(record.ref, record);
+			bufferedBytes += sizeOf(record.ref) + RECORD_OVERHEAD;
+		}
+		
+		List<Dependency> innerDeps = dependency.getDependencies();
+		if (innerDeps != null)
+		{
+			for (Dependency innerDep : innerDeps)
+			{
+				if (record.dependsOn.add(innerDep.getRef()))
+					bufferedBytes += sizeOf(innerDep.getRef()) + RECORD_OVERHEAD;
+			}
+		}
+		spillIfOverBudget();
+	}
+	
+	/**
+	 * (U) This method writes the buffered components and dependencies out, as runs, if they are
+	 * over the memory budget.
+	 * 
+	 * @throws UncheckedIOException in the event the runs can not be written.
+	 */
+	private void spillIfOverBudget()
+	{
+		if (bufferedBytes <= memoryBudget)
+			return;
+		
+		Object event = CombinerEvents.beginSpill();
+		try
+		{
+			componentRuns.addRun(new ArrayList<>(components.values()));
+			dependencyRuns.addRun(new ArrayList<>(dependencies.values()));
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException("Unable to write the combine to disk!", e);
+		}
+		spillCount++;
+		CombinerEvents.endSpill(event, spillCount, components.size(), dependencies.size(),
+				bufferedBytes);
+		components.clear();
+		dependencies.clear();
+		bufferedBytes = 0;
+		if (logger.isDebugEnabled())
+			logger.debug("Wrote run " + spillCount + " of the combine to disk.");
+	}
+	
+	/**
+	 * (U) This method is used to write the combined Software Bill of Materials (SBom) to a
+	 * handler, a piece at a time: the metadata (with the tools), the components in the order they
+	 * were first seen (followed by the outer components we do not already have), then the
+	 * dependencies in the order they were first seen. This can only be done once, and nothing can
+	 * be merged in afterwards.
+	 * 
+	 * @param handler BomContentHandler to hand the combined SBom to.
+	 * @throws IOException in the event the runs can not be read or written.
+	 */
+	public void write(BomContentHandler handler) throws IOException
+	{
+		checkNotWritten();
+		if (cancellation != null)
+			cancellation.check();
+		written = true;
+		
+		Metadata combinedSBomMetadata = new Metadata();
+		combinedSBomMetadata.setTools(toolsUsed.getTools());
+		handler.metadata(combinedSBomMetadata);
+		
+		writeComponents(handler);
+		writeDependencies(handler);
+	}
+	
+	/**
+	 * (U) This method writes the components (and the outer components we do not have) to the
+	 * handler.
+	 * 
+	 * @param handler BomContentHandler to hand the components to.
+	 * @throws IOException in the event the runs can not be read or written.
+	 */
+	private void writeComponents(BomContentHandler handler) throws IOException
+	{
+		Set<ComponentKey> outerKeys = new HashSet<>();
+		for (Component outerComp : outerComps)
+			outerKeys.add(ComponentKey.of(outerComp));
+		Set<ComponentKey> foundKeys = new HashSet<>();
+		
+		// Drop the duplicates across the runs, and sort the rest back into the order first seen.
+		Object event = CombinerEvents.beginRunMerge();
+		List<ComponentRecord> buffer = new ArrayList<>();
+		long bytes = 0;
+		try (ExternalSorter<ComponentRecord>.Merge merge = componentRuns.merge(
+				new ArrayList<>(components.values())))
+		{
+			components.clear();
+			ComponentRecord record;
+			while ((record = merge.next()) != null)
+			{
+				uniqueComponents++;
+				if (outerKeys.contains(record.key))
+					foundKeys.add(record.key);
+				buffer.add(record);
+				bytes += record.json.length + RECORD_OVERHEAD;
+				if (bytes > memoryBudget)
+				{
+					componentOrder.addRun(buffer);
+					buffer = new ArrayList<>();
+					bytes = 0;
+				}
+			}
+		}
+		componentRuns.close();
+		
+		try (ExternalSorter<ComponentRecord>.Merge merge = componentOrder.merge(buffer))
+		{
+			ComponentRecord record;
+			while ((record = merge.next()) != null)
+				handler.component(mapper.readValue(record.json, Component.class));
+		}
+		componentOrder.close();
+		CombinerEvents.endRunMerge(event, "Components", componentRuns.getRunsWritten() +
+				componentOrder.getRunsWritten(), uniqueComponents);
+		
+		// Add in outer Components if they are not already there.
+		event = CombinerEvents.beginOuterComponents();
+		int found = foundKeys.size();
+		for (Component outerComp : outerComps)
+		{
+			ComponentKey key = ComponentKey.of(outerComp);
+			if (foundKeys.add(key))
+			{
+				BomMerger.checkReferenceTypes(outerComp);
+				handler.component(outerComp);
+			}
+			else if (logger.isDebugEnabled())
+				logger.debug("We already have component(" + outerComp.getName() + ", " +
+						outerComp.getGroup() + ", " + outerComp.getVersion() + ")");
+		}
+		CombinerEvents.endOuterComponents(event, outerComps.size(), foundKeys.size() - found);
+	}
+	
+	/**
+	 * (U) This method writes the dependencies to the handler.
+	 * 
+	 * @param handler BomContentHandler to hand the dependencies to.
+	 * @throws IOException in the event the runs can not be read or written.
+	 */
+	private void writeDependencies(BomContentHandler handler) throws IOException
+	{
+		Object event = CombinerEvents.beginRunMerge();
+		long unique = 0;
+		List<DependencyRecord> buffer = new ArrayList<>();
+		long bytes = 0;
+		try (ExternalSorter<DependencyRecord>.Merge merge = dependencyRuns.merge(
+				new ArrayList<>(dependencies.values())))
+		{
+			dependencies.clear();
+			DependencyRecord record;
+			while ((record = merge.next()) != null)
+			{
+				unique++;
+				buffer.add(record);
+				bytes += sizeOf(record) + RECORD_OVERHEAD;
+				if (bytes > memoryBudget)
+				{
+					dependencyOrder.addRun(buffer);
+					buffer = new ArrayList<>();
+					bytes = 0;
+				}
+			}
+		}
+		dependencyRuns.close();
+		
+		try (ExternalSorter<DependencyRecord>.Merge merge = dependencyOrder.merge(buffer))
+		{
+			DependencyRecord record;
+			while ((record = merge.next()) != null)
+				handler.dependency(DependencyGraph.toDependency(record.ref, record.dependsOn));
+		}
+		dependencyOrder.close();
+		CombinerEvents.endRunMerge(event, "Dependencies", dependencyRuns.getRunsWritten() +
+				dependencyOrder.getRunsWritten(), unique);
+	}
+	
+	/**
+	 * (U) This method is used to build the combined Software Bill of Materials (SBom). This can
+	 * only be done once, and nothing can be merged in afterwards.
+	 * 
+	 * @return Bom the combined Software Bill of Materials.
+	 * @throws IOException in the event the runs can not be read.
+	 */
+	public Bom toBom() throws IOException
+	{
+		Bom combinedSBom = new Bom();
+		List<Component> combinedComps = new ArrayList<>();
+		List<Dependency> combinedDeps = new ArrayList<>();
+		write(new BomContentHandler()
+		{
+			@Override
+			public void metadata(Metadata metadata)
+			{
+				combinedSBom.setMetadata(metadata);
+			}
+			
+			@Override
+			public void component(Component component)
+			{
+				if (interner != null)
+					interner.intern(component);
+				combinedComps.add(component);
+			}
+			
+			@Override
+			public void dependency(Dependency dependency)
+			{
+				combinedDeps.add(dependency);
+			}
+		});
+		combinedSBom.setComponents(combinedComps);
+		combinedSBom.setDependencies(combinedDeps);
+		return combinedSBom;
+	}
+	
+	/**
+	 * (U) This method makes sure the combined SBom has not already been written.
+	 */
+	private void checkNotWritten()
+	{
+		if (written)
+			throw new IllegalStateException("The combined SBom has already been written!");
+	}
+	
+	/**
+	 * (U) This method deletes any runs still on disk.
+	 */
+	@Override
+	public void close()
+	{
+		componentRuns.close();
+		dependencyRuns.close();
+		componentOrder.close();
+		dependencyOrder.close();
+	}
+	
+	/**
+	 * (U) This method returns a rough guess at the memory a String takes up.
+	 * 
+	 * @param value String to size, may be null.
+	 * @return long the number of bytes.
+	 */
+	private static long sizeOf(String value)
+	{
+		return (value != null) ? (2L * value.length()) : 0;
+	}
+	
+	/**
+	 * (U) This method returns a rough guess at the memory a dependency record takes up.
+	 * 
+	 * @param record DependencyRecord to size.
+	 * @return long the number of bytes.
+	 */
+	private static long sizeOf(DependencyRecord record)
+	{
+		long bytes = sizeOf(record.ref);
+		for (String innerRef : record.dependsOn)
+			bytes += sizeOf(innerRef) + RECORD_OVERHEAD;
+		return bytes;
+	}
+	
+	/**
+	 * (U) This method returns the number of components merged in (including duplicates).
+	 * 
+	 * @return long the number of components merged in.
+	 */
+	public long getComponentsIn()
+	{
+		return componentsIn;
+	}
+	
+	/**
+	 * (U) This method returns the number of unique components merged in (not counting the outer
+	 * components). Only known once the combined SBom has been written.
+	 * 
+	 * @return long the number of unique components.
+	 */
+	public long getUniqueComponents()
+	{
+		return uniqueComponents;
+	}
+	
+	/**
+	 * (U) This method returns the number of dependencies merged in (including duplicates).
+	 * 
+	 * @return long the number of dependencies merged in.
+	 */
+	public long getDependenciesIn()
+	{
+		return dependenciesIn;
+	}
+	
+	/**
+	 * (U) This method returns the number of tools merged in (including duplicates).
+	 * 
+	 * @return long the number of tools merged in.
+	 */
+	public long getToolsIn()
+	{
+		return toolsIn;
+	}
+	
+	/**
+	 * (U) This method returns the number of times the buffer went over the memory budget and was
+	 * written out to disk.
+	 * 
+	 * @return int the number of times the buffer was written out.
+	 */
+	public int getSpillCount()
+	{
+		return spillCount;
+	}
+	
+	/**
+	 * (U) This class writes and reads component records. The key is written ahead of the JSon,
+	 * so the runs can be merged without reading the components back in.
+	 */
+	private static class ComponentCodec implements ExternalSorter.Codec<ComponentRecord>
+	{
+		@Override
+		public void write(DataOutputStream out, ComponentRecord record) throws IOException
+		{
+			writeString(out, record.key.getName());
+			writeString(out, record.key.getGroup());
+			writeString(out, record.key.getVersion());
+			out.writeLong(record.seq);
+			out.writeInt(record.json.length);
+			out.write(record.json);
+		}
+		
+		@Override
+		public ComponentRecord read(DataInputStream in) throws IOException
+		{
+			ComponentKey key = new ComponentKey(readString(in), readString(in), readString(in));
+			long seq = in.readLong();
+			byte[] json = new byte[in.readInt()];
+			in.readFully(json);
+			return new ComponentRecord(key, seq, json);
+		}
+	}
+	
+	/**
+	 * (U) This class writes and reads dependency records.
+	 */
+	private static class DependencyCodec implements ExternalSorter.Codec<DependencyRecord>
+	{
+		@Override
+		public void write(DataOutputStream out, DependencyRecord record) throws IOException
+		{
+			writeString(out, record.ref);
+			out.writeLong(record.seq);
+			out.writeInt(record.dependsOn.size());
+			for (String innerRef : record.dependsOn)
+				writeString(out, innerRef);
+		}
+		
+		@Override
+		public DependencyRecord read(DataInputStream in) throws IOException
+		{
+			String ref = readString(in);
+			long seq = in.readLong();
+			int count = in.readInt();
+			Set<String> dependsOn = new LinkedHashSet<>();
+			for (int i = 0; i < count; i++)
+				dependsOn.add(readString(in));
+			return new DependencyRecord(ref, seq, dependsOn);
+		}
+	}
+	
+	/**
+	 * (U) This method writes a (possibly null) String as its length and UTF-8 bytes.
+	 * 
+	 * @param out   DataOutputStream to write to.
+	 * @param value String to write, may be null.
+	 * @throws IOException in the event the String can not be written.
+	 */
+	private static void writeString(DataOutputStream out, String value) throws IOException
+	{
+		if (value == null)
+		{
+			out.writeInt(-1);
+		}
+		else
+		{
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+	}
+	
+	/**
+	 * (U) This method reads a String written by writeString.
+	 * 
+	 * @param in DataInputStream to read from.
+	 * @return String read, may be null.
+	 * @throws IOException in the event the String can not be read.
+	 */
+	private static String readString(DataInputStream in) throws IOException
+	{
+		int length = in.readInt();
+		if (length < 0)
+			return null;
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,446 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.utils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.BinaryOperator;
+
+import org.apache.log4j.Logger;
+
+/**
+ * (U) This class is used to sort more records than we want to hold in memory. The records are
+ * handed over in runs, each of which is sorted and written to its own temporary file, and the runs
+ * are then merged (a k-way merge) back into a single sorted sequence. Records with the same key,
+ * from different runs, are combined (oldest run first) as they are merged, so the runs must be
+ * added in the order their records were seen.
+ * 
+ * <p>
+ * Once there are more than MAX_RUNS runs, they are merged into one, so no more than MAX_RUNS
+ * files are ever open at once.
+ * </p>
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ * @param <T> type of the records sorted.
+ */
+class ExternalSorter<T> implements Closeable
+{
+	private static final Logger logger = Logger.getLogger(ExternalSorter.class.getName());
+	
+	static final int MAX_RUNS = 64;
+	private static final int BUFFER_SIZE = 64 * 1024;
+	
+	private final Path directory;
+	private final String prefix;
+	private final Codec<T> codec;
+	private final Comparator<? super T> order;
+	private final BinaryOperator<T> combiner;
+	
+	private final List<Path> runs = new ArrayList<>();
+	private int runsWritten = 0;
+	private CombineCancellation cancellation = null;
+	
+	/**
+	 * (U) This interface is used to write records to, and read them back from, a run file.
+	 * 
+	 * @param <T> type of the records.
+	 */
+	interface Codec<T>
+	{
+		/**
+		 * (U) This method writes a record.
+		 * 
+		 * @param out    DataOutputStream to write the record to.
+		 * @param record T record to write.
+		 * @throws IOException in the event the record can not be written.
+		 */
+		void write(DataOutputStream out, T record) throws IOException;
+		
+		/**
+		 * (U) This method reads a record back.
+		 * 
+		 * @param in DataInputStream to read the record from.
+		 * @return T record read.
+		 * @throws IOException in the event the record can not be read.
+		 */
+		T read(DataInputStream in) throws IOException;
+	}
+	
+	/**
+	 * (U) This interface is used to walk the merged, sorted, records.
+	 * 
+	 * @param <T> type of the records.
+	 */
+	interface RecordSource<T>
+	{
+		/**
+		 * (U) This method returns the next record.
+		 * 
+		 * @return T the next record, or null if there are no more.
+		 * @throws IOException in the event a run can not be read.
+		 */
+		T next() throws IOException;
+	}
+	
+	/**
+	 * (U) This class is the position we are at in one of the runs being merged.
+	 */
+	private class Cursor implements Closeable
+	{
+		private final int run;
+		private final DataInputStream in;
+		private final Iterator<T> iterator;
+		private T current;
+		
+		/**
+		 * (U) Constructs a Cursor over a run file.
+		 * 
+		 * @param run  int position of the run (its age).
+		 * @param file Path of the run file.
+		 * @throws IOException in the event the run can not be opened.
+		 */
+		private Cursor(int run, Path file) throws IOException
+		{
+			this.run = run;
+			this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file),
+					BUFFER_SIZE));
+			this.iterator = null;
+		}
+		
+		/**
+		 * (U) Constructs a Cursor over a (sorted) run still in memory.
+		 * 
+		 * @param run     int position of the run (its age).
+		 * @param records List of the sorted records.
+		 */
+		private Cursor(int run, List<T> records)
+		{
+			this.run = run;
+			this.in = null;
+			this.iterator = records.iterator();
+		}
+		
+		/**
+		 * (U) This method moves on to the next record of the run.
+		 * 
+		 * @return boolean true if there was another record, false if the run is done.
+		 * @throws IOException in the event the run can not be read.
+		 */
+		private boolean advance() throws IOException
+		{
+			if (iterator != null)
+				current = (iterator.hasNext()) ? iterator.next() : null;
+			else
+				current = (in.readBoolean()) ? codec.read(in) : null;
+			return (current != null);
+		}
+		
+		@Override
+		public void close() throws IOException
+		{
+			if (in != null)
+				in.close();
+		}
+	}
+	
+	/**
+	 * (U) Constructor.
+	 * 
+	 * @param directory Path of the directory to write the run files in, null for the default
+	 *                  temporary directory.
+	 * @param prefix    String value to start the run file names with.
+	 * @param codec     Codec to write and read the records with.
+	 * @param order     Comparator to sort the records by (their key).
+	 * @param combiner  BinaryOperator to combine the older and newer records with the same key,
+	 *                  null if the keys are unique.
+	 */
+	ExternalSorter(Path directory, String prefix, Codec<T> codec, Comparator<? super T> order,
+			BinaryOperator<T> combiner)
+	{
+		this.directory = directory;
+		this.prefix = prefix;
+		this.codec = codec;
+		this.order = order;
+		this.combiner = combiner;
+	}
+	
+	/**
+	 * (U) This method sorts a run of records and writes it to a file. The records must not have
+	 * duplicate keys within the run.
+	 * 
+	 * @param records List of the records in the run, it is sorted in place.
+	 * @throws IOException in the event the run can not be written.
+	 */
+	void addRun(List<T> records) throws IOException
+	{
+		if (records.isEmpty())
+			return;
+		
+		records.sort(order);
+		Path file = createRunFile();
+		try (DataOutputStream out = openRun(file))
+		{
+			for (T record : records)
+				writeRecord(out, record);
+			out.writeBoolean(false);
+		}
+		catch (IOException | RuntimeException e)
+		{
+			delete(file);
+			throw e;
+		}
+		runs.add(file);
+		
+		if (runs.size() > MAX_RUNS)
+			compact();
+	}
+	
+	/**
+	 * (U) This method sets the cancellation checked (every so often) while merging the runs, so
+	 * a cancelled combine stops part way through a merge.
+	 * 
+	 * @param cancellation CombineCancellation to check, null to never stop.
+	 */
+	void setCancellation(CombineCancellation cancellation)
+	{
+		this.cancellation = cancellation;
+	}
+	
+	/**
+	 * (U) This method merges all the runs written so far into a single run.
+	 * 
+	 * @throws IOException in the event the runs can not be merged.
+	 */
+	private void compact() throws IOException
+	{
+		List<Path> oldRuns = new ArrayList<>(runs);
+		Path file = createRunFile();
+		try (Merge merge = new Merge(new ArrayList<T>()); DataOutputStream out = openRun(file))
+		{
+			T record;
+			while ((record = merge.next()) != null)
+				writeRecord(out, record);
+			out.writeBoolean(false);
+		}
+		catch (IOException | RuntimeException e)
+		{
+			// Cancelled, or failed, part way through; the old runs are still there.
+			delete(file);
+			throw e;
+		}
+		runs.clear();
+		runs.add(file);
+		for (Path oldRun : oldRuns)
+			delete(oldRun);
+	}
+	
+	/**
+	 * (U) This method merges the runs written, along with the records passed in (which are newer
+	 * than any of the runs), into a single sorted sequence of records. The merge must be closed
+	 * when done with.
+	 * 
+	 * @param records List of the records not yet written to a run, it is sorted in place.
+	 * @return Merge of the sorted records.
+	 * @throws IOException in the event the runs can not be opened.
+	 */
+	Merge merge(List<T> records) throws IOException
+	{
+		records.sort(order);
+		return new Merge(records);
+	}
+	
+	/**
+	 * (U) This class is a k-way merge of the runs.
+	 */
+	class Merge implements RecordSource<T>, Closeable
+	{
+		private final List<Cursor> cursors = new ArrayList<>();
+		private final PriorityQueue<Cursor> queue;
+		private long recordsOut = 0;
+		
+		/**
+		 * (U) Constructor.
+		 * 
+		 * @param records List of the sorted records not yet written to a run.
+		 * @throws IOException in the event the runs can not be opened.
+		 */
+		private Merge(List<T> records) throws IOException
+		{
+			queue = new PriorityQueue<>(runs.size() + 1, (first, second) ->
+			{
+				int compare = order.compare(first.current, second.current);
+				return (compare != 0) ? compare : Integer.compare(first.run, second.run);
+			});
+			
+			try
+			{
+				for (int i = 0; i < runs.size(); i++)
+					open(new Cursor(i, runs.get(i)));
+				open(new Cursor(runs.size(), records));
+			}
+			catch (IOException e)
+			{
+				close();
+				throw e;
+			}
+		}
+		
+		/**
+		 * (U) This method adds a cursor to the merge, if it has any records.
+		 * 
+		 * @param cursor Cursor to add.
+		 * @throws IOException in the event the run can not be read.
+		 */
+		private void open(Cursor cursor) throws IOException
+		{
+			cursors.add(cursor);
+			if (cursor.advance())
+				queue.add(cursor);
+		}
+		
+		@Override
+		public T next() throws IOException
+		{
+			if ((cancellation != null) && (recordsOut++ % CombineCancellation.CHECK_INTERVAL == 0))
+				cancellation.check();
+			
+			Cursor cursor = queue.poll();
+			if (cursor == null)
+				return null;
+			
+			T record = cursor.current;
+			if (cursor.advance())
+				queue.add(cursor);
+			
+			// The same key from newer runs.
+			while ((combiner != null) && (!queue.isEmpty()) && (order.compare(record, queue
+					.peek().current) == 0))
+			{
+				cursor = queue.poll();
+				record = combiner.apply(record, cursor.current);
+				if (cursor.advance())
+					queue.add(cursor);
+			}
+			return record;
+		}
+		
+		@Override
+		public void close() throws IOException
+		{
+			queue.clear();
+			IOException failure = null;
+			for (Cursor cursor : cursors)
+			{
+				try
+				{
+					cursor.close();
+				}
+				catch (IOException e)
+				{
+					failure = e;
+				}
+			}
+			cursors.clear();
+			if (failure != null)
+				throw failure;
+		}
+	}
+	
+	/**
+	 * (U) This method returns the number of runs written (including those since merged
+	 * together).
+	 * 
+	 * @return int the number of runs written.
+	 */
+	int getRunsWritten()
+	{
+		return runsWritten;
+	}
+	
+	/**
+	 * (U) This method creates a new, empty, run file.
+	 * 
+	 * @return Path of the run file.
+	 * @throws IOException in the event the file can not be created.
+	 */
+	private Path createRunFile() throws IOException
+	{
+		runsWritten++;
+		if (directory == null)
+			return Files.createTempFile(prefix, ".run");
+		return Files.createTempFile(directory, prefix, ".run");
+	}
+	
+	/**
+	 * (U) This method opens a run file to be written.
+	 * 
+	 * @param file Path of the run file.
+	 * @return DataOutputStream to write the run to.
+	 * @throws IOException in the event the file can not be opened.
+	 */
+	private static DataOutputStream openRun(Path file) throws IOException
+	{
+		return new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file),
+				BUFFER_SIZE));
+	}
+	
+	/**
+	 * (U) This method writes a record, marked as being there, to a run.
+	 * 
+	 * @param out    DataOutputStream to write the record to.
+	 * @param record T record to write.
+	 * @throws IOException in the event the record can not be written.
+	 */
+	private void writeRecord(DataOutputStream out, T record) throws IOException
+	{
+		out.writeBoolean(true);
+		codec.write(out, record);
+	}
+	
+	/**
+	 * (U) This method deletes the run files.
+	 */
+	@Override
+	public void close()
+	{
+		for (Path run : runs)
+			delete(run);
+		runs.clear();
+	}
+	
+	/**
+	 * (U) This method deletes a run file, logging (but otherwise ignoring) any failure.
+	 * 
+	 * @param run Path of the run file.
+	 */
+	private static void delete(Path run)
+	{
+		try
+		{
+			Files.deleteIfExists(run);
+		}
+		catch (IOException e)
+		{
+			logger.warn("Unable to delete run file(" + run + ").", e);
+		}
+	}
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.utils;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.cyclonedx.model.Bom;
+
+import com.lmco.efoss.sbom.combiner.exceptions.SBomCombinerException;
+import com.lmco.efoss.sbom.commons.utils.SBomCommonsException;
+
+/**
+ * (U) This class is used to combine a list of Software Bill of Materials (SBom) as a fork-join
+ * tree. The list is split in half until each half is a single SBom, which is read into its own
+ * BomMerger, then the halves are merged back together (left then right) on the way up. As
+ * merging BomMergers is associative, and the order of the SBoms is kept, the combined SBom is the
+ * same as when they are merged one at a time.
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ */
+class ForkJoinBomCombiner
+{
+	/**
+	 * (U) Private Constructor as this class should not be instantiated.
+	 */
+	private ForkJoinBomCombiner()
+	{}
+	
+	/**
+	 * (U) This class is the task that combines a range of the SBoms.
+	 */
+	private static class CombineTask extends RecursiveTask<BomMerger>
+	{
+		private static final long serialVersionUID = 1L;
+		
+		private final transient List<?> files;
+		private final transient SBomCombinerOptions options;
+		private final transient AtomicBoolean failed;
+		private final transient BomInterner interner;
+		private final int start;
+		private final int end;
+		
+		/**
+		 * (U) Constructor.
+		 * 
+		 * @param files    List of objects to get the handle to the actual SBoms to combine.
+		 * @param options  SBomCombinerOptions holding the (optional) cache to read files through.
+		 * @param failed   AtomicBoolean set once any SBom fails, so the rest are not read.
+		 * @param interner BomInterner shared by the whole combine, null if not interning.
+		 * @param start    int index of the first SBom to combine.
+		 * @param end      int index after the last SBom to combine.
+		 */
+		private CombineTask(List<?> files, SBomCombinerOptions options, AtomicBoolean failed,
+				BomInterner interner, int start, int end)
+		{
+			this.files = files;
+			this.options = options;
+			this.failed = failed;
+			this.interner = interner;
+			this.start = start;
+			this.end = end;
+		}
+		
+		@Override
+		protected BomMerger compute()
+		{
+			if (end - start == 1)
+				return load(files.get(start));
+			
+			int middle = (start + end) >>> 1;
+			CombineTask left = new CombineTask(files, options, failed, interner, start,
+					middle);
+			CombineTask right = new CombineTask(files, options, failed, interner, middle,
+					end);
+			left.fork();
+			BomMerger merger = right.compute();
+			BomMerger leftMerger = left.join();
+			
+			CombineReport report = options.getReport();
+			long mergeStart = (report != null) ? System.nanoTime() : 0;
+			leftMerger.merge(merger);
+			if (report != null)
+				report.addMergeTime(System.nanoTime() - mergeStart);
+			return leftMerger;
+		}
+		
+		/**
+		 * (U) This method reads in a single SBom, into its own BomMerger.
+		 * 
+		 * @param file Object (String file name or InputStreamSource) to read the SBom from.
+		 * @return BomMerger holding the SBom.
+		 */
+		private BomMerger load(Object file)
+		{
+			BomMerger merger = new BomMerger(interner, options.isMergeDuplicates());
+			merger.setCancellation(options.getCancellation());
+			if (failed.get())
+				return merger;
+			try
+			{
+				Bom bom = SBomCombiner.loadBom(file, start, options);
+				if (bom != null)
+					SBomCombiner.mergeBom(merger, bom, options.getReport());
+			}
+			catch (SBomCombinerException | SBomCommonsException | RuntimeException e)
+			{
+				failed.set(true);
+				throw new LoadFailure(e);
+			}
+			return merger;
+		}
+	}
+	
+	/**
+	 * (U) This class carries the failure to read an SBom out of the fork-join tree.
+	 */
+	private static class LoadFailure extends RuntimeException
+	{
+		private static final long serialVersionUID = 1L;
+		
+		/**
+		 * (U) Constructor.
+		 * 
+		 * @param cause Exception that stopped the SBom being read.
+		 */
+		private LoadFailure(Exception cause)
+		{
+			super(cause);
+		}
+	}
+	
+	/**
+	 * (U) This method combines the SBoms as a fork-join tree.
+	 * 
+	 * @param files   List of objects to get the handle to the actual SBoms to combine.
+	 * @param options SBomCombinerOptions holding the executor or parallelism to use.
+	 * @return BomMerger holding every SBom, merged in order.
+	 * @throws SBomCombinerException in the event something goes wrong reading in an SBom.
+	 * @throws SBomCommonsException  if we are unable to load an SBom.
+	 */
+	static BomMerger combine(List<?> files, SBomCombinerOptions options)
+			throws SBomCombinerException, SBomCommonsException
+	{
+		ForkJoinPool pool;
+		boolean ownPool = !(options.getExecutor() instanceof ForkJoinPool);
+		if (ownPool)
+			pool = new ForkJoinPool((options.getParallelism() > 1) ? options.getParallelism()
+					: Runtime.getRuntime().availableProcessors());
+		else
+			pool = (ForkJoinPool) options.getExecutor();
+		
+		try
+		{
+			BomInterner interner = options.createInterner();
+			return pool.submit(new CombineTask(files, options, new AtomicBoolean(), interner, 0,
+					files.size())).get();
+		}
+		catch (ExecutionException e)
+		{
+			// The fork-join framework may wrap (or re-create) the exception on its way out, so
+			// look for the one we threw.
+			Throwable cause = e.getCause();
+			while ((cause != null) && (!(cause instanceof LoadFailure)))
+				cause = cause.getCause();
+			ParallelBomLoader.throwFailure((cause != null) ? cause.getCause() : e.getCause(), e);
+			return null;
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new SBomCombinerException("Interrupted while combining the SBoms!", e);
+		}
+		finally
+		{
+			if (ownPool)
+				pool.shutdownNow();
+		}
+	}
+}
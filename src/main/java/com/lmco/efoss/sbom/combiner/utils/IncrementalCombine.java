@@ -0,0 +1,535 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.utils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.Dependency;
+import org.cyclonedx.model.Metadata;
+import org.cyclonedx.model.Tool;
+import org.springframework.core.io.InputStreamSource;
+
+import com.lmco.efoss.sbom.combiner.exceptions.SBomCombinerException;
+import com.lmco.efoss.sbom.combiner.io.BomContentHandler;
+import com.lmco.efoss.sbom.commons.utils.SBomCommonsException;
+
+/**
+ * (U) This class holds a combine that can be updated when some of its Software Bill of Materials
+ * (SBom) change, without re-combining the rest. Along with the combine it keeps a provenance
+ * index: which input (and where in it) each component, dependency, inner dependency, and tool
+ * was seen. Replacing (or removing) an input takes out only what it contributed and adds what the
+ * new SBom contributes, at a cost based only on the size of that SBom.
+ * 
+ * <p>
+ * Inputs are identified by their position in the combine (as in the list passed to SBomCombiner).
+ * The combined SBom built is the same as combining the inputs held, in the order of their
+ * positions, all at once: each component is the one first seen, and components, dependencies, and
+ * inner dependencies are in the order they were first seen. Building it is based on the size of
+ * the combined SBom, not on the size of all the inputs.
+ * </p>
+ * 
+ * <p>
+ * An incremental combine is safe to use from multiple threads.
+ * </p>
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ */
+public class IncrementalCombine
+{
+	// A position is the input's index in the high bits, and the position in the input below it.
+	private static final int ORDINAL_BITS = 40;
+	private static final int MAX_INPUTS = 1 << (Long.SIZE - 1 - ORDINAL_BITS);
+	
+	private final SBomCombinerOptions options;
+	
+	private final TreeMap<Integer, Contribution> inputs = new TreeMap<>();
+	private final Sightings<ComponentKey, Component> components = new Sightings<>();
+	private final Sightings<String, String> dependencies = new Sightings<>();
+	private final Map<String, Sightings<String, String>> dependsOn = new HashMap<>();
+	
+	private long componentsIn = 0;
+	private long dependenciesIn = 0;
+	private long toolsIn = 0;
+	
+	/**
+	 * (U) This class indexes every position something (a component, or a ref) was seen at, and
+	 * keeps them in the order they were first seen.
+	 * 
+	 * @param <K> the key of what was seen.
+	 * @param <V> the value seen.
+	 */
+	private static class Sightings<K, V>
+	{
+		private final Map<K, TreeMap<Long, V>> seen = new HashMap<>();
+		private final TreeMap<Long, K> order = new TreeMap<>();
+		
+		/**
+		 * (U) This method records that a key was seen.
+		 * 
+		 * @param key      K key seen.
+		 * @param position long position it was seen at.
+		 * @param value    V value seen.
+		 */
+		private void add(K key, long position, V value)
+		{
+			TreeMap<Long, V> positions = seen.get(key);
+			if (positions == null)
+			{
+				positions = new TreeMap<>();
+				seen.put(key, positions);
+			}
+			else if (position > positions.firstKey())
+			{
+				positions.put(position, value);
+				return;
+			}
+			else
+				order.remove(positions.firstKey());
+			positions.put(position, value);
+			order.put(position, key);
+		}
+		
+		/**
+		 * (U) This method takes out a position a key was seen at.
+		 * 
+		 * @param key      K key seen.
+		 * @param position long position it was seen at.
+		 */
+		private void remove(K key, long position)
+		{
+			TreeMap<Long, V> positions = seen.get(key);
+			if ((positions == null) || (positions.remove(position) == null))
+				return;
+			
+			// Only the first sighting decides the order.
+			if (order.remove(position) == null)
+				return;
+			if (positions.isEmpty())
+				seen.remove(key);
+			else
+				order.put(positions.firstKey(), key);
+		}
+		
+		/**
+		 * (U) This method is used to see if a key has been seen.
+		 * 
+		 * @param key K key to look for.
+		 * @return boolean true if it has been seen.
+		 */
+		private boolean contains(K key)
+		{
+			return seen.containsKey(key);
+		}
+		
+		/**
+		 * (U) This method returns the value first seen for a key.
+		 * 
+		 * @param key K key seen.
+		 * @return V value first seen.
+		 */
+		private V first(K key)
+		{
+			return seen.get(key).firstEntry().getValue();
+		}
+		
+		/**
+		 * (U) This method returns the keys seen, in the order they were first seen.
+		 * 
+		 * @return Collection of the keys.
+		 */
+		private Collection<K> keys()
+		{
+			return order.values();
+		}
+		
+		/**
+		 * (U) This method returns the number of (unique) keys seen.
+		 * 
+		 * @return int the number of keys.
+		 */
+		private int size()
+		{
+			return seen.size();
+		}
+	}
+	
+	/**
+	 * (U) This class records what a single input contributed to the combine, so it can be taken
+	 * back out. It is also the handler the input's SBom is added with.
+	 */
+	private class Contribution implements BomContentHandler
+	{
+		private final long base;
+		private final List<ComponentKey> componentKeys = new ArrayList<>();
+		private final List<String> dependencyRefs = new ArrayList<>();
+		private final List<String> innerFrom = new ArrayList<>();
+		private final List<String> innerTo = new ArrayList<>();
+		private final List<Tool> tools = new ArrayList<>();
+		private Component outerComp = null;
+		
+		/**
+		 * (U) Constructor.
+		 * 
+		 * @param input int position of the input in the combine.
+		 */
+		private Contribution(int input)
+		{
+			this.base = ((long) input) << ORDINAL_BITS;
+		}
+		
+		@Override
+		public void metadata(Metadata metadata)
+		{
+			if ((metadata.getTools() != null) && (!metadata.getTools().isEmpty()))
+			{
+				toolsIn += metadata.getTools().size();
+				tools.addAll(metadata.getTools());
+			}
+			if ((metadata.getComponent() != null) && (outerComp == null))
+				outerComp = metadata.getComponent();
+		}
+		
+		@Override
+		public void component(Component component)
+		{
+			ComponentKey key = ComponentKey.of(component);
+			components.add(key, base + componentKeys.size(), component);
+			componentKeys.add(key);
+			componentsIn++;
+		}
+		
+		@Override
+		public void dependency(Dependency dependency)
+		{
+			String ref = dependency.getRef();
+			dependencies.add(ref, base + dependencyRefs.size(), ref);
+			dependencyRefs.add(ref);
+			dependenciesIn++;
+			
+			List<Dependency> innerDeps = dependency.getDependencies();
+			if ((innerDeps != null) && (!innerDeps.isEmpty()))
+			{
+				Sightings<String, String> inner = dependsOn.get(ref);
+				if (inner == null)
+				{
+					inner = new Sightings<>();
+					dependsOn.put(ref, inner);
+				}
+				for (Dependency innerDep : innerDeps)
+				{
+					inner.add(innerDep.getRef(), base + innerTo.size(), innerDep.getRef());
+					innerFrom.add(ref);
+					innerTo.add(innerDep.getRef());
+				}
+			}
+		}
+		
+		/**
+		 * (U) This method takes everything this input contributed back out of the combine.
+		 */
+		private void remove()
+		{
+			for (int i = 0; i < componentKeys.size(); i++)
+				components.remove(componentKeys.get(i), base + i);
+			for (int i = 0; i < dependencyRefs.size(); i++)
+				dependencies.remove(dependencyRefs.get(i), base + i);
+			for (int i = 0; i < innerTo.size(); i++)
+			{
+				Sightings<String, String> inner = dependsOn.get(innerFrom.get(i));
+				inner.remove(innerTo.get(i), base + i);
+				if (inner.size() == 0)
+					dependsOn.remove(innerFrom.get(i));
+			}
+			
+			componentsIn -= componentKeys.size();
+			dependenciesIn -= dependencyRefs.size();
+			toolsIn -= tools.size();
+		}
+	}
+	
+	/**
+	 * (U) Constructs a new, empty, IncrementalCombine that reads each SBom into a Bom before
+	 * adding it.
+	 */
+	public IncrementalCombine()
+	{
+		this(new SBomCombinerOptions());
+	}
+	
+	/**
+	 * (U) Constructs a new, empty, IncrementalCombine using the options passed in. Only the
+	 * streaming, file cache, and report options are used, as SBoms are added one at a time. The
+	 * report is started over, records each SBom as it is read in, and records the counts each time
+	 * the combined SBom is built.
+	 * 
+	 * @param options SBomCombinerOptions to use.
+	 */
+	public IncrementalCombine(SBomCombinerOptions options)
+	{
+		this.options = options;
+		if (options.getReport() != null)
+			options.getReport().reset();
+	}
+	
+	/**
+	 * (U) This method is used to set the SBom at a position in the combine, taking out what the
+	 * SBom it replaces (if any) contributed.
+	 * 
+	 * @param input int position of the SBom in the combine.
+	 * @param bom   Bom to set.
+	 */
+	public synchronized void set(int input, Bom bom)
+	{
+		checkInput(input);
+		long start = (options.getReport() != null) ? System.nanoTime() : 0;
+		remove(input);
+		
+		Contribution contribution = new Contribution(input);
+		inputs.put(input, contribution);
+		if (bom.getMetadata() != null)
+			contribution.metadata(bom.getMetadata());
+		if (bom.getComponents() != null)
+		{
+			for (Component component : bom.getComponents())
+				contribution.component(component);
+		}
+		if (bom.getDependencies() != null)
+		{
+			for (Dependency dependency : bom.getDependencies())
+				contribution.dependency(dependency);
+		}
+		
+		if (options.getReport() != null)
+			options.getReport().addMergeTime(System.nanoTime() - start);
+	}
+	
+	/**
+	 * (U) This method is used to set the SBom, read from an InputStreamSource, at a position in
+	 * the combine, taking out what the SBom it replaces (if any) contributed. Note, if a streamed
+	 * SBom fails to read part way through, the position is left empty.
+	 * 
+	 * @param input  int position of the SBom in the combine.
+	 * @param source InputStreamSource to read the SBom from.
+	 * @throws SBomCombinerException in the event the SBom can not be read.
+	 */
+	public void set(int input, InputStreamSource source) throws SBomCombinerException
+	{
+		try
+		{
+			set(input, (Object) source);
+		}
+		catch (SBomCommonsException e)
+		{
+			// Only thrown for files, InputStreamSources fail as SBomCombinerExceptions.
+			throw new SBomCombinerException("Failed to read bom file!", e);
+		}
+	}
+	
+	/**
+	 * (U) This method is used to set the SBom, read from a file, at a position in the combine,
+	 * taking out what the SBom it replaces (if any) contributed. Note, if a streamed SBom fails to
+	 * read part way through, the position is left empty.
+	 * 
+	 * @param input    int position of the SBom in the combine.
+	 * @param fileName String value of the file name to read the SBom from.
+	 * @throws SBomCombinerException in the event the file can not be read.
+	 * @throws SBomCommonsException  in the event we fail to create an SBom from the file's data.
+	 */
+	public void set(int input, String fileName) throws SBomCombinerException, SBomCommonsException
+	{
+		set(input, (Object) fileName);
+	}
+	
+	/**
+	 * (U) This method is used to set the SBom, read from a file or InputStreamSource, at a
+	 * position in the combine.
+	 * 
+	 * @param input int position of the SBom in the combine.
+	 * @param file  Object (String file name or InputStreamSource) to read the SBom from.
+	 * @throws SBomCombinerException in the event the SBom can not be read.
+	 * @throws SBomCommonsException  in the event we fail to create an SBom from the file's data.
+	 */
+	private void set(int input, Object file) throws SBomCombinerException, SBomCommonsException
+	{
+		checkInput(input);
+		if (options.isStreaming())
+		{
+			synchronized (this)
+			{
+				remove(input);
+				Contribution contribution = new Contribution(input);
+				inputs.put(input, contribution);
+				try
+				{
+					SBomCombiner.streamBom(file, input, contribution, options.getReport());
+				}
+				catch (SBomCombinerException | RuntimeException e)
+				{
+					remove(input);
+					throw e;
+				}
+			}
+		}
+		else
+		{
+			Bom bom = SBomCombiner.loadBom(file, input, options);
+			if (bom != null)
+				set(input, bom);
+			else
+				remove(input);
+		}
+	}
+	
+	/**
+	 * (U) This method is used to take the SBom at a position out of the combine.
+	 * 
+	 * @param input int position of the SBom in the combine.
+	 * @return boolean true if there was an SBom at the position.
+	 */
+	public synchronized boolean remove(int input)
+	{
+		Contribution contribution = inputs.remove(input);
+		if (contribution == null)
+			return false;
+		contribution.remove();
+		return true;
+	}
+	
+	/**
+	 * (U) This method makes sure a position can be held in the combine.
+	 * 
+	 * @param input int position of the SBom in the combine.
+	 */
+	private static void checkInput(int input)
+	{
+		if ((input < 0) || (input >= MAX_INPUTS))
+			throw new IllegalArgumentException("Input must be from 0 to " + (MAX_INPUTS - 1) +
+					", not " + input + ".");
+	}
+	
+	/**
+	 * (U) This method builds the combined Software Bill of Materials (SBom) of the SBoms held. The
+	 * outer (metadata) components are added to the end of the components if they are not already
+	 * there.
+	 * 
+	 * @return Bom the combined Software Bill of Materials.
+	 */
+	public synchronized Bom toBom()
+	{
+		Bom combinedSBom = new Bom();
+		
+		List<Component> combinedComps = new ArrayList<>(components.size());
+		for (ComponentKey key : components.keys())
+		{
+			Component component = components.first(key);
+			BomMerger.checkReferenceTypes(component);
+			combinedComps.add(component);
+		}
+		
+		ToolIndex toolsUsed = new ToolIndex();
+		Set<ComponentKey> outerKeys = new HashSet<>();
+		for (Contribution contribution : inputs.values())
+		{
+			toolsUsed.addAll(contribution.tools);
+			
+			// Add in outer Components if they are not already there.
+			Component outerComp = contribution.outerComp;
+			if (outerComp != null)
+			{
+				ComponentKey key = ComponentKey.of(outerComp);
+				if ((!components.contains(key)) && (outerKeys.add(key)))
+				{
+					BomMerger.checkReferenceTypes(outerComp);
+					combinedComps.add(outerComp);
+				}
+			}
+		}
+		
+		List<Dependency> combinedDeps = new ArrayList<>(dependencies.size());
+		for (String ref : dependencies.keys())
+		{
+			Sightings<String, String> inner = dependsOn.get(ref);
+			combinedDeps.add(DependencyGraph.toDependency(ref, (inner != null)
+					? new LinkedHashSet<>(inner.keys()) : new LinkedHashSet<>()));
+		}
+		
+		Metadata combinedSBomMetadata = new Metadata();
+		combinedSBomMetadata.setTools(toolsUsed.getTools());
+		combinedSBom.setMetadata(combinedSBomMetadata);
+		combinedSBom.setComponents(combinedComps);
+		combinedSBom.setDependencies(combinedDeps);
+		
+		if (options.getReport() != null)
+			options.getReport().recordCounts(this, combinedSBom);
+		return combinedSBom;
+	}
+	
+	/**
+	 * (U) This method returns the number of SBoms held.
+	 * 
+	 * @return int the number of SBoms held.
+	 */
+	public synchronized int getInputCount()
+	{
+		return inputs.size();
+	}
+	
+	/**
+	 * (U) This method returns the number of components held (including duplicates).
+	 * 
+	 * @return long the number of components held.
+	 */
+	public synchronized long getComponentsIn()
+	{
+		return componentsIn;
+	}
+	
+	/**
+	 * (U) This method returns the number of unique components held (not counting the outer
+	 * components).
+	 * 
+	 * @return long the number of unique components.
+	 */
+	public synchronized long getUniqueComponents()
+	{
+		return components.size();
+	}
+	
+	/**
+	 * (U) This method returns the number of dependencies held (including duplicates).
+	 * 
+	 * @return long the number of dependencies held.
+	 */
+	public synchronized long getDependenciesIn()
+	{
+		return dependenciesIn;
+	}
+	
+	/**
+	 * (U) This method returns the number of tools held (including duplicates).
+	 * 
+	 * @return long the number of tools held.
+	 */
+	public synchronized long getToolsIn()
+	{
+		return toolsIn;
+	}
+}
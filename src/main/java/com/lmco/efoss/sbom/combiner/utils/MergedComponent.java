@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.ExternalReference;
+import org.cyclonedx.model.Hash;
+import org.cyclonedx.model.License;
+import org.cyclonedx.model.LicenseChoice;
+import org.cyclonedx.model.Property;
+
+/**
+ * (U) This class is a component of a combine, with the hashes, licenses, external references, and
+ * properties of its duplicates folded into it. Each attribute is held in a map keyed by what
+ * identifies it, so folding in a duplicate is a hash look up per attribute, however many
+ * duplicates there are. The first one seen of each attribute is the one kept, in the order they
+ * were first seen, starting with the surviving component's own. As CycloneDx holds either
+ * licenses or a license expression, the first expression seen is only used if there are no
+ * licenses.
+ * 
+ * <p>
+ * Folding does not change the surviving component, or its duplicates, as the SBoms they came from
+ * may be cached and shared with other combines; an external reference without a type is held as a
+ * copy with the type OTHER. A shallow copy of the survivor, holding the folded attributes, is made
+ * when the combined SBom is built, and only if a duplicate added something it did not already
+ * have.
+ * </p>
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ */
+class MergedComponent
+{
+	private final Component survivor;
+	
+	// Keyed by algorithm and value.
+	private final Map<List<String>, Hash> hashes = new LinkedHashMap<>();
+	// Keyed by id, name, and url.
+	private final Map<List<String>, License> licenses = new LinkedHashMap<>();
+	// Keyed by type and url.
+	private final Map<List<Object>, ExternalReference> externalReferences = new LinkedHashMap<>();
+	// Keyed by name and value.
+	private final Map<List<String>, Property> properties = new LinkedHashMap<>();
+	private String expression = null;
+	
+	private boolean changed = false;
+	
+	/**
+	 * (U) Constructor.
+	 * 
+	 * @param survivor Component that is kept in the combine.
+	 */
+	MergedComponent(Component survivor)
+	{
+		this.survivor = survivor;
+		fold(survivor);
+		changed = false;
+	}
+	
+	/**
+	 * (U) This method folds the attributes of a duplicate component into this one.
+	 * 
+	 * @param duplicate Component, with the same name, group, and version, to fold in.
+	 */
+	void fold(Component duplicate)
+	{
+		if (duplicate.getHashes() != null)
+		{
+			for (Hash hash : duplicate.getHashes())
+				add(hashes, Arrays.asList(hash.getAlgorithm(), hash.getValue()), hash);
+		}
+		
+		LicenseChoice choice = duplicate.getLicenseChoice();
+		if (choice != null)
+		{
+			if (choice.getLicenses() != null)
+			{
+				for (License license : choice.getLicenses())
+					add(licenses, Arrays.asList(license.getId(), license.getName(), license
+							.getUrl()), license);
+			}
+			if ((expression == null) && (choice.getExpression() != null))
+				setExpression(choice.getExpression());
+		}
+		
+		if (duplicate.getExternalReferences() != null)
+		{
+			for (ExternalReference ref : duplicate.getExternalReferences())
+			{
+				ExternalReference.Type type = (ref.getType() != null) ? ref.getType()
+						: ExternalReference.Type.OTHER;
+				List<Object> key = Arrays.asList(type, ref.getUrl());
+				if (!externalReferences.containsKey(key))
+					add(externalReferences, key, (ref.getType() != null) ? ref : withType(ref,
+							type));
+			}
+		}
+		
+		if (duplicate.getProperties() != null)
+		{
+			for (Property property : duplicate.getProperties())
+				add(properties, Arrays.asList(property.getName(), property.getValue()),
+						property);
+		}
+	}
+	
+	/**
+	 * (U) This method folds everything another merged component holds into this one, as if its
+	 * survivor and duplicates had been folded in (in order) after ours.
+	 * 
+	 * @param other MergedComponent to fold in.
+	 */
+	void fold(MergedComponent other)
+	{
+		for (Map.Entry<List<String>, Hash> entry : other.hashes.entrySet())
+			add(hashes, entry.getKey(), entry.getValue());
+		for (Map.Entry<List<String>, License> entry : other.licenses.entrySet())
+			add(licenses, entry.getKey(), entry.getValue());
+		if ((expression == null) && (other.expression != null))
+			setExpression(other.expression);
+		for (Map.Entry<List<Object>, ExternalReference> entry : other.externalReferences
+				.entrySet())
+			add(externalReferences, entry.getKey(), entry.getValue());
+		for (Map.Entry<List<String>, Property> entry : other.properties.entrySet())
+			add(properties, entry.getKey(), entry.getValue());
+	}
+	
+	/**
+	 * (U) This method keeps the first license expression seen. It only changes the component if
+	 * there are no licenses, as otherwise the expression is not used.
+	 * 
+	 * @param value String value of the expression.
+	 */
+	private void setExpression(String value)
+	{
+		expression = value;
+		if (licenses.isEmpty())
+			changed = true;
+	}
+	
+	/**
+	 * (U) This method copies an external reference, with the type passed in.
+	 * 
+	 * @param ref  ExternalReference to copy.
+	 * @param type ExternalReference.Type to give the copy.
+	 * @return ExternalReference copied.
+	 */
+	private static ExternalReference withType(ExternalReference ref, ExternalReference.Type type)
+	{
+		ExternalReference copy = new ExternalReference();
+		copy.setUrl(ref.getUrl());
+		copy.setType(type);
+		copy.setComment(ref.getComment());
+		copy.setHashes(ref.getHashes());
+		return copy;
+	}
+	
+	/**
+	 * (U) This method adds an attribute, if we do not already have one with the same key.
+	 * 
+	 * @param <K>       the type of the key.
+	 * @param <V>       the type of the attribute.
+	 * @param map       Map of the attributes we have.
+	 * @param key       K identifying the attribute.
+	 * @param attribute V to add.
+	 */
+	private <K, V> void add(Map<K, V> map, K key, V attribute)
+	{
+		if (map.putIfAbsent(key, attribute) == null)
+			changed = true;
+	}
+	
+	/**
+	 * (U) This method returns the component for the combined SBom.
+	 * 
+	 * @return Component the survivor, if no duplicate added anything to it, otherwise a shallow
+	 *         copy of it holding the folded attributes.
+	 */
+	// The deprecated cpe is copied, so the merged component keeps everything the survivor has.
+	@SuppressWarnings("deprecation")
+	Component toComponent()
+	{
+		if (!changed)
+			return survivor;
+		
+		// The lists folded into are replaced, so the rest of the survivor can be shared.
+		Component merged = new Component();
+		merged.setType(survivor.getType());
+		merged.setBomRef(survivor.getBomRef());
+		merged.setMimeType(survivor.getMimeType());
+		merged.setSupplier(survivor.getSupplier());
+		merged.setAuthor(survivor.getAuthor());
+		merged.setPublisher(survivor.getPublisher());
+		merged.setGroup(survivor.getGroup());
+		merged.setName(survivor.getName());
+		merged.setVersion(survivor.getVersion());
+		merged.setDescription(survivor.getDescription());
+		merged.setScope(survivor.getScope());
+		merged.setHashes(survivor.getHashes());
+		merged.setLicenseChoice(survivor.getLicenseChoice());
+		merged.setCopyright(survivor.getCopyright());
+		merged.setCpe(survivor.getCpe());
+		merged.setPurl(survivor.getPurl());
+		merged.setSwid(survivor.getSwid());
+		merged.setModified(survivor.getModified());
+		merged.setPedigree(survivor.getPedigree());
+		merged.setExternalReferences(survivor.getExternalReferences());
+		merged.setProperties(survivor.getProperties());
+		merged.setComponents(survivor.getComponents());
+		merged.setEvidence(survivor.getEvidence());
+		merged.setExtensions(survivor.getExtensions());
+		merged.setExtensibleTypes(survivor.getExtensibleTypes());
+		
+		if (!hashes.isEmpty())
+			merged.setHashes(new ArrayList<>(hashes.values()));
+		if ((!licenses.isEmpty()) || (expression != null))
+		{
+			// A license choice holds either licenses or an expression, not both.
+			LicenseChoice choice = new LicenseChoice();
+			if (!licenses.isEmpty())
+				choice.setLicenses(new ArrayList<>(licenses.values()));
+			else
+				choice.setExpression(expression);
+			merged.setLicenseChoice(choice);
+		}
+		if (!externalReferences.isEmpty())
+			merged.setExternalReferences(new ArrayList<>(externalReferences.values()));
+		if (!properties.isEmpty())
+			merged.setProperties(new ArrayList<>(properties.values()));
+		return merged;
+	}
+}
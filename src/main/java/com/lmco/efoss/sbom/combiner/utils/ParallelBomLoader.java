@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.utils;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.apache.log4j.Logger;
+import org.cyclonedx.model.Bom;
+
+import com.lmco.efoss.sbom.combiner.exceptions.SBomCombinerException;
+import com.lmco.efoss.sbom.commons.utils.SBomCommonsException;
+
+/**
+ * (U) This class is used to read in a list of Software Bill of Materials (SBom) in parallel. The
+ * SBoms are still merged one at a time, in the order they were passed in, so the combined SBom is
+ * the same as when they are read in one at a time. An SBom that fails to read in cancels the
+ * reading of the SBoms after it, and the failure thrown is that of the first SBom (in the order
+ * passed in) that failed, as it would be had they been read in one at a time.
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ */
+class ParallelBomLoader
+{
+	private static final Logger logger = Logger.getLogger(ParallelBomLoader.class.getName());
+	
+	private static final AtomicInteger threadCount = new AtomicInteger();
+	
+	/**
+	 * (U) Private Constructor as this class should not be instantiated.
+	 */
+	private ParallelBomLoader()
+	{}
+	
+	/**
+	 * (U) This method reads in the SBoms in parallel and merges them, in order, into the merger.
+	 * 
+	 * @param files   List of objects to get the handle to the actual SBoms to combine.
+	 * @param options SBomCombinerOptions holding the executor or parallelism to use.
+	 * @param merger  BomMerger to merge the SBoms into.
+	 * @throws SBomCombinerException in the event something goes wrong reading in an SBom.
+	 * @throws SBomCommonsException  if we are unable to load an SBom.
+	 */
+	static void load(List<?> files, SBomCombinerOptions options, BomMerger merger)
+			throws SBomCombinerException, SBomCommonsException
+	{
+		load(files, options, (index, bom) -> SBomCombiner.mergeBom(merger, bom, options
+				.getReport()));
+	}
+	
+	/**
+	 * (U) This interface is used to receive the SBoms, in order, as they are read in.
+	 */
+	interface BomConsumer
+	{
+		/**
+		 * (U) This method is called with each SBom read in.
+		 * 
+		 * @param index int position of the SBom in the inputs.
+		 * @param bom   Bom read in.
+		 */
+		void accept(int index, Bom bom);
+	}
+	
+	/**
+	 * (U) This method reads in the SBoms in parallel and hands them, in order, to the consumer.
+	 * 
+	 * @param files    List of objects to get the handle to the actual SBoms to combine.
+	 * @param options  SBomCombinerOptions holding the executor or parallelism to use.
+	 * @param consumer BomConsumer to hand the SBoms to.
+	 * @throws SBomCombinerException in the event something goes wrong reading in an SBom.
+	 * @throws SBomCommonsException  if we are unable to load an SBom.
+	 */
+	static void load(List<?> files, SBomCombinerOptions options, BomConsumer consumer)
+			throws SBomCombinerException, SBomCommonsException
+	{
+		ExecutorService executor = options.getExecutor();
+		boolean ownExecutor = (executor == null);
+		if (ownExecutor)
+			executor = Executors.newFixedThreadPool(Math.min(options.getParallelism(),
+					files.size()), createThreadFactory("SBomCombiner-reader-"));
+		
+		AtomicReferenceArray<Future<Bom>> futures = new AtomicReferenceArray<>(files.size());
+		AtomicInteger firstFailed = new AtomicInteger(files.size());
+		boolean completed = false;
+		try
+		{
+			for (int i = 0; i < files.size(); i++)
+			{
+				Object file = files.get(i);
+				int index = i;
+				futures.set(i, executor.submit(() ->
+				{
+					if (firstFailed.get() < index)
+						return null;
+					try
+					{
+						return SBomCombiner.loadBom(file, index, options);
+					}
+					catch (Exception e)
+					{
+						// The SBoms before this one are left to finish, as one of them may fail
+						// too, and it is their failure that is thrown.
+						if (firstFailed.accumulateAndGet(index, Math::min) == index)
+							cancel(futures, index + 1);
+						throw e;
+					}
+				}));
+			}
+			
+			for (int i = 0; i < files.size(); i++)
+			{
+				Bom bom = futures.get(i).get();
+				if (bom != null)
+					consumer.accept(i, bom);
+				futures.set(i, null);
+			}
+			completed = true;
+		}
+		catch (ExecutionException | CancellationException e)
+		{
+			// The SBoms are waited on in order, so this is the first to fail.
+			throwFailure(null, e);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new SBomCombinerException("Interrupted while reading in the SBoms!", e);
+		}
+		finally
+		{
+			if (!completed)
+				cancel(futures, 0);
+			if (ownExecutor)
+				executor.shutdownNow();
+		}
+	}
+	
+	/**
+	 * (U) This method cancels any reading of SBoms, from a position on, that has not finished yet.
+	 * 
+	 * @param futures AtomicReferenceArray of the Futures reading in the SBoms.
+	 * @param from    int position of the first SBom to cancel the reading of.
+	 */
+	private static void cancel(AtomicReferenceArray<Future<Bom>> futures, int from)
+	{
+		for (int i = from; i < futures.length(); i++)
+		{
+			Future<Bom> future = futures.get(i);
+			if (future != null)
+				future.cancel(true);
+		}
+	}
+	
+	/**
+	 * (U) This method re-throws the failure that stopped the reading of the SBoms, as the
+	 * exception that would have been thrown had the SBoms been read in one at a time.
+	 * 
+	 * @param failure Throwable that was the first failure, null to take it from the exception we
+	 *                got waiting (or if the reading was cancelled from outside the combiner).
+	 * @param e       Exception we got waiting on the reading of an SBom.
+	 * @throws SBomCombinerException in the event something went wrong reading in an SBom.
+	 * @throws SBomCommonsException  if we were unable to load an SBom.
+	 */
+	static void throwFailure(Throwable failure, Exception e)
+			throws SBomCombinerException, SBomCommonsException
+	{
+		if (failure == null)
+			failure = (e instanceof ExecutionException) ? e.getCause() : e;
+		
+		if (failure instanceof SBomCombinerException)
+			throw (SBomCombinerException) failure;
+		if (failure instanceof SBomCommonsException)
+			throw (SBomCommonsException) failure;
+		
+		String error = "Failed to read bom file!";
+		logger.error(error, failure);
+		throw new SBomCombinerException(error, failure);
+	}
+	
+	/**
+	 * (U) This method creates the thread factory for the executors we create when the caller did
+	 * not give us one. The threads are daemon threads so they never keep the JVM up.
+	 * 
+	 * @param prefix String value to start the thread names with.
+	 * @return ThreadFactory to create the threads with.
+	 */
+	static ThreadFactory createThreadFactory(String prefix)
+	{
+		return runnable ->
+		{
+			Thread thread = new Thread(runnable, prefix + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+}
@@ -0,0 +1,752 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.Dependency;
+import org.cyclonedx.model.Metadata;
+import org.cyclonedx.model.Tool;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lmco.efoss.sbom.combiner.io.BomContentHandler;
+import com.lmco.efoss.sbom.combiner.io.ModelMapper;
+
+/**
+ * (U) This class holds part of a combine: the Software Bill of Materials (SBom) added to it, and
+ * only the components and dependencies whose key falls in its shards. Components and dependencies
+ * are split into shards by the hash of their key (name, group, and version for a component, the
+ * ref for a dependency), so each shard can be combined on its own (on another core, or in another
+ * process) and the partial combines merged afterwards.
+ * 
+ * <p>
+ * Unlike a combined Bom, a partial combine keeps where each component, dependency, and inner
+ * dependency was first seen (the position of the SBom in all the inputs, and its position in that
+ * SBom). So partial combines can be merged in any order, or grouping, and still give the same
+ * combined SBom as combining all the inputs at once, as long as every SBom is added with its
+ * position in all the inputs. The tools and outer (metadata) components are kept by shard 0.
+ * </p>
+ * 
+ * <p>
+ * A partial combine can be written to, and read back from, a stream (as JSon), to be merged in
+ * another process.
+ * </p>
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ */
+public class PartialCombine
+{
+	private static final String FORMAT = "sbom-combiner-partial";
+	private static final int FORMAT_VERSION = 1;
+	
+	// A position is the input's index in the high bits, and the position in the input below it.
+	private static final int ORDINAL_BITS = 40;
+	private static final int MAX_INPUTS = 1 << (Long.SIZE - 1 - ORDINAL_BITS);
+	
+	private static final ObjectMapper mapper = ModelMapper.get();
+	
+	private final int shardCount;
+	private final BitSet shards = new BitSet();
+	
+	private final Map<ComponentKey, ComponentEntry> components = new HashMap<>();
+	private final Map<String, DependencyEntry> dependencies = new HashMap<>();
+	private final TreeMap<Integer, List<Tool>> tools = new TreeMap<>();
+	private final TreeMap<Integer, Component> outerComps = new TreeMap<>();
+	
+	private long componentsIn = 0;
+	private long dependenciesIn = 0;
+	private long toolsIn = 0;
+	
+	/**
+	 * (U) This class is a component, with where it was first seen.
+	 */
+	private static class ComponentEntry
+	{
+		private long position;
+		private Component component;
+		
+		/**
+		 * (U) Constructor.
+		 * 
+		 * @param position  long position the component was first seen at.
+		 * @param component Component first seen.
+		 */
+		private ComponentEntry(long position, Component component)
+		{
+			this.position = position;
+			this.component = component;
+		}
+	}
+	
+	/**
+	 * (U) This class is a dependency, with where it (and each of its inner dependencies) was first
+	 * seen.
+	 */
+	private static class DependencyEntry
+	{
+		private long position;
+		private final Map<String, Long> dependsOn = new HashMap<>();
+		
+		/**
+		 * (U) Constructor.
+		 * 
+		 * @param position long position the dependency was first seen at.
+		 */
+		private DependencyEntry(long position)
+		{
+			this.position = position;
+		}
+		
+		/**
+		 * (U) This method adds an inner dependency, keeping the first position it was seen at.
+		 * 
+		 * @param ref      String value of the inner dependency's ref.
+		 * @param position long position it was seen at.
+		 */
+		private void addInner(String ref, long position)
+		{
+			dependsOn.merge(ref, position, Math::min);
+		}
+	}
+	
+	/**
+	 * (U) Constructs a new, empty, PartialCombine for one shard.
+	 * 
+	 * @param shardCount int the number of shards the combine is split into.
+	 * @param shard      int the shard (0 to shardCount - 1) this partial combine holds.
+	 */
+	public PartialCombine(int shardCount, int shard)
+	{
+		if (shardCount < 1)
+			throw new IllegalArgumentException("Shard count must be at least 1, not " +
+					shardCount + ".");
+		if ((shard < 0) || (shard >= shardCount))
+			throw new IllegalArgumentException("Shard must be from 0 to " + (shardCount - 1) +
+					", not " + shard + ".");
+		this.shardCount = shardCount;
+		this.shards.set(shard);
+	}
+	
+	/**
+	 * (U) Constructs a new, empty, PartialCombine for a single shard holding everything.
+	 */
+	public PartialCombine()
+	{
+		this(1, 0);
+	}
+	
+	/**
+	 * (U) Constructor, for a partial combine read back from a stream.
+	 * 
+	 * @param shardCount int the number of shards the combine is split into.
+	 * @param shards     BitSet of the shards the partial combine holds.
+	 */
+	private PartialCombine(int shardCount, BitSet shards)
+	{
+		this.shardCount = shardCount;
+		this.shards.or(shards);
+	}
+	
+	/**
+	 * (U) This method returns the shard a component belongs in.
+	 * 
+	 * @param key        ComponentKey of the component.
+	 * @param shardCount int the number of shards.
+	 * @return int the shard the component belongs in.
+	 */
+	public static int shardOf(ComponentKey key, int shardCount)
+	{
+		// String (and so key) hash codes are the same in every JVM.
+		return Math.floorMod(key.hashCode(), shardCount);
+	}
+	
+	/**
+	 * (U) This method returns the shard a dependency belongs in.
+	 * 
+	 * @param ref        String value of the dependency's ref.
+	 * @param shardCount int the number of shards.
+	 * @return int the shard the dependency belongs in.
+	 */
+	public static int shardOf(String ref, int shardCount)
+	{
+		return (ref != null) ? Math.floorMod(ref.hashCode(), shardCount) : 0;
+	}
+	
+	/**
+	 * (U) This method is used to add the parts of a Software Bill of Materials (SBom) that fall in
+	 * our shards.
+	 * 
+	 * @param input int position of the SBom in all the inputs of the combine.
+	 * @param bom   Bom to add.
+	 */
+	public void add(int input, Bom bom)
+	{
+		BomContentHandler handler = handler(input);
+		if (bom.getMetadata() != null)
+			handler.metadata(bom.getMetadata());
+		if (bom.getComponents() != null)
+		{
+			for (Component component : bom.getComponents())
+				handler.component(component);
+		}
+		if (bom.getDependencies() != null)
+		{
+			for (Dependency dependency : bom.getDependencies())
+				handler.dependency(dependency);
+		}
+	}
+	
+	/**
+	 * (U) This method returns a handler to stream a Software Bill of Materials (SBom) into the
+	 * partial combine with. Only the parts that fall in our shards are kept.
+	 * 
+	 * @param input int position of the SBom in all the inputs of the combine.
+	 * @return BomContentHandler to hand the pieces of the SBom to.
+	 */
+	public BomContentHandler handler(int input)
+	{
+		if ((input < 0) || (input >= MAX_INPUTS))
+			throw new IllegalArgumentException("Input must be from 0 to " + (MAX_INPUTS - 1) +
+					", not " + input + ".");
+		
+		long base = ((long) input) << ORDINAL_BITS;
+		return new BomContentHandler()
+		{
+			private long componentOrdinal = 0;
+			private long dependencyOrdinal = 0;
+			private long innerOrdinal = 0;
+			
+			@Override
+			public void metadata(Metadata metadata)
+			{
+				if (!shards.get(0))
+					return;
+				
+				if ((metadata.getTools() != null) && (!metadata.getTools().isEmpty()))
+				{
+					toolsIn += metadata.getTools().size();
+					tools.computeIfAbsent(input, key -> new ArrayList<>()).addAll(metadata
+							.getTools());
+				}
+				if (metadata.getComponent() != null)
+					outerComps.putIfAbsent(input, metadata.getComponent());
+			}
+			
+			@Override
+			public void component(Component component)
+			{
+				long position = base + componentOrdinal++;
+				ComponentKey key = ComponentKey.of(component);
+				if (!shards.get(shardOf(key, shardCount)))
+					return;
+				
+				componentsIn++;
+				ComponentEntry entry = components.get(key);
+				if (entry == null)
+				{
+					BomMerger.checkReferenceTypes(component);
+					components.put(key, new ComponentEntry(position, component));
+				}
+				else if (position < entry.position)
+				{
+					BomMerger.checkReferenceTypes(component);
+					entry.position = position;
+					entry.component = component;
+				}
+			}
+			
+			@Override
+			public void dependency(Dependency dependency)
+			{
+				long position = base + dependencyOrdinal++;
+				List<Dependency> innerDeps = dependency.getDependencies();
+				long innerPosition = base + innerOrdinal;
+				if (innerDeps != null)
+					innerOrdinal += innerDeps.size();
+				if (!shards.get(shardOf(dependency.getRef(), shardCount)))
+					return;
+				
+				dependenciesIn++;
+				DependencyEntry entry = dependencies.get(dependency.getRef());
+				if (entry == null)
+				{
+					entry = new DependencyEntry(position);
+					dependencies.put(dependency.getRef(), entry);
+				}
+				entry.position = Math.min(entry.position, position);
+				if (innerDeps != null)
+				{
+					for (Dependency innerDep : innerDeps)
+						entry.addInner(innerDep.getRef(), innerPosition++);
+				}
+			}
+		};
+	}
+	
+	/**
+	 * (U) This method is used to merge another partial combine (of the same number of shards)
+	 * into this one. The other partial combine is left as it was, though we may share its
+	 * components.
+	 * 
+	 * @param other PartialCombine to merge in.
+	 */
+	public void merge(PartialCombine other)
+	{
+		if (other.shardCount != shardCount)
+			throw new IllegalArgumentException("Can not merge a partial combine of " +
+					other.shardCount + " shards into one of " + shardCount + " shards.");
+		
+		for (Map.Entry<ComponentKey, ComponentEntry> otherEntry : other.components.entrySet())
+		{
+			ComponentEntry theirs = otherEntry.getValue();
+			ComponentEntry entry = components.get(otherEntry.getKey());
+			if (entry == null)
+				components.put(otherEntry.getKey(), new ComponentEntry(theirs.position,
+						theirs.component));
+			else if (theirs.position < entry.position)
+			{
+				entry.position = theirs.position;
+				entry.component = theirs.component;
+			}
+		}
+		
+		for (Map.Entry<String, DependencyEntry> otherEntry : other.dependencies.entrySet())
+		{
+			DependencyEntry theirs = otherEntry.getValue();
+			DependencyEntry entry = dependencies.get(otherEntry.getKey());
+			if (entry == null)
+			{
+				entry = new DependencyEntry(theirs.position);
+				dependencies.put(otherEntry.getKey(), entry);
+			}
+			entry.position = Math.min(entry.position, theirs.position);
+			for (Map.Entry<String, Long> inner : theirs.dependsOn.entrySet())
+				entry.addInner(inner.getKey(), inner.getValue());
+		}
+		
+		for (Map.Entry<Integer, List<Tool>> inputTools : other.tools.entrySet())
+			tools.putIfAbsent(inputTools.getKey(), new ArrayList<>(inputTools.getValue()));
+		for (Map.Entry<Integer, Component> outerComp : other.outerComps.entrySet())
+			outerComps.putIfAbsent(outerComp.getKey(), outerComp.getValue());
+		
+		shards.or(other.shards);
+		componentsIn += other.componentsIn;
+		dependenciesIn += other.dependenciesIn;
+		toolsIn += other.toolsIn;
+	}
+	
+	/**
+	 * (U) This method is used to build the combined Software Bill of Materials (SBom) from what
+	 * the partial combine holds. Once every shard has been merged in (see isComplete), this is the
+	 * same as combining all the inputs at once. This does not change the partial combine.
+	 * 
+	 * @return Bom the combined Software Bill of Materials.
+	 */
+	public Bom toBom()
+	{
+		Bom combinedSBom = new Bom();
+		
+		List<ComponentEntry> componentEntries = new ArrayList<>(components.values());
+		componentEntries.sort(Comparator.comparingLong(entry -> entry.position));
+		List<Component> combinedComps = new ArrayList<>(componentEntries.size());
+		for (ComponentEntry entry : componentEntries)
+			combinedComps.add(entry.component);
+		
+		// Add in outer Components if they are not already there.
+		Set<ComponentKey> outerKeys = new HashSet<>();
+		for (Component outerComp : outerComps.values())
+		{
+			ComponentKey key = ComponentKey.of(outerComp);
+			if ((!components.containsKey(key)) && (outerKeys.add(key)))
+			{
+				BomMerger.checkReferenceTypes(outerComp);
+				combinedComps.add(outerComp);
+			}
+		}
+		
+		ToolIndex toolsUsed = new ToolIndex();
+		for (List<Tool> inputTools : tools.values())
+			toolsUsed.addAll(inputTools);
+		Metadata combinedSBomMetadata = new Metadata();
+		combinedSBomMetadata.setTools(toolsUsed.getTools());
+		combinedSBom.setMetadata(combinedSBomMetadata);
+		
+		List<Map.Entry<String, DependencyEntry>> dependencyEntries = new ArrayList<>(
+				dependencies.entrySet());
+		dependencyEntries.sort(Comparator.comparingLong(entry -> entry.getValue().position));
+		List<Dependency> combinedDeps = new ArrayList<>(dependencyEntries.size());
+		for (Map.Entry<String, DependencyEntry> entry : dependencyEntries)
+		{
+			List<Map.Entry<String, Long>> innerEntries = new ArrayList<>(entry.getValue().dependsOn
+					.entrySet());
+			innerEntries.sort(Map.Entry.comparingByValue());
+			Set<String> dependsOn = new LinkedHashSet<>();
+			for (Map.Entry<String, Long> inner : innerEntries)
+				dependsOn.add(inner.getKey());
+			combinedDeps.add(DependencyGraph.toDependency(entry.getKey(), dependsOn));
+		}
+		
+		combinedSBom.setComponents(combinedComps);
+		combinedSBom.setDependencies(combinedDeps);
+		return combinedSBom;
+	}
+	
+	/**
+	 * (U) This method is used to see if every shard has been merged into this partial combine.
+	 * 
+	 * @return boolean true if it holds every shard.
+	 */
+	public boolean isComplete()
+	{
+		return (shards.cardinality() == shardCount);
+	}
+	
+	/**
+	 * (U) This method returns the number of shards the combine is split into.
+	 * 
+	 * @return int the number of shards.
+	 */
+	public int getShardCount()
+	{
+		return shardCount;
+	}
+	
+	/**
+	 * (U) This method returns the number of components added that fell in our shards (including
+	 * duplicates).
+	 * 
+	 * @return long the number of components added.
+	 */
+	public long getComponentsIn()
+	{
+		return componentsIn;
+	}
+	
+	/**
+	 * (U) This method returns the number of unique components held (not counting the outer
+	 * components).
+	 * 
+	 * @return long the number of unique components.
+	 */
+	public long getUniqueComponents()
+	{
+		return components.size();
+	}
+	
+	/**
+	 * (U) This method returns the number of dependencies added that fell in our shards (including
+	 * duplicates).
+	 * 
+	 * @return long the number of dependencies added.
+	 */
+	public long getDependenciesIn()
+	{
+		return dependenciesIn;
+	}
+	
+	/**
+	 * (U) This method returns the number of tools added (including duplicates), only shard 0
+	 * keeps the tools.
+	 * 
+	 * @return long the number of tools added.
+	 */
+	public long getToolsIn()
+	{
+		return toolsIn;
+	}
+	
+	/**
+	 * (U) This method writes the partial combine, as JSon, to a stream. The stream is not closed.
+	 * 
+	 * @param out OutputStream to write to.
+	 * @throws IOException in the event the partial combine can not be written.
+	 */
+	public void write(OutputStream out) throws IOException
+	{
+		try (JsonGenerator generator = mapper.getFactory().createGenerator(out,
+				JsonEncoding.UTF8))
+		{
+			generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+			generator.writeStartObject();
+			generator.writeStringField("format", FORMAT);
+			generator.writeNumberField("version", FORMAT_VERSION);
+			generator.writeNumberField("shardCount", shardCount);
+			generator.writeArrayFieldStart("shards");
+			for (int shard = shards.nextSetBit(0); shard >= 0; shard = shards.nextSetBit(shard +
+					1))
+				generator.writeNumber(shard);
+			generator.writeEndArray();
+			generator.writeNumberField("componentsIn", componentsIn);
+			generator.writeNumberField("dependenciesIn", dependenciesIn);
+			generator.writeNumberField("toolsIn", toolsIn);
+			
+			generator.writeArrayFieldStart("tools");
+			for (Map.Entry<Integer, List<Tool>> inputTools : tools.entrySet())
+			{
+				generator.writeStartObject();
+				generator.writeNumberField("input", inputTools.getKey());
+				generator.writeFieldName("tools");
+				mapper.writeValue(generator, inputTools.getValue());
+				generator.writeEndObject();
+			}
+			generator.writeEndArray();
+			
+			generator.writeArrayFieldStart("outerComponents");
+			for (Map.Entry<Integer, Component> outerComp : outerComps.entrySet())
+			{
+				generator.writeStartObject();
+				generator.writeNumberField("input", outerComp.getKey());
+				generator.writeFieldName("component");
+				mapper.writeValue(generator, outerComp.getValue());
+				generator.writeEndObject();
+			}
+			generator.writeEndArray();
+			
+			generator.writeArrayFieldStart("components");
+			for (ComponentEntry entry : components.values())
+			{
+				generator.writeStartObject();
+				generator.writeNumberField("position", entry.position);
+				generator.writeFieldName("component");
+				mapper.writeValue(generator, entry.component);
+				generator.writeEndObject();
+			}
+			generator.writeEndArray();
+			
+			generator.writeArrayFieldStart("dependencies");
+			for (Map.Entry<String, DependencyEntry> entry : dependencies.entrySet())
+			{
+				generator.writeStartObject();
+				generator.writeStringField("ref", entry.getKey());
+				generator.writeNumberField("position", entry.getValue().position);
+				generator.writeArrayFieldStart("dependsOn");
+				for (Map.Entry<String, Long> inner : entry.getValue().dependsOn.entrySet())
+				{
+					generator.writeStartObject();
+					generator.writeStringField("ref", inner.getKey());
+					generator.writeNumberField("position", inner.getValue());
+					generator.writeEndObject();
+				}
+				generator.writeEndArray();
+				generator.writeEndObject();
+			}
+			generator.writeEndArray();
+			
+			generator.writeEndObject();
+		}
+	}
+	
+	/**
+	 * (U) This method reads a partial combine, written by write, from a stream. The stream is not
+	 * closed.
+	 * 
+	 * @param in InputStream to read from.
+	 * @return PartialCombine read in.
+	 * @throws IOException in the event the partial combine can not be read.
+	 */
+	public static PartialCombine read(InputStream in) throws IOException
+	{
+		try (JsonParser parser = mapper.getFactory().createParser(in))
+		{
+			parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+			if (parser.nextToken() != JsonToken.START_OBJECT)
+				throw new IOException("Partial combine does not start with an object!");
+			
+			// The header comes first, as written.
+			expectField(parser, "format");
+			if (!FORMAT.equals(parser.nextTextValue()))
+				throw new IOException("Input is not a partial combine!");
+			expectField(parser, "version");
+			int version = parser.nextIntValue(-1);
+			if (version != FORMAT_VERSION)
+				throw new IOException("Unsupported partial combine version(" + version + ").");
+			expectField(parser, "shardCount");
+			int shardCount = parser.nextIntValue(0);
+			if (shardCount < 1)
+				throw new IOException("Invalid shard count(" + shardCount + ").");
+			expectField(parser, "shards");
+			BitSet shards = new BitSet();
+			expect(parser, JsonToken.START_ARRAY);
+			while (parser.nextToken() != JsonToken.END_ARRAY)
+				shards.set(parser.getIntValue());
+			
+			PartialCombine partial = new PartialCombine(shardCount, shards);
+			while (parser.nextToken() == JsonToken.FIELD_NAME)
+			{
+				String field = parser.getCurrentName();
+				parser.nextToken();
+				if ("componentsIn".equals(field))
+					partial.componentsIn = parser.getLongValue();
+				else if ("dependenciesIn".equals(field))
+					partial.dependenciesIn = parser.getLongValue();
+				else if ("toolsIn".equals(field))
+					partial.toolsIn = parser.getLongValue();
+				else if ("tools".equals(field))
+					readTools(parser, partial);
+				else if ("outerComponents".equals(field))
+					readOuterComponents(parser, partial);
+				else if ("components".equals(field))
+					readComponents(parser, partial);
+				else if ("dependencies".equals(field))
+					readDependencies(parser, partial);
+				else
+					parser.skipChildren();
+			}
+			return partial;
+		}
+	}
+	
+	/**
+	 * (U) This method reads the tools, of each input, of a partial combine.
+	 * 
+	 * @param parser  JsonParser positioned at the start of the tools array.
+	 * @param partial PartialCombine to add the tools to.
+	 * @throws IOException in the event the tools can not be read.
+	 */
+	private static void readTools(JsonParser parser, PartialCombine partial) throws IOException
+	{
+		while (parser.nextToken() == JsonToken.START_OBJECT)
+		{
+			expectField(parser, "input");
+			int input = parser.nextIntValue(-1);
+			expectField(parser, "tools");
+			parser.nextToken();
+			Tool[] inputTools = mapper.readValue(parser, Tool[].class);
+			expect(parser, JsonToken.END_OBJECT);
+			
+			List<Tool> toolList = new ArrayList<>(inputTools.length);
+			for (Tool tool : inputTools)
+				toolList.add(tool);
+			partial.tools.put(input, toolList);
+		}
+	}
+	
+	/**
+	 * (U) This method reads the outer components, of each input, of a partial combine.
+	 * 
+	 * @param parser  JsonParser positioned at the start of the outer components array.
+	 * @param partial PartialCombine to add the outer components to.
+	 * @throws IOException in the event the outer components can not be read.
+	 */
+	private static void readOuterComponents(JsonParser parser, PartialCombine partial)
+			throws IOException
+	{
+		while (parser.nextToken() == JsonToken.START_OBJECT)
+		{
+			expectField(parser, "input");
+			int input = parser.nextIntValue(-1);
+			expectField(parser, "component");
+			parser.nextToken();
+			partial.outerComps.put(input, mapper.readValue(parser, Component.class));
+			expect(parser, JsonToken.END_OBJECT);
+		}
+	}
+	
+	/**
+	 * (U) This method reads the components of a partial combine.
+	 * 
+	 * @param parser  JsonParser positioned at the start of the components array.
+	 * @param partial PartialCombine to add the components to.
+	 * @throws IOException in the event the components can not be read.
+	 */
+	private static void readComponents(JsonParser parser, PartialCombine partial)
+			throws IOException
+	{
+		while (parser.nextToken() == JsonToken.START_OBJECT)
+		{
+			expectField(parser, "position");
+			long position = parser.nextLongValue(-1);
+			expectField(parser, "component");
+			parser.nextToken();
+			Component component = mapper.readValue(parser, Component.class);
+			expect(parser, JsonToken.END_OBJECT);
+			partial.components.put(ComponentKey.of(component), new ComponentEntry(position,
+					component));
+		}
+	}
+	
+	/**
+	 * (U) This method reads the dependencies of a partial combine.
+	 * 
+	 * @param parser  JsonParser positioned at the start of the dependencies array.
+	 * @param partial PartialCombine to add the dependencies to.
+	 * @throws IOException in the event the dependencies can not be read.
+	 */
+	private static void readDependencies(JsonParser parser, PartialCombine partial)
+			throws IOException
+	{
+		while (parser.nextToken() == JsonToken.START_OBJECT)
+		{
+			expectField(parser, "ref");
+			String ref = parser.nextTextValue();
+			expectField(parser, "position");
+			DependencyEntry entry = new DependencyEntry(parser.nextLongValue(-1));
+			expectField(parser, "dependsOn");
+			expect(parser, JsonToken.START_ARRAY);
+			while (parser.nextToken() == JsonToken.START_OBJECT)
+			{
+				expectField(parser, "ref");
+				String innerRef = parser.nextTextValue();
+				expectField(parser, "position");
+				entry.dependsOn.put(innerRef, parser.nextLongValue(-1));
+				expect(parser, JsonToken.END_OBJECT);
+			}
+			expect(parser, JsonToken.END_OBJECT);
+			partial.dependencies.put(ref, entry);
+		}
+	}
+	
+	/**
+	 * (U) This method moves the parser on to the field passed in, failing if it is not next.
+	 * 
+	 * @param parser JsonParser to move on.
+	 * @param field  String value of the name of the field expected.
+	 * @throws IOException in the event the field is not next.
+	 */
+	private static void expectField(JsonParser parser, String field) throws IOException
+	{
+		if ((parser.nextToken() != JsonToken.FIELD_NAME) || (!field.equals(parser
+				.getCurrentName())))
+			throw new IOException("Partial combine is missing field(" + field + ").");
+	}
+	
+	/**
+	 * (U) This method moves the parser on to the token passed in, failing if it is not next.
+	 * 
+	 * @param parser JsonParser to move on.
+	 * @param token  JsonToken expected.
+	 * @throws IOException in the event the token is not next.
+	 */
+	private static void expect(JsonParser parser, JsonToken token) throws IOException
+	{
+		if (parser.nextToken() != token)
+			throw new IOException("Partial combine is not valid, expected " + token + " at " +
+					parser.getCurrentLocation() + ".");
+	}
+}
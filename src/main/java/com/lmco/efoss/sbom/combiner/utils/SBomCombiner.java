@@ -9,24 +9,48 @@
  */
 package com.lmco.efoss.sbom.combiner.utils;
 
-import java.io.File;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.log4j.Logger;
+import org.cyclonedx.exception.ParseException;
 import org.cyclonedx.model.Bom;
 import org.cyclonedx.model.Component;
-import org.cyclonedx.model.Dependency;
-import org.cyclonedx.model.ExternalReference;
-import org.cyclonedx.model.Metadata;
-import org.cyclonedx.model.Tool;
 import org.springframework.core.io.InputStreamSource;
+import org.springframework.core.io.Resource;
 
+import com.lmco.efoss.sbom.combiner.cache.CombineResultCache;
 import com.lmco.efoss.sbom.combiner.exceptions.SBomCombinerException;
-import com.lmco.efoss.sbom.commons.comparators.ComponentComparator;
+import com.lmco.efoss.sbom.combiner.io.BomArchive;
+import com.lmco.efoss.sbom.combiner.io.BomCompression;
+import com.lmco.efoss.sbom.combiner.io.BomContentHandler;
+import com.lmco.efoss.sbom.combiner.io.BomDiscovery;
+import com.lmco.efoss.sbom.combiner.io.BomFormat;
+import com.lmco.efoss.sbom.combiner.io.BomSnapshot;
+import com.lmco.efoss.sbom.combiner.io.CountingInputStream;
+import com.lmco.efoss.sbom.combiner.io.MappedFileInputStream;
+import com.lmco.efoss.sbom.combiner.io.StreamingBomReader;
+import com.lmco.efoss.sbom.combiner.io.StreamingBomWriter;
 import com.lmco.efoss.sbom.commons.utils.SBomCommonsException;
 import com.lmco.efoss.sbom.commons.utils.SBomFileUtils;
-import com.lmco.efoss.sbom.commons.utils.ToolsUtils;
 
 /**
  * (U) This class is used to combine multiple Software Bill of Materials (SBom) into a single SBom.
@@ -38,6 +62,8 @@ public class SBomCombiner
 {
 	private static final Logger logger = Logger.getLogger(SBomCombiner.class.getName());
 	
+	private static final int BUFFER_SIZE = 64 * 1024;
+	
 	/**
 	 * (U) Private Constructor as this class should not be instantiated.
 	 */
@@ -45,38 +71,34 @@ public class SBomCombiner
 	{}
 	
 	/**
-	 * (U) Because of a bug in CycloneDx's creation of a JSon SBom, I had to add this code to make
-	 * Sure all External References have a type. Their code throws a Null Pointer.
+	 * (U) This method is used to combine a list Software Bill of Materials (SWBom) into a single
+	 * SWBom.
 	 * 
-	 * @param component Component to check (and fill in if necessary) any External References
-	 *                  without a type set.
+	 * @param files List of Strings that are the file names to combine into a Single SBom.
+	 * @return Bom Software Bill of Materials created from the list of files passed in.
+	 * @throws SBomCombinerException in the event something goes wrong creating the SBom.
+	 * @throws SBomCommonsException  if we are unable to load an SBom.
 	 */
-	private static void checkReferenceTypes(Component component)
+	public static Bom combineSBomsFromStrings(List<String> files)
+			throws SBomCombinerException, SBomCommonsException
 	{
-		List<ExternalReference> refs = component.getExternalReferences();
-		if (refs != null)
-		{
-			for (ExternalReference ref : refs)
-			{
-				if (ref.getType() == null)
-					ref.setType(ExternalReference.Type.OTHER);
-			}
-		}
+		return combineCommonSBoms(files, new SBomCombinerOptions());
 	}
 	
 	/**
 	 * (U) This method is used to combine a list Software Bill of Materials (SWBom) into a single
-	 * SWBom.
+	 * SWBom, using the options passed in.
 	 * 
-	 * @param files List of Strings that are the file names to combine into a Single SBom.
+	 * @param files   List of Strings that are the file names to combine into a Single SBom.
+	 * @param options SBomCombinerOptions to use for the combine.
 	 * @return Bom Software Bill of Materials created from the list of files passed in.
 	 * @throws SBomCombinerException in the event something goes wrong creating the SBom.
 	 * @throws SBomCommonsException  if we are unable to load an SBom.
 	 */
-	public static Bom combineSBomsFromStrings(List<String> files)
+	public static Bom combineSBomsFromStrings(List<String> files, SBomCombinerOptions options)
 			throws SBomCombinerException, SBomCommonsException
 	{
-		return combineCommonSBoms(files);
+		return combineCommonSBoms(files, options);
 	}
 	
 	/**
@@ -92,147 +114,867 @@ public class SBomCombiner
 	public static Bom combineSBomsFromInputStreamSource(List<InputStreamSource> files)
 			throws SBomCombinerException, SBomCommonsException
 	{
-		return combineCommonSBoms(files);
+		return combineCommonSBoms(files, new SBomCombinerOptions());
+	}
+	
+	/**
+	 * (U) This method is used to combine a list Software Bill of Materials (SWBom) into a single
+	 * SWBom, using the options passed in.
+	 * 
+	 * @param files   List of InputStreamSource (org.springframework.core.io) that are the Stream
+	 *                reference to the files to combine into a Single SBom.
+	 * @param options SBomCombinerOptions to use for the combine.
+	 * @return Bom Software Bill of Materials created from the list of files passed in.
+	 * @throws SBomCombinerException in the event something goes wrong creating the SBom.
+	 * @throws SBomCommonsException  if we are unable to load an SBom.
+	 */
+	public static Bom combineSBomsFromInputStreamSource(List<InputStreamSource> files,
+			SBomCombinerOptions options)
+			throws SBomCombinerException, SBomCommonsException
+	{
+		return combineCommonSBoms(files, options);
+	}
+	
+	/**
+	 * (U) This method is used to combine a list Software Bill of Materials (SWBom) into a single
+	 * SWBom, writing it straight out to a stream rather than returning it. With an external merge
+	 * (and no result cache) the combined SWBom is never built in memory; it is written out a piece
+	 * at a time as it is read back off disk. It is compressed, as it is written, with the options'
+	 * output compression.
+	 * 
+	 * @param files   List of Strings that are the file names to combine into a Single SBom.
+	 * @param options SBomCombinerOptions to use for the combine.
+	 * @param out     OutputStream to write the combined SBom to (it is not closed).
+	 * @param format  BomFormat to write the combined SBom as.
+	 * @throws SBomCombinerException in the event something goes wrong creating, or writing out,
+	 *                               the SBom.
+	 * @throws SBomCommonsException  if we are unable to load an SBom.
+	 */
+	public static void combineSBomsFromStringsTo(List<String> files, SBomCombinerOptions options,
+			OutputStream out, BomFormat format) throws SBomCombinerException, SBomCommonsException
+	{
+		combineCommonSBomsTo(files, options, out, format);
+	}
+	
+	/**
+	 * (U) This method is used to combine a list Software Bill of Materials (SWBom) into a single
+	 * SWBom, writing it straight out to a stream rather than returning it. With an external merge
+	 * (and no result cache) the combined SWBom is never built in memory; it is written out a piece
+	 * at a time as it is read back off disk. It is compressed, as it is written, with the options'
+	 * output compression.
+	 * 
+	 * @param files   List of InputStreamSource (org.springframework.core.io) that are the Stream
+	 *                reference to the files to combine into a Single SBom.
+	 * @param options SBomCombinerOptions to use for the combine.
+	 * @param out     OutputStream to write the combined SBom to (it is not closed).
+	 * @param format  BomFormat to write the combined SBom as.
+	 * @throws SBomCombinerException in the event something goes wrong creating, or writing out,
+	 *                               the SBom.
+	 * @throws SBomCommonsException  if we are unable to load an SBom.
+	 */
+	public static void combineSBomsFromInputStreamSourceTo(List<InputStreamSource> files,
+			SBomCombinerOptions options, OutputStream out, BomFormat format)
+			throws SBomCombinerException, SBomCommonsException
+	{
+		combineCommonSBomsTo(files, options, out, format);
+	}
+	
+	/**
+	 * (U) This method is used to combine the Software Bill of Materials (SWBom) found under a set
+	 * of directories (and in the archives found there) into a single SWBom, using the default
+	 * discovery (bom.json and bom.xml at any depth).
+	 * 
+	 * @param paths   List of Strings that are the directories (or files, or archives) to search.
+	 * @param options SBomCombinerOptions to use for the combine.
+	 * @return Bom Software Bill of Materials created from the SBoms found.
+	 * @throws SBomCombinerException in the event something goes wrong finding, or reading in, an
+	 *                               SBom.
+	 */
+	public static Bom combineSBomsFromPaths(List<String> paths, SBomCombinerOptions options)
+			throws SBomCombinerException
+	{
+		return combineSBomsFromPaths(paths, new BomDiscovery(), options);
+	}
+	
+	/**
+	 * (U) This method is used to combine the Software Bill of Materials (SWBom) found under a set
+	 * of directories (and in the archives found there) into a single SWBom. The SWBoms found are
+	 * combined in sorted order of their paths, and the SWBoms in an archive in the order they are
+	 * stored in it, so the same trees always give the same combined SWBom. Each is streamed into
+	 * the combine (archive entries straight off the decompressing stream); of the combine modes,
+	 * only the external merge (and interning) is used.
+	 * 
+	 * @param paths     List of Strings that are the directories (or files, or archives) to
+	 *                  search.
+	 * @param discovery BomDiscovery deciding which files (and archive entries) are SBoms.
+	 * @param options   SBomCombinerOptions to use for the combine.
+	 * @return Bom Software Bill of Materials created from the SBoms found.
+	 * @throws SBomCombinerException in the event something goes wrong finding, or reading in, an
+	 *                               SBom.
+	 */
+	public static Bom combineSBomsFromPaths(List<String> paths, BomDiscovery discovery,
+			SBomCombinerOptions options) throws SBomCombinerException
+	{
+		CombineReport report = options.getReport();
+		long startTime = 0;
+		if (report != null)
+		{
+			report.reset();
+			startTime = System.nanoTime();
+		}
+		
+		List<Path> found;
+		try
+		{
+			List<Path> roots = new ArrayList<>(paths.size());
+			for (String path : paths)
+				roots.add(Paths.get(path));
+			found = discovery.discover(roots);
+		}
+		catch (IOException | InvalidPathException e)
+		{
+			String error = "Unable to search for SBoms!";
+			logger.error(error, e);
+			throw new SBomCombinerException(error, e);
+		}
+		
+		Bom combinedSBom;
+		if (options.isExternalMerge())
+		{
+			try (ExternalMerger merger = options.createExternalMerger())
+			{
+				streamDiscovered(found, discovery, merger, options);
+				combinedSBom = merger.toBom();
+				if (report != null)
+					report.recordCounts(merger, combinedSBom);
+			}
+			catch (IOException | UncheckedIOException e)
+			{
+				String error = "Unable to combine the SBoms on disk!";
+				logger.error(error, e);
+				throw new SBomCombinerException(error, e);
+			}
+		}
+		else
+		{
+			BomMerger merger = options.createMerger();
+			streamDiscovered(found, discovery, merger, options);
+			combinedSBom = merger.toBom();
+			if (report != null)
+				report.recordCounts(merger, combinedSBom);
+		}
+		
+		if (report != null)
+			report.finish(System.nanoTime() - startTime, false);
+		return combinedSBom;
+	}
+	
+	/**
+	 * (U) This method is used to combine a list Software Bill of Materials (SWBom) into a single
+	 * SWBom asynchronously, on the executor passed in.
+	 * 
+	 * @param files    List of Strings that are the file names to combine into a Single SBom.
+	 * @param options  SBomCombinerOptions to use for the combine.
+	 * @param executor Executor to run the combine on.
+	 * @return CompletableFuture of the combined SBom, cancelling it stops the combine.
+	 */
+	public static CompletableFuture<Bom> combineSBomsFromStringsAsync(List<String> files,
+			SBomCombinerOptions options, Executor executor)
+	{
+		return combineAsync(files, options, executor, 0);
+	}
+	
+	/**
+	 * (U) This method is used to combine a list Software Bill of Materials (SWBom) into a single
+	 * SWBom asynchronously, on the executor passed in, within a deadline.
+	 * 
+	 * @param files    List of Strings that are the file names to combine into a Single SBom.
+	 * @param options  SBomCombinerOptions to use for the combine.
+	 * @param executor Executor to run the combine on.
+	 * @param timeout  long the time the combine may take (from now), after which it is stopped
+	 *                 and the future completed with a TimeoutException.
+	 * @param unit     TimeUnit of the timeout.
+	 * @return CompletableFuture of the combined SBom, cancelling it stops the combine.
+	 */
+	public static CompletableFuture<Bom> combineSBomsFromStringsAsync(List<String> files,
+			SBomCombinerOptions options, Executor executor, long timeout, TimeUnit unit)
+	{
+		return combineAsync(files, options, executor, unit.toNanos(timeout));
+	}
+	
+	/**
+	 * (U) This method is used to combine a list Software Bill of Materials (SWBom) into a single
+	 * SWBom asynchronously, on the executor passed in.
+	 * 
+	 * @param files    List of InputStreamSource (org.springframework.core.io) that are the Stream
+	 *                 reference to the files to combine into a Single SBom.
+	 * @param options  SBomCombinerOptions to use for the combine.
+	 * @param executor Executor to run the combine on.
+	 * @return CompletableFuture of the combined SBom, cancelling it stops the combine.
+	 */
+	public static CompletableFuture<Bom> combineSBomsFromInputStreamSourceAsync(
+			List<InputStreamSource> files, SBomCombinerOptions options, Executor executor)
+	{
+		return combineAsync(files, options, executor, 0);
+	}
+	
+	/**
+	 * (U) This method is used to combine a list Software Bill of Materials (SWBom) into a single
+	 * SWBom asynchronously, on the executor passed in, within a deadline.
+	 * 
+	 * @param files    List of InputStreamSource (org.springframework.core.io) that are the Stream
+	 *                 reference to the files to combine into a Single SBom.
+	 * @param options  SBomCombinerOptions to use for the combine.
+	 * @param executor Executor to run the combine on.
+	 * @param timeout  long the time the combine may take (from now), after which it is stopped
+	 *                 and the future completed with a TimeoutException.
+	 * @param unit     TimeUnit of the timeout.
+	 * @return CompletableFuture of the combined SBom, cancelling it stops the combine.
+	 */
+	public static CompletableFuture<Bom> combineSBomsFromInputStreamSourceAsync(
+			List<InputStreamSource> files, SBomCombinerOptions options, Executor executor,
+			long timeout, TimeUnit unit)
+	{
+		return combineAsync(files, options, executor, unit.toNanos(timeout));
+	}
+	
+	/**
+	 * (U) This method runs a combine on an executor. The combine checks its cancellation between
+	 * inputs and every so often while merging, and the thread running it is interrupted when it
+	 * is stopped, so a cancelled (or timed out) combine stops using the executor promptly.
+	 * 
+	 * @param files        List of objects to get the handle to the actual SWBoms to combine.
+	 * @param options      SBomCombinerOptions to use for the combine (copied, not changed).
+	 * @param executor     Executor to run the combine on.
+	 * @param timeoutNanos long time, in nanoseconds, the combine may take, 0 for no deadline.
+	 * @return CompletableFuture of the combined SBom.
+	 */
+	private static CompletableFuture<Bom> combineAsync(List<?> files,
+			SBomCombinerOptions options, Executor executor, long timeoutNanos)
+	{
+		CombineCancellation cancellation = new CombineCancellation(timeoutNanos);
+		SBomCombinerOptions combineOptions = options.copy();
+		combineOptions.setCancellation(cancellation);
+		
+		CompletableFuture<Bom> future = new CompletableFuture<Bom>()
+		{
+			@Override
+			public boolean cancel(boolean mayInterruptIfRunning)
+			{
+				cancellation.cancel();
+				return super.cancel(mayInterruptIfRunning);
+			}
+		};
+		
+		if (timeoutNanos > 0)
+		{
+			ScheduledFuture<?> timer = CombineCancellation.schedule(() ->
+			{
+				cancellation.timeOut();
+				future.completeExceptionally(timedOut(timeoutNanos));
+			}, timeoutNanos);
+			future.whenComplete((bom, failure) -> timer.cancel(false));
+		}
+		
+		try
+		{
+			executor.execute(() ->
+			{
+				if (!cancellation.start(Thread.currentThread()))
+					return;
+				try
+				{
+					future.complete(combineCommonSBoms(files, combineOptions));
+				}
+				catch (Throwable e)
+				{
+					// Once stopped, whatever the combine failed with is down to the stop.
+					if (cancellation.isTimedOut())
+						future.completeExceptionally(timedOut(timeoutNanos));
+					else if (!cancellation.isCancelled())
+						future.completeExceptionally(e);
+				}
+				finally
+				{
+					cancellation.finish();
+				}
+			});
+		}
+		catch (RejectedExecutionException e)
+		{
+			future.completeExceptionally(e);
+		}
+		return future;
+	}
+	
+	/**
+	 * (U) This method creates the exception an asynchronous combine that ran past its deadline is
+	 * completed with.
+	 * 
+	 * @param timeoutNanos long time, in nanoseconds, the combine was given.
+	 * @return TimeoutException for the combine.
+	 */
+	private static TimeoutException timedOut(long timeoutNanos)
+	{
+		return new TimeoutException("The combine did not finish within " + TimeUnit.NANOSECONDS
+				.toMillis(timeoutNanos) + " ms!");
 	}
 	
 	/**
 	 * (U) This method is the actual method used to combine the Software Bill of Materials (SWBom)s
 	 * into a single SWBom.
 	 * 
-	 * @param files List of objects to get the handle to the actual SWBoms to combine.
+	 * @param files   List of objects to get the handle to the actual SWBoms to combine.
+	 * @param options SBomCombinerOptions to use for the combine.
 	 * @return Bom Software Bill of Materials created from the list of files passed in.
 	 * @throws SBomCombinerException in the event something goes wrong creating the SBom.
 	 * @throws SBomCommonsException  if we are unable to load an SBom.
 	 */
-	private static Bom combineCommonSBoms(List<?> files)
+	private static Bom combineCommonSBoms(List<?> files, SBomCombinerOptions options)
 			throws SBomCombinerException, SBomCommonsException
 	{
-		Bom combinedSBom = new Bom();
+		CombineReport report = options.getReport();
+		long startTime = 0;
+		if (report != null)
+		{
+			report.reset();
+			startTime = System.nanoTime();
+		}
 		
-		List<Component> components = new ArrayList<>();
-		List<Dependency> dependencies = new ArrayList<>();
+		CombineResultCache resultCache = options.getResultCache();
+		String resultKey = null;
+		if (resultCache != null)
+		{
+			resultKey = resultCache.computeKey(files, options.getResultVariant());
+			Bom cachedBom = resultCache.get(resultKey);
+			if (cachedBom != null)
+			{
+				if (report != null)
+					report.finish(System.nanoTime() - startTime, true);
+				return cachedBom;
+			}
+		}
 		
-		List<Component> outerComps = new ArrayList<>();
-		List<Tool> toolsUsed = new ArrayList<>();
+		if (options.isExternalMerge())
+		{
+			Bom combinedSBom = externalCombine(files, options);
+			if (resultCache != null)
+				resultCache.put(resultKey, combinedSBom);
+			if (report != null)
+				report.finish(System.nanoTime() - startTime, false);
+			return combinedSBom;
+		}
 		
-		Bom bom = null;
-		List<Component> bomComps;
-		List<Dependency> bomDeps;
-		List<Dependency> innerDeps;
-		boolean dependencyFound = false;
-		for (Object file : files)
+		if ((options.getShards() > 1) && (!options.isStreaming()) &&
+				(!options.isMergeDuplicates()))
 		{
-			if (file instanceof String)
-				bom = getBomFile((String) file);
-			else if (file instanceof InputStreamSource)
-				bom = getBomFile((InputStreamSource) file);
+			Bom combinedSBom = shardedCombine(files, options);
+			if (resultCache != null)
+				resultCache.put(resultKey, combinedSBom);
+			if (report != null)
+				report.finish(System.nanoTime() - startTime, false);
+			return combinedSBom;
+		}
+		
+		BomMerger merger = options.createMerger();
+		
+		if (options.isStreaming())
+		{
+			for (int i = 0; i < files.size(); i++)
+			{
+				options.checkCancelled();
+				streamBom(files.get(i), i, merger, report);
+			}
+		}
+		else if ((options.getSourceConcurrency() > 0) && (files.size() > 1))
+		{
+			ConcurrentSourceLoader.load(files, options, merger);
+		}
+		else if ((options.isTreeMerge()) && (files.size() > 1))
+		{
+			merger = ForkJoinBomCombiner.combine(files, options);
+		}
+		else if ((options.isParallel()) && (files.size() > 1))
+		{
+			ParallelBomLoader.load(files, options, merger);
+		}
+		else
+		{
+			Bom bom = null;
+			for (int i = 0; i < files.size(); i++)
+			{
+				bom = loadBom(files.get(i), i, options);
+				if (bom != null)
+					mergeBom(merger, bom, report);
+			}
+		}
+		
+		Bom combinedSBom = merger.toBom();
+		if (resultCache != null)
+			resultCache.put(resultKey, combinedSBom);
+		if (report != null)
+		{
+			report.recordCounts(merger, combinedSBom);
+			report.finish(System.nanoTime() - startTime, false);
+		}
+		return combinedSBom;
+	}
+	
+	/**
+	 * (U) This method is used to combine the Software Bill of Materials (SBom), streaming them
+	 * into a merger that spills the combine to disk once it goes over the memory budget.
+	 * 
+	 * @param files   List of objects to get the handle to the actual SBoms to combine.
+	 * @param options SBomCombinerOptions holding the memory budget and temporary directory.
+	 * @return Bom Software Bill of Materials created from the list of files passed in.
+	 * @throws SBomCombinerException in the event something goes wrong reading in an SBom, or
+	 *                               writing the combine to disk.
+	 */
+	private static Bom externalCombine(List<?> files, SBomCombinerOptions options)
+			throws SBomCombinerException
+	{
+		CombineReport report = options.getReport();
+		try (ExternalMerger merger = options.createExternalMerger())
+		{
+			for (int i = 0; i < files.size(); i++)
+			{
+				options.checkCancelled();
+				streamBom(files.get(i), i, merger, report);
+			}
+			
+			Bom combinedSBom = merger.toBom();
+			if (report != null)
+				report.recordCounts(merger, combinedSBom);
+			return combinedSBom;
+		}
+		catch (IOException | UncheckedIOException e)
+		{
+			String error = "Unable to combine the SBoms on disk!";
+			logger.error(error, e);
+			throw new SBomCombinerException(error, e);
+		}
+	}
+	
+	/**
+	 * (U) This method is the actual method used to combine the Software Bill of Materials (SWBom)s
+	 * into a single SWBom, written out to a stream.
+	 * 
+	 * @param files   List of objects to get the handle to the actual SWBoms to combine.
+	 * @param options SBomCombinerOptions to use for the combine.
+	 * @param out     OutputStream to write the combined SBom to.
+	 * @param format  BomFormat to write the combined SBom as.
+	 * @throws SBomCombinerException in the event something goes wrong creating, or writing out,
+	 *                               the SBom.
+	 * @throws SBomCommonsException  if we are unable to load an SBom.
+	 */
+	private static void combineCommonSBomsTo(List<?> files, SBomCombinerOptions options,
+			OutputStream out, BomFormat format) throws SBomCombinerException, SBomCommonsException
+	{
+		boolean external = (options.isExternalMerge()) && (options.getResultCache() == null);
+		CombineReport report = options.getReport();
+		long startTime = 0;
+		if ((external) && (report != null))
+		{
+			report.reset();
+			startTime = System.nanoTime();
+		}
+		
+		Bom combinedSBom = (external) ? null : combineCommonSBoms(files, options);
+		try
+		{
+			OutputStream bomOut = options.getOutputCompression().compress(out);
+			if (external)
+				externalCombineTo(files, options, bomOut, format);
+			else
+				StreamingBomWriter.write(combinedSBom, format, bomOut);
 			
-			if (bom != null)
+			// Finishes the compression (only once everything is written, so a combine that fails
+			// part way through does not look complete).
+			if (bomOut != out)
+				bomOut.close();
+		}
+		catch (IOException | UncheckedIOException e)
+		{
+			String error = "Unable to write out the combined SBom!";
+			logger.error(error, e);
+			throw new SBomCombinerException(error, e);
+		}
+		
+		if ((external) && (report != null))
+			report.finish(System.nanoTime() - startTime, false);
+	}
+	
+	/**
+	 * (U) This method is used to combine the Software Bill of Materials (SBom), streaming them
+	 * into a merger that spills the combine to disk, then streaming the combine from the merger
+	 * straight out to a stream.
+	 * 
+	 * @param files   List of objects to get the handle to the actual SBoms to combine.
+	 * @param options SBomCombinerOptions holding the memory budget and temporary directory.
+	 * @param out     OutputStream to write the combined SBom to.
+	 * @param format  BomFormat to write the combined SBom as.
+	 * @throws SBomCombinerException in the event something goes wrong reading in an SBom, or
+	 *                               writing the combine to disk or the stream.
+	 */
+	private static void externalCombineTo(List<?> files, SBomCombinerOptions options,
+			OutputStream out, BomFormat format) throws SBomCombinerException
+	{
+		CombineReport report = options.getReport();
+		try (ExternalMerger merger = options.createExternalMerger())
+		{
+			for (int i = 0; i < files.size(); i++)
 			{
-				if ((bom.getMetadata() != null) && (bom.getMetadata().getTools() != null) &&
-						(!bom.getMetadata().getTools().isEmpty()))
-				{
-					toolsUsed = ToolsUtils.addUniqueTools(toolsUsed, bom.getMetadata().getTools());
-				}
+				options.checkCancelled();
+				streamBom(files.get(i), i, merger, report);
+			}
 			
-				if ((bom.getMetadata() != null) && (bom.getMetadata().getComponent() != null))
-					outerComps.add(bom.getMetadata().getComponent());
+			try (StreamingBomWriter writer = new StreamingBomWriter(out, format))
+			{
+				merger.write(writer);
+				if (report != null)
+					report.recordCounts(merger, writer);
+			}
+		}
+		catch (IOException | UncheckedIOException e)
+		{
+			String error = "Unable to combine the SBoms on disk!";
+			logger.error(error, e);
+			throw new SBomCombinerException(error, e);
+		}
+	}
+	
+	/**
+	 * (U) This method is used to stream the Software Bill of Materials (SBom) found by a
+	 * discovery, in order, into a handler.
+	 * 
+	 * @param found     List of the Paths found (SBoms and archives).
+	 * @param discovery BomDiscovery deciding which archive entries are SBoms.
+	 * @param handler   BomContentHandler to hand the pieces of the SBoms to.
+	 * @param options   SBomCombinerOptions holding the (optional) report.
+	 * @throws SBomCombinerException in the event an SBom, or archive, can not be read.
+	 */
+	private static void streamDiscovered(List<Path> found, BomDiscovery discovery,
+			BomContentHandler handler, SBomCombinerOptions options) throws SBomCombinerException
+	{
+		CombineReport report = options.getReport();
+		AtomicInteger index = new AtomicInteger();
+		for (Path path : found)
+		{
+			options.checkCancelled();
+			if (!discovery.isArchive(path))
+			{
+				streamBom(path.toString(), index.getAndIncrement(), handler, report);
+				continue;
+			}
 			
-				bomComps = bom.getComponents();
-				// Process Components.
-				for (Component bomComp : bomComps)
+			try
+			{
+				BomArchive.read(path, discovery, (name, in) ->
 				{
-					if (!componentsContain(bomComp, components))
+					options.checkCancelled();
+					long start = System.nanoTime();
+					CountingInputStream counter = new CountingInputStream(in);
+					StreamingBomReader.read(counter, handler);
+					int entryIndex = index.getAndIncrement();
+					if (report != null)
+						report.addInput(entryIndex, path + "!/" + name, counter.getCount(),
+								System.nanoTime() - start);
+				});
+			}
+			catch (IOException | UncheckedIOException e)
+			{
+				String error = "Unable to read SBoms from archive(" + path + ").";
+				logger.error(error, e);
+				throw new SBomCombinerException(error, e);
+			}
+		}
+	}
+	
+	/**
+	 * (U) This method is used to combine the Software Bill of Materials (SBom) split into shards,
+	 * each combined on its own thread.
+	 * 
+	 * @param files   List of objects to get the handle to the actual SBoms to combine.
+	 * @param options SBomCombinerOptions holding the number of shards.
+	 * @return Bom Software Bill of Materials created from the list of files passed in.
+	 * @throws SBomCombinerException in the event something goes wrong creating the SBom.
+	 * @throws SBomCommonsException  if we are unable to load an SBom.
+	 */
+	private static Bom shardedCombine(List<?> files, SBomCombinerOptions options)
+			throws SBomCombinerException, SBomCommonsException
+	{
+		PartialCombine partial = ShardedCombiner.combine(files, options);
+		Bom combinedSBom = partial.toBom();
+		BomInterner interner = options.createInterner();
+		if (interner != null)
+		{
+			for (Component component : combinedSBom.getComponents())
+				interner.intern(component);
+		}
+		if (options.getReport() != null)
+			options.getReport().recordCounts(partial, combinedSBom);
+		return combinedSBom;
+	}
+	
+	/**
+	 * (U) This method is used to merge a Software Bill of Materials (SBom) into the combine,
+	 * timing the merge if there is a report.
+	 * 
+	 * @param merger BomMerger to merge the SBom into.
+	 * @param bom    Bom to merge in.
+	 * @param report CombineReport to add the merge time to, may be null.
+	 */
+	static void mergeBom(BomMerger merger, Bom bom, CombineReport report)
+	{
+		if (report == null)
+		{
+			merger.merge(bom);
+		}
+		else
+		{
+			long start = System.nanoTime();
+			merger.merge(bom);
+			report.addMergeTime(System.nanoTime() - start);
+		}
+	}
+	
+	/**
+	 * (U) This method is used to read in a Software Bill of Materials (SBom) from one of the
+	 * objects passed to the combine methods, recording it in the report if there is one.
+	 * 
+	 * @param file    Object (String file name or InputStreamSource) to read the SBom from.
+	 * @param index   int position of the SBom in the inputs.
+	 * @param options SBomCombinerOptions holding the (optional) cache and report.
+	 * @return Bom read in, or null if there was nothing to read.
+	 * @throws SBomCombinerException in the event the file can not be read into a Bom object.
+	 * @throws SBomCommonsException  in the event we fail to create an SBom from the file's data.
+	 */
+	static Bom loadBom(Object file, int index, SBomCombinerOptions options)
+			throws SBomCombinerException, SBomCommonsException
+	{
+		options.checkCancelled();
+		CombineReport report = options.getReport();
+		if (report == null)
+			return loadBom(file, options);
+		
+		long start = System.nanoTime();
+		CountingSource countingSource = null;
+		Object input = file;
+		if (file instanceof InputStreamSource)
+		{
+			countingSource = new CountingSource((InputStreamSource) file);
+			input = countingSource;
+		}
+		Bom bom = loadBom(input, options);
+		report.addInput(index, describe(file), (countingSource != null) ? countingSource
+				.getCount() : fileSize(file), System.nanoTime() - start);
+		return bom;
+	}
+	
+	/**
+	 * (U) This method is used to read in a Software Bill of Materials (SBom) from one of the
+	 * objects passed to the combine methods.
+	 * 
+	 * @param file    Object (String file name or InputStreamSource) to read the SBom from.
+	 * @param options SBomCombinerOptions holding the (optional) cache to read files through.
+	 * @return Bom read in, or null if there was nothing to read.
+	 * @throws SBomCombinerException in the event the file can not be read into a Bom object.
+	 * @throws SBomCommonsException  in the event we fail to create an SBom from the file's data.
+	 */
+	private static Bom loadBom(Object file, SBomCombinerOptions options)
+			throws SBomCombinerException, SBomCommonsException
+	{
+		Bom bom = null;
+		if ((file instanceof String) && (options.getBomFileCache() != null))
+			bom = options.getBomFileCache().getBomFile((String) file);
+		else if (file instanceof String)
+			bom = getBomFile((String) file);
+		else if (file instanceof InputStreamSource)
+			bom = getBomFile((InputStreamSource) file);
+		return bom;
+	}
+	
+	/**
+	 * (U) This method is used to stream a Software Bill of Materials (SBom), from one of the
+	 * objects passed to the combine methods, into a handler. The SBom is never read into a Bom, its
+	 * components and dependencies are handed to the handler as they are read.
+	 * 
+	 * @param file    Object (String file name or InputStreamSource) to read the SBom from.
+	 * @param index   int position of the SBom in the inputs.
+	 * @param handler BomContentHandler to hand the pieces of the SBom to.
+	 * @param report  CombineReport to record the SBom in, may be null.
+	 * @throws SBomCombinerException in the event the SBom can not be read.
+	 */
+	static void streamBom(Object file, int index, BomContentHandler handler,
+			CombineReport report) throws SBomCombinerException
+	{
+		long start = (report != null) ? System.nanoTime() : 0;
+		Object event = CombinerEvents.beginStream();
+		try
+		{
+			if (file instanceof String)
+			{
+				Path path = getPath((String) file);
+				if (path != null)
+				{
+					try (InputStream in = MappedFileInputStream.open(path))
 					{
-						checkReferenceTypes(bomComp);
-						components.add(bomComp);
+						StreamingBomReader.read(in, handler);
+						if (report != null)
+							report.addInput(index, (String) file, Files.size(path), System
+									.nanoTime() - start);
+					}
+					catch (IOException e)
+					{
+						String error = "Unable to read SBom from file(" + file + ").";
+						logger.error(error, e);
+						throw new SBomCombinerException(error, e);
 					}
-					else
-						logger.debug("We already have component(" + bomComp.getName() + ", " +
-								bomComp.getGroup() + ", " + bomComp.getVersion() + ")");
 				}
-				
-				// Process Dependencies.
-				bomDeps = bom.getDependencies();
-				if ((bomDeps != null) && (!bomDeps.isEmpty()))
+			}
+			else if (file instanceof InputStreamSource)
+			{
+				try (InputStream in = ((InputStreamSource) file).getInputStream())
 				{
-					for (Dependency bomDep : bomDeps)
+					if (report == null)
+					{
+						StreamingBomReader.read(in, handler);
+					}
+					else
 					{
-						dependencyFound = false;
-						for (Dependency dep : dependencies)
-						{
-							if (dep.equals(bomDep))
-							{
-								dependencyFound = true;
-								logger.debug("Dependency (" + dep.getRef() +
-										") found.  Adding inner depenencies.");
-								innerDeps = bomDep.getDependencies();
-								if (innerDeps != null)
-								{
-									for (Dependency innerDep : innerDeps)
-									{
-										dep.addDependency(innerDep);
-									}
-								}
-							}
-						}
-						if (!dependencyFound)
-							dependencies.add(bomDep);
+						CountingInputStream counter = new CountingInputStream(in);
+						StreamingBomReader.read(counter, handler);
+						report.addInput(index, describe(file), counter.getCount(), System
+								.nanoTime() - start);
 					}
 				}
+				catch (Exception e)
+				{
+					String error = "Failed to read bom file!";
+					logger.error(error, e);
+					throw new SBomCombinerException(error, e);
+				}
 			}
 		}
-		
-		// Add in outer Components if they are not already there.
-		for (Component bomComp : outerComps)
+		finally
 		{
-			if (!componentsContain(bomComp, components))
+			CombinerEvents.endStream(event, file);
+		}
+	}
+	
+	/**
+	 * (U) This method returns a description of one of the objects passed to the combine methods,
+	 * for the report.
+	 * 
+	 * @param file Object (String file name or InputStreamSource) to describe.
+	 * @return String value of the file name, or the description of the InputStreamSource.
+	 */
+	static String describe(Object file)
+	{
+		if (file instanceof Resource)
+			return ((Resource) file).getDescription();
+		return String.valueOf(file);
+	}
+	
+	/**
+	 * (U) This method returns the size of a file, for the report.
+	 * 
+	 * @param file Object (String file name or InputStreamSource) to get the size of.
+	 * @return long size of the file, in bytes, -1 if it is not a file or its size can not be
+	 *         read.
+	 */
+	static long fileSize(Object file)
+	{
+		if ((file instanceof String) && (((String) file).trim().length() > 0))
+		{
+			try
 			{
-				checkReferenceTypes(bomComp);
-				components.add(bomComp);
+				return Files.size(Paths.get((String) file));
+			}
+			catch (IOException e)
+			{
+				return -1;
 			}
-			else
-				logger.debug("We already have component(" + bomComp.getName() + ", " +
-						bomComp.getGroup() + ", " + bomComp.getVersion() + ")");
 		}
-		if (combinedSBom.getMetadata() == null)
+		return -1;
+	}
+	
+	/**
+	 * (U) This class is an InputStreamSource that counts the bytes read from the streams it
+	 * hands out, so the size of an SBom can be reported.
+	 */
+	private static class CountingSource implements InputStreamSource
+	{
+		private final InputStreamSource source;
+		private CountingInputStream in = null;
+		
+		/**
+		 * (U) Constructor.
+		 * 
+		 * @param source InputStreamSource to count the bytes read from.
+		 */
+		private CountingSource(InputStreamSource source)
 		{
-			Metadata combinedSBomMetadata = new Metadata();
-			combinedSBomMetadata.setTools(toolsUsed);
-			combinedSBom.setMetadata(combinedSBomMetadata);
+			this.source = source;
 		}
-		else
+		
+		@Override
+		public InputStream getInputStream() throws IOException
 		{
-			combinedSBom.getMetadata().setTools(toolsUsed);
+			in = new CountingInputStream(source.getInputStream());
+			return in;
+		}
+		
+		/**
+		 * (U) This method returns the number of bytes read from the last stream handed out.
+		 * 
+		 * @return long the number of bytes read, -1 if no stream was handed out.
+		 */
+		private long getCount()
+		{
+			return (in != null) ? in.getCount() : -1;
 		}
-		combinedSBom.setComponents(components);
-		combinedSBom.setDependencies(dependencies);
-		return combinedSBom;
 	}
 	
 	/**
-	 * (U) This method is used to look for the component in the list of components. It uses the
-	 * custom "ComponentComparator" to look for a component with the same name, group, and version.
+	 * (U) This method is used to get (and check) the path for a Software Bill of Materials
+	 * (SBom) file name. The file is checked with a single read of its attributes.
 	 * 
-	 * @param comp       Component we are looking for.
-	 * @param components List of components to look for the component in.
-	 * @return boolean either true we found it. Or false we did not.
+	 * @param fileName String value of the file name to read in.
+	 * @return Path for the file name, or null if no file name was given.
+	 * @throws SBomCombinerException in the event the file does not exist or can not be read.
 	 */
-	private static boolean componentsContain(Component comp, List<Component> components)
+	private static Path getPath(String fileName) throws SBomCombinerException
 	{
-		ComponentComparator customComparator = new ComponentComparator();
-		
-		for (Component component : components)
+		Path path = null;
+		if ((fileName != null) && (fileName.trim().length() > 0))
 		{
-			if (customComparator.equals(comp, component))
-				return true;
+			path = Paths.get(fileName);
+			BasicFileAttributes attributes;
+			try
+			{
+				attributes = Files.readAttributes(path, BasicFileAttributes.class);
+			}
+			catch (NoSuchFileException e)
+			{
+				throw new SBomCombinerException("File(" + fileName + ") does NOT exist!");
+			}
+			catch (IOException e)
+			{
+				throw new SBomCombinerException("Unable to read SBom from file(" + fileName +
+						").");
+			}
+			if (attributes.isDirectory())
+				throw new SBomCombinerException("Unable to read SBom from file(" + fileName +
+						").");
 		}
-		return false;
+		return path;
 	}
 	
 	/**
 	 * (U) This method is used to read a Software Bill of Materials (SBom) file it into a Bom
-	 * Object.
+	 * Object. The file is memory mapped (or, if it is small, read in whole) and handed straight
+	 * to the CycloneDx parser for its format.
 	 * 
 	 * @param fileName String value of the file name to read in.
 	 * @return Bom CycloneDx Bom object the file has been read into.
@@ -246,23 +988,73 @@ public class SBomCombiner
 		if (logger.isDebugEnabled())
 			logger.debug("Attempting to load SBom (" + fileName + ")");
 		
-		if ((fileName != null) && (fileName.trim().length() > 0))
+		Path path = getPath(fileName);
+		if (path != null)
 		{
-			File file = new File(fileName);
-			if ((file.exists()) && (file.canRead()))
-				bom = SBomFileUtils.processFile(file);
-			else if (file.exists())
-				throw new SBomCombinerException("Unable to read SBom from file(" +
-						fileName + ").");
-			else
-				throw new SBomCombinerException("File(" + fileName + ") does NOT exist!");
+			Object event = CombinerEvents.beginParse();
+			// Opening the file is where we find out if we are allowed to read it.
+			try (InputStream in = MappedFileInputStream.open(path))
+			{
+				bom = parseBom(in, fileName);
+			}
+			catch (IOException e)
+			{
+				String error = "Unable to read SBom from file(" + fileName + ").";
+				logger.error(error, e);
+				throw new SBomCombinerException(error, e);
+			}
+			finally
+			{
+				CombinerEvents.endParse(event, fileName, bom);
+			}
 		}
 		
 		return bom;
 	}
 	
 	/**
-	 * (U) This method is used to read the bom file from an InputStreamSource.
+	 * (U) This method is used to parse a Software Bill of Materials (SBom), JSon, XML, or a
+	 * BomSnapshot, from a stream. The format (and compression, gzip or Zstandard) is detected from
+	 * the first few bytes, and the stream handed straight to the parser for it, through the
+	 * decompressor, so it is only read once. Anything else is left to SBomFileUtils.
+	 * 
+	 * @param in       InputStream (that supports mark) to read the SBom from.
+	 * @param fileName String value of the file name the SBom is from.
+	 * @return Bom CycloneDx Bom object the SBom has been read into.
+	 * @throws IOException          in the event the SBom can not be read.
+	 * @throws SBomCommonsException in the event we fail to create an SBom from the data.
+	 */
+	private static Bom parseBom(InputStream in, String fileName)
+			throws IOException, SBomCommonsException
+	{
+		InputStream bomIn = BomCompression.decompress(in);
+		try
+		{
+			if (BomSnapshot.isSnapshot(bomIn))
+				return BomSnapshot.read(bomIn);
+			
+			BomFormat format = BomFormat.detect(bomIn);
+			if (format != null)
+				return format.parse(bomIn);
+			return SBomFileUtils.processInputStream(bomIn);
+		}
+		catch (ParseException e)
+		{
+			String error = "Unable to create SBom from file(" + fileName + ").";
+			logger.error(error, e);
+			throw new SBomCommonsException(error);
+		}
+		finally
+		{
+			// Frees the decompressor, if there is one.
+			if (bomIn != in)
+				bomIn.close();
+		}
+	}
+	
+	/**
+	 * (U) This method is used to read the bom file from an InputStreamSource. The format is
+	 * detected from the first few bytes of the stream, so it is only parsed once.
 	 * 
 	 * @param source InputStreamSource to read the Bom from.
 	 * @return Bom read from the InputStreamSource passed in.
@@ -273,15 +1065,20 @@ public class SBomCombiner
 	{
 		Bom bom = null;
 		
-		try
+		Object event = CombinerEvents.beginParse();
+		try (InputStream in = new BufferedInputStream(source.getInputStream(), BUFFER_SIZE))
 		{
-			bom = SBomFileUtils.processInputStream(source.getInputStream());
+			bom = parseBom(in, describe(source));
 		}
 		catch (Exception e)
 		{
 			String error = "Failed to read bom file!";
 			logger.error(error, e);
-			throw new SBomCombinerException(error);
+			throw new SBomCombinerException(error, e);
+		}
+		finally
+		{
+			CombinerEvents.endParse(event, source, bom);
 		}
 		return bom;
 	}
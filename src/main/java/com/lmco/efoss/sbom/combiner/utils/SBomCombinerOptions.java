@@ -0,0 +1,555 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.utils;
+
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+
+import com.lmco.efoss.sbom.combiner.cache.BomFileCache;
+import com.lmco.efoss.sbom.combiner.cache.CombineResultCache;
+import com.lmco.efoss.sbom.combiner.io.BomCompression;
+
+/**
+ * (U) This class holds the optional settings for a combine. The defaults give the same behavior
+ * as the combine methods that do not take options.
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ */
+public class SBomCombinerOptions
+{
+	public static final long DEFAULT_MEMORY_BUDGET = 64L * 1024 * 1024;
+	
+	private int parallelism = 1;
+	private ExecutorService executor = null;
+	private boolean streaming = false;
+	private boolean treeMerge = false;
+	private int sourceConcurrency = 0;
+	private int shards = 1;
+	private boolean interning = false;
+	private boolean mergeDuplicates = false;
+	private boolean externalMerge = false;
+	private long memoryBudget = DEFAULT_MEMORY_BUDGET;
+	private Path tempDirectory = null;
+	private BomFileCache bomFileCache = null;
+	private CombineResultCache resultCache = null;
+	private CombineReport report = null;
+	private BomCompression outputCompression = BomCompression.NONE;
+	private CombineCancellation cancellation = null;
+	
+	/**
+	 * (U) This method returns the number of Software Bill of Materials (SBom) to read in at the
+	 * same time.
+	 * 
+	 * @return int the number of SBoms to read in at once, 1 (the default) reads them one at a
+	 *         time.
+	 */
+	public int getParallelism()
+	{
+		return parallelism;
+	}
+	
+	/**
+	 * (U) This method sets the number of Software Bill of Materials (SBom) to read in at the same
+	 * time. Only used if no executor has been set.
+	 * 
+	 * @param parallelism int the number of SBoms to read in at once.
+	 */
+	public void setParallelism(int parallelism)
+	{
+		if (parallelism < 1)
+			throw new IllegalArgumentException("Parallelism must be at least 1, not " +
+					parallelism + ".");
+		this.parallelism = parallelism;
+	}
+	
+	/**
+	 * (U) This method returns the executor used to read in the Software Bill of Materials (SBom).
+	 * 
+	 * @return ExecutorService used to read in the SBoms, null if none has been set.
+	 */
+	public ExecutorService getExecutor()
+	{
+		return executor;
+	}
+	
+	/**
+	 * (U) This method sets the executor used to read in the Software Bill of Materials (SBom). If
+	 * set the SBoms are read in on it (and the parallelism is ignored). The combiner does not shut
+	 * it down.
+	 * 
+	 * @param executor ExecutorService to read in the SBoms on.
+	 */
+	public void setExecutor(ExecutorService executor)
+	{
+		this.executor = executor;
+	}
+	
+	/**
+	 * (U) This method is used to see if the Software Bill of Materials (SBom) should be read in
+	 * parallel.
+	 * 
+	 * @return boolean true if an executor has been set or the parallelism is more than 1.
+	 */
+	public boolean isParallel()
+	{
+		return ((executor != null) || (parallelism > 1));
+	}
+	
+	/**
+	 * (U) This method is used to see if the Software Bill of Materials (SBom) should be streamed
+	 * into the combine.
+	 * 
+	 * @return boolean true if the SBoms are streamed, false (the default) if each is read into a
+	 *         Bom first.
+	 */
+	public boolean isStreaming()
+	{
+		return streaming;
+	}
+	
+	/**
+	 * (U) This method sets whether the Software Bill of Materials (SBom) should be streamed into
+	 * the combine. When streamed, each component and dependency is merged as soon as it is read,
+	 * so only the combined SBom (and not every SBom read in) is held in memory. The SBoms are
+	 * streamed one at a time, the parallelism and executor are not used.
+	 * 
+	 * @param streaming boolean true to stream the SBoms into the combine.
+	 */
+	public void setStreaming(boolean streaming)
+	{
+		this.streaming = streaming;
+	}
+	
+	/**
+	 * (U) This method is used to see if the Software Bill of Materials (SBom) should be merged in
+	 * a fork-join tree.
+	 * 
+	 * @return boolean true if the SBoms are merged in a tree, false (the default) if they are
+	 *         merged one at a time.
+	 */
+	public boolean isTreeMerge()
+	{
+		return treeMerge;
+	}
+	
+	/**
+	 * (U) This method sets whether the Software Bill of Materials (SBom) should be merged in a
+	 * fork-join tree. Each SBom is read into its own partial combine, and the partial combines are
+	 * merged together in pairs (in parallel) until one is left, so the merging, and not just the
+	 * reading, uses more than one core. The combined SBom is the same as merging them one at a
+	 * time. The merge runs on the executor if it is a ForkJoinPool, otherwise on a pool of the
+	 * parallelism (or, if that is 1, the number of processors). Not used when streaming.
+	 * 
+	 * @param treeMerge boolean true to merge the SBoms in a tree.
+	 */
+	public void setTreeMerge(boolean treeMerge)
+	{
+		this.treeMerge = treeMerge;
+	}
+	
+	/**
+	 * (U) This method returns the number of Software Bill of Materials (SBom) sources opened and
+	 * read in at the same time, on their own (virtual if possible) threads.
+	 * 
+	 * @return int the number of sources read in at once, 0 (the default) if they are not read in
+	 *         this way.
+	 */
+	public int getSourceConcurrency()
+	{
+		return sourceConcurrency;
+	}
+	
+	/**
+	 * (U) This method sets the number of Software Bill of Materials (SBom) sources opened and read
+	 * in at the same time. Meant for sources that block on I/O (uploads, remote object streams):
+	 * each is read on a virtual thread if the JVM has them, otherwise on a pool of this many
+	 * platform threads, and no more than this many are read in (and held) before being merged, in
+	 * order. A source that fails is named in the SBomCombinerException thrown (see
+	 * ConcurrentSourceLoader). Takes the place of the parallelism, executor, and tree merge; not
+	 * used when streaming, sharding, or spilling the combine to disk.
+	 * 
+	 * @param sourceConcurrency int the number of sources to read in at once, 0 to not read them
+	 *                          in this way.
+	 */
+	public void setSourceConcurrency(int sourceConcurrency)
+	{
+		if (sourceConcurrency < 0)
+			throw new IllegalArgumentException("Source concurrency can not be negative, not " +
+					sourceConcurrency + ".");
+		this.sourceConcurrency = sourceConcurrency;
+	}
+	
+	/**
+	 * (U) This method returns the number of shards the combine is split into.
+	 * 
+	 * @return int the number of shards, 1 (the default) if the combine is not split.
+	 */
+	public int getShards()
+	{
+		return shards;
+	}
+	
+	/**
+	 * (U) This method sets the number of shards the combine is split into. If more than 1, the
+	 * components and dependencies are split into shards by the hash of their key (see
+	 * PartialCombine), and each shard is combined on its own thread before they are merged. The
+	 * Software Bill of Materials (SBom) are read in using the executor or parallelism. The
+	 * combined SBom is the same as merging them one at a time. Not used when streaming, or when
+	 * merging duplicates.
+	 * 
+	 * @param shards int the number of shards to split the combine into.
+	 */
+	public void setShards(int shards)
+	{
+		if (shards < 1)
+			throw new IllegalArgumentException("Shards must be at least 1, not " + shards + ".");
+		this.shards = shards;
+	}
+	
+	/**
+	 * (U) This method is used to see if the values that repeat across the components of the
+	 * combined Software Bill of Materials (SBom) are canonicalized.
+	 * 
+	 * @return boolean true if they are canonicalized, false (the default) if they are not.
+	 */
+	public boolean isInterning()
+	{
+		return interning;
+	}
+	
+	/**
+	 * (U) This method sets whether the values that repeat across the components of the combined
+	 * Software Bill of Materials (SBom) are canonicalized (see BomInterner), so the combined SBom
+	 * holds one copy of each instead of one per SBom read in. The values are the same either way.
+	 * The components are canonicalized in place, so nothing is interned when there is a file
+	 * cache (see setBomFileCache), as the SBoms it serves are shared, and read only.
+	 * 
+	 * @param interning boolean true to canonicalize the values.
+	 */
+	public void setInterning(boolean interning)
+	{
+		this.interning = interning;
+	}
+	
+	/**
+	 * (U) This method is used to see if the attributes of duplicate components are merged.
+	 * 
+	 * @return boolean true if they are merged, false (the default) if duplicates are dropped.
+	 */
+	public boolean isMergeDuplicates()
+	{
+		return mergeDuplicates;
+	}
+	
+	/**
+	 * (U) This method sets whether the hashes, licenses, external references, and properties of
+	 * duplicate components (same name, group, and version) are folded into the component kept,
+	 * in the same pass, instead of being dropped with the duplicate (see MergedComponent). The
+	 * outer (metadata) components are folded in the same way. The SBoms read in are not changed.
+	 * Only the combines held in memory merge duplicates, so the shards are not used, and a combine
+	 * spilled to disk (see setExternalMerge) can not be asked to merge them.
+	 * 
+	 * @param mergeDuplicates boolean true to merge the attributes of duplicates.
+	 * @throws IllegalArgumentException if merging duplicates while the combine is spilled to disk.
+	 */
+	public void setMergeDuplicates(boolean mergeDuplicates)
+	{
+		if ((mergeDuplicates) && (externalMerge))
+			throw new IllegalArgumentException("Duplicates can not be merged by a combine " +
+					"spilled to disk (external merge).");
+		this.mergeDuplicates = mergeDuplicates;
+	}
+	
+	/**
+	 * (U) This method creates the interner for a combine, if interning. The SBoms served by a file
+	 * cache are shared by every combine using it, so their components are never canonicalized (in
+	 * place), and there is no interner when there is a file cache.
+	 * 
+	 * @return BomInterner for the combine, null if not interning.
+	 */
+	BomInterner createInterner()
+	{
+		return ((interning) && (bomFileCache == null)) ? new BomInterner() : null;
+	}
+	
+	/**
+	 * (U) This method creates the merger for a combine, with its own interner if interning.
+	 * 
+	 * @return BomMerger for the combine.
+	 */
+	BomMerger createMerger()
+	{
+		BomMerger merger = new BomMerger(createInterner(), mergeDuplicates);
+		merger.setCancellation(cancellation);
+		return merger;
+	}
+	
+	/**
+	 * (U) This method is used to see if the combine should be spilled to disk.
+	 * 
+	 * @return boolean true if the combine is spilled to disk, false (the default) if it is held
+	 *         in memory.
+	 */
+	public boolean isExternalMerge()
+	{
+		return externalMerge;
+	}
+	
+	/**
+	 * (U) This method sets whether the combine should be spilled to disk (see ExternalMerger), for
+	 * combines with more unique components and dependencies than fit in memory. The Software Bill
+	 * of Materials (SBom) are streamed in one at a time, and once the components and dependencies
+	 * buffered go over the memory budget they are written, sorted and without duplicates, to the
+	 * temporary directory. The combined SBom is the same as the one built in memory. The
+	 * parallelism, executor, tree merge, and file cache are not used, and duplicates can not be
+	 * merged (see setMergeDuplicates).
+	 * 
+	 * @param externalMerge boolean true to spill the combine to disk.
+	 * @throws IllegalArgumentException if spilling to disk while merging duplicates.
+	 */
+	public void setExternalMerge(boolean externalMerge)
+	{
+		if ((externalMerge) && (mergeDuplicates))
+			throw new IllegalArgumentException("A combine merging duplicates can not be " +
+					"spilled to disk (external merge).");
+		this.externalMerge = externalMerge;
+	}
+	
+	/**
+	 * (U) This method returns the memory budget of a combine spilled to disk.
+	 * 
+	 * @return long the most bytes of components and dependencies to buffer before writing them
+	 *         out, DEFAULT_MEMORY_BUDGET (64MB) by default.
+	 */
+	public long getMemoryBudget()
+	{
+		return memoryBudget;
+	}
+	
+	/**
+	 * (U) This method sets the memory budget of a combine spilled to disk. This is a rough
+	 * estimate of the memory the buffered components and dependencies take up, not a hard limit
+	 * on the heap used.
+	 * 
+	 * @param memoryBudget long the most bytes of components and dependencies to buffer before
+	 *                     writing them out.
+	 */
+	public void setMemoryBudget(long memoryBudget)
+	{
+		if (memoryBudget < 1)
+			throw new IllegalArgumentException("Memory budget must be at least 1, not " +
+					memoryBudget + ".");
+		this.memoryBudget = memoryBudget;
+	}
+	
+	/**
+	 * (U) This method returns the directory a combine spilled to disk is written to.
+	 * 
+	 * @return Path of the directory, null (the default) for the system's temporary directory.
+	 */
+	public Path getTempDirectory()
+	{
+		return tempDirectory;
+	}
+	
+	/**
+	 * (U) This method sets the directory a combine spilled to disk is written to. The files
+	 * written are deleted when the combine is done.
+	 * 
+	 * @param tempDirectory Path of the directory, null for the system's temporary directory.
+	 */
+	public void setTempDirectory(Path tempDirectory)
+	{
+		this.tempDirectory = tempDirectory;
+	}
+	
+	/**
+	 * (U) This method creates the merger for a combine spilled to disk, with its own interner if
+	 * interning.
+	 * 
+	 * @return ExternalMerger for the combine.
+	 */
+	ExternalMerger createExternalMerger()
+	{
+		ExternalMerger merger = new ExternalMerger(memoryBudget, tempDirectory, (interning)
+				? new BomInterner() : null);
+		merger.setCancellation(cancellation);
+		return merger;
+	}
+	
+	/**
+	 * (U) This method returns the cache used for Software Bill of Materials (SBom) files.
+	 * 
+	 * @return BomFileCache used for SBom files, null (the default) if files are always read in.
+	 */
+	public BomFileCache getBomFileCache()
+	{
+		return bomFileCache;
+	}
+	
+	/**
+	 * (U) This method sets the cache used for Software Bill of Materials (SBom) files (file names
+	 * only, InputStreamSources are always read in). The cache is not used when streaming. The
+	 * SBoms it serves are shared, and read only, so no values are interned while it is set (see
+	 * setInterning).
+	 * 
+	 * @param bomFileCache BomFileCache to use for SBom files.
+	 */
+	public void setBomFileCache(BomFileCache bomFileCache)
+	{
+		this.bomFileCache = bomFileCache;
+	}
+	
+	/**
+	 * (U) This method returns the cache used for combined Software Bill of Materials (SBom).
+	 * 
+	 * @return CombineResultCache used for combined SBoms, null (the default) if every combine is
+	 *         done in full.
+	 */
+	public CombineResultCache getResultCache()
+	{
+		return resultCache;
+	}
+	
+	/**
+	 * (U) This method sets the cache used for combined Software Bill of Materials (SBom). If the
+	 * same inputs (by content, in the same order) have already been combined, a copy of that
+	 * combined SBom is returned instead of combining them again.
+	 * 
+	 * @param resultCache CombineResultCache to use for combined SBoms.
+	 */
+	public void setResultCache(CombineResultCache resultCache)
+	{
+		this.resultCache = resultCache;
+	}
+	
+	/**
+	 * (U) This method returns the report the statistics of the combine are recorded in.
+	 * 
+	 * @return CombineReport to record the statistics in, null (the default) if they are not
+	 *         collected.
+	 */
+	public CombineReport getReport()
+	{
+		return report;
+	}
+	
+	/**
+	 * (U) This method sets the report the statistics of the combine are recorded in. A report
+	 * belongs to a single combine: each combine starts it over, so it should not be shared by
+	 * combines running at the same time. An asynchronous combine fills in the report of the
+	 * options it was given, once it runs, so the same goes for the options passed to it.
+	 * 
+	 * @param report CombineReport to record the statistics in.
+	 */
+	public void setReport(CombineReport report)
+	{
+		this.report = report;
+	}
+	
+	/**
+	 * (U) This method returns the compression the combined Software Bill of Materials (SBom) is
+	 * written out with, by the methods that write it to a stream.
+	 * 
+	 * @return BomCompression of the combined SBom written out, NONE (the default) for none.
+	 */
+	public BomCompression getOutputCompression()
+	{
+		return outputCompression;
+	}
+	
+	/**
+	 * (U) This method sets the compression the combined Software Bill of Materials (SBom) is
+	 * written out with, by the methods that write it to a stream. It is compressed as it is
+	 * written, straight to the stream.
+	 * 
+	 * @param outputCompression BomCompression of the combined SBom written out.
+	 */
+	public void setOutputCompression(BomCompression outputCompression)
+	{
+		this.outputCompression = (outputCompression != null) ? outputCompression
+				: BomCompression.NONE;
+	}
+	
+	/**
+	 * (U) This method returns the cancellation of the (asynchronous) combine these options are
+	 * for.
+	 * 
+	 * @return CombineCancellation of the combine, null if it can not be cancelled.
+	 */
+	CombineCancellation getCancellation()
+	{
+		return cancellation;
+	}
+	
+	/**
+	 * (U) This method sets the cancellation of the (asynchronous) combine these options are for.
+	 * 
+	 * @param cancellation CombineCancellation of the combine.
+	 */
+	void setCancellation(CombineCancellation cancellation)
+	{
+		this.cancellation = cancellation;
+	}
+	
+	/**
+	 * (U) This method checks if the combine these options are for should stop.
+	 * 
+	 * @throws java.util.concurrent.CancellationException if it has been cancelled or is past its
+	 *                                                    deadline.
+	 */
+	void checkCancelled()
+	{
+		if (cancellation != null)
+			cancellation.check();
+	}
+	
+	/**
+	 * (U) This method copies the options, so a combine can be given its own cancellation without
+	 * changing the caller's options. The copy holds the same report, so the combine still fills it
+	 * in for the caller.
+	 * 
+	 * @return SBomCombinerOptions holding the same settings.
+	 */
+	SBomCombinerOptions copy()
+	{
+		SBomCombinerOptions copy = new SBomCombinerOptions();
+		copy.parallelism = parallelism;
+		copy.executor = executor;
+		copy.streaming = streaming;
+		copy.treeMerge = treeMerge;
+		copy.sourceConcurrency = sourceConcurrency;
+		copy.shards = shards;
+		copy.interning = interning;
+		copy.mergeDuplicates = mergeDuplicates;
+		copy.externalMerge = externalMerge;
+		copy.memoryBudget = memoryBudget;
+		copy.tempDirectory = tempDirectory;
+		copy.bomFileCache = bomFileCache;
+		copy.resultCache = resultCache;
+		copy.report = report;
+		copy.outputCompression = outputCompression;
+		copy.cancellation = cancellation;
+		return copy;
+	}
+	
+	/**
+	 * (U) This method returns the value that identifies the options that change the combined
+	 * Software Bill of Materials (SBom), so combines with different options are cached apart.
+	 * 
+	 * @return String value identifying the options, null if none of them change the combined
+	 *         SBom.
+	 */
+	String getResultVariant()
+	{
+		return (mergeDuplicates) ? "mergeDuplicates" : null;
+	}
+}
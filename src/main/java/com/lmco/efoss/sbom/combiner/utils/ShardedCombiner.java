@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.cyclonedx.model.Bom;
+
+import com.lmco.efoss.sbom.combiner.exceptions.SBomCombinerException;
+import com.lmco.efoss.sbom.commons.utils.SBomCommonsException;
+
+/**
+ * (U) This class is used to combine a list of Software Bill of Materials (SBom) split into shards
+ * by key. The SBoms are read in (in parallel, as the ParallelBomLoader does), then each shard is
+ * combined into its own PartialCombine, on its own thread, and the partial combines are merged.
+ * The combined SBom is the same as when they are merged one at a time.
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ */
+class ShardedCombiner
+{
+	/**
+	 * (U) Private Constructor as this class should not be instantiated.
+	 */
+	private ShardedCombiner()
+	{}
+	
+	/**
+	 * (U) This method combines the SBoms in shards.
+	 * 
+	 * @param files   List of objects to get the handle to the actual SBoms to combine.
+	 * @param options SBomCombinerOptions holding the number of shards, and the executor or
+	 *                parallelism to read the SBoms in with.
+	 * @return PartialCombine holding every shard.
+	 * @throws SBomCombinerException in the event something goes wrong reading in an SBom.
+	 * @throws SBomCommonsException  if we are unable to load an SBom.
+	 */
+	static PartialCombine combine(List<?> files, SBomCombinerOptions options)
+			throws SBomCombinerException, SBomCommonsException
+	{
+		Bom[] boms = new Bom[files.size()];
+		ParallelBomLoader.load(files, options, (index, bom) -> boms[index] = bom);
+		
+		int shardCount = options.getShards();
+		CombineReport report = options.getReport();
+		long mergeStart = (report != null) ? System.nanoTime() : 0;
+		
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(shardCount, Runtime
+				.getRuntime().availableProcessors()), ParallelBomLoader.createThreadFactory(
+						"SBomCombiner-shard-"));
+		try
+		{
+			List<Future<PartialCombine>> futures = new ArrayList<>(shardCount);
+			for (int i = 0; i < shardCount; i++)
+			{
+				int shard = i;
+				futures.add(executor.submit(() ->
+				{
+					PartialCombine partial = new PartialCombine(shardCount, shard);
+					for (int index = 0; index < boms.length; index++)
+					{
+						options.checkCancelled();
+						if (boms[index] != null)
+							partial.add(index, boms[index]);
+					}
+					return partial;
+				}));
+			}
+			
+			PartialCombine combined = futures.get(0).get();
+			for (int i = 1; i < shardCount; i++)
+				combined.merge(futures.get(i).get());
+			
+			if (report != null)
+				report.addMergeTime(System.nanoTime() - mergeStart);
+			return combined;
+		}
+		catch (ExecutionException e)
+		{
+			String error = "Failed to combine a shard of the SBoms!";
+			throw new SBomCombinerException(error, e.getCause());
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new SBomCombinerException("Interrupted while combining the SBoms!", e);
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+	}
+}
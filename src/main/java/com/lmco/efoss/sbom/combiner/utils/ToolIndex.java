@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.utils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.cyclonedx.model.Tool;
+
+/**
+ * (U) This class holds the unique tools of a combine, in the order they were first seen. Tools
+ * are the same if they have the same vendor, name, and version (as ToolsUtils.addUniqueTools
+ * sees them), but look ups are done by hash, so adding a tool does not scan (or copy) every
+ * tool we already have.
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ */
+public class ToolIndex
+{
+	private final Map<Key, Tool> tools = new LinkedHashMap<>();
+	
+	/**
+	 * (U) This class is the identity of a tool: its vendor, name, and version.
+	 */
+	private static final class Key
+	{
+		private final String vendor;
+		private final String name;
+		private final String version;
+		private final int hash;
+		
+		/**
+		 * (U) Constructor.
+		 * 
+		 * @param tool Tool to get the key for.
+		 */
+		private Key(Tool tool)
+		{
+			this.vendor = tool.getVendor();
+			this.name = tool.getName();
+			this.version = tool.getVersion();
+			this.hash = Objects.hash(vendor, name, version);
+		}
+		
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (this == obj)
+				return true;
+			if (!(obj instanceof Key))
+				return false;
+			Key other = (Key) obj;
+			return ((hash == other.hash) && (Objects.equals(vendor, other.vendor)) && (Objects
+					.equals(name, other.name)) && (Objects.equals(version, other.version)));
+		}
+		
+		@Override
+		public int hashCode()
+		{
+			return hash;
+		}
+	}
+	
+	/**
+	 * (U) This method is used to add a tool to the index, if we do not already have a tool with
+	 * the same vendor, name, and version.
+	 * 
+	 * @param tool Tool to add.
+	 * @return boolean true if the tool was added, false if we already had it.
+	 */
+	public boolean add(Tool tool)
+	{
+		return (tools.putIfAbsent(new Key(tool), tool) == null);
+	}
+	
+	/**
+	 * (U) This method is used to add the tools, that we do not already have, in order.
+	 * 
+	 * @param toolList List of Tools to add, may be null.
+	 * @return int the number of tools added.
+	 */
+	public int addAll(List<Tool> toolList)
+	{
+		int added = 0;
+		if (toolList != null)
+		{
+			for (Tool tool : toolList)
+			{
+				if (add(tool))
+					added++;
+			}
+		}
+		return added;
+	}
+	
+	/**
+	 * (U) This method is used to add every tool of another index, that we do not already have,
+	 * after our own (in the order they were first added to the other index).
+	 * 
+	 * @param other ToolIndex to add the tools of.
+	 */
+	public void addAll(ToolIndex other)
+	{
+		for (Map.Entry<Key, Tool> entry : other.tools.entrySet())
+			tools.putIfAbsent(entry.getKey(), entry.getValue());
+	}
+	
+	/**
+	 * (U) This method returns the number of unique tools in the index.
+	 * 
+	 * @return int the number of unique tools.
+	 */
+	public int size()
+	{
+		return tools.size();
+	}
+	
+	/**
+	 * (U) This method returns the unique tools, in the order they were first added.
+	 * 
+	 * @return List of Tools.
+	 */
+	public List<Tool> getTools()
+	{
+		return new ArrayList<>(tools.values());
+	}
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.cache;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component;
+import org.junit.Assert;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.lmco.efoss.sbom.combiner.utils.SBomCombiner;
+import com.lmco.efoss.sbom.combiner.utils.SBomCombinerOptions;
+import com.lmco.efoss.sbom.commons.test.utils.Log4JTestWatcher;
+import com.lmco.efoss.sbom.commons.test.utils.TestUtils;
+import com.lmco.efoss.sbom.commons.utils.DateUtils;
+
+/**
+ * (U) JUnit test for the BomFileCache class.
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ */
+public class BomFileCacheTest
+{
+	private static final String LOG4J_FILE = "SbomCombinerAppender.xml";
+	
+	@ClassRule
+	public static Log4JTestWatcher watcher = new Log4JTestWatcher(LOG4J_FILE,
+			"BomFileCacheTest");
+	
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	
+	private String sbomsDir = "./src/test/resources/sboms/";
+	private String commonsSbom = "sbomcommons.json";
+	private String comparatorSbom = "sbomcomparator.xml";
+	
+	/**
+	 * (U) This method copies one of the test SBoms into the temporary folder.
+	 * 
+	 * @param sbom String value of the name of the test SBom to copy.
+	 * @return File copied to.
+	 * @throws Exception in the event the copy fails.
+	 */
+	private File copySbom(String sbom) throws Exception
+	{
+		File file = new File(folder.getRoot(), sbom);
+		Files.copy(Paths.get(sbomsDir + sbom), file.toPath(),
+				StandardCopyOption.REPLACE_EXISTING);
+		return file;
+	}
+	
+	/**
+	 * (U) This Unit test, tests that a file read a second time comes from the cache, and that a
+	 * changed file is read in again.
+	 */
+	@Test
+	public void hitAndInvalidateTest()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+		
+		Date startDate = DateUtils.rightNowDate();
+		
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+		
+		try
+		{
+			BomFileCache cache = new BomFileCache(10, Long.MAX_VALUE);
+			File file = copySbom(commonsSbom);
+			
+			Bom first = cache.getBomFile(file.getPath());
+			Bom second = cache.getBomFile(file.getPath());
+			Assert.assertSame("Cached Bom", first, second);
+			Assert.assertEquals("Hits", 1, cache.getHitCount());
+			Assert.assertEquals("Misses", 1, cache.getMissCount());
+			
+			Files.setLastModifiedTime(file.toPath(),
+					FileTime.fromMillis(file.lastModified() - 60000));
+			Bom third = cache.getBomFile(file.getPath());
+			Assert.assertNotSame("Re-read Bom", first, third);
+			Assert.assertEquals("Misses", 2, cache.getMissCount());
+			Assert.assertEquals("Invalidations", 1, cache.getInvalidationCount());
+			Assert.assertEquals("Components", first.getComponents().size(),
+					third.getComponents().size());
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while testing cache hits!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+	
+	/**
+	 * (U) This Unit test, tests that the least recently used file is evicted when the cache is
+	 * full, and that combines using the cache get the same results.
+	 */
+	@Test
+	public void evictionTest()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+		
+		Date startDate = DateUtils.rightNowDate();
+		
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+		
+		try
+		{
+			BomFileCache cache = new BomFileCache(1, Long.MAX_VALUE);
+			SBomCombinerOptions options = new SBomCombinerOptions();
+			options.setBomFileCache(cache);
+			
+			List<String> fileNames = new ArrayList<String>();
+			fileNames.add(copySbom(commonsSbom).getPath());
+			fileNames.add(copySbom(comparatorSbom).getPath());
+			
+			Bom expectedBom = SBomCombiner.combineSBomsFromStrings(fileNames);
+			Bom combinedBom = SBomCombiner.combineSBomsFromStrings(fileNames, options);
+			
+			Assert.assertEquals("Components", expectedBom.getComponents(),
+					combinedBom.getComponents());
+			Assert.assertEquals("Size", 1, cache.size());
+			Assert.assertEquals("Evictions", 1, cache.getEvictionCount());
+			
+			cache.getBomFile(fileNames.get(1));
+			Assert.assertEquals("Hits", 1, cache.getHitCount());
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while testing cache eviction!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+	
+	/**
+	 * (U) This Unit test, tests that a combine asked to intern does not canonicalize the (shared,
+	 * read only) components of the SBoms served by the cache.
+	 */
+	@Test
+	public void internedCombineTest()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+		
+		Date startDate = DateUtils.rightNowDate();
+		
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+		
+		try
+		{
+			BomFileCache cache = new BomFileCache(2, Long.MAX_VALUE);
+			SBomCombinerOptions options = new SBomCombinerOptions();
+			options.setBomFileCache(cache);
+			options.setInterning(true);
+			
+			List<String> fileNames = new ArrayList<String>();
+			fileNames.add(copySbom(commonsSbom).getPath());
+			fileNames.add(copySbom(comparatorSbom).getPath());
+			
+			List<String> groups = new ArrayList<String>();
+			for (String fileName : fileNames)
+			{
+				for (Component component : cache.getBomFile(fileName).getComponents())
+					groups.add(component.getGroup());
+			}
+			
+			Bom expectedBom = SBomCombiner.combineSBomsFromStrings(fileNames);
+			Bom combinedBom = SBomCombiner.combineSBomsFromStrings(fileNames, options);
+			Assert.assertEquals("Components", expectedBom.getComponents(),
+					combinedBom.getComponents());
+			
+			int i = 0;
+			for (String fileName : fileNames)
+			{
+				for (Component component : cache.getBomFile(fileName).getComponents())
+					Assert.assertSame("Group", groups.get(i++), component.getGroup());
+			}
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while testing interning with the cache!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+}
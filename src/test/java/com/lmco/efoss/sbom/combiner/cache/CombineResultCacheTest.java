@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.cache;
+
+import java.io.FileInputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Dependency;
+import org.junit.Assert;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.InputStreamSource;
+
+import com.lmco.efoss.sbom.combiner.utils.SBomCombiner;
+import com.lmco.efoss.sbom.combiner.utils.SBomCombinerOptions;
+import com.lmco.efoss.sbom.commons.test.utils.Log4JTestWatcher;
+import com.lmco.efoss.sbom.commons.test.utils.TestUtils;
+import com.lmco.efoss.sbom.commons.utils.DateUtils;
+
+/**
+ * (U) JUnit test for the CombineResultCache class.
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ */
+public class CombineResultCacheTest
+{
+	private static final String LOG4J_FILE = "SbomCombinerAppender.xml";
+	
+	@ClassRule
+	public static Log4JTestWatcher watcher = new Log4JTestWatcher(LOG4J_FILE,
+			"CombineResultCacheTest");
+	
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	
+	private String sbomsDir = "./src/test/resources/sboms/";
+	private String commonsSbom = "sbomcommons.json";
+	private String comparatorSbom = "sbomcomparator.xml";
+	
+	private String licenseSbom = "licenseBom.xml";
+	private String combinedSbom = "combinedBom.xml";
+	
+	/**
+	 * (U) This method checks that a Bom from the cache is the same as the one combined.
+	 * 
+	 * @param test     String value of what is being tested.
+	 * @param expected Bom combined.
+	 * @param actual   Bom from the cache.
+	 */
+	private static void assertSameBom(String test, Bom expected, Bom actual)
+	{
+		Assert.assertEquals(test + " Components", expected.getComponents(), actual
+				.getComponents());
+		Assert.assertEquals(test + " Tools", expected.getMetadata().getTools(), actual
+				.getMetadata().getTools());
+		Assert.assertEquals(test + " Dependencies", expected.getDependencies().size(), actual
+				.getDependencies().size());
+		for (int i = 0; i < expected.getDependencies().size(); i++)
+		{
+			Dependency expectedDep = expected.getDependencies().get(i);
+			Dependency actualDep = actual.getDependencies().get(i);
+			Assert.assertEquals(test + " Dependency", expectedDep.getRef(), actualDep.getRef());
+			Assert.assertEquals(test + " Inner Dependencies", refs(expectedDep), refs(actualDep));
+		}
+	}
+	
+	/**
+	 * (U) This method returns the refs of a dependency's inner dependencies.
+	 * 
+	 * @param dependency Dependency to get the inner refs of.
+	 * @return List of Strings that are the inner refs.
+	 */
+	private static List<String> refs(Dependency dependency)
+	{
+		List<String> refs = new ArrayList<>();
+		if (dependency.getDependencies() != null)
+		{
+			for (Dependency innerDep : dependency.getDependencies())
+				refs.add(innerDep.getRef());
+		}
+		return refs;
+	}
+	
+	/**
+	 * (U) This Unit test, tests that a repeated combine comes from the cache, as a new copy of the
+	 * same combined SBom, and that the order of the inputs is part of the key.
+	 */
+	@Test
+	public void memoryHitTest()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+		
+		Date startDate = DateUtils.rightNowDate();
+		
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+		
+		try
+		{
+			List<String> files = new ArrayList<>();
+			files.add(sbomsDir + commonsSbom);
+			files.add(sbomsDir + comparatorSbom);
+			files.add(sbomsDir + licenseSbom);
+			files.add(sbomsDir + combinedSbom);
+			
+			CombineResultCache cache = new CombineResultCache(Long.MAX_VALUE);
+			SBomCombinerOptions options = new SBomCombinerOptions();
+			options.setResultCache(cache);
+			
+			Bom first = SBomCombiner.combineSBomsFromStrings(files, options);
+			Bom second = SBomCombiner.combineSBomsFromStrings(files, options);
+			Assert.assertNotSame("Cached Bom", first, second);
+			assertSameBom("Memory Hit", first, second);
+			Assert.assertEquals("Hits", 1, cache.getHitCount());
+			Assert.assertEquals("Misses", 1, cache.getMissCount());
+			
+			List<String> reversed = new ArrayList<>();
+			reversed.add(sbomsDir + comparatorSbom);
+			reversed.add(sbomsDir + commonsSbom);
+			Assert.assertNotEquals("Key of reversed inputs", cache.computeKey(files, null),
+					cache.computeKey(reversed, null));
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while testing combine cache hits!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+	
+	/**
+	 * (U) This Unit test, tests that a combine stored on disk is found by a new cache using the
+	 * same directory.
+	 */
+	@Test
+	public void diskHitTest()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+		
+		Date startDate = DateUtils.rightNowDate();
+		
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+		
+		try
+		{
+			List<String> files = new ArrayList<>();
+			files.add(sbomsDir + commonsSbom);
+			files.add(sbomsDir + comparatorSbom);
+			
+			SBomCombinerOptions options = new SBomCombinerOptions();
+			options.setResultCache(new CombineResultCache(0, folder.getRoot().toPath()));
+			Bom first = SBomCombiner.combineSBomsFromStrings(files, options);
+			
+			CombineResultCache cache = new CombineResultCache(Long.MAX_VALUE,
+					folder.getRoot().toPath());
+			Bom second = cache.get(cache.computeKey(files, null));
+			Assert.assertNotNull("Bom from disk", second);
+			assertSameBom("Disk Hit", first, second);
+			Assert.assertEquals("Disk hits", 1, cache.getDiskHitCount());
+			Assert.assertEquals("Cached combines", 1, cache.size());
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while testing combine cache disk hits!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+	
+	/**
+	 * (U) This Unit test, tests that a combine with an input that can only be read once is done
+	 * (and not cached), while one whose inputs can be read again is cached.
+	 */
+	@Test
+	public void oneShotInputTest()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+		
+		Date startDate = DateUtils.rightNowDate();
+		
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+		
+		try
+		{
+			CombineResultCache cache = new CombineResultCache(Long.MAX_VALUE);
+			SBomCombinerOptions options = new SBomCombinerOptions();
+			options.setResultCache(cache);
+			
+			List<InputStreamSource> resources = new ArrayList<>();
+			resources.add(new FileSystemResource(sbomsDir + commonsSbom));
+			resources.add(new FileSystemResource(sbomsDir + comparatorSbom));
+			Assert.assertNotNull("Key of file resources", cache.computeKey(resources, null));
+			Bom expected = SBomCombiner.combineSBomsFromInputStreamSource(resources, options);
+			Assert.assertEquals("Cached combines", 1, cache.size());
+			
+			try (FileInputStream in = new FileInputStream(sbomsDir + comparatorSbom))
+			{
+				List<InputStreamSource> oneShot = new ArrayList<>();
+				oneShot.add(new FileSystemResource(sbomsDir + commonsSbom));
+				oneShot.add(new InputStreamResource(in));
+				Assert.assertNull("Key of one shot input", cache.computeKey(oneShot, null));
+				
+				Bom actual = SBomCombiner.combineSBomsFromInputStreamSource(oneShot, options);
+				assertSameBom("One Shot", expected, actual);
+				Assert.assertEquals("Cached combines", 1, cache.size());
+				Assert.assertEquals("Hits", 0, cache.getHitCount());
+			}
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while testing one shot inputs!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+}
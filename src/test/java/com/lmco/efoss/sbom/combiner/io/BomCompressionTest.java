@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.io;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.cyclonedx.model.Bom;
+import org.junit.Assert;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.core.io.ByteArrayResource;
+
+import com.lmco.efoss.sbom.combiner.utils.SBomCombiner;
+import com.lmco.efoss.sbom.combiner.utils.SBomCombinerOptions;
+import com.lmco.efoss.sbom.commons.test.utils.Log4JTestWatcher;
+import com.lmco.efoss.sbom.commons.test.utils.TestUtils;
+import com.lmco.efoss.sbom.commons.utils.DateUtils;
+
+/**
+ * (U) JUnit test for the BomCompression class.
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ */
+public class BomCompressionTest
+{
+	private static final String LOG4J_FILE = "SbomCombinerAppender.xml";
+	
+	@ClassRule
+	public static Log4JTestWatcher watcher = new Log4JTestWatcher(LOG4J_FILE,
+			"BomCompressionTest");
+	
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	
+	private String sbomsDir = "./src/test/resources/sboms/";
+	private String[] sboms = { "sbomcommons.json", "sbomcomparator.xml" };
+	
+	/**
+	 * (U) This Unit test, tests that gzip and Zstandard compressed SBoms are read the same as the
+	 * uncompressed SBoms, from files and InputStreamSources, parsed and streamed, and that the
+	 * combined SBom can be written out compressed.
+	 */
+	@Test
+	public void compressedInputAndOutputTest()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+		
+		Date startDate = DateUtils.rightNowDate();
+		
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+		
+		try
+		{
+			List<String> fileNames = new ArrayList<>();
+			for (String sbom : sboms)
+				fileNames.add(sbomsDir + sbom);
+			Bom expectedBom = SBomCombiner.combineSBomsFromStrings(fileNames);
+			
+			for (BomCompression compression : new BomCompression[] { BomCompression.GZIP,
+					BomCompression.ZSTD })
+			{
+				List<String> compressedFiles = new ArrayList<>();
+				for (String sbom : sboms)
+				{
+					byte[] compressed = compress(compression, Files.readAllBytes(Paths.get(
+							sbomsDir + sbom)));
+					Assert.assertEquals(compression + " Detected", compression, BomCompression
+							.detect(new BufferedInputStream(new ByteArrayInputStream(
+									compressed))));
+					
+					File file = folder.newFile(compression + "-" + sbom);
+					Files.write(file.toPath(), compressed);
+					compressedFiles.add(file.getPath());
+					
+					Bom bom = SBomCombiner.getBomFile(sbomsDir + sbom);
+					Assert.assertEquals(compression + " " + sbom, bom.getComponents(),
+							SBomCombiner.getBomFile(new ByteArrayResource(compressed))
+									.getComponents());
+				}
+				
+				Assert.assertEquals(compression + " Components", expectedBom.getComponents(),
+						SBomCombiner.combineSBomsFromStrings(compressedFiles).getComponents());
+				
+				SBomCombinerOptions options = new SBomCombinerOptions();
+				options.setStreaming(true);
+				options.setOutputCompression(compression);
+				ByteArrayOutputStream out = new ByteArrayOutputStream();
+				SBomCombiner.combineSBomsFromStringsTo(compressedFiles, options, out,
+						BomFormat.XML);
+				try (InputStream in = BomCompression.decompress(new BufferedInputStream(
+						new ByteArrayInputStream(out.toByteArray()))))
+				{
+					Assert.assertEquals(compression + " Written Components", expectedBom
+							.getComponents(), BomFormat.XML.createParser().parse(in)
+									.getComponents());
+				}
+			}
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while testing compressed SBoms!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+	
+	/**
+	 * (U) This method compresses data.
+	 * 
+	 * @param compression BomCompression to compress with.
+	 * @param data        byte array of the data to compress.
+	 * @return byte array of the compressed data.
+	 * @throws Exception in the event the data can not be compressed.
+	 */
+	private byte[] compress(BomCompression compression, byte[] data) throws Exception
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (OutputStream compressed = compression.compress(out))
+		{
+			compressed.write(data);
+		}
+		return out.toByteArray();
+	}
+}
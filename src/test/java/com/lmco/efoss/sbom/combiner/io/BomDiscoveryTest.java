@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.cyclonedx.model.Bom;
+import org.junit.Assert;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.lmco.efoss.sbom.combiner.utils.CombineReport;
+import com.lmco.efoss.sbom.combiner.utils.SBomCombiner;
+import com.lmco.efoss.sbom.combiner.utils.SBomCombinerOptions;
+import com.lmco.efoss.sbom.commons.test.utils.Log4JTestWatcher;
+import com.lmco.efoss.sbom.commons.test.utils.TestUtils;
+import com.lmco.efoss.sbom.commons.utils.DateUtils;
+
+/**
+ * (U) JUnit test for the BomDiscovery (and BomArchive) class.
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ */
+public class BomDiscoveryTest
+{
+	private static final String LOG4J_FILE = "SbomCombinerAppender.xml";
+	
+	@ClassRule
+	public static Log4JTestWatcher watcher = new Log4JTestWatcher(LOG4J_FILE,
+			"BomDiscoveryTest");
+	
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	
+	private String sbomsDir = "./src/test/resources/sboms/";
+	
+	/**
+	 * (U) This Unit test, tests combining the SBoms found in a directory tree, and in the zip and
+	 * tar.gz archives in it. The combine should be the same as combining them, in sorted order of
+	 * their paths, from a list.
+	 */
+	@Test
+	public void combineFromPathsTest()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+		
+		Date startDate = DateUtils.rightNowDate();
+		
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+		
+		try
+		{
+			Path root = folder.getRoot().toPath();
+			copy("sbomcommons.json", root.resolve("a/bom.json"));
+			copy("licenseBom.xml", root.resolve("b/c/bom.xml"));
+			copy("licenseBom.xml", root.resolve("b/notbom.xml"));
+			
+			try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(root.resolve(
+					"d.zip"))))
+			{
+				zip.putNextEntry(new ZipEntry("readme.txt"));
+				zip.write("Not an SBom.".getBytes(StandardCharsets.UTF_8));
+				zip.putNextEntry(new ZipEntry("x/bom.xml"));
+				zip.write(Files.readAllBytes(Paths.get(sbomsDir + "sbomcomparator.xml")));
+			}
+			try (OutputStream tar = new GZIPOutputStream(Files.newOutputStream(root.resolve(
+					"e.tar.gz"))))
+			{
+				writeTarEntry(tar, "./y/bom.xml", Files.readAllBytes(Paths.get(sbomsDir +
+						"combinedBom.xml")));
+				tar.write(new byte[1024]);
+			}
+			
+			BomDiscovery discovery = new BomDiscovery();
+			Assert.assertEquals("Found", Arrays.asList(root.resolve("a/bom.json"), root.resolve(
+					"b/c/bom.xml"), root.resolve("d.zip"), root.resolve("e.tar.gz")), discovery
+							.discover(root));
+			
+			SBomCombinerOptions options = new SBomCombinerOptions();
+			options.setReport(new CombineReport());
+			Bom combinedBom = SBomCombiner.combineSBomsFromPaths(Collections.singletonList(root
+					.toString()), discovery, options);
+			Assert.assertEquals("Inputs", 4, options.getReport().getInputs().size());
+			Assert.assertTrue("Archive Entry", options.getReport().getInputs().get(3).getName()
+					.endsWith("e.tar.gz!/./y/bom.xml"));
+			
+			List<String> fileNames = new ArrayList<>();
+			for (String sbom : new String[] { "sbomcommons.json", "licenseBom.xml",
+					"sbomcomparator.xml", "combinedBom.xml" })
+				fileNames.add(sbomsDir + sbom);
+			Bom expectedBom = SBomCombiner.combineSBomsFromStrings(fileNames);
+			
+			Assert.assertEquals("Components", expectedBom.getComponents(), combinedBom
+					.getComponents());
+			Assert.assertEquals("Dependencies", expectedBom.getDependencies().size(),
+					combinedBom.getDependencies().size());
+			Assert.assertEquals("Tools", expectedBom.getMetadata().getTools(), combinedBom
+					.getMetadata().getTools());
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while combining SBoms from a directory!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+	
+	/**
+	 * (U) This Unit test, tests that a root that is a file is taken as given, even when its name
+	 * does not match the include globs, while files with that name under a directory root are not.
+	 */
+	@Test
+	public void fileRootTest()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+		
+		Date startDate = DateUtils.rightNowDate();
+		
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+		
+		try
+		{
+			Path root = folder.getRoot().toPath();
+			Path file = root.resolve("a/app-sbom.json");
+			copy("sbomcommons.json", file);
+			copy("licenseBom.xml", root.resolve("b/bom.xml"));
+			
+			BomDiscovery discovery = new BomDiscovery();
+			Assert.assertEquals("Found", Collections.singletonList(root.resolve("b/bom.xml")),
+					discovery.discover(root));
+			Assert.assertEquals("File Root", Arrays.asList(file, root.resolve("b/bom.xml")),
+					discovery.discover(file, root.resolve("b")));
+			
+			Bom combinedBom = SBomCombiner.combineSBomsFromPaths(Collections.singletonList(file
+					.toString()), discovery, new SBomCombinerOptions());
+			Bom expectedBom = SBomCombiner.combineSBomsFromStrings(Collections.singletonList(
+					sbomsDir + "sbomcommons.json"));
+			Assert.assertEquals("Components", expectedBom.getComponents(), combinedBom
+					.getComponents());
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while combining an SBom passed as a file!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+	
+	/**
+	 * (U) This method copies a test SBom into the tree.
+	 * 
+	 * @param sbom   String value of the SBom's file name.
+	 * @param target Path to copy it to.
+	 * @throws IOException in the event it can not be copied.
+	 */
+	private void copy(String sbom, Path target) throws IOException
+	{
+		Files.createDirectories(target.getParent());
+		Files.copy(Paths.get(sbomsDir + sbom), target);
+	}
+	
+	/**
+	 * (U) This method writes a regular file entry (ustar header, data, and padding) to a tar.
+	 * 
+	 * @param tar  OutputStream of the tar.
+	 * @param name String value of the entry's name.
+	 * @param data byte array of the entry's data.
+	 * @throws IOException in the event it can not be written.
+	 */
+	private void writeTarEntry(OutputStream tar, String name, byte[] data) throws IOException
+	{
+		byte[] header = new byte[512];
+		put(header, 0, name);
+		put(header, 100, "0000644");
+		put(header, 124, String.format("%011o", data.length));
+		put(header, 136, String.format("%011o", 0));
+		header[156] = '0';
+		put(header, 257, "ustar");
+		put(header, 263, "00");
+		Arrays.fill(header, 148, 156, (byte) ' ');
+		int checksum = 0;
+		for (byte b : header)
+			checksum += b & 0xff;
+		put(header, 148, String.format("%06o", checksum));
+		
+		tar.write(header);
+		tar.write(data);
+		tar.write(new byte[(512 - data.length % 512) % 512]);
+	}
+	
+	/**
+	 * (U) This method puts a string into a tar header.
+	 * 
+	 * @param header byte array of the header.
+	 * @param offset int offset to put it at.
+	 * @param value  String value to put.
+	 */
+	private void put(byte[] header, int offset, String value)
+	{
+		byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+		System.arraycopy(bytes, 0, header, offset, bytes.length);
+	}
+}
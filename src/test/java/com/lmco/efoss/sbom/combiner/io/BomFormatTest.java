@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import org.cyclonedx.model.Bom;
+import org.junit.Assert;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import com.lmco.efoss.sbom.commons.test.utils.Log4JTestWatcher;
+import com.lmco.efoss.sbom.commons.test.utils.TestUtils;
+import com.lmco.efoss.sbom.commons.utils.DateUtils;
+
+/**
+ * (U) JUnit test for the BomFormat enum.
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ */
+public class BomFormatTest
+{
+	private static final String LOG4J_FILE = "SbomCombinerAppender.xml";
+	
+	@ClassRule
+	public static Log4JTestWatcher watcher = new Log4JTestWatcher(LOG4J_FILE, "BomFormatTest");
+	
+	/**
+	 * (U) This Unit test, tests that JSon and XML are detected past Byte Order Marks and white
+	 * space, that anything else is not, and that none of the stream is used up.
+	 */
+	@Test
+	public void detectTest()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+		
+		Date startDate = DateUtils.rightNowDate();
+		
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+		
+		try
+		{
+			byte[] utf8Bom = new byte[] { (byte) 0xEF, (byte) 0xBB, (byte) 0xBF };
+			byte[] json = "  \n\t{\"bomFormat\" : \"CycloneDX\"}".getBytes(
+					StandardCharsets.UTF_8);
+			byte[] jsonWithBom = new byte[utf8Bom.length + json.length];
+			System.arraycopy(utf8Bom, 0, jsonWithBom, 0, utf8Bom.length);
+			System.arraycopy(json, 0, jsonWithBom, utf8Bom.length, json.length);
+			
+			InputStream in = new ByteArrayInputStream(jsonWithBom);
+			Assert.assertEquals("UTF-8 JSon", BomFormat.JSON, BomFormat.detect(in));
+			Assert.assertEquals("Stream not used up", 0xEF, in.read());
+			
+			Assert.assertEquals("XML", BomFormat.XML, BomFormat.detect(new ByteArrayInputStream(
+					"<?xml version=\"1.0\"?><bom/>".getBytes(StandardCharsets.UTF_8))));
+			byte[] utf16Xml = "\uFEFF <bom/>".getBytes(StandardCharsets.UTF_16LE);
+			Assert.assertEquals("UTF-16 XML", BomFormat.XML, BomFormat.detect(
+					new ByteArrayInputStream(utf16Xml)));
+			byte[] utf16Json = "\uFEFF{}".getBytes(StandardCharsets.UTF_16BE);
+			Assert.assertEquals("UTF-16 JSon", BomFormat.JSON, BomFormat.detect(
+					new ByteArrayInputStream(utf16Json)));
+			
+			Assert.assertNull("Not an SBom", BomFormat.detect(new ByteArrayInputStream(
+					"bomFormat: CycloneDX".getBytes(StandardCharsets.UTF_8))));
+			Assert.assertNull("Empty", BomFormat.detect(new ByteArrayInputStream(new byte[0])));
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while testing format detection!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+	
+	/**
+	 * (U) This Unit test, tests that an XML SBom is parsed with its spec version, whether its
+	 * namespace is in the first few bytes or (after a long comment) it is not.
+	 */
+	@Test
+	public void parseXmlSpecVersionTest()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+		
+		Date startDate = DateUtils.rightNowDate();
+		
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+		
+		try
+		{
+			String bom = "<bom xmlns=\"http://cyclonedx.org/schema/bom/1.3\" version=\"1\">" +
+					"<components><component type=\"library\"><name>junit</name>" +
+					"<version>4.13.1</version></component></components></bom>";
+			
+			Bom parsed = BomFormat.XML.parse(new ByteArrayInputStream(bom.getBytes(
+					StandardCharsets.UTF_8)));
+			Assert.assertEquals("Spec Version", "1.3", parsed.getSpecVersion());
+			Assert.assertEquals("Components", 1, parsed.getComponents().size());
+			
+			StringBuilder comment = new StringBuilder("<?xml version=\"1.0\"?><!--");
+			while (comment.length() < 10 * 1024)
+				comment.append(" padding");
+			comment.append(" -->");
+			parsed = BomFormat.XML.parse(new ByteArrayInputStream((comment + bom).getBytes(
+					StandardCharsets.UTF_8)));
+			Assert.assertEquals("Spec Version after comment", "1.3", parsed.getSpecVersion());
+			Assert.assertEquals("Components after comment", 1, parsed.getComponents().size());
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while testing parsing XML!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Date;
+
+import org.cyclonedx.model.Bom;
+import org.junit.Assert;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.lmco.efoss.sbom.combiner.utils.SBomCombiner;
+import com.lmco.efoss.sbom.commons.test.utils.Log4JTestWatcher;
+import com.lmco.efoss.sbom.commons.test.utils.TestUtils;
+import com.lmco.efoss.sbom.commons.utils.DateUtils;
+
+/**
+ * (U) JUnit test for the BomSnapshot class.
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ */
+public class BomSnapshotTest
+{
+	private static final String LOG4J_FILE = "SbomCombinerAppender.xml";
+	
+	@ClassRule
+	public static Log4JTestWatcher watcher = new Log4JTestWatcher(LOG4J_FILE, "BomSnapshotTest");
+	
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	
+	private String sbomsDir = "./src/test/resources/sboms/";
+	private String[] sboms = { "licenseBom.xml", "sbomcommons.json", "sbomcomparator.xml",
+			"combinedBom.xml" };
+	
+	/**
+	 * (U) This Unit test, tests that SBoms written as snapshots read back the same, and that a
+	 * snapshot file is read by the SBomCombiner like any other SBom.
+	 */
+	@Test
+	public void roundTripTest()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+		
+		Date startDate = DateUtils.rightNowDate();
+		
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+		
+		try
+		{
+			for (String sbom : sboms)
+			{
+				Bom expected = SBomCombiner.getBomFile(sbomsDir + sbom);
+				ByteArrayOutputStream out = new ByteArrayOutputStream();
+				BomSnapshot.write(expected, out);
+				
+				InputStream in = new ByteArrayInputStream(out.toByteArray());
+				Assert.assertTrue("Snapshot", BomSnapshot.isSnapshot(in));
+				assertSameBom(sbom, expected, BomSnapshot.read(in));
+				
+				File snapshot = folder.newFile(sbom + ".snapshot");
+				Files.write(snapshot.toPath(), out.toByteArray());
+				assertSameBom(sbom, expected, SBomCombiner.getBomFile(snapshot.getPath()));
+			}
+			
+			Assert.assertFalse("Not a snapshot", BomSnapshot.isSnapshot(new ByteArrayInputStream(
+					"{\"bomFormat\" : \"CycloneDX\"}".getBytes("UTF-8"))));
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while testing SBom snapshots!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+	
+	/**
+	 * (U) This method checks that an SBom read back from a snapshot is the same as the one written.
+	 * 
+	 * @param sbom     String value of the SBom's file name.
+	 * @param expected Bom written.
+	 * @param actual   Bom read back.
+	 */
+	private void assertSameBom(String sbom, Bom expected, Bom actual)
+	{
+		Assert.assertEquals(sbom + " Spec Version", expected.getSpecVersion(), actual
+				.getSpecVersion());
+		Assert.assertEquals(sbom + " Serial Number", expected.getSerialNumber(), actual
+				.getSerialNumber());
+		Assert.assertEquals(sbom + " Version", expected.getVersion(), actual.getVersion());
+		Assert.assertEquals(sbom + " Metadata", expected.getMetadata(), actual.getMetadata());
+		Assert.assertEquals(sbom + " Components", expected.getComponents(), actual
+				.getComponents());
+		Assert.assertEquals(sbom + " Dependencies", expected.getDependencies().size(), actual
+				.getDependencies().size());
+		for (int i = 0; i < expected.getDependencies().size(); i++)
+		{
+			Assert.assertEquals(sbom + " Dependency", expected.getDependencies().get(i).getRef(),
+					actual.getDependencies().get(i).getRef());
+			Assert.assertEquals(sbom + " Inner Dependencies", expected.getDependencies().get(i)
+					.getDependencies(), actual.getDependencies().get(i).getDependencies());
+		}
+	}
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Date;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.lmco.efoss.sbom.commons.test.utils.Log4JTestWatcher;
+import com.lmco.efoss.sbom.commons.test.utils.TestUtils;
+import com.lmco.efoss.sbom.commons.utils.DateUtils;
+
+/**
+ * (U) JUnit test for the MappedFileInputStream class.
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ */
+public class MappedFileInputStreamTest
+{
+	private static final String LOG4J_FILE = "SbomCombinerAppender.xml";
+	
+	@ClassRule
+	public static Log4JTestWatcher watcher = new Log4JTestWatcher(LOG4J_FILE,
+			"MappedFileInputStreamTest");
+	
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	
+	/**
+	 * (U) This Unit test, tests that a file read a window at a time (small windows, so the reads
+	 * cross them), and reset back across windows, gives the bytes of the file.
+	 */
+	@Test
+	public void windowedReadTest()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+		
+		Date startDate = DateUtils.rightNowDate();
+		
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+		
+		try
+		{
+			byte[] data = new byte[10000];
+			new Random(42).nextBytes(data);
+			File file = folder.newFile("data.bin");
+			Files.write(file.toPath(), data);
+			
+			try (MappedFileInputStream in = MappedFileInputStream.open(file.toPath(), 0, 1000))
+			{
+				Assert.assertEquals("First byte", data[0] & 0xFF, in.read());
+				in.mark(0);
+				
+				ByteArrayOutputStream out = new ByteArrayOutputStream();
+				byte[] buffer = new byte[777];
+				int read;
+				while ((read = in.read(buffer, 0, buffer.length)) != -1)
+					out.write(buffer, 0, read);
+				Assert.assertEquals("Bytes read", data.length - 1, out.size());
+				Assert.assertEquals("End of file", -1, in.read());
+				
+				in.reset();
+				Assert.assertEquals("Skipped", 5000, in.skip(5000));
+				Assert.assertEquals("Byte after reset and skip", data[5001] & 0xFF, in.read());
+				
+				byte[] expected = new byte[data.length - 1];
+				System.arraycopy(data, 1, expected, 0, expected.length);
+				Assert.assertArrayEquals("Contents", expected, out.toByteArray());
+			}
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while testing windowed reads!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+}
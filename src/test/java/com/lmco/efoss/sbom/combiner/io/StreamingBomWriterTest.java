@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.io;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.cyclonedx.generators.json.BomJsonGenerator13;
+import org.cyclonedx.generators.xml.BomXmlGenerator13;
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Dependency;
+import org.junit.Assert;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.lmco.efoss.sbom.combiner.utils.CombineReport;
+import com.lmco.efoss.sbom.combiner.utils.SBomCombiner;
+import com.lmco.efoss.sbom.combiner.utils.SBomCombinerOptions;
+import com.lmco.efoss.sbom.commons.test.utils.Log4JTestWatcher;
+import com.lmco.efoss.sbom.commons.test.utils.TestUtils;
+import com.lmco.efoss.sbom.commons.utils.DateUtils;
+
+/**
+ * (U) JUnit test for the StreamingBomWriter class.
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ */
+public class StreamingBomWriterTest
+{
+	private static final String LOG4J_FILE = "SbomCombinerAppender.xml";
+	
+	@ClassRule
+	public static Log4JTestWatcher watcher = new Log4JTestWatcher(LOG4J_FILE,
+			"StreamingBomWriterTest");
+	
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	
+	private String sbomsDir = "./src/test/resources/sboms/";
+	private String[] sboms = { "licenseBom.xml", "sbomcommons.json", "sbomcomparator.xml" };
+	
+	/**
+	 * (U) This Unit test, tests that the combined SBom written straight out to a stream, in both
+	 * formats and both in memory and from an external merge, reads back the same as the combined
+	 * SBom written by the CycloneDx generators.
+	 */
+	@Test
+	public void combineToTest()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+		
+		Date startDate = DateUtils.rightNowDate();
+		
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+		
+		try
+		{
+			List<String> files = new ArrayList<>();
+			for (String sbom : sboms)
+				files.add(sbomsDir + sbom);
+			Bom combinedSBom = SBomCombiner.combineSBomsFromStrings(files);
+			
+			for (BomFormat format : BomFormat.values())
+			{
+				// Reading back is not lossless (JSon trims text), so compare to the library's own.
+				String text = (format == BomFormat.XML) ? new BomXmlGenerator13(combinedSBom)
+						.toXmlString() : new BomJsonGenerator13(combinedSBom).toJsonString();
+				Bom expected = format.createParser().parse(text.getBytes("UTF-8"));
+				
+				ByteArrayOutputStream out = new ByteArrayOutputStream();
+				SBomCombiner.combineSBomsFromStringsTo(files, new SBomCombinerOptions(), out,
+						format);
+				assertSameBom(format + " In Memory", expected, format.createParser().parse(out
+						.toByteArray()));
+				
+				SBomCombinerOptions options = new SBomCombinerOptions();
+				options.setExternalMerge(true);
+				options.setMemoryBudget(4 * 1024);
+				options.setTempDirectory(folder.getRoot().toPath());
+				options.setReport(new CombineReport());
+				out = new ByteArrayOutputStream();
+				SBomCombiner.combineSBomsFromStringsTo(files, options, out, format);
+				assertSameBom(format + " External", expected, format.createParser().parse(out
+						.toByteArray()));
+				Assert.assertEquals(format + " Components Out", expected.getComponents().size(),
+						options.getReport().getComponentsOut());
+			}
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while testing writing out a combined SBom!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+	
+	/**
+	 * (U) This method checks that an SBom read back from the stream is the same as the one
+	 * combined.
+	 * 
+	 * @param test     String value of what is being tested.
+	 * @param expected Bom combined.
+	 * @param actual   Bom read back.
+	 */
+	private void assertSameBom(String test, Bom expected, Bom actual)
+	{
+		Assert.assertEquals(test + " Tools", expected.getMetadata().getTools(), actual
+				.getMetadata().getTools());
+		Assert.assertEquals(test + " Components", expected.getComponents(), actual
+				.getComponents());
+		Assert.assertEquals(test + " Dependencies", expected.getDependencies().size(), actual
+				.getDependencies().size());
+		for (int i = 0; i < expected.getDependencies().size(); i++)
+		{
+			Dependency expectedDep = expected.getDependencies().get(i);
+			Dependency actualDep = actual.getDependencies().get(i);
+			Assert.assertEquals(test + " Dependency", expectedDep.getRef(), actualDep.getRef());
+			Assert.assertEquals(test + " Inner Dependencies", refs(expectedDep), refs(actualDep));
+		}
+	}
+	
+	/**
+	 * (U) This method gets the refs a dependency depends on (an empty list when it has none).
+	 * 
+	 * @param dependency Dependency to get the refs of.
+	 * @return List of Strings that are the refs depended on.
+	 */
+	private List<String> refs(Dependency dependency)
+	{
+		if (dependency.getDependencies() == null)
+			return Collections.emptyList();
+		List<String> refs = new ArrayList<>();
+		for (Dependency inner : dependency.getDependencies())
+			refs.add(inner.getRef());
+		return refs;
+	}
+}
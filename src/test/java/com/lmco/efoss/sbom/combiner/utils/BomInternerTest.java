@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.utils;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.Hash;
+import org.junit.Assert;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import com.lmco.efoss.sbom.commons.test.utils.Log4JTestWatcher;
+import com.lmco.efoss.sbom.commons.test.utils.TestUtils;
+import com.lmco.efoss.sbom.commons.utils.DateUtils;
+
+/**
+ * (U) JUnit test for the BomInterner class.
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ */
+public class BomInternerTest
+{
+	private static final String LOG4J_FILE = "SbomCombinerAppender.xml";
+	
+	@ClassRule
+	public static Log4JTestWatcher watcher = new Log4JTestWatcher(LOG4J_FILE,
+			"BomInternerTest");
+	
+	private String sbomsDir = "./src/test/resources/sboms/";
+	private String commonsSbom = "sbomcommons.json";
+	private String comparatorSbom = "sbomcomparator.xml";
+	
+	/**
+	 * (U) This Unit test, tests that the repeated values of a combined SBom are shared, and that
+	 * the combined SBom is the same as without interning.
+	 */
+	@Test
+	public void combineInternedTest()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+		
+		Date startDate = DateUtils.rightNowDate();
+		
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+		
+		try
+		{
+			List<String> fileNames = new ArrayList<String>();
+			fileNames.add(sbomsDir + commonsSbom);
+			fileNames.add(sbomsDir + comparatorSbom);
+			
+			Bom expectedBom = SBomCombiner.combineSBomsFromStrings(fileNames);
+			
+			SBomCombinerOptions options = new SBomCombinerOptions();
+			options.setInterning(true);
+			Bom combinedBom = SBomCombiner.combineSBomsFromStrings(fileNames, options);
+			Assert.assertEquals("Components", expectedBom.getComponents(),
+					combinedBom.getComponents());
+			
+			String group = null;
+			String algorithm = null;
+			for (Component component : combinedBom.getComponents())
+			{
+				if ("org.springframework.boot".equals(component.getGroup()))
+				{
+					if (group == null)
+						group = component.getGroup();
+					Assert.assertSame("Group", group, component.getGroup());
+				}
+				if (component.getHashes() != null)
+				{
+					for (Hash hash : component.getHashes())
+					{
+						if ("SHA-1".equals(hash.getAlgorithm()))
+						{
+							if (algorithm == null)
+								algorithm = hash.getAlgorithm();
+							Assert.assertSame("Algorithm", algorithm, hash.getAlgorithm());
+						}
+					}
+				}
+			}
+			Assert.assertNotNull("Spring Boot group found", group);
+			Assert.assertNotNull("SHA-1 found", algorithm);
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while testing interning!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+}
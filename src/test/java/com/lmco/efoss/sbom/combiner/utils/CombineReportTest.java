@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.utils;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.cyclonedx.model.Bom;
+import org.junit.Assert;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import com.lmco.efoss.sbom.commons.test.utils.Log4JTestWatcher;
+import com.lmco.efoss.sbom.commons.test.utils.TestUtils;
+import com.lmco.efoss.sbom.commons.utils.DateUtils;
+
+/**
+ * (U) JUnit test for the CombineReport class.
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ */
+public class CombineReportTest
+{
+	private static final String LOG4J_FILE = "SbomCombinerAppender.xml";
+	
+	@ClassRule
+	public static Log4JTestWatcher watcher = new Log4JTestWatcher(LOG4J_FILE,
+			"CombineReportTest");
+	
+	private String sbomsDir = "./src/test/resources/sboms/";
+	private String commonsSbom = "sbomcommons.json";
+	private String comparatorSbom = "sbomcomparator.xml";
+	
+	/**
+	 * (U) This Unit test, tests that the report of a combine (one at a time, and in parallel)
+	 * matches the SBoms read in and the combined SBom, and that an asynchronous combine fills it
+	 * in too.
+	 */
+	@Test
+	public void reportTest()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+		
+		Date startDate = DateUtils.rightNowDate();
+		
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+		
+		try
+		{
+			List<String> fileNames = new ArrayList<String>();
+			fileNames.add(sbomsDir + commonsSbom);
+			fileNames.add(sbomsDir + comparatorSbom);
+			fileNames.add(sbomsDir + commonsSbom);
+			
+			CombineReport report = new CombineReport();
+			SBomCombinerOptions options = new SBomCombinerOptions();
+			options.setReport(report);
+			Bom combinedBom = SBomCombiner.combineSBomsFromStrings(fileNames, options);
+			
+			watcher.getLogger().debug(report);
+			checkReport(report, fileNames, combinedBom);
+			
+			options.setParallelism(2);
+			combinedBom = SBomCombiner.combineSBomsFromStrings(fileNames, options);
+			checkReport(report, fileNames, combinedBom);
+			
+			// An asynchronous combine fills in the report of the options it was given.
+			report = new CombineReport();
+			options.setReport(report);
+			ExecutorService executor = Executors.newSingleThreadExecutor();
+			try
+			{
+				combinedBom = SBomCombiner.combineSBomsFromStringsAsync(fileNames, options,
+						executor).get();
+			}
+			finally
+			{
+				executor.shutdown();
+			}
+			checkReport(report, fileNames, combinedBom);
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while testing the combine report!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+	
+	/**
+	 * (U) This method checks a report against the SBoms read in and the combined SBom.
+	 * 
+	 * @param report      CombineReport to check.
+	 * @param fileNames   List of the file names combined.
+	 * @param combinedBom Bom the combined SBom.
+	 * @throws Exception in the event an SBom can not be read.
+	 */
+	private static void checkReport(CombineReport report, List<String> fileNames,
+			Bom combinedBom) throws Exception
+	{
+		Assert.assertEquals("Inputs", fileNames.size(), report.getInputs().size());
+		
+		long componentsIn = 0;
+		for (int i = 0; i < fileNames.size(); i++)
+		{
+			CombineReport.InputStats input = report.getInputs().get(i);
+			Assert.assertEquals("Index", i, input.getIndex());
+			Assert.assertEquals("Name", fileNames.get(i), input.getName());
+			Assert.assertEquals("Bytes", new File(fileNames.get(i)).length(), input.getBytes());
+			componentsIn += SBomCombiner.getBomFile(fileNames.get(i)).getComponents().size();
+		}
+		
+		Assert.assertEquals("Components in", componentsIn, report.getComponentsIn());
+		Assert.assertEquals("Components out", combinedBom.getComponents().size(),
+				report.getComponentsOut());
+		Assert.assertTrue("Duplicate components", report.getDuplicateComponents() > 0);
+		Assert.assertEquals("Dependencies out", combinedBom.getDependencies().size(),
+				report.getDependenciesOut());
+		Assert.assertEquals("Tools out", combinedBom.getMetadata().getTools().size(),
+				report.getToolsOut());
+		Assert.assertTrue("Total time", report.getTotalNanos() >= report.getMergeNanos());
+		Assert.assertFalse("Result cache hit", report.isResultCacheHit());
+	}
+}
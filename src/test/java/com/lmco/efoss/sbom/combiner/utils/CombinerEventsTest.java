@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.utils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.cyclonedx.model.Bom;
+import org.junit.Assert;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import com.lmco.efoss.sbom.commons.test.utils.Log4JTestWatcher;
+import com.lmco.efoss.sbom.commons.test.utils.TestUtils;
+import com.lmco.efoss.sbom.commons.utils.DateUtils;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * (U) JUnit test for the CombinerEvents class.
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ */
+public class CombinerEventsTest
+{
+	private static final String LOG4J_FILE = "SbomCombinerAppender.xml";
+	private static final String PREFIX = "com.lmco.efoss.sbom.combiner.";
+	
+	@ClassRule
+	public static Log4JTestWatcher watcher = new Log4JTestWatcher(LOG4J_FILE,
+			"CombinerEventsTest");
+	
+	private String sbomsDir = "./src/test/resources/sboms/";
+	private String commonsSbom = "sbomcommons.json";
+	private String comparatorSbom = "sbomcomparator.xml";
+	
+	/**
+	 * (U) This Unit test, tests that a combine, while it is being recorded, records an event for
+	 * each SBom read in, and for each phase of merging it, with the sizes of the combine.
+	 */
+	@Test
+	public void recordCombineTest()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+		
+		Date startDate = DateUtils.rightNowDate();
+		
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+		
+		Path recordingFile = null;
+		try
+		{
+			List<String> fileNames = Arrays.asList(sbomsDir + commonsSbom, sbomsDir +
+					comparatorSbom);
+			
+			Bom combined;
+			try (Recording recording = new Recording())
+			{
+				for (String event : Arrays.asList("BomParse", "ComponentMerge", "DependencyMerge",
+						"ToolsMerge", "OuterComponents"))
+					recording.enable(PREFIX + event);
+				recording.start();
+				combined = SBomCombiner.combineSBomsFromStrings(fileNames);
+				recording.stop();
+				
+				recordingFile = Files.createTempFile("combine", ".jfr");
+				recording.dump(recordingFile);
+			}
+			
+			List<RecordedEvent> parses = new ArrayList<>();
+			List<RecordedEvent> componentMerges = new ArrayList<>();
+			List<RecordedEvent> outerPasses = new ArrayList<>();
+			int dependencyMerges = 0;
+			int toolsMerges = 0;
+			for (RecordedEvent event : RecordingFile.readAllEvents(recordingFile))
+			{
+				String name = event.getEventType().getName();
+				if (name.equals(PREFIX + "BomParse"))
+					parses.add(event);
+				else if (name.equals(PREFIX + "ComponentMerge"))
+					componentMerges.add(event);
+				else if (name.equals(PREFIX + "OuterComponents"))
+					outerPasses.add(event);
+				else if (name.equals(PREFIX + "DependencyMerge"))
+					dependencyMerges++;
+				else if (name.equals(PREFIX + "ToolsMerge"))
+					toolsMerges++;
+			}
+			
+			Assert.assertEquals("Parse Events", fileNames.size(), parses.size());
+			for (RecordedEvent parse : parses)
+			{
+				Assert.assertTrue("Parse Source", fileNames.contains(parse.getString("source")));
+				Assert.assertEquals("Parse Size", Files.size(Paths.get(parse
+						.getString("source"))), parse.getLong("bytes"));
+				Assert.assertTrue("Parse Components", parse.getInt("components") > 0);
+			}
+			
+			Assert.assertEquals("Component Merge Events", fileNames.size(), componentMerges
+					.size());
+			Assert.assertEquals("Dependency Merge Events", fileNames.size(), dependencyMerges);
+			Assert.assertEquals("Tools Merge Events", fileNames.size(), toolsMerges);
+			Assert.assertEquals("Outer Component Events", 1, outerPasses.size());
+			
+			int added = 0;
+			for (RecordedEvent merge : componentMerges)
+				added += merge.getInt("added");
+			Assert.assertEquals("Components", combined.getComponents().size(), added + outerPasses
+					.get(0).getInt("added"));
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while recording a combine!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			try
+			{
+				if (recordingFile != null)
+					Files.deleteIfExists(recordingFile);
+			}
+			catch (Exception e)
+			{
+				watcher.getLogger().warn("Unable to delete the recording.", e);
+			}
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+	
+	/**
+	 * (U) This method records the events, with the names passed in, of a combine.
+	 * 
+	 * @param fileNames List of the file names of the SBoms to combine.
+	 * @param options   SBomCombinerOptions to combine with.
+	 * @param events    Strings that are the names (without the prefix) of the events to record.
+	 * @return List of RecordedEvents recorded.
+	 * @throws Exception in the event the combine, or recording, fails.
+	 */
+	private static List<RecordedEvent> record(List<String> fileNames, SBomCombinerOptions options,
+			String... events) throws Exception
+	{
+		Path recordingFile = Files.createTempFile("combine", ".jfr");
+		try
+		{
+			try (Recording recording = new Recording())
+			{
+				for (String event : events)
+					recording.enable(PREFIX + event);
+				recording.start();
+				SBomCombiner.combineSBomsFromStrings(fileNames, options);
+				recording.stop();
+				recording.dump(recordingFile);
+			}
+			return RecordingFile.readAllEvents(recordingFile);
+		}
+		finally
+		{
+			Files.deleteIfExists(recordingFile);
+		}
+	}
+	
+	/**
+	 * (U) This method counts the recorded events with the name passed in.
+	 * 
+	 * @param recorded List of RecordedEvents.
+	 * @param event    String value of the name (without the prefix) of the event to count.
+	 * @return int the number of them.
+	 */
+	private static int count(List<RecordedEvent> recorded, String event)
+	{
+		int count = 0;
+		for (RecordedEvent recordedEvent : recorded)
+		{
+			if (recordedEvent.getEventType().getName().equals(PREFIX + event))
+				count++;
+		}
+		return count;
+	}
+	
+	/**
+	 * (U) This Unit test, tests that streamed SBoms, tree merges, and combines spilled to disk
+	 * record an event for each of their phases.
+	 */
+	@Test
+	public void recordCombinePathsTest()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+		
+		Date startDate = DateUtils.rightNowDate();
+		
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+		
+		try
+		{
+			List<String> fileNames = Arrays.asList(sbomsDir + commonsSbom, sbomsDir +
+					comparatorSbom, sbomsDir + commonsSbom);
+			
+			SBomCombinerOptions options = new SBomCombinerOptions();
+			options.setStreaming(true);
+			List<RecordedEvent> recorded = record(fileNames, options, "BomStream");
+			Assert.assertEquals("Stream Events", fileNames.size(), count(recorded, "BomStream"));
+			for (RecordedEvent stream : recorded)
+			{
+				if (stream.getEventType().getName().equals(PREFIX + "BomStream"))
+					Assert.assertEquals("Stream Size", Files.size(Paths.get(stream.getString(
+							"source"))), stream.getLong("bytes"));
+			}
+			
+			options = new SBomCombinerOptions();
+			options.setTreeMerge(true);
+			options.setParallelism(2);
+			recorded = record(fileNames, options, "MergerMerge");
+			Assert.assertEquals("Merger Merge Events", fileNames.size() - 1, count(recorded,
+					"MergerMerge"));
+			
+			options = new SBomCombinerOptions();
+			options.setExternalMerge(true);
+			options.setMemoryBudget(4096);
+			recorded = record(fileNames, options, "ExternalSpill", "ExternalRunMerge",
+					"OuterComponents");
+			Assert.assertTrue("Spill Events", count(recorded, "ExternalSpill") > 0);
+			Assert.assertEquals("Run Merge Events", 2, count(recorded, "ExternalRunMerge"));
+			Assert.assertEquals("Outer Component Events", 1, count(recorded, "OuterComponents"));
+			for (RecordedEvent runMerge : recorded)
+			{
+				if (runMerge.getEventType().getName().equals(PREFIX + "ExternalRunMerge"))
+					Assert.assertTrue("Unique Records", runMerge.getLong("unique") > 0);
+			}
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while recording the paths of a combine!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.utils;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.cyclonedx.model.Bom;
+import org.junit.Assert;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import com.lmco.efoss.sbom.commons.test.utils.Log4JTestWatcher;
+import com.lmco.efoss.sbom.commons.test.utils.TestUtils;
+import com.lmco.efoss.sbom.commons.utils.DateUtils;
+
+/**
+ * (U) JUnit test for the CombinerSession class.
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ */
+public class CombinerSessionTest
+{
+	private static final String LOG4J_FILE = "SbomCombinerAppender.xml";
+	
+	@ClassRule
+	public static Log4JTestWatcher watcher = new Log4JTestWatcher(LOG4J_FILE,
+			"CombinerSessionTest");
+	
+	private String sbomsDir = "./src/test/resources/sboms/";
+	private String commonsSbom = "sbomcommons.json";
+	private String comparatorSbom = "sbomcomparator.xml";
+	
+	/**
+	 * (U) This Unit test, tests adding SBoms to a session one at a time. Each snapshot should be
+	 * the combine of the SBoms added so far, and should not change when more SBoms are added.
+	 */
+	@Test
+	public void addAndSnapshotTest()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+		
+		Date startDate = DateUtils.rightNowDate();
+		
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+		
+		try (InputStream comparatorInputStream = Thread.currentThread().getContextClassLoader()
+				.getResourceAsStream("sboms/" + comparatorSbom))
+		{
+			CombinerSession session = new CombinerSession();
+			
+			session.add(sbomsDir + commonsSbom);
+			Bom first = session.snapshot();
+			int firstComponents = first.getComponents().size();
+			
+			session.add(new MockMultipartFile("compatatorBom.xml", comparatorInputStream));
+			Bom second = session.snapshot();
+			
+			List<String> fileNames = new ArrayList<String>();
+			fileNames.add(sbomsDir + commonsSbom);
+			fileNames.add(sbomsDir + comparatorSbom);
+			Bom expectedBom = SBomCombiner.combineSBomsFromStrings(fileNames);
+			
+			Assert.assertEquals("Bom Count", 2, session.getBomCount());
+			Assert.assertEquals("First Snapshot", firstComponents, first.getComponents().size());
+			Assert.assertEquals("Components", expectedBom.getComponents(),
+					second.getComponents());
+			Assert.assertEquals("Dependencies", expectedBom.getDependencies().size(),
+					second.getDependencies().size());
+			Assert.assertEquals("Tools", expectedBom.getMetadata().getTools(),
+					second.getMetadata().getTools());
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while adding SBoms to a session!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+}
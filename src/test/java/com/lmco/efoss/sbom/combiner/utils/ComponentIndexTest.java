@@ -0,0 +1,307 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Component;
+import org.cyclonedx.model.ExternalReference;
+import org.cyclonedx.model.Hash;
+import org.cyclonedx.model.License;
+import org.cyclonedx.model.LicenseChoice;
+import org.cyclonedx.model.Metadata;
+import org.cyclonedx.model.Property;
+import org.junit.Assert;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import com.lmco.efoss.sbom.commons.test.utils.Log4JTestWatcher;
+import com.lmco.efoss.sbom.commons.test.utils.TestUtils;
+import com.lmco.efoss.sbom.commons.utils.DateUtils;
+
+/**
+ * (U) JUnit test for the ComponentIndex class.
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ */
+public class ComponentIndexTest
+{
+	private static final String LOG4J_FILE = "SbomCombinerAppender.xml";
+	
+	@ClassRule
+	public static Log4JTestWatcher watcher = new Log4JTestWatcher(LOG4J_FILE,
+			"ComponentIndexTest");
+	
+	/**
+	 * (U) This method is used to create a component for the tests.
+	 * 
+	 * @param name    String value of the component's name.
+	 * @param group   String value of the component's group.
+	 * @param version String value of the component's version.
+	 * @return Component created.
+	 */
+	private static Component createComponent(String name, String group, String version)
+	{
+		Component component = new Component();
+		component.setName(name);
+		component.setGroup(group);
+		component.setVersion(version);
+		return component;
+	}
+	
+	/**
+	 * (U) This Unit test, tests that duplicates (same name, group, and version) are dropped and
+	 * the first one seen is the one kept.
+	 */
+	@Test
+	public void addDuplicatesTest()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+		
+		Date startDate = DateUtils.rightNowDate();
+		
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+		
+		try
+		{
+			ComponentIndex index = new ComponentIndex();
+			Component first = createComponent("log4j", "log4j", "1.2.12");
+			
+			Assert.assertTrue(index.add(first));
+			Assert.assertTrue(index.add(createComponent("junit", "junit", "4.13.1")));
+			Assert.assertFalse(index.add(createComponent("log4j", "log4j", "1.2.12")));
+			Assert.assertTrue(index.add(createComponent("log4j", "log4j", "1.2.17")));
+			Assert.assertTrue(index.add(createComponent("log4j", null, "1.2.12")));
+			Assert.assertFalse(index.add(createComponent("log4j", null, "1.2.12")));
+			
+			List<Component> components = index.getComponents();
+			Assert.assertEquals("Components", 4, components.size());
+			Assert.assertSame("First seen", first, components.get(0));
+			Assert.assertEquals("Order", "junit", components.get(1).getName());
+			Assert.assertEquals("Order", "1.2.17", components.get(2).getVersion());
+			Assert.assertSame("Get", first, index.get(new ComponentKey("log4j", "log4j",
+					"1.2.12")));
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while testing adding duplicate components!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+	
+	/**
+	 * (U) This method is used to create a component, with attributes, for the merge tests.
+	 * 
+	 * @param hash       String value of the component's SHA-256 hash.
+	 * @param licenseId  String value of the component's license id.
+	 * @param url        String value of the component's website.
+	 * @param type       ExternalReference.Type of the website, may be null.
+	 * @param properties Strings that are the values of the component's "level" properties.
+	 * @return Component created.
+	 */
+	private static Component createComponent(String hash, String licenseId, String url,
+			ExternalReference.Type type, String... properties)
+	{
+		Component component = createComponent("log4j", "log4j", "1.2.12");
+		component.setHashes(new ArrayList<>(Arrays.asList(new Hash(Hash.Algorithm.SHA_256,
+				hash))));
+		
+		License license = new License();
+		license.setId(licenseId);
+		LicenseChoice choice = new LicenseChoice();
+		choice.addLicense(license);
+		component.setLicenseChoice(choice);
+		
+		ExternalReference ref = new ExternalReference();
+		ref.setUrl(url);
+		ref.setType(type);
+		component.addExternalReference(ref);
+		
+		List<Property> propertyList = new ArrayList<>();
+		for (String value : properties)
+		{
+			Property property = new Property();
+			property.setName("level");
+			property.setValue(value);
+			propertyList.add(property);
+		}
+		component.setProperties(propertyList);
+		return component;
+	}
+	
+	/**
+	 * (U) This Unit test, tests that an index merging duplicates folds their hashes, licenses,
+	 * external references, and properties into the component kept, without changing the
+	 * components added, and that merging two indexes gives the same components as adding them
+	 * all to one.
+	 */
+	@Test
+	public void mergeDuplicatesTest()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+		
+		Date startDate = DateUtils.rightNowDate();
+		
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+		
+		try
+		{
+			Component first = createComponent("aa", "MIT", "https://a.example", null, "1");
+			Component same = createComponent("aa", "MIT", "https://a.example",
+					ExternalReference.Type.OTHER, "1");
+			Component second = createComponent("bb", "Apache-2.0", "https://b.example",
+					ExternalReference.Type.WEBSITE, "1", "2");
+			
+			ComponentIndex dropping = new ComponentIndex();
+			dropping.add(first);
+			dropping.add(second);
+			Assert.assertSame("Dropped", first, dropping.getComponents().get(0));
+			
+			ComponentIndex nothingNew = new ComponentIndex(true);
+			nothingNew.add(first);
+			Assert.assertFalse(nothingNew.add(same));
+			Assert.assertSame("Nothing New", first, nothingNew.getComponents().get(0));
+			
+			ComponentIndex index = new ComponentIndex(true);
+			Assert.assertTrue(index.add(first));
+			Assert.assertFalse(index.add(same));
+			Assert.assertFalse(index.add(second));
+			List<Component> components = index.getComponents();
+			Assert.assertEquals("Components", 1, components.size());
+			
+			Component merged = components.get(0);
+			Assert.assertNotSame("Copied", first, merged);
+			Assert.assertEquals("Hashes", Arrays.asList("aa", "bb"), Arrays.asList(merged
+					.getHashes().get(0).getValue(), merged.getHashes().get(1).getValue()));
+			Assert.assertEquals("Licenses", 2, merged.getLicenseChoice().getLicenses().size());
+			Assert.assertEquals("License", "Apache-2.0", merged.getLicenseChoice().getLicenses()
+					.get(1).getId());
+			Assert.assertEquals("References", 2, merged.getExternalReferences().size());
+			Assert.assertEquals("Reference Type", ExternalReference.Type.OTHER, merged
+					.getExternalReferences().get(0).getType());
+			Assert.assertEquals("Properties", 2, merged.getProperties().size());
+			Assert.assertEquals("Property", "2", merged.getProperties().get(1).getValue());
+			Assert.assertEquals("Survivor Hashes", 1, first.getHashes().size());
+			Assert.assertEquals("Survivor Properties", 1, first.getProperties().size());
+			Assert.assertNull("Survivor Reference Type", first.getExternalReferences().get(0)
+					.getType());
+			
+			Component withExpression = createComponent("aa", "MIT", "https://a.example", null,
+					"1");
+			LicenseChoice expressionChoice = new LicenseChoice();
+			expressionChoice.setExpression("MIT OR Apache-2.0");
+			withExpression.setLicenseChoice(expressionChoice);
+			ComponentIndex ignored = new ComponentIndex(true);
+			ignored.add(first);
+			ignored.add(withExpression);
+			Assert.assertSame("Expression Ignored", first, ignored.getComponents().get(0));
+			
+			ComponentIndex left = new ComponentIndex(true);
+			left.add(first);
+			ComponentIndex right = new ComponentIndex(true);
+			right.add(same);
+			right.add(second);
+			left.addAll(right);
+			Assert.assertEquals("Merged Indexes", components, left.getComponents());
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while testing merging duplicate components!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+	
+	/**
+	 * (U) This method creates the metadata of an SBom, with an outer component.
+	 * 
+	 * @param component Component that is the SBom's outer component.
+	 * @return Metadata created.
+	 */
+	private static Metadata createMetadata(Component component)
+	{
+		Metadata metadata = new Metadata();
+		metadata.setComponent(component);
+		return metadata;
+	}
+	
+	/**
+	 * (U) This Unit test, tests that a merger merging duplicates folds the outer (metadata)
+	 * components that duplicate a component, or each other, into the one kept, without changing
+	 * the merger.
+	 */
+	@Test
+	public void mergeOuterComponentsTest()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+		
+		Date startDate = DateUtils.rightNowDate();
+		
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+		
+		try
+		{
+			Component first = createComponent("aa", "MIT", "https://a.example", null, "1");
+			Component outerSame = createComponent("bb", "MIT", "https://a.example", null, "1");
+			Component outer = createComponent("junit", "junit", "4.13.1");
+			outer.setHashes(new ArrayList<>(Arrays.asList(new Hash(Hash.Algorithm.SHA_256,
+					"cc"))));
+			Component outerDuplicate = createComponent("junit", "junit", "4.13.1");
+			outerDuplicate.setHashes(new ArrayList<>(Arrays.asList(new Hash(
+					Hash.Algorithm.SHA_256, "dd"))));
+			
+			BomMerger merger = new BomMerger(null, true);
+			merger.component(first);
+			merger.metadata(createMetadata(outerSame));
+			merger.metadata(createMetadata(outer));
+			merger.metadata(createMetadata(outerDuplicate));
+			
+			Bom combined = merger.toBom();
+			List<Component> components = combined.getComponents();
+			Assert.assertEquals("Components", 2, components.size());
+			Assert.assertEquals("Folded Hashes", 2, components.get(0).getHashes().size());
+			Assert.assertEquals("Outer Hashes", 2, components.get(1).getHashes().size());
+			Assert.assertEquals("Outer Hash", "dd", components.get(1).getHashes().get(1)
+					.getValue());
+			Assert.assertEquals("Survivor Hashes", 1, first.getHashes().size());
+			Assert.assertEquals("Outer Survivor Hashes", 1, outer.getHashes().size());
+			
+			Assert.assertEquals("Unique Components", 1, merger.getUniqueComponents());
+			Assert.assertEquals("Built Again", components, merger.toBom().getComponents());
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while testing merging outer components!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.utils;
+
+import java.util.Date;
+import java.util.List;
+
+import org.cyclonedx.model.Dependency;
+import org.junit.Assert;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import com.lmco.efoss.sbom.commons.test.utils.Log4JTestWatcher;
+import com.lmco.efoss.sbom.commons.test.utils.TestUtils;
+import com.lmco.efoss.sbom.commons.utils.DateUtils;
+
+/**
+ * (U) JUnit test for the DependencyGraph class.
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ */
+public class DependencyGraphTest
+{
+	private static final String LOG4J_FILE = "SbomCombinerAppender.xml";
+	
+	@ClassRule
+	public static Log4JTestWatcher watcher = new Log4JTestWatcher(LOG4J_FILE,
+			"DependencyGraphTest");
+	
+	/**
+	 * (U) This method is used to create a dependency for the tests.
+	 * 
+	 * @param ref       String value of the dependency's ref.
+	 * @param dependsOn String values of the inner dependencies refs.
+	 * @return Dependency created.
+	 */
+	private static Dependency createDependency(String ref, String... dependsOn)
+	{
+		Dependency dependency = new Dependency(ref);
+		for (String innerRef : dependsOn)
+			dependency.addDependency(new Dependency(innerRef));
+		return dependency;
+	}
+	
+	/**
+	 * (U) This Unit test, tests that merging the same dependencies more than once does not
+	 * duplicate the inner dependencies, and that the first seen order is kept.
+	 */
+	@Test
+	public void mergeDependenciesTest()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+		
+		Date startDate = DateUtils.rightNowDate();
+		
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+		
+		try
+		{
+			DependencyGraph graph = new DependencyGraph();
+			
+			for (int i = 0; i < 3; i++)
+			{
+				graph.add(createDependency("a", "b", "c"));
+				graph.add(createDependency("b", "c"));
+				graph.add(new Dependency("c"));
+			}
+			Assert.assertFalse(graph.add(createDependency("a", "d", "b")));
+			Assert.assertTrue(graph.add(createDependency("d")));
+			
+			List<Dependency> dependencies = graph.getDependencies();
+			Assert.assertEquals("Dependencies", 4, dependencies.size());
+			
+			Dependency a = dependencies.get(0);
+			Assert.assertEquals("Ref", "a", a.getRef());
+			Assert.assertEquals("Inner Dependencies", 3, a.getDependencies().size());
+			Assert.assertEquals("Inner Order", "b", a.getDependencies().get(0).getRef());
+			Assert.assertEquals("Inner Order", "c", a.getDependencies().get(1).getRef());
+			Assert.assertEquals("Inner Order", "d", a.getDependencies().get(2).getRef());
+			
+			Assert.assertEquals("Inner Dependencies", 1,
+					dependencies.get(1).getDependencies().size());
+			Assert.assertNull("No Inner Dependencies", dependencies.get(2).getDependencies());
+			Assert.assertEquals("Ref", "d", dependencies.get(3).getRef());
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while testing merging dependencies!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+}
@@ -0,0 +1,283 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.utils;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.concurrent.CancellationException;
+
+import org.cyclonedx.model.Bom;
+import org.junit.Assert;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.lmco.efoss.sbom.commons.test.utils.Log4JTestWatcher;
+import com.lmco.efoss.sbom.commons.test.utils.TestUtils;
+import com.lmco.efoss.sbom.commons.utils.DateUtils;
+
+/**
+ * (U) JUnit test for the ExternalMerger class.
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ */
+public class ExternalMergerTest
+{
+	private static final String LOG4J_FILE = "SbomCombinerAppender.xml";
+	
+	@ClassRule
+	public static Log4JTestWatcher watcher = new Log4JTestWatcher(LOG4J_FILE,
+			"ExternalMergerTest");
+	
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	
+	private String sbomsDir = "./src/test/resources/sboms/";
+	private String[] sboms = { "licenseBom.xml", "sbomcommons.json", "sbomcomparator.xml",
+			"combinedBom.xml" };
+	
+	/**
+	 * (U) This Unit test, tests that a merger forced to write out many runs (enough to be merged
+	 * together along the way) gives the same components and dependencies as the BomMerger, and
+	 * cleans up after itself.
+	 */
+	@Test
+	public void spillTest()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+		
+		Date startDate = DateUtils.rightNowDate();
+		
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+		
+		try
+		{
+			BomMerger expected = new BomMerger();
+			File tempDirectory = folder.newFolder();
+			Bom combinedBom;
+			try (ExternalMerger merger = new ExternalMerger(1, tempDirectory.toPath(), null))
+			{
+				for (String sbom : sboms)
+				{
+					expected.merge(SBomCombiner.getBomFile(sbomsDir + sbom));
+					merger.merge(SBomCombiner.getBomFile(sbomsDir + sbom));
+				}
+				Assert.assertTrue("Runs written", merger.getSpillCount() >
+						ExternalSorter.MAX_RUNS);
+				
+				combinedBom = merger.toBom();
+				Assert.assertEquals("Unique Components", expected.getUniqueComponents(), merger
+						.getUniqueComponents());
+				Assert.assertEquals("Components In", expected.getComponentsIn(), merger
+						.getComponentsIn());
+			}
+			Assert.assertEquals("Files left", 0, tempDirectory.list().length);
+			
+			Bom expectedBom = expected.toBom();
+			Assert.assertEquals("Components", expectedBom.getComponents(), combinedBom
+					.getComponents());
+			Assert.assertEquals("Dependencies", expectedBom.getDependencies().size(), combinedBom
+					.getDependencies().size());
+			for (int i = 0; i < expectedBom.getDependencies().size(); i++)
+			{
+				Assert.assertEquals("Dependency", expectedBom.getDependencies().get(i).getRef(),
+						combinedBom.getDependencies().get(i).getRef());
+				Assert.assertEquals("Inner Dependencies", expectedBom.getDependencies().get(i)
+						.getDependencies(), combinedBom.getDependencies().get(i)
+								.getDependencies());
+			}
+			Assert.assertEquals("Tools", expectedBom.getMetadata().getTools(), combinedBom
+					.getMetadata().getTools());
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while testing spilling the combine to disk!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+	
+	/**
+	 * (U) This Unit test, tests that a merger under its memory budget never writes to disk.
+	 */
+	@Test
+	public void inMemoryTest()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+		
+		Date startDate = DateUtils.rightNowDate();
+		
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+		
+		try
+		{
+			BomMerger expected = new BomMerger();
+			File tempDirectory = folder.newFolder();
+			try (ExternalMerger merger = new ExternalMerger(Long.MAX_VALUE, tempDirectory
+					.toPath(), new BomInterner()))
+			{
+				for (String sbom : sboms)
+				{
+					expected.merge(SBomCombiner.getBomFile(sbomsDir + sbom));
+					merger.merge(SBomCombiner.getBomFile(sbomsDir + sbom));
+				}
+				Bom combinedBom = merger.toBom();
+				
+				Assert.assertEquals("Runs written", 0, merger.getSpillCount());
+				Assert.assertEquals("Files written", 0, tempDirectory.list().length);
+				Assert.assertEquals("Components", expected.toBom().getComponents(), combinedBom
+						.getComponents());
+			}
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while testing an in memory combine!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+	
+	/**
+	 * (U) This Unit test, tests that a combine spilled to disk can not be set to merge duplicates,
+	 * whichever of the two options is set first.
+	 */
+	@Test
+	public void mergeDuplicatesRejectedTest()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+		
+		Date startDate = DateUtils.rightNowDate();
+		
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+		
+		try
+		{
+			SBomCombinerOptions options = new SBomCombinerOptions();
+			options.setExternalMerge(true);
+			try
+			{
+				options.setMergeDuplicates(true);
+				Assert.fail("Merged duplicates in a combine spilled to disk!");
+			}
+			catch (IllegalArgumentException e)
+			{
+				watcher.getLogger().debug("Got expected exception: " + e.getMessage());
+			}
+			Assert.assertFalse("Merge Duplicates", options.isMergeDuplicates());
+			
+			options.setExternalMerge(false);
+			options.setMergeDuplicates(true);
+			try
+			{
+				options.setExternalMerge(true);
+				Assert.fail("Spilled a combine merging duplicates to disk!");
+			}
+			catch (IllegalArgumentException e)
+			{
+				watcher.getLogger().debug("Got expected exception: " + e.getMessage());
+			}
+			Assert.assertFalse("External Merge", options.isExternalMerge());
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+	
+	/**
+	 * (U) This Unit test, tests that a cancelled combine spilled to disk stops both while merging
+	 * and while merging the runs back together, and still cleans up after itself.
+	 */
+	@Test
+	public void cancelTest()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+		
+		Date startDate = DateUtils.rightNowDate();
+		
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+		
+		try
+		{
+			File tempDirectory = folder.newFolder();
+			try (ExternalMerger merger = new ExternalMerger(1, tempDirectory.toPath(), null))
+			{
+				CombineCancellation cancellation = new CombineCancellation(0);
+				merger.setCancellation(cancellation);
+				for (String sbom : sboms)
+					merger.merge(SBomCombiner.getBomFile(sbomsDir + sbom));
+				Assert.assertTrue("Runs written", merger.getSpillCount() > 0);
+				
+				cancellation.cancel();
+				try
+				{
+					merger.merge(SBomCombiner.getBomFile(sbomsDir + sboms[0]));
+					Assert.fail("Merged into a cancelled combine!");
+				}
+				catch (CancellationException e)
+				{
+					watcher.getLogger().debug("Got expected exception: " + e.getMessage());
+				}
+				
+				ExternalSorter<String> sorter = new ExternalSorter<>(tempDirectory.toPath(),
+						"sbom-test-", null, String::compareTo, null);
+				sorter.setCancellation(cancellation);
+				try (ExternalSorter<String>.Merge merge = sorter.merge(new ArrayList<>(Arrays
+						.asList("b", "a"))))
+				{
+					merge.next();
+					Assert.fail("Merged the runs of a cancelled combine!");
+				}
+				catch (CancellationException e)
+				{
+					watcher.getLogger().debug("Got expected exception: " + e.getMessage());
+				}
+				
+				try
+				{
+					merger.toBom();
+					Assert.fail("Built a cancelled combine!");
+				}
+				catch (CancellationException e)
+				{
+					watcher.getLogger().debug("Got expected exception: " + e.getMessage());
+				}
+			}
+			Assert.assertEquals("Files left", 0, tempDirectory.list().length);
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while testing cancelling a combine " +
+					"spilled to disk!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+}
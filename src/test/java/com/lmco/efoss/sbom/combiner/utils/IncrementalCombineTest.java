@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.utils;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Dependency;
+import org.junit.Assert;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import com.lmco.efoss.sbom.commons.test.utils.Log4JTestWatcher;
+import com.lmco.efoss.sbom.commons.test.utils.TestUtils;
+import com.lmco.efoss.sbom.commons.utils.DateUtils;
+
+/**
+ * (U) JUnit test for the IncrementalCombine class.
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ */
+public class IncrementalCombineTest
+{
+	private static final String LOG4J_FILE = "SbomCombinerAppender.xml";
+	
+	@ClassRule
+	public static Log4JTestWatcher watcher = new Log4JTestWatcher(LOG4J_FILE,
+			"IncrementalCombineTest");
+	
+	private String sbomsDir = "./src/test/resources/sboms/";
+	private String licenseSbom = "licenseBom.xml";
+	private String commonsSbom = "sbomcommons.json";
+	private String comparatorSbom = "sbomcomparator.xml";
+	private String combinedSbom = "combinedBom.xml";
+	
+	/**
+	 * (U) This Unit test, tests replacing, and removing, SBoms in an incremental combine. After
+	 * each change the combined SBom should be the same as a full combine of the SBoms it holds.
+	 */
+	@Test
+	public void replaceAndRemoveTest()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+		
+		Date startDate = DateUtils.rightNowDate();
+		
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+		
+		try
+		{
+			IncrementalCombine combine = new IncrementalCombine();
+			combine.set(0, sbomsDir + licenseSbom);
+			combine.set(1, sbomsDir + commonsSbom);
+			combine.set(2, sbomsDir + comparatorSbom);
+			assertSameBom("Initial", combine.toBom(), licenseSbom, commonsSbom, comparatorSbom);
+			
+			combine.set(1, sbomsDir + combinedSbom);
+			assertSameBom("Replaced", combine.toBom(), licenseSbom, combinedSbom,
+					comparatorSbom);
+			
+			Assert.assertTrue("Removed", combine.remove(0));
+			Assert.assertFalse("Removed Again", combine.remove(0));
+			assertSameBom("Removed", combine.toBom(), combinedSbom, comparatorSbom);
+			
+			combine.set(0, sbomsDir + commonsSbom);
+			assertSameBom("Added", combine.toBom(), commonsSbom, combinedSbom, comparatorSbom);
+			Assert.assertEquals("Input Count", 3, combine.getInputCount());
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while updating an incremental combine!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+	
+	/**
+	 * (U) This method checks that a combined SBom is the same as a full combine of the SBoms
+	 * passed in.
+	 * 
+	 * @param test   String value of what is being tested.
+	 * @param actual Bom combined incrementally.
+	 * @param sboms  Strings that are the SBoms to fully combine.
+	 * @throws Exception in the event the full combine fails.
+	 */
+	private void assertSameBom(String test, Bom actual, String... sboms) throws Exception
+	{
+		List<String> fileNames = new ArrayList<String>();
+		for (String sbom : sboms)
+			fileNames.add(sbomsDir + sbom);
+		Bom expected = SBomCombiner.combineSBomsFromStrings(fileNames);
+		
+		Assert.assertEquals(test + " Components", expected.getComponents(), actual
+				.getComponents());
+		Assert.assertEquals(test + " Tools", expected.getMetadata().getTools(), actual
+				.getMetadata().getTools());
+		Assert.assertEquals(test + " Dependencies", expected.getDependencies().size(), actual
+				.getDependencies().size());
+		for (int i = 0; i < expected.getDependencies().size(); i++)
+		{
+			Dependency expectedDep = expected.getDependencies().get(i);
+			Dependency actualDep = actual.getDependencies().get(i);
+			Assert.assertEquals(test + " Dependency", expectedDep.getRef(), actualDep.getRef());
+			Assert.assertEquals(test + " Inner Dependencies", refs(expectedDep), refs(actualDep));
+		}
+	}
+	
+	/**
+	 * (U) This method gets the refs a dependency depends on.
+	 * 
+	 * @param dependency Dependency to get the refs of.
+	 * @return List of Strings that are the refs depended on.
+	 */
+	private List<String> refs(Dependency dependency)
+	{
+		List<String> refs = new ArrayList<>();
+		if (dependency.getDependencies() != null)
+		{
+			for (Dependency inner : dependency.getDependencies())
+				refs.add(inner.getRef());
+		}
+		return refs;
+	}
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.cyclonedx.model.Bom;
+import org.junit.Assert;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import com.lmco.efoss.sbom.commons.test.utils.Log4JTestWatcher;
+import com.lmco.efoss.sbom.commons.test.utils.TestUtils;
+import com.lmco.efoss.sbom.commons.utils.DateUtils;
+
+/**
+ * (U) JUnit test for the PartialCombine class.
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ */
+public class PartialCombineTest
+{
+	private static final String LOG4J_FILE = "SbomCombinerAppender.xml";
+	private static final int SHARDS = 3;
+	
+	@ClassRule
+	public static Log4JTestWatcher watcher = new Log4JTestWatcher(LOG4J_FILE,
+			"PartialCombineTest");
+	
+	private String sbomsDir = "./src/test/resources/sboms/";
+	private String[] sboms = { "licenseBom.xml", "sbomcommons.json", "sbomcomparator.xml",
+			"combinedBom.xml", "sbomcommons.json" };
+	
+	/**
+	 * (U) This Unit test, tests that partial combines of each shard, built on two "agents" from
+	 * different inputs, written out and read back in, then merged (in no particular order), give
+	 * the same combined SBom as combining all the inputs at once.
+	 */
+	@Test
+	public void mergePartialsTest()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+		
+		Date startDate = DateUtils.rightNowDate();
+		
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+		
+		try
+		{
+			List<String> fileNames = new ArrayList<String>();
+			for (String sbom : sboms)
+				fileNames.add(sbomsDir + sbom);
+			Bom expectedBom = SBomCombiner.combineSBomsFromStrings(fileNames);
+			
+			// The odd inputs on one agent, the even on the other.
+			List<byte[]> written = new ArrayList<>();
+			for (int agent = 0; agent < 2; agent++)
+			{
+				for (int shard = 0; shard < SHARDS; shard++)
+				{
+					PartialCombine partial = new PartialCombine(SHARDS, shard);
+					for (int input = agent; input < fileNames.size(); input += 2)
+						partial.add(input, SBomCombiner.getBomFile(fileNames.get(input)));
+					
+					ByteArrayOutputStream out = new ByteArrayOutputStream();
+					partial.write(out);
+					written.add(out.toByteArray());
+				}
+			}
+			
+			PartialCombine combined = null;
+			for (int i = written.size() - 1; i >= 0; i--)
+			{
+				PartialCombine partial = PartialCombine.read(new ByteArrayInputStream(written.get(
+						i)));
+				if (combined == null)
+					combined = partial;
+				else
+					combined.merge(partial);
+				Assert.assertEquals("Complete", i <= written.size() - SHARDS, combined
+						.isComplete());
+			}
+			Bom combinedBom = combined.toBom();
+			
+			Assert.assertEquals("Components", expectedBom.getComponents(), combinedBom
+					.getComponents());
+			Assert.assertEquals("Dependencies", expectedBom.getDependencies().size(), combinedBom
+					.getDependencies().size());
+			for (int i = 0; i < expectedBom.getDependencies().size(); i++)
+			{
+				Assert.assertEquals("Dependency", expectedBom.getDependencies().get(i).getRef(),
+						combinedBom.getDependencies().get(i).getRef());
+				Assert.assertEquals("Inner Dependencies", expectedBom.getDependencies().get(i)
+						.getDependencies(), combinedBom.getDependencies().get(i)
+								.getDependencies());
+			}
+			Assert.assertEquals("Tools", expectedBom.getMetadata().getTools(), combinedBom
+					.getMetadata().getTools());
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while testing merging partial combines!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+	
+	/**
+	 * (U) This Unit test, tests that partial combines of a different number of shards can not be
+	 * merged.
+	 */
+	@Test
+	public void mismatchedShardsTest()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+		
+		Date startDate = DateUtils.rightNowDate();
+		
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+		
+		try
+		{
+			PartialCombine partial = new PartialCombine(2, 0);
+			partial.merge(new PartialCombine(3, 1));
+			Assert.fail("Merged partial combines of a different number of shards!");
+		}
+		catch (IllegalArgumentException e)
+		{
+			watcher.getLogger().debug("Got expected exception: " + e.getMessage());
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+}
@@ -9,15 +9,29 @@
  */
 package com.lmco.efoss.sbom.combiner.utils;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.cyclonedx.model.Bom;
+import org.cyclonedx.model.Dependency;
 import org.junit.Assert;
 import org.junit.ClassRule;
 import org.junit.Test;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.InputStreamSource;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.web.multipart.MultipartFile;
@@ -26,6 +40,7 @@ import com.lmco.efoss.sbom.combiner.exceptions.SBomCombinerException;
 import com.lmco.efoss.sbom.commons.test.utils.Log4JTestWatcher;
 import com.lmco.efoss.sbom.commons.test.utils.TestUtils;
 import com.lmco.efoss.sbom.commons.utils.DateUtils;
+import com.lmco.efoss.sbom.commons.utils.SBomCommonsException;
 
 /**
  * (U) JUnit test for the SBomCombiner class.
@@ -44,6 +59,8 @@ public class SBomCombinerTest
 	private String sbomsDir = "./src/test/resources/sboms/";
 	private String commonsSbom = "sbomcommons.json";
 	private String comparatorSbom = "sbomcomparator.xml";
+	private String licenseSbom = "licenseBom.xml";
+	private String combinedSbom = "combinedBom.xml";
 	
 	/**
 	 * (U) This Unit test, to test the combining of files from a list of file names (Strings).
@@ -341,6 +358,9 @@ public class SBomCombinerTest
 					commonsBom.getComponents().size());
 			Assert.assertEquals("Dependencies", expectedDependencies.longValue(),
 					commonsBom.getDependencies().size());
+			Assert.assertEquals("Spec Version", "1.2", commonsBom.getSpecVersion());
+			Assert.assertEquals("Upload Spec Version", "1.2", SBomCombiner.getBomFile(
+					new FileSystemResource(sbomsDir + commonsSbom)).getSpecVersion());
 			
 		}
 		catch (Exception e)
@@ -411,6 +431,13 @@ public class SBomCombinerTest
 					bom.getComponents().size());
 			Assert.assertEquals("Dependencies", expectedDependencies.longValue(),
 					bom.getDependencies().size());
+			for (String xmlSbom : Arrays.asList(comparatorSbom, licenseSbom, combinedSbom))
+			{
+				Assert.assertEquals(xmlSbom + " Spec Version", "1.2", SBomCombiner.getBomFile(
+						sbomsDir + xmlSbom).getSpecVersion());
+				Assert.assertEquals(xmlSbom + " Upload Spec Version", "1.2", SBomCombiner
+						.getBomFile(new FileSystemResource(sbomsDir + xmlSbom)).getSpecVersion());
+			}
 			
 		}
 		catch (Exception e)
@@ -424,4 +451,670 @@ public class SBomCombinerTest
 			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
 		}
 	}
+	
+	/**
+	 * (U) This Unit test, to test the combining of files from a list of file names (Strings) when
+	 * they are read in parallel. The combined SBom should be the same (and in the same order) as
+	 * when they are read in one at a time.
+	 */
+	@Test
+	public void combineListOfFileNamesStringParallel()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+		
+		Date startDate = DateUtils.rightNowDate();
+		
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+		
+		try
+		{
+			List<String> fileNames = new ArrayList<String>();
+			for (int i = 0; i < 4; i++)
+			{
+				fileNames.add(sbomsDir + commonsSbom);
+				fileNames.add(sbomsDir + comparatorSbom);
+			}
+			
+			Bom expectedBom = SBomCombiner.combineSBomsFromStrings(fileNames);
+			
+			SBomCombinerOptions options = new SBomCombinerOptions();
+			options.setParallelism(4);
+			Bom combinedBom = SBomCombiner.combineSBomsFromStrings(fileNames, options);
+			
+			Assert.assertEquals("Components", expectedBom.getComponents().size(),
+					combinedBom.getComponents().size());
+			for (int i = 0; i < expectedBom.getComponents().size(); i++)
+			{
+				Assert.assertEquals("Component Order",
+						ComponentKey.of(expectedBom.getComponents().get(i)),
+						ComponentKey.of(combinedBom.getComponents().get(i)));
+			}
+			Assert.assertEquals("Dependencies", expectedBom.getDependencies(),
+					combinedBom.getDependencies());
+			Assert.assertEquals("Tools", expectedBom.getMetadata().getTools().size(),
+					combinedBom.getMetadata().getTools().size());
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempting to combine SBoms in " +
+					"parallel via List of file names (Strings)!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+	
+	/**
+	 * (U) This Unit test, to test the File Not Found from a list of file names (Strings) when they
+	 * are read in parallel.
+	 */
+	@Test
+	public void combineListOfFileNamesStringParallelFileNotFoundTest()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+		
+		Date startDate = DateUtils.rightNowDate();
+		
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+		
+		try
+		{
+			List<String> fileNames = new ArrayList<String>();
+			for (int i = 0; i < 4; i++)
+				fileNames.add(sbomsDir + commonsSbom);
+			fileNames.add(sbomsDir + "somebogusFile.xml");
+			for (int i = 0; i < 4; i++)
+				fileNames.add(sbomsDir + comparatorSbom);
+			
+			SBomCombinerOptions options = new SBomCombinerOptions();
+			options.setParallelism(3);
+			
+			Exception exception = Assert.assertThrows(SBomCombinerException.class, () ->
+			{
+				SBomCombiner.combineSBomsFromStrings(fileNames, options);
+			});
+			
+			String expectedMessage = "somebogusFile.xml) does NOT exist!";
+			String actualMessage = exception.getMessage();
+			
+			if (!actualMessage.contains(expectedMessage))
+				watcher.getLogger().error("Actual error message does NOT contain expected " +
+						"message!\n	Expected: " + expectedMessage + "\n	" + actualMessage);
+			else
+				watcher.getLogger().debug("Got expected Error message: " + actualMessage);
+			
+			Assert.assertTrue(actualMessage.contains(expectedMessage));
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while testing file NOT found in parallel!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+	
+	/**
+	 * (U) This Unit test, tests that when more than one SBom read in parallel fails, the failure
+	 * thrown is that of the first one passed in, even when a later one fails first.
+	 */
+	@Test
+	public void combineListOfInputStreamSourceParallelFirstFailureTest()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+		
+		Date startDate = DateUtils.rightNowDate();
+		
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+		
+		try
+		{
+			CountDownLatch laterFailed = new CountDownLatch(1);
+			List<InputStreamSource> files = new ArrayList<InputStreamSource>();
+			files.add(() ->
+			{
+				try
+				{
+					laterFailed.await(30, TimeUnit.SECONDS);
+				}
+				catch (InterruptedException e)
+				{
+					Thread.currentThread().interrupt();
+				}
+				throw new IOException("First failure");
+			});
+			files.add(new FileSystemResource(sbomsDir + commonsSbom));
+			files.add(() ->
+			{
+				laterFailed.countDown();
+				throw new IOException("Later failure");
+			});
+			files.add(new FileSystemResource(sbomsDir + comparatorSbom));
+			
+			SBomCombinerOptions options = new SBomCombinerOptions();
+			options.setParallelism(3);
+			
+			Exception exception = Assert.assertThrows(SBomCombinerException.class, () ->
+			{
+				SBomCombiner.combineSBomsFromInputStreamSource(files, options);
+			});
+			Assert.assertEquals("Failure", "First failure", exception.getCause().getMessage());
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while testing the first failure in parallel!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+	
+	/**
+	 * (U) This Unit test, to test the streaming of files from a list of file names (Strings) into
+	 * the combine. The combined SBom should be the same as when each file is read into a Bom.
+	 */
+	@Test
+	public void combineListOfFileNamesStringStreaming()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+		
+		Date startDate = DateUtils.rightNowDate();
+		
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+		
+		try
+		{
+			List<String> fileNames = new ArrayList<String>();
+			fileNames.add(sbomsDir + commonsSbom);
+			fileNames.add(sbomsDir + comparatorSbom);
+			fileNames.add(sbomsDir + licenseSbom);
+			fileNames.add(sbomsDir + combinedSbom);
+			fileNames.add(sbomsDir + commonsSbom);
+			
+			Bom expectedBom = SBomCombiner.combineSBomsFromStrings(fileNames);
+			
+			SBomCombinerOptions options = new SBomCombinerOptions();
+			options.setStreaming(true);
+			Bom combinedBom = SBomCombiner.combineSBomsFromStrings(fileNames, options);
+			
+			assertSameBom(expectedBom, combinedBom);
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempting to stream SBoms via List " +
+					"of file names (Strings)!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+	
+	/**
+	 * (U) This Unit test, tests that a source that fails while being streamed into the combine is
+	 * reported with what went wrong as the cause.
+	 */
+	@Test
+	public void combineListOfInputStreamSourceStreamingFailureTest()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+		
+		Date startDate = DateUtils.rightNowDate();
+		
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+		
+		try
+		{
+			List<InputStreamSource> files = new ArrayList<InputStreamSource>();
+			files.add(new FileSystemResource(sbomsDir + commonsSbom));
+			files.add(() ->
+			{
+				throw new IOException("Upload dropped");
+			});
+			
+			SBomCombinerOptions options = new SBomCombinerOptions();
+			options.setStreaming(true);
+			Exception exception = Assert.assertThrows(SBomCombinerException.class, () ->
+			{
+				SBomCombiner.combineSBomsFromInputStreamSource(files, options);
+			});
+			Assert.assertNotNull("Cause", exception.getCause());
+			Assert.assertEquals("Cause", "Upload dropped", exception.getCause().getMessage());
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while testing a source that fails while " +
+					"being streamed!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+	
+	/**
+	 * (U) This Unit test, tests that merging the SBoms as a fork-join tree gives the same combined
+	 * SBom as merging them one at a time.
+	 */
+	@Test
+	public void combineListOfFileNamesStringTreeMerge()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+		
+		Date startDate = DateUtils.rightNowDate();
+		
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+		
+		try
+		{
+			List<String> fileNames = new ArrayList<String>();
+			fileNames.add(sbomsDir + licenseSbom);
+			fileNames.add(sbomsDir + commonsSbom);
+			fileNames.add(sbomsDir + comparatorSbom);
+			fileNames.add(sbomsDir + combinedSbom);
+			fileNames.add(sbomsDir + commonsSbom);
+			
+			Bom expectedBom = SBomCombiner.combineSBomsFromStrings(fileNames);
+			
+			SBomCombinerOptions options = new SBomCombinerOptions();
+			options.setTreeMerge(true);
+			options.setParallelism(3);
+			options.setInterning(true);
+			Bom combinedBom = SBomCombiner.combineSBomsFromStrings(fileNames, options);
+			
+			assertSameBom(expectedBom, combinedBom);
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempting to tree merge SBoms via " +
+					"List of file names (Strings)!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+	
+	/**
+	 * (U) This Unit test, tests that spilling the combine to disk (with a memory budget small
+	 * enough to force many runs) gives the same combined SBom as combining in memory.
+	 */
+	@Test
+	public void combineListOfFileNamesStringExternalMerge()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+		
+		Date startDate = DateUtils.rightNowDate();
+		
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+		
+		try
+		{
+			List<String> fileNames = new ArrayList<String>();
+			fileNames.add(sbomsDir + licenseSbom);
+			fileNames.add(sbomsDir + commonsSbom);
+			fileNames.add(sbomsDir + comparatorSbom);
+			fileNames.add(sbomsDir + combinedSbom);
+			fileNames.add(sbomsDir + commonsSbom);
+			
+			Bom expectedBom = SBomCombiner.combineSBomsFromStrings(fileNames);
+			
+			SBomCombinerOptions options = new SBomCombinerOptions();
+			options.setExternalMerge(true);
+			options.setMemoryBudget(4096);
+			options.setInterning(true);
+			Bom combinedBom = SBomCombiner.combineSBomsFromStrings(fileNames, options);
+			
+			assertSameBom(expectedBom, combinedBom);
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempting to combine SBoms on " +
+					"disk via List of file names (Strings)!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+	
+	/**
+	 * (U) This Unit test, tests that combining the SBoms split into shards gives the same
+	 * combined SBom as merging them one at a time.
+	 */
+	@Test
+	public void combineListOfFileNamesStringSharded()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+		
+		Date startDate = DateUtils.rightNowDate();
+		
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+		
+		try
+		{
+			List<String> fileNames = new ArrayList<String>();
+			fileNames.add(sbomsDir + licenseSbom);
+			fileNames.add(sbomsDir + commonsSbom);
+			fileNames.add(sbomsDir + comparatorSbom);
+			fileNames.add(sbomsDir + combinedSbom);
+			fileNames.add(sbomsDir + commonsSbom);
+			
+			Bom expectedBom = SBomCombiner.combineSBomsFromStrings(fileNames);
+			
+			SBomCombinerOptions options = new SBomCombinerOptions();
+			options.setShards(4);
+			options.setParallelism(2);
+			options.setInterning(true);
+			Bom combinedBom = SBomCombiner.combineSBomsFromStrings(fileNames, options);
+			
+			assertSameBom(expectedBom, combinedBom);
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempting to combine SBoms in " +
+					"shards via List of file names (Strings)!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+	
+	/**
+	 * (U) This Unit test, tests that reading the sources a bounded number at a time gives the same
+	 * combined SBom as reading them one at a time, and that a source that fails is named in the
+	 * exception thrown.
+	 */
+	@Test
+	public void combineListOfInputStreamSourceConcurrent()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+		
+		Date startDate = DateUtils.rightNowDate();
+		
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+		
+		try
+		{
+			List<InputStreamSource> files = new ArrayList<InputStreamSource>();
+			files.add(new FileSystemResource(sbomsDir + licenseSbom));
+			files.add(new FileSystemResource(sbomsDir + commonsSbom));
+			files.add(new FileSystemResource(sbomsDir + comparatorSbom));
+			files.add(new FileSystemResource(sbomsDir + combinedSbom));
+			files.add(new FileSystemResource(sbomsDir + commonsSbom));
+			
+			Bom expectedBom = SBomCombiner.combineSBomsFromInputStreamSource(files);
+			
+			SBomCombinerOptions options = new SBomCombinerOptions();
+			options.setSourceConcurrency(2);
+			Bom combinedBom = SBomCombiner.combineSBomsFromInputStreamSource(files, options);
+			
+			assertSameBom(expectedBom, combinedBom);
+			
+			files.add(2, () ->
+			{
+				throw new IOException("Upload dropped");
+			});
+			Exception exception = Assert.assertThrows(SBomCombinerException.class, () ->
+			{
+				SBomCombiner.combineSBomsFromInputStreamSource(files, options);
+			});
+			Assert.assertTrue("Message", exception.getMessage().contains("Input 2"));
+			Assert.assertTrue("Cause", exception.getCause() instanceof SBomCombinerException);
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempting to combine SBoms read in " +
+					"concurrently via List of InputStreamSource!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+	
+	/**
+	 * (U) This Unit test, tests that a file that fails to read in, when reading a bounded number at
+	 * a time, is named in an exception of the same type thrown when reading them one at a time.
+	 */
+	@Test
+	public void combineListOfFileNamesStringConcurrentFailureTest()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+		
+		Date startDate = DateUtils.rightNowDate();
+		
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+		
+		Path badFile = null;
+		try
+		{
+			badFile = Files.createTempFile("badBom", ".json");
+			Files.write(badFile, "{ \"bomFormat\": ".getBytes(StandardCharsets.UTF_8));
+			
+			List<String> fileNames = new ArrayList<String>();
+			fileNames.add(sbomsDir + commonsSbom);
+			fileNames.add(badFile.toString());
+			fileNames.add(sbomsDir + comparatorSbom);
+			
+			Assert.assertThrows(SBomCommonsException.class, () ->
+			{
+				SBomCombiner.combineSBomsFromStrings(fileNames);
+			});
+			
+			SBomCombinerOptions options = new SBomCombinerOptions();
+			options.setSourceConcurrency(2);
+			Exception exception = Assert.assertThrows(SBomCommonsException.class, () ->
+			{
+				SBomCombiner.combineSBomsFromStrings(fileNames, options);
+			});
+			Assert.assertTrue("Message", exception.getMessage().contains("Input 1"));
+			Assert.assertTrue("Cause", exception.getCause() instanceof SBomCommonsException);
+			
+			fileNames.set(1, sbomsDir + "somebogusFile.xml");
+			exception = Assert.assertThrows(SBomCombinerException.class, () ->
+			{
+				SBomCombiner.combineSBomsFromStrings(fileNames, options);
+			});
+			Assert.assertTrue("Message", exception.getMessage().contains("Input 1"));
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while testing a file that fails to read in " +
+					"concurrently!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			try
+			{
+				if (badFile != null)
+					Files.deleteIfExists(badFile);
+			}
+			catch (IOException e)
+			{
+				watcher.getLogger().warn("Unable to delete " + badFile, e);
+			}
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+	
+	/**
+	 * (U) This Unit test, tests that an asynchronous combine gives the same combined SBom, and
+	 * that one stuck reading a source is stopped promptly when cancelled or past its deadline.
+	 */
+	@Test
+	public void combineListOfInputStreamSourceAsync()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+		
+		Date startDate = DateUtils.rightNowDate();
+		
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+		
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try
+		{
+			List<InputStreamSource> files = new ArrayList<InputStreamSource>();
+			files.add(new FileSystemResource(sbomsDir + licenseSbom));
+			files.add(new FileSystemResource(sbomsDir + commonsSbom));
+			files.add(new FileSystemResource(sbomsDir + comparatorSbom));
+			
+			Bom expectedBom = SBomCombiner.combineSBomsFromInputStreamSource(files);
+			SBomCombinerOptions options = new SBomCombinerOptions();
+			Bom combinedBom = SBomCombiner.combineSBomsFromInputStreamSourceAsync(files, options,
+					executor).get(30, TimeUnit.SECONDS);
+			assertSameBom(expectedBom, combinedBom);
+			
+			// A source that never finishes opening, until its thread is interrupted.
+			CountDownLatch stopped = new CountDownLatch(2);
+			files.add(1, () ->
+			{
+				try
+				{
+					Thread.sleep(Long.MAX_VALUE);
+				}
+				catch (InterruptedException e)
+				{
+					stopped.countDown();
+				}
+				throw new IOException("Upload abandoned");
+			});
+			
+			CompletableFuture<Bom> cancelled = SBomCombiner
+					.combineSBomsFromInputStreamSourceAsync(files, options, executor);
+			Thread.sleep(100);
+			cancelled.cancel(true);
+			Assert.assertTrue("Cancelled", cancelled.isCancelled());
+			
+			CompletableFuture<Bom> timedOut = SBomCombiner.combineSBomsFromInputStreamSourceAsync(
+					files, options, executor, 100, TimeUnit.MILLISECONDS);
+			ExecutionException exception = Assert.assertThrows(ExecutionException.class, () ->
+			{
+				timedOut.get(30, TimeUnit.SECONDS);
+			});
+			Assert.assertTrue("Timed out", exception.getCause() instanceof TimeoutException);
+			
+			Assert.assertTrue("Stopped", stopped.await(30, TimeUnit.SECONDS));
+			
+			// Both stopped combines have let go of the (single) thread.
+			Assert.assertNotNull("Executor free", SBomCombiner
+					.combineSBomsFromInputStreamSourceAsync(files.subList(2, 4), options,
+							executor).get(30, TimeUnit.SECONDS));
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while attempting to combine SBoms " +
+					"asynchronously via List of InputStreamSource!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			executor.shutdownNow();
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+	
+	/**
+	 * (U) This Unit test, tests that a finished combine only clears the interrupt it sent the
+	 * thread, not one from anywhere else (such as its executor shutting down).
+	 */
+	@Test
+	public void combineCancellationInterruptTest()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+		
+		Date startDate = DateUtils.rightNowDate();
+		
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+		
+		try
+		{
+			CombineCancellation cancelled = new CombineCancellation(0);
+			Assert.assertTrue("Started", cancelled.start(Thread.currentThread()));
+			cancelled.cancel();
+			Assert.assertTrue("Interrupted", Thread.currentThread().isInterrupted());
+			cancelled.finish();
+			Assert.assertFalse("Own Interrupt Cleared", Thread.currentThread().isInterrupted());
+			
+			CombineCancellation finished = new CombineCancellation(0);
+			Assert.assertTrue("Started", finished.start(Thread.currentThread()));
+			Thread.currentThread().interrupt();
+			finished.finish();
+			Assert.assertTrue("Other Interrupt Kept", Thread.interrupted());
+		}
+		finally
+		{
+			Thread.interrupted();
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+	
+	/**
+	 * (U) This method is used to check that two combined SBoms have the same components (in the
+	 * same order), dependencies (with the same inner dependencies), and tools.
+	 * 
+	 * @param expectedBom Bom we expected.
+	 * @param combinedBom Bom we got.
+	 */
+	private static void assertSameBom(Bom expectedBom, Bom combinedBom)
+	{
+		Assert.assertEquals("Components", expectedBom.getComponents().size(),
+				combinedBom.getComponents().size());
+		for (int i = 0; i < expectedBom.getComponents().size(); i++)
+		{
+			Assert.assertEquals("Component", expectedBom.getComponents().get(i),
+					combinedBom.getComponents().get(i));
+		}
+		
+		Assert.assertEquals("Dependencies", expectedBom.getDependencies().size(),
+				combinedBom.getDependencies().size());
+		for (int i = 0; i < expectedBom.getDependencies().size(); i++)
+		{
+			Dependency expected = expectedBom.getDependencies().get(i);
+			Dependency combined = combinedBom.getDependencies().get(i);
+			Assert.assertEquals("Dependency", expected.getRef(), combined.getRef());
+			Assert.assertEquals("Inner Dependencies", expected.getDependencies(),
+					combined.getDependencies());
+		}
+		
+		Assert.assertEquals("Tools", expectedBom.getMetadata().getTools(),
+				combinedBom.getMetadata().getTools());
+	}
 }
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2018,2019 Lockheed Martin Corporation.
+ *
+ * This work is owned by Lockheed Martin Corporation. Lockheed Martin personnel are permitted to use and
+ * modify this software.  Lockheed Martin personnel may also deliver this source code to any US Government
+ * customer Agency under a "US Government Purpose Rights" license.
+ *
+ * See the LICENSE file distributed with this work for licensing and distribution terms
+ */
+package com.lmco.efoss.sbom.combiner.utils;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import org.cyclonedx.model.Tool;
+import org.junit.Assert;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import com.lmco.efoss.sbom.commons.test.utils.Log4JTestWatcher;
+import com.lmco.efoss.sbom.commons.test.utils.TestUtils;
+import com.lmco.efoss.sbom.commons.utils.DateUtils;
+import com.lmco.efoss.sbom.commons.utils.ToolsUtils;
+
+/**
+ * (U) JUnit test for the ToolIndex class.
+ * 
+ * @author wrgoff
+ * @since 17 October 2026
+ */
+public class ToolIndexTest
+{
+	private static final String LOG4J_FILE = "SbomCombinerAppender.xml";
+	
+	@ClassRule
+	public static Log4JTestWatcher watcher = new Log4JTestWatcher(LOG4J_FILE, "ToolIndexTest");
+	
+	/**
+	 * (U) This method is used to create a tool for the tests.
+	 * 
+	 * @param vendor  String value of the tool's vendor.
+	 * @param name    String value of the tool's name.
+	 * @param version String value of the tool's version.
+	 * @return Tool created.
+	 */
+	private static Tool createTool(String vendor, String name, String version)
+	{
+		Tool tool = new Tool();
+		tool.setVendor(vendor);
+		tool.setName(name);
+		tool.setVersion(version);
+		return tool;
+	}
+	
+	/**
+	 * (U) This Unit test, tests that adding many lists of tools gives the same tools, in the same
+	 * order, as ToolsUtils.addUniqueTools does.
+	 */
+	@Test
+	public void sameAsAddUniqueToolsTest()
+	{
+		String methodName = new Object()
+		{}.getClass().getEnclosingMethod().getName();
+		
+		Date startDate = DateUtils.rightNowDate();
+		
+		TestUtils.logTestStart(methodName, watcher.getLogger());
+		
+		try
+		{
+			Random random = new Random(24);
+			String[] vendors = { "CycloneDX", "Lockheed Martin", null };
+			ToolIndex index = new ToolIndex();
+			List<Tool> expected = new ArrayList<>();
+			for (int input = 0; input < 50; input++)
+			{
+				List<Tool> tools = new ArrayList<>();
+				for (int i = random.nextInt(6); i > 0; i--)
+				{
+					String vendor = vendors[random.nextInt(vendors.length)];
+					String version = (random.nextInt(4) == 0) ? null : "1." + random.nextInt(3);
+					tools.add(createTool(vendor, "tool-" + random.nextInt(8), version));
+				}
+				
+				expected = ToolsUtils.addUniqueTools(expected, tools);
+				index.addAll(tools);
+			}
+			
+			List<Tool> actual = index.getTools();
+			Assert.assertEquals("Tools", expected.size(), actual.size());
+			for (int i = 0; i < expected.size(); i++)
+				Assert.assertSame("Tool " + i, expected.get(i), actual.get(i));
+			
+			ToolIndex other = new ToolIndex();
+			Tool added = createTool("Other", "tool-0", "1.0");
+			Assert.assertTrue(other.add(added));
+			Assert.assertFalse(other.add(createTool("Other", "tool-0", "1.0")));
+			other.addAll(index);
+			index.addAll(other);
+			Assert.assertEquals("Merged Tools", expected.size() + 1, index.size());
+			Assert.assertSame("Merged Last", added, index.getTools().get(expected.size()));
+		}
+		catch (Exception e)
+		{
+			String error = "Unexpected error occured while testing adding tools!";
+			watcher.getLogger().error(error, e);
+			Assert.fail(error);
+		}
+		finally
+		{
+			TestUtils.logTestFinish(methodName, startDate, watcher.getLogger());
+		}
+	}
+}